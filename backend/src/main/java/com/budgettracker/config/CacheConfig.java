@@ -1,5 +1,6 @@
 package com.budgettracker.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
@@ -20,24 +21,22 @@ import java.util.concurrent.ConcurrentHashMap;
 public class CacheConfig {
 
     /**
-     * Configure cache manager with TTL support
+     * Configure cache manager with TTL support. Caches are wrapped so hit and
+     * miss counts are exported per cache name.
      */
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(MeterRegistry meterRegistry) {
         ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
-            "monthlyTrends",
-            "categoryBreakdown", 
-            "financialHealth",
-            "budgetAnalysis",
-            "savingsProgress",
             "enhancedFinancialHealth",
-            "spendingPatterns"
+            "spendingPatterns",
+            "marketPrices",
+            "marketQuotes"
         );
         
         // Set cache properties
         cacheManager.setAllowNullValues(false);
         
-        return cacheManager;
+        return new MeteredCacheManager(cacheManager, meterRegistry);
     }
 
     /**
@@ -0,0 +1,76 @@
+package com.budgettracker.config;
+
+import com.budgettracker.service.UserDataVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conditional GETs for read endpoints whose body depends only on the caller's
+ * own data and the current date.
+ *
+ * The ETag is derived from the user's data version, today's date and the
+ * request URI and query, so it can be checked before the controller runs: a
+ * matching If-None-Match is answered with 304 without any service work or
+ * queries. Requests whose principal is not an application user pass through
+ * untouched.
+ *
+ * The data version is read from the users row loaded with the principal, so
+ * every instance issues the same version for a user; only the epoch part
+ * differs per instance, which costs a 200 instead of a 304 when a client
+ * moves between instances but never serves a stale body.
+ */
+public class DataVersionEtagInterceptor implements HandlerInterceptor {
+
+    private final UserDataVersions userDataVersions;
+
+    private final AtomicLong tagged = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    public DataVersionEtagInterceptor(UserDataVersions userDataVersions) {
+        this.userDataVersions = userDataVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        Long userId = UserDataVersions.currentUserId();
+        if (userId == null) {
+            return true;
+        }
+
+        String etag = etagFor(userId, request);
+        // Revalidate on every use and keep out of shared caches
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        tagged.incrementAndGet();
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            notModified.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    String etagFor(Long userId, HttpServletRequest request) {
+        int resource = Objects.hash(userId, request.getRequestURI(), request.getQueryString());
+        return "\"" + Long.toHexString(userDataVersions.getEpoch())
+                + "-" + userDataVersions.current(userId)
+                + "-" + LocalDate.now().toEpochDay()
+                + "-" + Integer.toHexString(resource) + "\"";
+    }
+
+    public long getTaggedCount() {
+        return tagged.get();
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+}
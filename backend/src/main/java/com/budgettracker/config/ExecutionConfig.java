@@ -0,0 +1,53 @@
+package com.budgettracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerCustomizer;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Execution model for request handling, @Async and @Scheduled work.
+ *
+ * With spring.threads.virtual.enabled=true (the default here) Tomcat request
+ * handling, @Async methods and scheduled jobs all run on virtual threads, so
+ * blocking JDBC, SMTP and HTTP calls park cheaply instead of holding a
+ * platform thread. Each scheduled execution gets its own thread, so a slow
+ * job (bank sync, exchange rates, reminders, market data) no longer delays
+ * the others. With virtual threads disabled the scheduler falls back to a
+ * platform pool sized by spring.task.scheduling.pool.size.
+ *
+ * Failures in one job or async task are logged here and never stop other
+ * jobs from running.
+ */
+@Configuration
+public class ExecutionConfig implements AsyncConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    private static final ErrorHandler SCHEDULED_TASK_ERROR_HANDLER =
+            error -> logger.error("Scheduled task failed on {}", Thread.currentThread(), error);
+
+    @Bean
+    public SimpleAsyncTaskSchedulerCustomizer virtualThreadSchedulerCustomizer() {
+        return scheduler -> scheduler.setErrorHandler(SCHEDULED_TASK_ERROR_HANDLER);
+    }
+
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer platformThreadSchedulerCustomizer() {
+        return scheduler -> {
+            scheduler.setErrorHandler(SCHEDULED_TASK_ERROR_HANDLER);
+            scheduler.setRemoveOnCancelPolicy(true);
+        };
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (error, method, params) -> logger.error("Async task {}.{} failed",
+                method.getDeclaringClass().getSimpleName(), method.getName(), error);
+    }
+}
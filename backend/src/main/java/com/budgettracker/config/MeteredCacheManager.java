@@ -0,0 +1,162 @@
+package com.budgettracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a CacheManager so every cache reports cache.gets{result=hit|miss},
+ * cache.puts and cache.evictions per cache name. Counters are registered once
+ * per cache, so a lookup costs one counter increment and no allocation.
+ */
+public class MeteredCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final MeterRegistry registry;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public MeteredCacheManager(CacheManager delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return target == null ? null : caches.computeIfAbsent(name, key -> new MeteredCache(target, registry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    static final class MeteredCache implements Cache {
+
+        private final Cache target;
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter puts;
+        private final Counter evictions;
+
+        MeteredCache(Cache target, MeterRegistry registry) {
+            this.target = target;
+            String name = target.getName();
+            this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit")
+                    .description("Cache lookups that found a value").register(registry);
+            this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss")
+                    .description("Cache lookups that found no value").register(registry);
+            this.puts = Counter.builder("cache.puts").tag("cache", name).register(registry);
+            this.evictions = Counter.builder("cache.evictions").tag("cache", name).register(registry);
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return counted(target.get(key));
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return counted(target.get(key, type));
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            boolean[] loaded = {false};
+            T value = target.get(key, () -> {
+                loaded[0] = true;
+                return valueLoader.call();
+            });
+            (loaded[0] ? misses : hits).increment();
+            return value;
+        }
+
+        @Override
+        public CompletableFuture<?> retrieve(Object key) {
+            CompletableFuture<?> result = target.retrieve(key);
+            if (result == null) {
+                misses.increment();
+                return null;
+            }
+            return result.whenComplete((value, error) -> (value != null ? hits : misses).increment());
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            boolean[] loaded = {false};
+            CompletableFuture<T> result = target.retrieve(key, () -> {
+                loaded[0] = true;
+                return valueLoader.get();
+            });
+            (loaded[0] ? misses : hits).increment();
+            return result;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            puts.increment();
+            target.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            ValueWrapper existing = target.putIfAbsent(key, value);
+            if (existing == null) {
+                puts.increment();
+            }
+            return existing;
+        }
+
+        @Override
+        public void evict(Object key) {
+            evictions.increment();
+            target.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean evicted = target.evictIfPresent(key);
+            if (evicted) {
+                evictions.increment();
+            }
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            target.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            return target.invalidate();
+        }
+
+        private <T> T counted(T value) {
+            (value != null ? hits : misses).increment();
+            return value;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.budgettracker.config;
+
+import com.budgettracker.service.AnalyticsResponseCache;
+import com.budgettracker.service.MarketDataClient;
+import com.budgettracker.service.RetirementProjectionCache;
+import com.budgettracker.service.SymbolPriceTable;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application meters exported at /actuator/prometheus.
+ *
+ * Request timers (http.server.requests), repository timers
+ * (spring.data.repository.invocations), scheduled job timers
+ * (tasks.scheduled.execution) and the Hikari pool gauges are provided by
+ * Spring Boot; this class adds the in-process caches that are not Spring
+ * caches. All meters here read existing counters at scrape time, so they add
+ * nothing to the request path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder retirementProjectionCacheMetrics(RetirementProjectionCache cache) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", cache, RetirementProjectionCache::getHitCount)
+                    .tag("cache", "retirementProjections").tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, RetirementProjectionCache::getMissCount)
+                    .tag("cache", "retirementProjections").tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", cache, RetirementProjectionCache::getEvictionCount)
+                    .tag("cache", "retirementProjections")
+                    .register(registry);
+            Gauge.builder("cache.size", cache, RetirementProjectionCache::size)
+                    .tag("cache", "retirementProjections")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder analyticsResponseCacheMetrics(AnalyticsResponseCache cache) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", cache, AnalyticsResponseCache::getHitCount)
+                    .tag("cache", "analyticsResponses").tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, AnalyticsResponseCache::getMissCount)
+                    .tag("cache", "analyticsResponses").tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", cache, AnalyticsResponseCache::getEvictionCount)
+                    .tag("cache", "analyticsResponses")
+                    .register(registry);
+            Gauge.builder("cache.size", cache, AnalyticsResponseCache::size)
+                    .tag("cache", "analyticsResponses")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder marketDataMetrics(SymbolPriceTable symbolPriceTable, MarketDataClient marketDataClient) {
+        return registry -> {
+            Gauge.builder("market.prices.symbols", symbolPriceTable, SymbolPriceTable::size)
+                    .description("Symbols with a known latest price")
+                    .register(registry);
+            Gauge.builder("market.client.circuit.open", marketDataClient, client -> client.isCircuitOpen() ? 1 : 0)
+                    .tag("provider", marketDataClient.getProviderName())
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.budgettracker.config;
+
+import com.budgettracker.service.UserDataVersions;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything
+ * else to the primary.
+ *
+ * Reads fall back to the primary while the ReplicaLagMonitor reports the
+ * replica as lagging or down, and when opening a replica connection fails.
+ * Reads for a user whose data changed within the read-your-writes window
+ * (users.data_changed_at, set by UserDataVersions right after each write
+ * commits) also go to the primary, so a result computed right after a write
+ * (and cached or tagged under the new data version) cannot miss that write
+ * because the replica has not applied it yet.
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction's
+ * read-only flag is only set after the transaction manager asks for a
+ * connection.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Duration readYourWritesWindow;
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder readFallbacks = new LongAdder();
+    private final LongAdder recentWriteReads = new LongAdder();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                        Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesWindow = readYourWritesWindow;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (!lagMonitor.isAvailable()) {
+            readFallbacks.increment();
+            return PRIMARY;
+        }
+        if (UserDataVersions.currentUserChangedWithin(readYourWritesWindow)) {
+            recentWriteReads.increment();
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!REPLICA.equals(determineCurrentLookupKey())) {
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            lagMonitor.markUnavailable(e);
+            readFallbacks.increment();
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTargetDataSource().getConnection(username, password);
+    }
+
+    /**
+     * Get routing statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("primaryConnections", primaryConnections.sum());
+        stats.put("replicaConnections", replicaConnections.sum());
+        stats.put("readFallbacks", readFallbacks.sum());
+        stats.put("recentWriteReads", recentWriteReads.sum());
+        stats.put("replica", lagMonitor.getStatistics());
+        return stats;
+    }
+}
@@ -0,0 +1,110 @@
+package com.budgettracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks whether the read replica is reachable and close enough to the
+ * primary to serve reads.
+ *
+ * Replication lag is read from SHOW REPLICA STATUS (falling back to SHOW
+ * SLAVE STATUS on older MySQL). A server that reports no replication status
+ * is treated as current; stopped replication, lag above the limit or a
+ * failed connection mark the replica unavailable until the next check.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replicaDataSource;
+    private final long maxLagSeconds;
+
+    private volatile boolean available;
+    private volatile Long lagSeconds;
+    private volatile String lastError;
+    private volatile long lastCheckMillis;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagSeconds) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        boolean wasAvailable = available;
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            Long lag = readLag(statement);
+            lagSeconds = lag;
+            lastError = null;
+            available = lag != null && lag <= maxLagSeconds;
+            if (!available) {
+                lastError = lag == null ? "Replication is not running" : "Replica is " + lag + "s behind";
+            }
+        } catch (SQLException e) {
+            markUnavailable(e);
+        }
+        lastCheckMillis = System.currentTimeMillis();
+
+        if (wasAvailable != available) {
+            if (available) {
+                logger.info("Read replica available (lag {}s)", lagSeconds);
+            } else {
+                logger.warn("Read replica unavailable, routing reads to primary: {}", lastError);
+            }
+        }
+    }
+
+    /**
+     * Take the replica out of rotation until the next successful check
+     */
+    public void markUnavailable(SQLException error) {
+        available = false;
+        lastError = error.getMessage();
+    }
+
+    private static Long readLag(Statement statement) throws SQLException {
+        ResultSet status;
+        String lagColumn;
+        try {
+            status = statement.executeQuery("SHOW REPLICA STATUS");
+            lagColumn = "Seconds_Behind_Source";
+        } catch (SQLException e) {
+            status = statement.executeQuery("SHOW SLAVE STATUS");
+            lagColumn = "Seconds_Behind_Master";
+        }
+        try (ResultSet rs = status) {
+            if (!rs.next()) {
+                return 0L;
+            }
+            long lag = rs.getLong(lagColumn);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    /**
+     * Get replica health for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("available", available);
+        stats.put("lagSeconds", lagSeconds);
+        stats.put("maxLagSeconds", maxLagSeconds);
+        stats.put("lastError", lastError);
+        stats.put("lastCheckMillis", lastCheckMillis);
+        return stats;
+    }
+}
@@ -3,6 +3,7 @@ package com.budgettracker.config;
 import com.budgettracker.security.JwtAuthenticationFilter;
 import com.budgettracker.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -36,6 +37,10 @@ public class SecurityConfig {
     
     @Autowired
     private PasswordEncoder passwordEncoder;
+    
+    // Internal-only port serving the actuator endpoints; unset means they share the public port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
 
     @Bean
     @SuppressWarnings("deprecation")
@@ -59,6 +64,9 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/", "/index.html", "/test-register.html", "/css/**", "/js/**", "/favicon.ico", "/api/auth/**", "/api/auth/register", "/api/auth/login", "/health", "/actuator/health").permitAll()
+                // Scraped without credentials, so only on the management port, which is not published
+                .requestMatchers(request -> request.getLocalPort() == managementPort
+                    && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/profile/**").hasAnyRole("USER", "ADMIN")
                 .requestMatchers("/api/user/profile/**").hasAnyRole("USER", "ADMIN")
@@ -0,0 +1,47 @@
+package com.budgettracker.config;
+
+import com.budgettracker.service.UserDataVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC interceptors
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * Endpoints polled by the dashboard whose responses depend only on the
+     * caller's transactions, budgets, goals, bills and investments
+     */
+    static final String[] DATA_VERSIONED_PATHS = {
+            "/api/transactions/summary",
+            "/api/transactions/summary/**",
+            "/api/transactions/breakdown/**",
+            "/api/transactions/statistics",
+            "/api/transactions/analytics/**",
+            "/api/analytics/**"
+    };
+
+    @Autowired
+    private UserDataVersions userDataVersions;
+
+    @Value("${app.etag.enabled:true}")
+    private boolean etagEnabled;
+
+    @Bean
+    public DataVersionEtagInterceptor dataVersionEtagInterceptor() {
+        return new DataVersionEtagInterceptor(userDataVersions);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (etagEnabled) {
+            registry.addInterceptor(dataVersionEtagInterceptor()).addPathPatterns(DATA_VERSIONED_PATHS);
+        }
+    }
+}
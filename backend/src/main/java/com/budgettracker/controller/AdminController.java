@@ -1,14 +1,28 @@
 package com.budgettracker.controller;
 
+import com.budgettracker.config.DataVersionEtagInterceptor;
+import com.budgettracker.config.ReadReplicaRoutingDataSource;
 import com.budgettracker.dto.AuthResponse;
+import com.budgettracker.model.Role;
 import com.budgettracker.model.User;
+import com.budgettracker.service.AnalyticsResponseCache;
+import com.budgettracker.service.BankSyncOrchestrator;
+import com.budgettracker.service.PriceHistoryStore;
+import com.budgettracker.service.ReferenceDataCache;
+import com.budgettracker.service.RetirementProjectionCache;
+import com.budgettracker.service.TransactionCategorizer;
+import com.budgettracker.service.UserDataVersions;
 import com.budgettracker.service.UserService;
+import com.budgettracker.service.VirtualThreadPinningMonitor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,28 +33,65 @@ public class AdminController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private RetirementProjectionCache retirementProjectionCache;
+    
+    @Autowired
+    private PriceHistoryStore priceHistoryStore;
+    
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
+    @Autowired
+    private AnalyticsResponseCache analyticsResponseCache;
+    
+    @Autowired
+    private UserDataVersions userDataVersions;
+    
+    @Autowired
+    private DataVersionEtagInterceptor dataVersionEtagInterceptor;
+    
+    @Autowired
+    private VirtualThreadPinningMonitor virtualThreadPinningMonitor;
+    
+    @Autowired
+    private BankSyncOrchestrator bankSyncOrchestrator;
+    
+    @Autowired
+    private TransactionCategorizer transactionCategorizer;
+    
+    @Autowired(required = false)
+    private ReadReplicaRoutingDataSource readReplicaRoutingDataSource;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String search,
+                                         @RequestParam(required = false) String role,
+                                         @RequestParam(defaultValue = "id") String sort,
+                                         @RequestParam(defaultValue = "asc") String direction,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<User> users = userService.getAllUsers();
+            Role roleFilter = role != null && !role.isBlank() ? Role.valueOf(role.trim().toUpperCase()) : null;
+            UserService.UserPage page = userService.getUserPage(search, roleFilter, sort,
+                    "desc".equalsIgnoreCase(direction), cursor, limit);
             
-            List<AuthResponse> userResponses = users.stream()
-                .map(user -> {
-                    AuthResponse response = new AuthResponse();
-                    response.setId(user.getId());
-                    response.setUsername(user.getUsername());
-                    response.setEmail(user.getEmail());
-                    response.setRole(user.getRole().name());
-                    response.setMonthlyIncome(user.getMonthlyIncome());
-                    response.setCurrentSavings(user.getCurrentSavings());
-                    response.setTargetExpenses(user.getTargetExpenses());
-                    return response;
-                })
+            List<AuthResponse> userResponses = page.getUsers().stream()
+                .map(this::toResponse)
                 .collect(Collectors.toList());
             
-            return ResponseEntity.ok(userResponses);
+            Map<String, Object> response = new HashMap<>();
+            response.put("users", userResponses);
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.getNextCursor() != null);
+            return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500)
                 .body("Error: " + e.getMessage());
@@ -52,17 +103,7 @@ public class AdminController {
     public ResponseEntity<?> getUserById(@PathVariable Long userId) {
         try {
             User user = userService.getUserById(userId);
-            
-            AuthResponse response = new AuthResponse();
-            response.setId(user.getId());
-            response.setUsername(user.getUsername());
-            response.setEmail(user.getEmail());
-            response.setRole(user.getRole().name());
-            response.setMonthlyIncome(user.getMonthlyIncome());
-            response.setCurrentSavings(user.getCurrentSavings());
-            response.setTargetExpenses(user.getTargetExpenses());
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(toResponse(user));
             
         } catch (Exception e) {
             return ResponseEntity.status(500)
@@ -74,28 +115,7 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getAdminDashboardStats() {
         try {
-            List<User> users = userService.getAllUsers();
-            
-            long totalUsers = users.size();
-            long activeUsers = users.stream()
-                .filter(user -> user.getMonthlyIncome() != null && user.getMonthlyIncome().compareTo(java.math.BigDecimal.ZERO) > 0)
-                .count();
-            
-            java.math.BigDecimal totalSavings = users.stream()
-                .filter(user -> user.getCurrentSavings() != null)
-                .map(User::getCurrentSavings)
-                .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
-            
-            java.math.BigDecimal totalIncome = users.stream()
-                .filter(user -> user.getMonthlyIncome() != null)
-                .map(User::getMonthlyIncome)
-                .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
-            
-            java.util.Map<String, Object> stats = new java.util.HashMap<>();
-            stats.put("totalUsers", totalUsers);
-            stats.put("activeUsers", activeUsers);
-            stats.put("totalSavings", totalSavings);
-            stats.put("totalMonthlyIncome", totalIncome);
+            Map<String, Object> stats = userService.getAdminStatistics();
             stats.put("lastUpdated", java.time.LocalDateTime.now());
             
             return ResponseEntity.ok(stats);
@@ -105,4 +125,82 @@ public class AdminController {
                 .body("Error: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/cache/retirement-projections")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRetirementProjectionCacheStats() {
+        return ResponseEntity.ok(retirementProjectionCache.getStatistics());
+    }
+    
+    @GetMapping("/price-history")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPriceHistoryStats() {
+        return ResponseEntity.ok(priceHistoryStore.getStatistics());
+    }
+    
+    @GetMapping("/cache/analytics-responses")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getAnalyticsResponseCacheStats() {
+        return ResponseEntity.ok(analyticsResponseCache.getStatistics());
+    }
+    
+    @GetMapping("/cache/reference-data")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getReferenceDataCacheStats() {
+        return ResponseEntity.ok(referenceDataCache.getStatistics());
+    }
+    
+    @GetMapping("/etags")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getEtagStats() {
+        Map<String, Object> stats = new HashMap<>(userDataVersions.getStatistics());
+        stats.put("tagged", dataVersionEtagInterceptor.getTaggedCount());
+        stats.put("notModified", dataVersionEtagInterceptor.getNotModifiedCount());
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/execution")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getExecutionStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("virtualThreadsEnabled", virtualThreadsEnabled);
+        stats.put("platformThreads", Thread.activeCount());
+        stats.put("pinning", virtualThreadPinningMonitor.getStatistics());
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/bank-sync")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getBankSyncStats() {
+        return ResponseEntity.ok(bankSyncOrchestrator.getStatistics());
+    }
+    
+    @GetMapping("/categorizer")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getCategorizerStats() {
+        return ResponseEntity.ok(transactionCategorizer.getStatistics());
+    }
+    
+    @GetMapping("/datasource")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getDataSourceRouting() {
+        if (readReplicaRoutingDataSource == null) {
+            return ResponseEntity.ok(Map.of("replicaEnabled", false));
+        }
+        Map<String, Object> stats = new HashMap<>(readReplicaRoutingDataSource.getStatistics());
+        stats.put("replicaEnabled", true);
+        return ResponseEntity.ok(stats);
+    }
+    
+    private AuthResponse toResponse(User user) {
+        AuthResponse response = new AuthResponse();
+        response.setId(user.getId());
+        response.setUsername(user.getUsername());
+        response.setEmail(user.getEmail());
+        response.setRole(user.getRole().name());
+        response.setMonthlyIncome(user.getMonthlyIncome());
+        response.setCurrentSavings(user.getCurrentSavings());
+        response.setTargetExpenses(user.getTargetExpenses());
+        return response;
+    }
+}
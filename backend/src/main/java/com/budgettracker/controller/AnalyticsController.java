@@ -1,6 +1,13 @@
 package com.budgettracker.controller;
 
+import com.budgettracker.dto.AnalyticsDashboardResponse;
+import com.budgettracker.dto.AnalyticsSummaryResponse;
+import com.budgettracker.model.User;
+import com.budgettracker.repository.UserRepository;
+import com.budgettracker.service.AnalyticsResponseCache;
 import com.budgettracker.service.AnalyticsService;
+import com.budgettracker.service.DashboardComposer;
+import com.budgettracker.service.DashboardComposer.Composition;
 import com.budgettracker.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -9,16 +16,30 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/analytics")
 @CrossOrigin(origins = "http://localhost:5173", allowedHeaders = "*", allowCredentials = "true")
 public class AnalyticsController {
     
+    private static final String FINANCIAL_HEALTH_KEY = "financial-health";
+    private static final String SAVINGS_PROGRESS_KEY = "savings-progress";
+    
     @Autowired
     private AnalyticsService analyticsService;
     
+    @Autowired
+    private AnalyticsResponseCache analyticsResponseCache;
+    
+    @Autowired
+    private DashboardComposer dashboardComposer;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
     @Autowired
     private JwtUtil jwtUtil;
     
@@ -30,8 +51,8 @@ public class AnalyticsController {
             @RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            Map<String, Object> trends = analyticsService.getMonthlyTrends(months, username);
-            return ResponseEntity.ok(trends);
+            return analyticsResponseCache.respond(monthlyTrendsKey(months),
+                    () -> analyticsService.getMonthlyTrends(months, username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching monthly trends: " + e.getMessage());
         }
@@ -46,17 +67,8 @@ public class AnalyticsController {
             @RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            
-            // Default to last 3 months if no dates provided
-            if (start == null) {
-                start = LocalDateTime.now().minusMonths(3);
-            }
-            if (end == null) {
-                end = LocalDateTime.now();
-            }
-            
-            Map<String, Object> breakdown = analyticsService.getCategoryBreakdown(username, start, end);
-            return ResponseEntity.ok(breakdown);
+            return analyticsResponseCache.respond(categoryBreakdownKey(start, end),
+                    () -> categoryBreakdown(username, start, end));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching category breakdown: " + e.getMessage());
         }
@@ -68,8 +80,8 @@ public class AnalyticsController {
     public ResponseEntity<?> getFinancialHealth(@RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            Map<String, Object> health = analyticsService.calculateFinancialHealth(username);
-            return ResponseEntity.ok(health);
+            return analyticsResponseCache.respond(FINANCIAL_HEALTH_KEY,
+                    () -> analyticsService.calculateFinancialHealth(username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error calculating financial health: " + e.getMessage());
         }
@@ -94,8 +106,10 @@ public class AnalyticsController {
                 year = now.getYear();
             }
             
-            Map<String, Object> analysis = analyticsService.getBudgetAnalysis(username, month, year);
-            return ResponseEntity.ok(analysis);
+            int analysisMonth = month;
+            int analysisYear = year;
+            return analyticsResponseCache.respond(budgetAnalysisKey(analysisMonth, analysisYear),
+                    () -> analyticsService.getBudgetAnalysis(username, analysisMonth, analysisYear));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching budget analysis: " + e.getMessage());
         }
@@ -107,8 +121,8 @@ public class AnalyticsController {
     public ResponseEntity<?> getSavingsProgress(@RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            Map<String, Object> progress = analyticsService.getSavingsProgress(username);
-            return ResponseEntity.ok(progress);
+            return analyticsResponseCache.respond(SAVINGS_PROGRESS_KEY,
+                    () -> analyticsService.getSavingsProgress(username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching savings progress: " + e.getMessage());
         }
@@ -123,18 +137,36 @@ public class AnalyticsController {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
             
-            // Get all analytics data in one call for dashboard
-            Map<String, Object> dashboard = Map.of(
-                "monthlyTrends", analyticsService.getMonthlyTrends(months, username),
-                "categoryBreakdown", analyticsService.getCategoryBreakdown(username, 
-                    LocalDateTime.now().minusMonths(3), LocalDateTime.now()),
-                "financialHealth", analyticsService.calculateFinancialHealth(username),
-                "budgetAnalysis", analyticsService.getBudgetAnalysis(username, 
-                    LocalDateTime.now().getMonthValue(), LocalDateTime.now().getYear()),
-                "savingsProgress", analyticsService.getSavingsProgress(username)
-            );
-            
-            return ResponseEntity.ok(dashboard);
+            // Sections are shared with the individual endpoints' cache entries
+            // and computed concurrently; a partial dashboard is not cached
+            return analyticsResponseCache.respond("dashboard?months=" + months, () -> {
+                User user = findUser(username);
+                LocalDateTime now = LocalDateTime.now();
+                int month = now.getMonthValue();
+                int year = now.getYear();
+                
+                Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+                sections.put("monthlyTrends", () -> analyticsResponseCache.get(monthlyTrendsKey(months),
+                    () -> analyticsService.getMonthlyTrends(months, user)));
+                sections.put("categoryBreakdown", () -> analyticsResponseCache.get(categoryBreakdownKey(null, null),
+                    () -> analyticsService.getCategoryBreakdown(user, now.minusMonths(3), now)));
+                sections.put("financialHealth", () -> analyticsResponseCache.get(FINANCIAL_HEALTH_KEY,
+                    () -> analyticsService.calculateFinancialHealth(user)));
+                sections.put("budgetAnalysis", () -> analyticsResponseCache.get(budgetAnalysisKey(month, year),
+                    () -> analyticsService.getBudgetAnalysis(user, month, year)));
+                sections.put("savingsProgress", () -> analyticsResponseCache.get(SAVINGS_PROGRESS_KEY,
+                    () -> analyticsService.getSavingsProgress(user)));
+                
+                Composition composition = dashboardComposer.compose(sections);
+                return new AnalyticsDashboardResponse(
+                    composition.get("monthlyTrends"),
+                    composition.get("categoryBreakdown"),
+                    composition.get("financialHealth"),
+                    composition.get("budgetAnalysis"),
+                    composition.get("savingsProgress"),
+                    composition.getReport()
+                );
+            }, response -> isComplete(response.getSections()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching analytics dashboard: " + e.getMessage());
         }
@@ -148,24 +180,58 @@ public class AnalyticsController {
             String username = jwtUtil.extractUsername(token.substring(7));
             
             // Get key metrics for summary view
-            Map<String, Object> monthlyTrends = analyticsService.getMonthlyTrends(3, username);
-            Map<String, Object> financialHealth = analyticsService.calculateFinancialHealth(username);
-            Map<String, Object> savingsProgress = analyticsService.getSavingsProgress(username);
-            
-            Map<String, Object> summary = Map.of(
-                "healthScore", financialHealth.get("healthScore"),
-                "healthTrend", financialHealth.get("healthTrend"),
-                "averageIncome", monthlyTrends.get("averageIncome"),
-                "averageExpenses", monthlyTrends.get("averageExpenses"),
-                "trendDirection", monthlyTrends.get("trendDirection"),
-                "totalGoals", savingsProgress.get("totalGoals"),
-                "completedGoals", savingsProgress.get("completedGoals"),
-                "overallProgressPercent", savingsProgress.get("overallProgressPercent")
-            );
-            
-            return ResponseEntity.ok(summary);
+            return analyticsResponseCache.respond("summary", () -> {
+                User user = findUser(username);
+                
+                Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+                sections.put("monthlyTrends", () -> analyticsResponseCache.get(monthlyTrendsKey(3),
+                    () -> analyticsService.getMonthlyTrends(3, user)));
+                sections.put("financialHealth", () -> analyticsResponseCache.get(FINANCIAL_HEALTH_KEY,
+                    () -> analyticsService.calculateFinancialHealth(user)));
+                sections.put("savingsProgress", () -> analyticsResponseCache.get(SAVINGS_PROGRESS_KEY,
+                    () -> analyticsService.getSavingsProgress(user)));
+                
+                Composition composition = dashboardComposer.compose(sections);
+                return new AnalyticsSummaryResponse(
+                    composition.get("monthlyTrends"),
+                    composition.get("financialHealth"),
+                    composition.get("savingsProgress"),
+                    composition.getReport()
+                );
+            }, response -> isComplete(response.getSections()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching analytics summary: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    // Resolved once per composite request and shared by all of its sections
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    }
+    
+    private static boolean isComplete(Map<String, Map<String, Object>> sections) {
+        return sections.values().stream()
+                .allMatch(section -> section.get("status") == DashboardComposer.Status.OK);
+    }
+    
+    // Default to last 3 months if no dates provided
+    private Map<String, Object> categoryBreakdown(String username, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime now = LocalDateTime.now();
+        return analyticsService.getCategoryBreakdown(username,
+                start != null ? start : now.minusMonths(3),
+                end != null ? end : now);
+    }
+    
+    private static String monthlyTrendsKey(int months) {
+        return "monthly-trends?months=" + months;
+    }
+    
+    private static String categoryBreakdownKey(LocalDateTime start, LocalDateTime end) {
+        return "category-breakdown?start=" + start + "&end=" + end;
+    }
+    
+    private static String budgetAnalysisKey(int month, int year) {
+        return "budget-analysis?month=" + month + "&year=" + year;
+    }
+}
@@ -13,9 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -119,24 +117,7 @@ public class InvestmentController {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
             
-            Map<String, Object> summary = new HashMap<>();
-            summary.put("totalValue", investmentService.getTotalPortfolioValue(username));
-            summary.put("totalCostBasis", investmentService.getTotalCostBasis(username));
-            summary.put("allocation", investmentService.getPortfolioAllocation(username));
-            
-            BigDecimal totalValue = investmentService.getTotalPortfolioValue(username);
-            BigDecimal totalCost = investmentService.getTotalCostBasis(username);
-            
-            if (totalCost.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal totalGainLoss = totalValue.subtract(totalCost);
-                BigDecimal totalGainLossPercentage = totalGainLoss.divide(totalCost, 4, java.math.RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"));
-                summary.put("totalGainLoss", totalGainLoss);
-                summary.put("totalGainLossPercentage", totalGainLossPercentage);
-            } else {
-                summary.put("totalGainLoss", BigDecimal.ZERO);
-                summary.put("totalGainLossPercentage", BigDecimal.ZERO);
-            }
+            Map<String, Object> summary = investmentService.getPortfolioSummary(username);
             
             return ResponseEntity.ok(summary);
         } catch (Exception e) {
@@ -1,14 +1,16 @@
 package com.budgettracker.controller;
 
+import com.budgettracker.service.MarketDataClient;
 import com.budgettracker.service.MarketDataService;
+import com.budgettracker.util.Futures;
 import com.budgettracker.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/market-data")
@@ -18,92 +20,96 @@ public class MarketDataController {
     @Autowired
     private MarketDataService marketDataService;
     
+    @Autowired
+    private MarketDataClient marketDataClient;
+    
     @Autowired
     private JwtUtil jwtUtil;
     
     @GetMapping("/price/{symbol}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> getCurrentPrice(
+    public CompletableFuture<ResponseEntity<?>> getCurrentPrice(
             @PathVariable String symbol,
             @RequestHeader("Authorization") String token) {
         try {
             jwtUtil.extractUsername(token.substring(7)); // Validate token
-            BigDecimal price = marketDataService.getCurrentPrice(symbol.toUpperCase());
-            
-            if (price == null) {
-                return ResponseEntity.notFound().build();
-            }
+            String upperSymbol = symbol.toUpperCase();
             
-            return ResponseEntity.ok(Map.of(
-                "symbol", symbol.toUpperCase(),
-                "price", price
-            ));
+            // The servlet thread is released while the provider responds
+            return marketDataService.getCurrentPriceAsync(upperSymbol)
+                    .<ResponseEntity<?>>thenApply(price -> price == null
+                            ? ResponseEntity.notFound().build()
+                            : ResponseEntity.ok(Map.of("symbol", upperSymbol, "price", price)))
+                    .exceptionally(e -> errorResponse("Error fetching price: ", e));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Error fetching price: " + e.getMessage());
+            return CompletableFuture.completedFuture(errorResponse("Error fetching price: ", e));
         }
     }
     
     @GetMapping("/quote/{symbol}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> getQuote(
+    public CompletableFuture<ResponseEntity<?>> getQuote(
             @PathVariable String symbol,
             @RequestHeader("Authorization") String token) {
         try {
             jwtUtil.extractUsername(token.substring(7)); // Validate token
-            Map<String, Object> quote = marketDataService.getQuote(symbol.toUpperCase());
             
-            if (quote == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            return ResponseEntity.ok(quote);
+            return marketDataService.getQuoteAsync(symbol.toUpperCase())
+                    .<ResponseEntity<?>>thenApply(quote -> quote == null
+                            ? ResponseEntity.notFound().build()
+                            : ResponseEntity.ok(quote))
+                    .exceptionally(e -> errorResponse("Error fetching quote: ", e));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Error fetching quote: " + e.getMessage());
+            return CompletableFuture.completedFuture(errorResponse("Error fetching quote: ", e));
         }
     }
     
     @GetMapping("/search")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> searchSymbol(
+    public CompletableFuture<ResponseEntity<?>> searchSymbol(
             @RequestParam String keywords,
             @RequestHeader("Authorization") String token) {
         try {
             jwtUtil.extractUsername(token.substring(7)); // Validate token
-            Map<String, Object> results = marketDataService.searchSymbol(keywords);
-            
-            if (results == null) {
-                return ResponseEntity.notFound().build();
-            }
             
-            return ResponseEntity.ok(results);
+            return marketDataService.searchSymbolAsync(keywords)
+                    .<ResponseEntity<?>>thenApply(results -> results == null
+                            ? ResponseEntity.notFound().build()
+                            : ResponseEntity.ok(results))
+                    .exceptionally(e -> errorResponse("Error searching symbols: ", e));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Error searching symbols: " + e.getMessage());
+            return CompletableFuture.completedFuture(errorResponse("Error searching symbols: ", e));
         }
     }
     
     @PostMapping("/refresh-price/{symbol}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> refreshPrice(
+    public CompletableFuture<ResponseEntity<?>> refreshPrice(
             @PathVariable String symbol,
             @RequestHeader("Authorization") String token) {
         try {
             jwtUtil.extractUsername(token.substring(7)); // Validate token
+            String upperSymbol = symbol.toUpperCase();
             
             // Evict cache and fetch fresh price
-            marketDataService.evictPriceCache(symbol.toUpperCase());
-            BigDecimal price = marketDataService.getCurrentPrice(symbol.toUpperCase());
-            
-            if (price == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            return ResponseEntity.ok(Map.of(
-                "symbol", symbol.toUpperCase(),
-                "price", price,
-                "refreshed", true
-            ));
+            marketDataService.evictPriceCache(upperSymbol);
+            return marketDataService.getCurrentPriceAsync(upperSymbol)
+                    .<ResponseEntity<?>>thenApply(price -> price == null
+                            ? ResponseEntity.notFound().build()
+                            : ResponseEntity.ok(Map.of("symbol", upperSymbol, "price", price, "refreshed", true)))
+                    .exceptionally(e -> errorResponse("Error refreshing price: ", e));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Error refreshing price: " + e.getMessage());
+            return CompletableFuture.completedFuture(errorResponse("Error refreshing price: ", e));
         }
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/client-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getClientStatistics() {
+        return ResponseEntity.ok(marketDataClient.getStatistics());
+    }
+    
+    private ResponseEntity<?> errorResponse(String prefix, Throwable error) {
+        return ResponseEntity.badRequest().body(prefix + Futures.unwrap(error).getMessage());
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -51,15 +52,34 @@ public class TaxPlanningController {
     // Calculate tax brackets for given income and filing status
     @GetMapping("/brackets")
     public ResponseEntity<?> calculateTaxBrackets(@RequestParam BigDecimal income,
-                                                  @RequestParam TaxPlan.FilingStatus filingStatus) {
+                                                  @RequestParam TaxPlan.FilingStatus filingStatus,
+                                                  @RequestParam(defaultValue = "2024") Integer taxYear) {
         try {
-            TaxCalculationResponse response = taxPlanningService.calculateTaxBrackets(income, filingStatus);
+            TaxCalculationResponse response = taxPlanningService.calculateTaxBrackets(income, filingStatus, taxYear);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     
+    // Calculate federal tax for a list of candidate taxable incomes in one call
+    @PostMapping("/federal-tax/batch")
+    public ResponseEntity<?> calculateFederalTaxForIncomes(@RequestBody List<BigDecimal> taxableIncomes,
+                                                           @RequestParam TaxPlan.FilingStatus filingStatus,
+                                                           @RequestParam(defaultValue = "2024") Integer taxYear) {
+        try {
+            List<BigDecimal> taxes = taxPlanningService.calculateFederalTaxForIncomes(taxableIncomes, filingStatus, taxYear);
+            return ResponseEntity.ok(Map.of(
+                    "taxYear", taxYear,
+                    "filingStatus", filingStatus.name(),
+                    "taxableIncomes", taxableIncomes,
+                    "federalTaxOwed", taxes
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     // Optimize tax-advantaged account contributions
     @GetMapping("/optimize-contributions")
     public ResponseEntity<?> optimizeContributions(@RequestParam BigDecimal income,
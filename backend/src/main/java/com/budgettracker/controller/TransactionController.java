@@ -3,6 +3,7 @@ import com.budgettracker.dto.TransactionRequest;
 import com.budgettracker.dto.TransactionResponse;
 import com.budgettracker.model.User;
 import com.budgettracker.repository.UserRepository;
+import com.budgettracker.service.AnalyticsResponseCache;
 import com.budgettracker.service.TransactionService;
 import com.budgettracker.service.RealTimeService;
 import com.budgettracker.util.JwtUtil;
@@ -30,6 +31,9 @@ public class TransactionController {
     @Autowired
     private RealTimeService realTimeService;
     
+    @Autowired
+    private AnalyticsResponseCache analyticsResponseCache;
+    
     @Autowired
     private JwtUtil jwtUtil;
     
@@ -170,8 +174,8 @@ public class TransactionController {
     public ResponseEntity<?> getFinancialSummary(@RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            Map<String, Object> summary = transactionService.getFinancialSummary(username);
-            return ResponseEntity.ok(summary);
+            return analyticsResponseCache.respond("transactions/summary",
+                    () -> transactionService.getFinancialSummary(username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching financial summary: " + e.getMessage());
         }
@@ -185,8 +189,8 @@ public class TransactionController {
                                                         @RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            Map<String, Object> summary = transactionService.getMonthlyFinancialSummary(year, month, username);
-            return ResponseEntity.ok(summary);
+            return analyticsResponseCache.respond("transactions/summary/" + year + "/" + month,
+                    () -> transactionService.getMonthlyFinancialSummary(year, month, username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching monthly summary: " + e.getMessage());
         }
@@ -198,8 +202,8 @@ public class TransactionController {
     public ResponseEntity<?> getExpenseBreakdown(@RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            List<Map<String, Object>> breakdown = transactionService.getExpenseBreakdown(username);
-            return ResponseEntity.ok(breakdown);
+            return analyticsResponseCache.respond("transactions/breakdown/expenses",
+                    () -> transactionService.getExpenseBreakdown(username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching expense breakdown: " + e.getMessage());
         }
@@ -211,8 +215,8 @@ public class TransactionController {
     public ResponseEntity<?> getIncomeBreakdown(@RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            List<Map<String, Object>> breakdown = transactionService.getIncomeBreakdown(username);
-            return ResponseEntity.ok(breakdown);
+            return analyticsResponseCache.respond("transactions/breakdown/income",
+                    () -> transactionService.getIncomeBreakdown(username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching income breakdown: " + e.getMessage());
         }
@@ -238,8 +242,8 @@ public class TransactionController {
     public ResponseEntity<?> getTransactionStatistics(@RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            Map<String, Object> statistics = transactionService.getTransactionStatistics(username);
-            return ResponseEntity.ok(statistics);
+            return analyticsResponseCache.respond("transactions/statistics",
+                    () -> transactionService.getTransactionStatistics(username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching transaction statistics: " + e.getMessage());
         }
@@ -255,8 +259,8 @@ public class TransactionController {
             @RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            List<Map<String, Object>> trends = transactionService.getMonthlyTrends(months, username);
-            return ResponseEntity.ok(trends);
+            return analyticsResponseCache.respond("transactions/monthly-trends?months=" + months,
+                    () -> transactionService.getMonthlyTrends(months, username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching monthly trends: " + e.getMessage());
         }
@@ -270,8 +274,8 @@ public class TransactionController {
             @RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            List<Map<String, Object>> trends = transactionService.getCategoryTrends(months, username);
-            return ResponseEntity.ok(trends);
+            return analyticsResponseCache.respond("transactions/category-trends?months=" + months,
+                    () -> transactionService.getCategoryTrends(months, username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching category trends: " + e.getMessage());
         }
@@ -283,8 +287,8 @@ public class TransactionController {
     public ResponseEntity<?> getSpendingPatterns(@RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            Map<String, Object> patterns = transactionService.getSpendingPatterns(username);
-            return ResponseEntity.ok(patterns);
+            return analyticsResponseCache.respond("transactions/spending-patterns",
+                    () -> transactionService.getSpendingPatterns(username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching spending patterns: " + e.getMessage());
         }
@@ -298,8 +302,8 @@ public class TransactionController {
             @RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            Map<String, Object> comparison = transactionService.getComparativeAnalysis(period, username);
-            return ResponseEntity.ok(comparison);
+            return analyticsResponseCache.respond("transactions/comparative?period=" + period,
+                    () -> transactionService.getComparativeAnalysis(period, username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching comparative analysis: " + e.getMessage());
         }
@@ -311,8 +315,8 @@ public class TransactionController {
     public ResponseEntity<?> getFinancialInsights(@RequestHeader("Authorization") String token) {
         try {
             String username = jwtUtil.extractUsername(token.substring(7));
-            Map<String, Object> insights = transactionService.getFinancialInsights(username);
-            return ResponseEntity.ok(insights);
+            return analyticsResponseCache.respond("transactions/insights",
+                    () -> transactionService.getFinancialInsights(username));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching financial insights: " + e.getMessage());
         }
@@ -0,0 +1,55 @@
+package com.budgettracker.dto;
+
+import java.util.Map;
+
+/**
+ * All analytics sections for the dashboard in one response. A section that
+ * failed or timed out is null and its status is given in sections.
+ */
+public class AnalyticsDashboardResponse {
+
+    private final Map<String, Object> monthlyTrends;
+    private final Map<String, Object> categoryBreakdown;
+    private final Map<String, Object> financialHealth;
+    private final Map<String, Object> budgetAnalysis;
+    private final Map<String, Object> savingsProgress;
+    private final Map<String, Map<String, Object>> sections;
+
+    public AnalyticsDashboardResponse(Map<String, Object> monthlyTrends,
+                                      Map<String, Object> categoryBreakdown,
+                                      Map<String, Object> financialHealth,
+                                      Map<String, Object> budgetAnalysis,
+                                      Map<String, Object> savingsProgress,
+                                      Map<String, Map<String, Object>> sections) {
+        this.monthlyTrends = monthlyTrends;
+        this.categoryBreakdown = categoryBreakdown;
+        this.financialHealth = financialHealth;
+        this.budgetAnalysis = budgetAnalysis;
+        this.savingsProgress = savingsProgress;
+        this.sections = sections;
+    }
+
+    public Map<String, Object> getMonthlyTrends() {
+        return monthlyTrends;
+    }
+
+    public Map<String, Object> getCategoryBreakdown() {
+        return categoryBreakdown;
+    }
+
+    public Map<String, Object> getFinancialHealth() {
+        return financialHealth;
+    }
+
+    public Map<String, Object> getBudgetAnalysis() {
+        return budgetAnalysis;
+    }
+
+    public Map<String, Object> getSavingsProgress() {
+        return savingsProgress;
+    }
+
+    public Map<String, Map<String, Object>> getSections() {
+        return sections;
+    }
+}
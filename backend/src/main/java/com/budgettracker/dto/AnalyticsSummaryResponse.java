@@ -0,0 +1,89 @@
+package com.budgettracker.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Key analytics metrics for the quick overview. Metrics missing from a
+ * section (for example after a fallback calculation) or from a section that
+ * failed or timed out are null; the status of each section is given in
+ * sections.
+ */
+public class AnalyticsSummaryResponse {
+
+    private final Integer healthScore;
+    private final String healthTrend;
+    private final BigDecimal averageIncome;
+    private final BigDecimal averageExpenses;
+    private final String trendDirection;
+    private final Long totalGoals;
+    private final Long completedGoals;
+    private final BigDecimal overallProgressPercent;
+    private final Map<String, Map<String, Object>> sections;
+
+    public AnalyticsSummaryResponse(Map<String, Object> monthlyTrends,
+                                    Map<String, Object> financialHealth,
+                                    Map<String, Object> savingsProgress,
+                                    Map<String, Map<String, Object>> sections) {
+        monthlyTrends = Objects.requireNonNullElse(monthlyTrends, Map.of());
+        financialHealth = Objects.requireNonNullElse(financialHealth, Map.of());
+        savingsProgress = Objects.requireNonNullElse(savingsProgress, Map.of());
+        Number score = (Number) financialHealth.get("healthScore");
+        Number goals = (Number) savingsProgress.get("totalGoals");
+        Number completed = (Number) savingsProgress.get("completedGoals");
+
+        this.healthScore = score != null ? score.intValue() : null;
+        this.healthTrend = (String) financialHealth.get("healthTrend");
+        this.averageIncome = decimal(monthlyTrends.get("averageIncome"));
+        this.averageExpenses = decimal(monthlyTrends.get("averageExpenses"));
+        this.trendDirection = (String) monthlyTrends.get("trendDirection");
+        this.totalGoals = goals != null ? goals.longValue() : null;
+        this.completedGoals = completed != null ? completed.longValue() : null;
+        this.overallProgressPercent = decimal(savingsProgress.get("overallProgressPercent"));
+        this.sections = sections;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    public Integer getHealthScore() {
+        return healthScore;
+    }
+
+    public String getHealthTrend() {
+        return healthTrend;
+    }
+
+    public BigDecimal getAverageIncome() {
+        return averageIncome;
+    }
+
+    public BigDecimal getAverageExpenses() {
+        return averageExpenses;
+    }
+
+    public String getTrendDirection() {
+        return trendDirection;
+    }
+
+    public Long getTotalGoals() {
+        return totalGoals;
+    }
+
+    public Long getCompletedGoals() {
+        return completedGoals;
+    }
+
+    public BigDecimal getOverallProgressPercent() {
+        return overallProgressPercent;
+    }
+
+    public Map<String, Map<String, Object>> getSections() {
+        return sections;
+    }
+}
@@ -2,6 +2,7 @@ package com.budgettracker.dto;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 public class CashFlowProjectionResponse {
@@ -16,6 +17,11 @@ public class CashFlowProjectionResponse {
     private BigDecimal netCashFlow;
     private List<CashFlowItem> cashFlowItems;
     private List<BillProjection> upcomingBills;
+    private BigDecimal lowestBalance;
+    private LocalDate lowestBalanceDate;
+    private BigDecimal lowBalanceThreshold;
+    private List<LocalDate> lowBalanceDates; // First day of each stretch below the threshold
+    private Integer lowBalanceDays;
     
     // Constructors
     public CashFlowProjectionResponse() {}
@@ -108,11 +114,51 @@ public class CashFlowProjectionResponse {
         this.upcomingBills = upcomingBills;
     }
     
+    public BigDecimal getLowestBalance() {
+        return lowestBalance;
+    }
+    
+    public void setLowestBalance(BigDecimal lowestBalance) {
+        this.lowestBalance = lowestBalance;
+    }
+    
+    public LocalDate getLowestBalanceDate() {
+        return lowestBalanceDate;
+    }
+    
+    public void setLowestBalanceDate(LocalDate lowestBalanceDate) {
+        this.lowestBalanceDate = lowestBalanceDate;
+    }
+    
+    public BigDecimal getLowBalanceThreshold() {
+        return lowBalanceThreshold;
+    }
+    
+    public void setLowBalanceThreshold(BigDecimal lowBalanceThreshold) {
+        this.lowBalanceThreshold = lowBalanceThreshold;
+    }
+    
+    public List<LocalDate> getLowBalanceDates() {
+        return lowBalanceDates;
+    }
+    
+    public void setLowBalanceDates(List<LocalDate> lowBalanceDates) {
+        this.lowBalanceDates = lowBalanceDates;
+    }
+    
+    public Integer getLowBalanceDays() {
+        return lowBalanceDays;
+    }
+    
+    public void setLowBalanceDays(Integer lowBalanceDays) {
+        this.lowBalanceDays = lowBalanceDays;
+    }
+    
     // Inner classes
     public static class CashFlowItem {
         private LocalDate date;
         private String description;
-        private String type; // INCOME, EXPENSE, BILL
+        private String type; // INCOME, EXPENSE, BILL, DEBT_PAYMENT
         private BigDecimal amount;
         private BigDecimal runningBalance;
         
@@ -191,7 +237,7 @@ public class CashFlowProjectionResponse {
             // Calculate computed fields
             LocalDate today = LocalDate.now();
             this.isOverdue = dueDate.isBefore(today);
-            this.daysUntilDue = (int) today.until(dueDate).getDays();
+            this.daysUntilDue = (int) ChronoUnit.DAYS.between(today, dueDate);
         }
         
         // Getters and Setters
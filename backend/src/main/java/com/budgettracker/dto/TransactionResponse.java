@@ -38,6 +38,21 @@ public class TransactionResponse {
         this.updatedAt = transaction.getUpdatedAt();
     }
     
+    // Used by the projection queries in TransactionRepository
+    public TransactionResponse(Long id, String title, String description, BigDecimal amount,
+                               Transaction.TransactionType type, String category, LocalDateTime transactionDate,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.amount = amount;
+        this.type = type;
+        this.category = category;
+        this.transactionDate = transactionDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -46,6 +46,10 @@ public class BankConnection {
     @Column(name = "webhook_url", length = 255)
     private String webhookUrl;
     
+    // Where the next transaction sync resumes, as returned by the provider
+    @Column(name = "sync_cursor", length = 255)
+    private String syncCursor;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -161,6 +165,14 @@ public class BankConnection {
         this.webhookUrl = webhookUrl;
     }
     
+    public String getSyncCursor() {
+        return syncCursor;
+    }
+    
+    public void setSyncCursor(String syncCursor) {
+        this.syncCursor = syncCursor;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -1,5 +1,7 @@
 package com.budgettracker.model;
 
+import com.budgettracker.util.BillRecurrence;
+import com.budgettracker.service.UserDataChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
@@ -7,6 +9,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "bills")
 public class Bill {
     
@@ -100,42 +103,16 @@ public class Bill {
         this.updatedAt = LocalDateTime.now();
     }
     
-    // Helper method to calculate next due date
+    // Helper method to calculate next due date: the first occurrence after today
     private LocalDate calculateNextDueDate(LocalDate currentDue, BillFrequency freq) {
         if (currentDue == null || freq == null) {
             return null;
         }
-        
-        LocalDate today = LocalDate.now();
-        LocalDate nextDue = currentDue;
-        
-        // Calculate next due date based on frequency
-        while (nextDue.isBefore(today) || nextDue.isEqual(today)) {
-            switch (freq) {
-                case WEEKLY:
-                    nextDue = nextDue.plusWeeks(1);
-                    break;
-                case BI_WEEKLY:
-                    nextDue = nextDue.plusWeeks(2);
-                    break;
-                case MONTHLY:
-                    nextDue = nextDue.plusMonths(1);
-                    break;
-                case QUARTERLY:
-                    nextDue = nextDue.plusMonths(3);
-                    break;
-                case SEMI_ANNUALLY:
-                    nextDue = nextDue.plusMonths(6);
-                    break;
-                case ANNUALLY:
-                    nextDue = nextDue.plusYears(1);
-                    break;
-                case ONE_TIME:
-                    return currentDue;
-            }
+        if (freq == BillFrequency.ONE_TIME) {
+            return currentDue;
         }
         
-        return nextDue;
+        return BillRecurrence.firstOnOrAfter(currentDue, freq, LocalDate.now().plusDays(1));
     }
     
     // Getters and Setters
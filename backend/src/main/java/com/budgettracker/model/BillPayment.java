@@ -1,5 +1,6 @@
 package com.budgettracker.model;
 
+import com.budgettracker.service.UserDataChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
@@ -7,6 +8,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "bill_payments")
 public class BillPayment {
     
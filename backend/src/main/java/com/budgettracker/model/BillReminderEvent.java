@@ -0,0 +1,154 @@
+package com.budgettracker.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A scheduled reminder, due-date or overdue notification for one occurrence
+ * of a bill. Rows start PENDING and move to SENT when they fire, or to
+ * CANCELLED when the bill changes so they no longer apply; a row fires at most
+ * once.
+ */
+@Entity
+@Table(name = "bill_reminder_events",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"bill_id", "event_type", "occurrence_date", "fire_at"}),
+       indexes = @Index(name = "idx_bill_reminder_events_status_fire_at", columnList = "status, fire_at"))
+public class BillReminderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bill_id", nullable = false)
+    private Long billId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private EventType type;
+
+    @Column(name = "occurrence_date", nullable = false)
+    private LocalDate occurrenceDate;
+
+    @Column(name = "fire_at", nullable = false)
+    private LocalDateTime fireAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private EventStatus status = EventStatus.PENDING;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public BillReminderEvent() {}
+
+    public BillReminderEvent(Long billId, Long userId, EventType type, LocalDate occurrenceDate, LocalDateTime fireAt) {
+        this.billId = billId;
+        this.userId = userId;
+        this.type = type;
+        this.occurrenceDate = occurrenceDate;
+        this.fireAt = fireAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Whether this row is the same event as another: same bill, type,
+     * occurrence and fire time
+     */
+    public boolean sameEventAs(BillReminderEvent other) {
+        return billId.equals(other.billId) && type == other.type
+                && occurrenceDate.equals(other.occurrenceDate) && fireAt.equals(other.fireAt);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBillId() {
+        return billId;
+    }
+
+    public void setBillId(Long billId) {
+        this.billId = billId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public void setType(EventType type) {
+        this.type = type;
+    }
+
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+
+    public LocalDateTime getFireAt() {
+        return fireAt;
+    }
+
+    public void setFireAt(LocalDateTime fireAt) {
+        this.fireAt = fireAt;
+    }
+
+    public EventStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EventStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public enum EventType {
+        REMINDER, DUE, OVERDUE
+    }
+
+    public enum EventStatus {
+        PENDING, SENT, CANCELLED
+    }
+}
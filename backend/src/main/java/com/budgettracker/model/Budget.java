@@ -1,10 +1,12 @@
 package com.budgettracker.model;
 
+import com.budgettracker.service.UserDataChangeListener;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "budgets", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "category", "budget_month", "budget_year"})
 })
@@ -1,5 +1,6 @@
 package com.budgettracker.model;
 
+import com.budgettracker.service.UserDataChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,6 +10,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "investments")
 public class Investment {
     
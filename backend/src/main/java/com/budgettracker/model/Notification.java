@@ -61,6 +61,7 @@ public class Notification {
     @Column(name = "action_text")
     private String actionText;
     
+    // Set once the email is queued in the mail outbox; delivery is not tracked
     @Column(name = "email_sent", nullable = false)
     private Boolean emailSent = false;
     
@@ -0,0 +1,102 @@
+package com.budgettracker.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One daily closing price for a symbol. Rows are append-only; a second
+ * price for the same day replaces the first.
+ */
+@Entity
+@Table(name = "price_history",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"symbol", "price_date"}),
+       indexes = @Index(name = "idx_price_history_symbol_date", columnList = "symbol, price_date"))
+public class PriceHistory {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotBlank(message = "Symbol is required")
+    @Column(nullable = false, length = 20)
+    private String symbol;
+    
+    @NotNull(message = "Price date is required")
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+    
+    @NotNull(message = "Close price is required")
+    @Column(name = "close_price", nullable = false, precision = 14, scale = 4)
+    private BigDecimal closePrice;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public PriceHistory() {}
+    
+    public PriceHistory(String symbol, LocalDate priceDate, BigDecimal closePrice) {
+        this.symbol = symbol;
+        this.priceDate = priceDate;
+        this.closePrice = closePrice;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+    
+    public LocalDate getPriceDate() {
+        return priceDate;
+    }
+    
+    public void setPriceDate(LocalDate priceDate) {
+        this.priceDate = priceDate;
+    }
+    
+    public BigDecimal getClosePrice() {
+        return closePrice;
+    }
+    
+    public void setClosePrice(BigDecimal closePrice) {
+        this.closePrice = closePrice;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
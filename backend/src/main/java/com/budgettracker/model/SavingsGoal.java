@@ -1,11 +1,13 @@
 package com.budgettracker.model;
 
+import com.budgettracker.service.UserDataChangeListener;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "savings_goals")
 public class SavingsGoal {
     
@@ -1,10 +1,13 @@
 package com.budgettracker.model;
+import com.budgettracker.service.UserDataChangeListener;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@EntityListeners(UserDataChangeListener.class)
+@Table(name = "transactions",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "fingerprint"}))
 public class Transaction {
     
     @Id
@@ -43,6 +46,14 @@ public class Transaction {
     @Column(name = "currency_code", length = 3)
     private String currencyCode = "USD";
     
+    // Content fingerprint of a transaction imported from a bank, null for manual entries
+    @Column(name = "fingerprint")
+    private Long fingerprint;
+    
+    // Whether the user set the category of an imported transaction themselves
+    @Column(name = "category_confirmed")
+    private Boolean categoryConfirmed;
+    
     // Constructors
     public Transaction() {
         this.createdAt = LocalDateTime.now();
@@ -150,6 +161,29 @@ public class Transaction {
         this.currencyCode = currencyCode;
     }
     
+    public Long getFingerprint() {
+        return fingerprint;
+    }
+    
+    public void setFingerprint(Long fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+    
+    public Boolean getCategoryConfirmed() {
+        return categoryConfirmed;
+    }
+    
+    public void setCategoryConfirmed(Boolean categoryConfirmed) {
+        this.categoryConfirmed = categoryConfirmed;
+    }
+    
+    /**
+     * Whether the category was chosen by the user rather than guessed on import
+     */
+    public boolean isCategorizedByUser() {
+        return fingerprint == null || Boolean.TRUE.equals(categoryConfirmed);
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
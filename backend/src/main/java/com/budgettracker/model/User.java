@@ -1,9 +1,11 @@
 package com.budgettracker.model;
 
+import com.budgettracker.service.UserDataChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,6 +16,7 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "users")
 public class User implements UserDetails {
     
@@ -71,6 +74,15 @@ public class User implements UserDetails {
     @Column(name = "is_credentials_non_expired")
     private boolean credentialsNonExpired = true;
     
+    // Version of the user's data and when it last changed, bumped by UserDataVersions in the
+    // writing transaction; never written through the entity
+    @Column(name = "data_version", insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long dataVersion;
+    
+    @Column(name = "data_changed_at", insertable = false, updatable = false)
+    private LocalDateTime dataChangedAt;
+    
     // Constructors
     public User() {
         this.createdAt = LocalDateTime.now();
@@ -193,6 +205,22 @@ public class User implements UserDetails {
         this.updatedAt = updatedAt;
     }
     
+    public Long getDataVersion() {
+        return dataVersion;
+    }
+    
+    public void setDataVersion(Long dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+    
+    public LocalDateTime getDataChangedAt() {
+        return dataChangedAt;
+    }
+    
+    public void setDataChangedAt(LocalDateTime dataChangedAt) {
+        this.dataChangedAt = dataChangedAt;
+    }
+    
     public String getBaseCurrencyCode() {
         return baseCurrencyCode;
     }
@@ -1,5 +1,6 @@
 package com.budgettracker.model;
 
+import com.budgettracker.service.UserDataChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
  * Includes currency preferences, timezone, and notification settings
  */
 @Entity
+@EntityListeners(UserDataChangeListener.class)
 @Table(name = "user_profiles")
 public class UserProfile {
 
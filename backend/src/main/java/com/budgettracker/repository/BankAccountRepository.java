@@ -3,11 +3,14 @@ package com.budgettracker.repository;
 import com.budgettracker.model.BankAccount;
 import com.budgettracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -77,4 +80,19 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, Long>
      */
     @Query("SELECT COALESCE(SUM(ba.currentBalance), 0) FROM BankAccount ba WHERE ba.user = :user AND ba.accountType = :accountType AND ba.connectionStatus = 'ACTIVE'")
     java.math.BigDecimal getTotalBalanceByAccountType(@Param("user") User user, @Param("accountType") BankAccount.AccountType accountType);
+    
+    /**
+     * Find the users' active accounts at an institution
+     */
+    @Query("SELECT ba FROM BankAccount ba WHERE ba.institutionId = :institutionId AND ba.user.id IN :userIds AND ba.connectionStatus = 'ACTIVE'")
+    List<BankAccount> findActiveByInstitutionIdAndUserIds(@Param("institutionId") String institutionId,
+                                                          @Param("userIds") Collection<Long> userIds);
+    
+    /**
+     * Set the connection status of several accounts in one statement
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BankAccount ba SET ba.connectionStatus = :status WHERE ba.id IN :ids")
+    int updateConnectionStatus(@Param("ids") Collection<Long> ids, @Param("status") BankAccount.ConnectionStatus status);
 }
\ No newline at end of file
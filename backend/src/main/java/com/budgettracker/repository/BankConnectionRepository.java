@@ -3,11 +3,14 @@ package com.budgettracker.repository;
 import com.budgettracker.model.BankConnection;
 import com.budgettracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -77,4 +80,19 @@ public interface BankConnectionRepository extends JpaRepository<BankConnection,
      */
     @Query("DELETE FROM BankConnection bc WHERE bc.status = 'INACTIVE' AND bc.updatedAt < :cutoffDate")
     void deleteOldInactiveConnections(@Param("cutoffDate") LocalDateTime cutoffDate);
-}
\ No newline at end of file
+    
+    /**
+     * Find the users' connections to an institution
+     */
+    @Query("SELECT bc FROM BankConnection bc WHERE bc.institutionId = :institutionId AND bc.user.id IN :userIds")
+    List<BankConnection> findByInstitutionIdAndUserIds(@Param("institutionId") String institutionId,
+                                                       @Param("userIds") Collection<Long> userIds);
+    
+    /**
+     * Record a successful transaction sync and where the next one resumes
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BankConnection bc SET bc.syncCursor = :cursor, bc.lastSuccessfulSync = :syncedAt WHERE bc.id = :id")
+    int updateSyncCursor(@Param("id") Long id, @Param("cursor") String cursor, @Param("syncedAt") LocalDateTime syncedAt);
+}
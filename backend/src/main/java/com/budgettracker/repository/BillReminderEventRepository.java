@@ -0,0 +1,55 @@
+package com.budgettracker.repository;
+
+import com.budgettracker.model.BillReminderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BillReminderEventRepository extends JpaRepository<BillReminderEvent, Long> {
+
+    /**
+     * Find pending events firing up to the given time, including past ones
+     */
+    @Query("SELECT e FROM BillReminderEvent e WHERE e.status = 'PENDING' AND e.fireAt <= :until ORDER BY e.fireAt ASC")
+    List<BillReminderEvent> findPendingFiringBy(@Param("until") LocalDateTime until);
+
+    /**
+     * Find pending events firing after one time and up to another
+     */
+    @Query("SELECT e FROM BillReminderEvent e WHERE e.status = 'PENDING' AND e.fireAt > :after AND e.fireAt <= :until ORDER BY e.fireAt ASC")
+    List<BillReminderEvent> findPendingFiringBetween(@Param("after") LocalDateTime after, @Param("until") LocalDateTime until);
+
+    /**
+     * Find a bill's events for an occurrence and the ones after it
+     */
+    List<BillReminderEvent> findByBillIdAndOccurrenceDateGreaterThanEqual(Long billId, LocalDate occurrenceDate);
+
+    /**
+     * Claim a pending event for firing; returns 0 when it was already sent or
+     * cancelled
+     */
+    @Modifying
+    @Query("UPDATE BillReminderEvent e SET e.status = 'SENT', e.processedAt = :now WHERE e.id = :id AND e.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Cancel a bill's pending events for occurrences before the given one
+     */
+    @Modifying
+    @Query("UPDATE BillReminderEvent e SET e.status = 'CANCELLED' WHERE e.billId = :billId AND e.occurrenceDate < :occurrenceDate AND e.status = 'PENDING'")
+    int cancelPendingBefore(@Param("billId") Long billId, @Param("occurrenceDate") LocalDate occurrenceDate);
+
+    /**
+     * Cancel all of a bill's pending events
+     */
+    @Modifying
+    @Query("UPDATE BillReminderEvent e SET e.status = 'CANCELLED' WHERE e.billId = :billId AND e.status = 'PENDING'")
+    int cancelPending(@Param("billId") Long billId);
+}
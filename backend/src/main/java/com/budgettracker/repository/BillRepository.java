@@ -28,12 +28,18 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
     List<Bill> findByUserIdAndCategoryOrderByNextDueDateAsc(Long userId, String category);
     
     /**
-     * Find bills due within a specific date range
+     * Find active or overdue bills whose next due date is on or before the end
+     * date, i.e. the bills that can have an occurrence up to that date
      */
-    @Query("SELECT b FROM Bill b WHERE b.userId = :userId AND b.nextDueDate BETWEEN :startDate AND :endDate ORDER BY b.nextDueDate ASC")
-    List<Bill> findBillsDueInDateRange(@Param("userId") Long userId, 
-                                      @Param("startDate") LocalDate startDate, 
-                                      @Param("endDate") LocalDate endDate);
+    @Query("SELECT b FROM Bill b WHERE b.userId = :userId AND b.nextDueDate <= :endDate AND b.status IN ('ACTIVE', 'OVERDUE') ORDER BY b.nextDueDate ASC")
+    List<Bill> findScheduledBillsStartingBy(@Param("userId") Long userId, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Find active or overdue bills that have no pending reminder events
+     */
+    @Query("SELECT b FROM Bill b WHERE b.nextDueDate IS NOT NULL AND b.status IN ('ACTIVE', 'OVERDUE') " +
+           "AND NOT EXISTS (SELECT e.id FROM BillReminderEvent e WHERE e.billId = b.id AND e.status = 'PENDING')")
+    List<Bill> findScheduledBillsWithoutPendingReminders();
     
     /**
      * Find overdue bills (next due date is before today)
@@ -47,20 +53,6 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
     @Query("SELECT b FROM Bill b WHERE b.userId = :userId AND b.nextDueDate = :today AND b.status = 'ACTIVE' ORDER BY b.name ASC")
     List<Bill> findBillsDueToday(@Param("userId") Long userId, @Param("today") LocalDate today);
     
-    /**
-     * Find bills due within the next N days
-     */
-    @Query("SELECT b FROM Bill b WHERE b.userId = :userId AND b.nextDueDate BETWEEN :today AND :futureDate AND b.status = 'ACTIVE' ORDER BY b.nextDueDate ASC")
-    List<Bill> findBillsDueWithinDays(@Param("userId") Long userId, 
-                                     @Param("today") LocalDate today, 
-                                     @Param("futureDate") LocalDate futureDate);
-    
-    /**
-     * Find bills that need reminders (due within reminder days)
-     */
-    @Query("SELECT b FROM Bill b WHERE b.userId = :userId AND b.nextDueDate BETWEEN :today AND :futureDate AND b.status = 'ACTIVE'")
-    List<Bill> findBillsNeedingReminders(@Param("userId") Long userId, @Param("today") LocalDate today, @Param("futureDate") LocalDate futureDate);
-    
     /**
      * Calculate total monthly bill amount for a user
      */
@@ -23,6 +23,9 @@ public interface DebtRepository extends JpaRepository<Debt, Long> {
     // Find active debts (ACTIVE status)
     List<Debt> findByUserAndStatus(User user, Debt.DebtStatus status);
     
+    // Find debts by user ID and status (for cash-flow projection)
+    List<Debt> findByUserIdAndStatus(Long userId, Debt.DebtStatus status);
+    
     // Find debt by user and id
     Optional<Debt> findByUserAndId(User user, Long id);
     
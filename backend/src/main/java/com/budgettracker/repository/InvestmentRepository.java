@@ -28,6 +28,10 @@ public interface InvestmentRepository extends JpaRepository<Investment, Long> {
     @Query("SELECT DISTINCT i.symbol FROM Investment i WHERE i.user.id = :userId")
     List<String> findDistinctSymbolsByUserId(@Param("userId") Long userId);
     
+    // Get every symbol held by any user
+    @Query("SELECT DISTINCT i.symbol FROM Investment i")
+    List<String> findAllDistinctSymbols();
+    
     // Calculate total investment value for a user
     @Query("SELECT COALESCE(SUM(i.quantity * COALESCE(i.currentPrice, i.purchasePrice)), 0) " +
            "FROM Investment i WHERE i.user.id = :userId")
@@ -102,4 +102,11 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.status = 'UNREAD' AND n.createdAt >= :since ORDER BY n.priority DESC, n.createdAt DESC")
     List<Notification> findNotificationsForDigest(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+    
+    /**
+     * Find unread notifications of all users created in a period, grouped by
+     * user with the most important first
+     */
+    @Query("SELECT n FROM Notification n WHERE n.status = 'UNREAD' AND n.createdAt >= :since AND n.createdAt < :until ORDER BY n.userId ASC, n.priority DESC, n.createdAt DESC")
+    List<Notification> findUnreadNotificationsCreatedBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.budgettracker.repository;
+
+import com.budgettracker.model.PriceHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long> {
+    
+    /**
+     * Find the close for a symbol on a specific day
+     */
+    Optional<PriceHistory> findBySymbolAndPriceDate(String symbol, LocalDate priceDate);
+    
+    /**
+     * Load the full series for a set of symbols in one query, ordered for sequential decoding
+     */
+    @Query("SELECT ph FROM PriceHistory ph WHERE ph.symbol IN :symbols ORDER BY ph.symbol ASC, ph.priceDate ASC")
+    List<PriceHistory> findSeriesForSymbols(@Param("symbols") Collection<String> symbols);
+    
+    /**
+     * Count stored closes per symbol
+     */
+    long countBySymbol(String symbol);
+}
@@ -1,4 +1,5 @@
 package com.budgettracker.repository;
+import com.budgettracker.dto.TransactionResponse;
 import com.budgettracker.model.Transaction;
 import com.budgettracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,18 +15,28 @@ import java.util.List;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     
+    // Listings select straight into TransactionResponse: only the response columns are read
+    // and no managed entities (or user proxies) are added to the persistence context
+    String SELECT_RESPONSE = "SELECT new com.budgettracker.dto.TransactionResponse(t.id, t.title, t.description, " +
+            "t.amount, t.type, t.category, t.transactionDate, t.createdAt, t.updatedAt) FROM Transaction t ";
+    
     // Find transactions by user
-    List<Transaction> findByUserOrderByTransactionDateDesc(User user);
+    @Query(SELECT_RESPONSE + "WHERE t.user = :user ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesByUser(@Param("user") User user);
     
     // Find transactions by user and type
-    List<Transaction> findByUserAndTypeOrderByTransactionDateDesc(User user, Transaction.TransactionType type);
+    @Query(SELECT_RESPONSE + "WHERE t.user = :user AND t.type = :type ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesByUserAndType(@Param("user") User user, @Param("type") Transaction.TransactionType type);
     
     // Find transactions by user and category
-    List<Transaction> findByUserAndCategoryOrderByTransactionDateDesc(User user, String category);
+    @Query(SELECT_RESPONSE + "WHERE t.user = :user AND t.category = :category ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesByUserAndCategory(@Param("user") User user, @Param("category") String category);
     
     // Find transactions by user within date range
-    List<Transaction> findByUserAndTransactionDateBetweenOrderByTransactionDateDesc(
-            User user, LocalDateTime startDate, LocalDateTime endDate);
+    @Query(SELECT_RESPONSE + "WHERE t.user = :user AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesByUserAndDateRange(
+            @Param("user") User user, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // Find transactions by user, type and date range
     List<Transaction> findByUserAndTypeAndTransactionDateBetweenOrderByTransactionDateDesc(
@@ -69,8 +80,8 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     long countByUserAndType(User user, Transaction.TransactionType type);
     
     // Get recent transactions (limit)
-    @Query("SELECT t FROM Transaction t WHERE t.user = :user ORDER BY t.transactionDate DESC LIMIT :limit")
-    List<Transaction> findRecentTransactions(@Param("user") User user, @Param("limit") int limit);
+    @Query(SELECT_RESPONSE + "WHERE t.user = :user ORDER BY t.transactionDate DESC LIMIT :limit")
+    List<TransactionResponse> findRecentResponses(@Param("user") User user, @Param("limit") int limit);
     
     // ===== NEW ANALYTICS QUERIES FOR MILESTONE 4 =====
     
@@ -106,12 +117,12 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Object[]> getSpendingByDayOfWeek(@Param("user") User user);
 
     // Find transactions by user ID and date range (for export service)
-    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND DATE(t.transactionDate) BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
-    List<Transaction> findByUserIdAndTransactionDateBetween(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query(SELECT_RESPONSE + "WHERE t.user.id = :userId AND DATE(t.transactionDate) BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesByUserIdAndTransactionDateBetween(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     // Find all transactions by user ID ordered by date (for export service)
-    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.transactionDate DESC")
-    List<Transaction> findByUserIdOrderByTransactionDateDesc(@Param("userId") Long userId);
+    @Query(SELECT_RESPONSE + "WHERE t.user.id = :userId ORDER BY t.transactionDate DESC")
+    List<TransactionResponse> findResponsesByUserIdOrderByTransactionDateDesc(@Param("userId") Long userId);
 
     // Get total income by user ID (for export service)
     @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.user.id = :userId AND t.type = 'INCOME'")
@@ -155,4 +166,14 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     // Find transactions by user ID and date range (for bill reminder service)
     @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND DATE(t.transactionDate) BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
     List<Transaction> findByUserIdAndDateBetween(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+    
+    // Fingerprints of the user's imported transactions (for bank sync deduplication)
+    @Query("SELECT t.fingerprint FROM Transaction t WHERE t.user.id = :userId AND t.fingerprint IS NOT NULL")
+    List<Long> findFingerprintsByUserId(@Param("userId") Long userId);
+
+    // Type, title, description and category of the user's most recent transactions they categorized themselves (for the categorizer)
+    @Query("SELECT t.type, t.title, t.description, t.category FROM Transaction t " +
+           "WHERE t.user.id = :userId AND (t.fingerprint IS NULL OR t.categoryConfirmed = true) " +
+           "ORDER BY t.transactionDate DESC LIMIT :limit")
+    List<Object[]> findCategorySamplesByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
@@ -67,6 +67,13 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
         @Param("pushNotifications") Boolean pushNotifications
     );
 
+    /**
+     * User id and alert switches (budget alerts, bill reminders, investment
+     * alerts, weekly summary, monthly report) of every profile
+     */
+    @Query("SELECT up.userId, up.budgetAlerts, up.billReminders, up.investmentAlerts, up.weeklySummary, up.monthlyReport FROM UserProfile up")
+    java.util.List<Object[]> findAlertSwitches();
+
     /**
      * Find users who want budget alerts
      */
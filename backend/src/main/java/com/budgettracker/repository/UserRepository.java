@@ -1,14 +1,22 @@
 package com.budgettracker.repository;
 
+import com.budgettracker.model.Role;
 import com.budgettracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Optional role and lower-case LIKE pattern filters of the admin user listing
+    String ADMIN_FILTER = "(:role IS NULL OR u.role = :role) " +
+            "AND (:search IS NULL OR LOWER(u.username) LIKE :search OR LOWER(u.email) LIKE :search) ";
+    
     Optional<User> findByUsername(String username);
     
     Optional<User> findByEmail(String email);
@@ -16,4 +24,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    // Admin dashboard totals: users, users with an income, total savings, total monthly income
+    @Query("SELECT COUNT(u), COALESCE(SUM(CASE WHEN u.monthlyIncome > 0 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(u.currentSavings), 0), COALESCE(SUM(u.monthlyIncome), 0) FROM User u")
+    List<Object[]> getAdminTotals();
+    
+    // Admin user listing pages, keyset paginated on the (unique) sort column
+    @Query("SELECT u FROM User u WHERE " + ADMIN_FILTER +
+           "AND (:afterId IS NULL OR u.id > :afterId) ORDER BY u.id ASC LIMIT :limit")
+    List<User> findAdminPageById(@Param("role") Role role, @Param("search") String search,
+                                 @Param("afterId") Long afterId, @Param("limit") int limit);
+    
+    @Query("SELECT u FROM User u WHERE " + ADMIN_FILTER +
+           "AND (:afterId IS NULL OR u.id < :afterId) ORDER BY u.id DESC LIMIT :limit")
+    List<User> findAdminPageByIdDesc(@Param("role") Role role, @Param("search") String search,
+                                     @Param("afterId") Long afterId, @Param("limit") int limit);
+    
+    @Query("SELECT u FROM User u WHERE " + ADMIN_FILTER +
+           "AND (:after IS NULL OR u.username > :after) ORDER BY u.username ASC LIMIT :limit")
+    List<User> findAdminPageByUsername(@Param("role") Role role, @Param("search") String search,
+                                       @Param("after") String after, @Param("limit") int limit);
+    
+    @Query("SELECT u FROM User u WHERE " + ADMIN_FILTER +
+           "AND (:after IS NULL OR u.username < :after) ORDER BY u.username DESC LIMIT :limit")
+    List<User> findAdminPageByUsernameDesc(@Param("role") Role role, @Param("search") String search,
+                                           @Param("after") String after, @Param("limit") int limit);
 }
@@ -3,18 +3,26 @@ package com.budgettracker.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Alpha Vantage market data provider. Calls are fully non-blocking; results
+ * are delivered on the WebClient event loop.
+ */
 @Service
-public class AlphaVantageService {
+@ConditionalOnProperty(name = "app.market-data.provider", havingValue = "alphavantage", matchIfMissing = true)
+public class AlphaVantageService implements MarketDataProvider {
     
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
@@ -33,73 +41,56 @@ public class AlphaVantageService {
         this.objectMapper = new ObjectMapper();
     }
     
-    @Cacheable(value = "stockPrices", key = "#symbol", unless = "#result == null")
-    public BigDecimal getCurrentPrice(String symbol) {
-        try {
-            String response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/query")
-                            .queryParam("function", "GLOBAL_QUOTE")
-                            .queryParam("symbol", symbol)
-                            .queryParam("apikey", apiKey)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block();
-            
-            return parseCurrentPrice(response);
-        } catch (WebClientResponseException e) {
-            throw new RuntimeException("Failed to fetch price for symbol: " + symbol + ". Error: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Error fetching price for symbol: " + symbol + ". Error: " + e.getMessage());
-        }
+    @Override
+    public String getName() {
+        return "alphavantage";
     }
     
-    @Cacheable(value = "stockQuotes", key = "#symbol", unless = "#result == null")
-    public Map<String, Object> getQuote(String symbol) {
-        try {
-            String response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/query")
-                            .queryParam("function", "GLOBAL_QUOTE")
-                            .queryParam("symbol", symbol)
-                            .queryParam("apikey", apiKey)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block();
-            
-            return parseQuote(response);
-        } catch (WebClientResponseException e) {
-            throw new RuntimeException("Failed to fetch quote for symbol: " + symbol + ". Error: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Error fetching quote for symbol: " + symbol + ". Error: " + e.getMessage());
-        }
+    @Override
+    public CompletableFuture<BigDecimal> fetchPrice(String symbol) {
+        return query("GLOBAL_QUOTE", "symbol", symbol)
+                .map(this::parseCurrentPrice)
+                .onErrorMap(WebClientResponseException.class,
+                        e -> failure("Failed to fetch price for symbol: " + symbol + ". Error: " + e.getMessage(), e))
+                .toFuture();
     }
     
-    @Cacheable(value = "stockSearch", key = "#keywords", unless = "#result == null")
-    public Map<String, Object> searchSymbol(String keywords) {
-        try {
-            String response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/query")
-                            .queryParam("function", "SYMBOL_SEARCH")
-                            .queryParam("keywords", keywords)
-                            .queryParam("apikey", apiKey)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block();
-            
-            return parseSearchResults(response);
-        } catch (WebClientResponseException e) {
-            throw new RuntimeException("Failed to search for symbol: " + keywords + ". Error: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Error searching for symbol: " + keywords + ". Error: " + e.getMessage());
-        }
+    @Override
+    public CompletableFuture<Map<String, Object>> fetchQuote(String symbol) {
+        return query("GLOBAL_QUOTE", "symbol", symbol)
+                .map(this::parseQuote)
+                .onErrorMap(WebClientResponseException.class,
+                        e -> failure("Failed to fetch quote for symbol: " + symbol + ". Error: " + e.getMessage(), e))
+                .toFuture();
+    }
+    
+    @Override
+    public CompletableFuture<Map<String, Object>> searchSymbol(String keywords) {
+        return query("SYMBOL_SEARCH", "keywords", keywords)
+                .map(this::parseSearchResults)
+                .onErrorMap(WebClientResponseException.class,
+                        e -> failure("Failed to search for symbol: " + keywords + ". Error: " + e.getMessage(), e))
+                .toFuture();
+    }
+    
+    private Mono<String> query(String function, String param, String value) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/query")
+                        .queryParam("function", function)
+                        .queryParam(param, value)
+                        .queryParam("apikey", apiKey)
+                        .build())
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(10))
+                .onErrorMap(WebClientRequestException.class,
+                        e -> new UnavailableException("Alpha Vantage unreachable: " + e.getMessage(), e));
+    }
+    
+    // Server errors mean the provider is down; other statuses concern the request
+    private static RuntimeException failure(String message, WebClientResponseException e) {
+        return e.getStatusCode().is5xxServerError() ? new UnavailableException(message, e) : new RuntimeException(message);
     }
     
     private BigDecimal parseCurrentPrice(String response) {
@@ -112,7 +103,7 @@ public class AlphaVantageService {
             }
             
             if (root.has("Note")) {
-                throw new RuntimeException("API Rate Limit: " + root.get("Note").asText());
+                throw new UnavailableException("API Rate Limit: " + root.get("Note").asText());
             }
             
             JsonNode globalQuote = root.get("Global Quote");
@@ -126,6 +117,8 @@ public class AlphaVantageService {
             }
             
             return new BigDecimal(priceNode.asText());
+        } catch (UnavailableException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to parse price from API response: " + e.getMessage());
         }
@@ -141,7 +134,7 @@ public class AlphaVantageService {
             }
             
             if (root.has("Note")) {
-                throw new RuntimeException("API Rate Limit: " + root.get("Note").asText());
+                throw new UnavailableException("API Rate Limit: " + root.get("Note").asText());
             }
             
             JsonNode globalQuote = root.get("Global Quote");
@@ -162,6 +155,8 @@ public class AlphaVantageService {
             quote.put("changePercent", globalQuote.get("10. change percent").asText());
             
             return quote;
+        } catch (UnavailableException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to parse quote from API response: " + e.getMessage());
         }
@@ -177,13 +172,15 @@ public class AlphaVantageService {
             }
             
             if (root.has("Note")) {
-                throw new RuntimeException("API Rate Limit: " + root.get("Note").asText());
+                throw new UnavailableException("API Rate Limit: " + root.get("Note").asText());
             }
             
             Map<String, Object> result = new HashMap<>();
             result.put("bestMatches", root.get("bestMatches"));
             
             return result;
+        } catch (UnavailableException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to parse search results from API response: " + e.getMessage());
         }
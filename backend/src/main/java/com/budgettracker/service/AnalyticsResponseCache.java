@@ -0,0 +1,202 @@
+package com.budgettracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of analytics results for the current user, holding each
+ * result together with its serialized JSON.
+ *
+ * Entries are keyed by user and endpoint (including request parameters) and
+ * are valid only while the user's data version and the calendar day are
+ * unchanged, so any write to the user's data retires them without explicit
+ * eviction. A hit served through respond() writes the stored UTF-8 bytes
+ * straight to the response; get() returns the result object so composite
+ * responses can reuse parts already computed for other endpoints. Results
+ * cached here must be treated as read-only by callers.
+ */
+@Component
+public class AnalyticsResponseCache {
+
+    private final UserDataVersions userDataVersions;
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+
+    @Autowired
+    public AnalyticsResponseCache(UserDataVersions userDataVersions, ObjectMapper objectMapper,
+                                  @Value("${app.analytics.response-cache.max-entries:4096}") int maxEntries) {
+        this.userDataVersions = userDataVersions;
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > AnalyticsResponseCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Respond with the endpoint's result as JSON, serializing it only when it
+     * is not already cached for the user's current data version
+     */
+    public ResponseEntity<?> respond(String endpoint, Supplier<?> loader) {
+        return respond(endpoint, loader, value -> true);
+    }
+
+    /**
+     * Respond with the endpoint's result as JSON, keeping a freshly computed
+     * result only when it passes the cacheable check (e.g. a composite
+     * response with sections missing should be recomputed next time)
+     */
+    public <T> ResponseEntity<?> respond(String endpoint, Supplier<T> loader, Predicate<? super T> cacheable) {
+        Long userId = UserDataVersions.currentUserId();
+        if (userId == null) {
+            bypassed.incrementAndGet();
+            return ResponseEntity.ok(loader.get());
+        }
+
+        Entry entry = lookup(userId, endpoint, loader, cacheable);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.json(objectMapper));
+    }
+
+    /**
+     * Get the endpoint's result object, computing and caching it on a miss
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String endpoint, Supplier<T> loader) {
+        Long userId = UserDataVersions.currentUserId();
+        if (userId == null) {
+            bypassed.incrementAndGet();
+            return loader.get();
+        }
+        return (T) lookup(userId, endpoint, loader, value -> true).value;
+    }
+
+    /**
+     * The loader runs outside the lock, so concurrent misses for the same key
+     * may both compute; the last one wins.
+     */
+    private <T> Entry lookup(Long userId, String endpoint, Supplier<T> loader, Predicate<? super T> cacheable) {
+        String key = userId + "|" + endpoint;
+        long version = userDataVersions.current(userId);
+        long day = LocalDate.now().toEpochDay();
+
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && cached.version == version && cached.day == day) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        T value = loader.get();
+        Entry entry = new Entry(value, version, day);
+        if (cacheable.test(value)) {
+            synchronized (entries) {
+                entries.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Drop all cached results
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get cache statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("bypassed", bypassed.get());
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+        return stats;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long version;
+        private final long day;
+        private volatile byte[] json;
+
+        Entry(Object value, long version, long day) {
+            this.value = value;
+            this.version = version;
+            this.day = day;
+        }
+
+        // Serialized on first use, so entries only read through get() never pay for it
+        byte[] json(ObjectMapper objectMapper) {
+            byte[] bytes = json;
+            if (bytes == null) {
+                try {
+                    bytes = objectMapper.writeValueAsBytes(value);
+                } catch (JsonProcessingException e) {
+                    throw new RuntimeException("Failed to serialize analytics response", e);
+                }
+                json = bytes;
+            }
+            return bytes;
+        }
+    }
+}
@@ -7,7 +7,6 @@ import com.budgettracker.repository.BudgetRepository;
 import com.budgettracker.repository.SavingsGoalRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,7 +18,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class AnalyticsService {
     
     @Autowired
@@ -34,12 +33,12 @@ public class AnalyticsService {
     @Autowired
     private SavingsGoalRepository savingsGoalRepository;
     
-    // Get monthly trends analysis with caching
-    @Cacheable(value = "monthlyTrends", key = "#username + '_' + #months", unless = "#result == null")
+    // Get monthly trends analysis
     public Map<String, Object> getMonthlyTrends(int months, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
-        
+        return getMonthlyTrends(months, findUser(username));
+    }
+    
+    public Map<String, Object> getMonthlyTrends(int months, User user) {
         LocalDateTime endDate = LocalDateTime.now();
         LocalDateTime startDate = endDate.minusMonths(months);
         
@@ -87,12 +86,12 @@ public class AnalyticsService {
         }
     }
     
-    // Get category breakdown analysis with caching
-    @Cacheable(value = "categoryBreakdown", key = "#username + '_' + #startDate + '_' + #endDate", unless = "#result == null")
+    // Get category breakdown analysis
     public Map<String, Object> getCategoryBreakdown(String username, LocalDateTime startDate, LocalDateTime endDate) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
-        
+        return getCategoryBreakdown(findUser(username), startDate, endDate);
+    }
+    
+    public Map<String, Object> getCategoryBreakdown(User user, LocalDateTime startDate, LocalDateTime endDate) {
         try {
             // Get expense breakdown
             List<Object[]> expenseBreakdown = transactionRepository.getExpenseBreakdownInPeriod(user, startDate, endDate);
@@ -147,12 +146,12 @@ public class AnalyticsService {
         }
     }
     
-    // Get financial health score with caching
-    @Cacheable(value = "financialHealth", key = "#username", unless = "#result == null")
+    // Get financial health score
     public Map<String, Object> calculateFinancialHealth(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
-        
+        return calculateFinancialHealth(findUser(username));
+    }
+    
+    public Map<String, Object> calculateFinancialHealth(User user) {
         try {
             Map<String, Object> health = new HashMap<>();
             Map<String, Integer> factorScores = new HashMap<>();
@@ -220,12 +219,12 @@ public class AnalyticsService {
         }
     }
     
-    // Get budget analysis with caching
-    @Cacheable(value = "budgetAnalysis", key = "#username + '_' + #month + '_' + #year", unless = "#result == null")
+    // Get budget analysis
     public Map<String, Object> getBudgetAnalysis(String username, int month, int year) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
-        
+        return getBudgetAnalysis(findUser(username), month, year);
+    }
+    
+    public Map<String, Object> getBudgetAnalysis(User user, int month, int year) {
         try {
             LocalDateTime startDate = LocalDateTime.of(year, month, 1, 0, 0);
             LocalDateTime endDate = startDate.plusMonths(1).minusSeconds(1);
@@ -289,12 +288,12 @@ public class AnalyticsService {
         }
     }
     
-    // Get savings progress analysis with caching
-    @Cacheable(value = "savingsProgress", key = "#username", unless = "#result == null")
+    // Get savings progress analysis
     public Map<String, Object> getSavingsProgress(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
-        
+        return getSavingsProgress(findUser(username));
+    }
+    
+    public Map<String, Object> getSavingsProgress(User user) {
         try {
             List<Object[]> savingsData = savingsGoalRepository.getSavingsProgressData(user);
             
@@ -415,12 +414,6 @@ public class AnalyticsService {
         }
     }
     
-    // Clear analytics cache when data changes
-    @CacheEvict(value = {"monthlyTrends", "categoryBreakdown", "financialHealth", "budgetAnalysis", "savingsProgress"}, key = "#username")
-    public void clearAnalyticsCache(String username) {
-        // This method clears all analytics caches for a user when their data changes
-    }
-
     // Enhanced financial health calculation with user profile data
     @Cacheable(value = "enhancedFinancialHealth", key = "#username", unless = "#result == null")
     public Map<String, Object> calculateEnhancedFinancialHealth(String username) {
@@ -820,4 +813,9 @@ public class AnalyticsService {
         // In a real implementation, this would compare current vs previous health scores
         return "stable";
     }
-}
\ No newline at end of file
+    
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    }
+}
@@ -4,24 +4,22 @@ import com.budgettracker.dto.BankAccountRequest;
 import com.budgettracker.dto.BankAccountResponse;
 import com.budgettracker.model.BankAccount;
 import com.budgettracker.model.BankConnection;
-import com.budgettracker.model.Transaction;
 import com.budgettracker.model.User;
 import com.budgettracker.repository.BankAccountRepository;
 import com.budgettracker.repository.BankConnectionRepository;
-import com.budgettracker.repository.TransactionRepository;
 import com.budgettracker.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,12 +35,13 @@ public class BankIntegrationService {
     private BankConnectionRepository bankConnectionRepository;
     
     @Autowired
-    private TransactionRepository transactionRepository;
+    private UserRepository userRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private BankSyncOrchestrator bankSyncOrchestrator;
     
-    private final Random random = new Random();
+    @Autowired
+    private JobMetrics jobMetrics;
     
     /**
      * Get all bank accounts for a user
@@ -64,6 +63,7 @@ public class BankIntegrationService {
         
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        String institutionId = demoInstitutionId(request.getBankName());
         
         // Create bank account
         BankAccount bankAccount = new BankAccount();
@@ -77,13 +77,13 @@ public class BankIntegrationService {
         bankAccount.setCurrencyCode(request.getCurrencyCode());
         bankAccount.setConnectionStatus(BankAccount.ConnectionStatus.ACTIVE);
         bankAccount.setExternalAccountId("demo_" + System.currentTimeMillis());
-        bankAccount.setInstitutionId("demo_institution");
+        bankAccount.setInstitutionId(institutionId);
         bankAccount.setLastSyncAt(LocalDateTime.now());
         
         BankAccount savedAccount = bankAccountRepository.save(bankAccount);
         
         // Create a demo bank connection if it doesn't exist
-        createDemoBankConnection(user, request.getBankName());
+        createDemoBankConnection(user, institutionId, request.getBankName());
         
         logger.info("Bank account added successfully: {}", savedAccount.getId());
         return BankAccountResponse.fromEntity(savedAccount);
@@ -107,36 +107,28 @@ public class BankIntegrationService {
     }
     
     /**
-     * Sync account data (simplified demo version)
+     * Sync one account's balance from its institution
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void syncAccountData(Long accountId) {
         logger.debug("Syncing data for account: {}", accountId);
         
         BankAccount account = bankAccountRepository.findById(accountId)
                 .orElseThrow(() -> new RuntimeException("Bank account not found: " + accountId));
         
-        // Simulate balance update
-        BigDecimal currentBalance = account.getCurrentBalance();
-        BigDecimal change = BigDecimal.valueOf((random.nextDouble() - 0.5) * 100); // Random change between -50 and +50
-        BigDecimal newBalance = currentBalance.add(change);
-        
-        account.setCurrentBalance(newBalance);
-        account.setAvailableBalance(newBalance);
-        account.setLastSyncAt(LocalDateTime.now());
-        
-        bankAccountRepository.save(account);
-        
-        // Optionally create a demo transaction
-        if (Math.abs(change.doubleValue()) > 10) {
-            createDemoTransaction(account, change);
+        BankSyncOrchestrator.SyncReport report = bankSyncOrchestrator.sync(List.of(account));
+        if (report.getSynced() == 0) {
+            throw new RuntimeException("Could not sync bank account: " + accountId);
         }
         
         logger.debug("Account sync completed for: {}", accountId);
     }
     
     /**
-     * Sync all active accounts for a user
+     * Sync all active accounts for a user; accounts whose institution
+     * returns an error are marked ERROR
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void syncAllUserAccounts(Long userId) {
         logger.debug("Syncing all accounts for user: {}", userId);
         
@@ -146,17 +138,13 @@ public class BankIntegrationService {
         List<BankAccount> activeAccounts = bankAccountRepository.findByUserAndConnectionStatusOrderByCreatedAtDesc(
                 user, BankAccount.ConnectionStatus.ACTIVE);
         
-        for (BankAccount account : activeAccounts) {
-            try {
-                syncAccountData(account.getId());
-            } catch (Exception e) {
-                logger.error("Failed to sync account {}: {}", account.getId(), e.getMessage());
-                account.setConnectionStatus(BankAccount.ConnectionStatus.ERROR);
-                bankAccountRepository.save(account);
-            }
+        BankSyncOrchestrator.SyncReport report = bankSyncOrchestrator.sync(activeAccounts);
+        if (!report.getFailedAccountIds().isEmpty()) {
+            logger.error("Failed to sync accounts {} for user: {}", report.getFailedAccountIds(), userId);
+            bankAccountRepository.updateConnectionStatus(report.getFailedAccountIds(), BankAccount.ConnectionStatus.ERROR);
         }
         
-        logger.info("Completed sync for {} accounts for user: {}", activeAccounts.size(), userId);
+        logger.info("Completed sync for {} of {} accounts for user: {}", report.getSynced(), activeAccounts.size(), userId);
     }
     
     /**
@@ -185,32 +173,30 @@ public class BankIntegrationService {
     }
     
     /**
-     * Scheduled task to sync all accounts
+     * Scheduled task to sync all accounts not synced in the last hour,
+     * institutions in parallel
      */
     @Scheduled(fixedRate = 3600000) // Every hour
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void scheduledAccountSync() {
         logger.info("Starting scheduled account sync");
         
         LocalDateTime cutoffTime = LocalDateTime.now().minusHours(1);
         List<BankAccount> accountsNeedingSync = bankAccountRepository.findAccountsNeedingSync(cutoffTime);
         
-        for (BankAccount account : accountsNeedingSync) {
-            try {
-                syncAccountData(account.getId());
-            } catch (Exception e) {
-                logger.error("Failed to sync account {} during scheduled sync: {}", account.getId(), e.getMessage());
-            }
-        }
+        BankSyncOrchestrator.SyncReport report = bankSyncOrchestrator.sync(accountsNeedingSync);
         
-        logger.info("Scheduled account sync completed for {} accounts", accountsNeedingSync.size());
+        logger.info("Scheduled account sync completed: {} of {} accounts synced, {} transactions created, "
+                        + "{} failed, {} timed out, {} deferred",
+                report.getSynced(), accountsNeedingSync.size(), report.getTransactionsCreated(),
+                report.getFailedAccountIds().size(), report.getTimedOut(), report.getDeferred());
+        jobMetrics.recordItems("bankSync.accounts", report.getSynced());
     }
     
     /**
      * Create a demo bank connection
      */
-    private void createDemoBankConnection(User user, String bankName) {
-        String institutionId = "demo_" + bankName.toLowerCase().replaceAll("\\s+", "_");
-        
+    private void createDemoBankConnection(User user, String institutionId, String bankName) {
         Optional<BankConnection> existingConnection = bankConnectionRepository.findByUserAndInstitutionId(user, institutionId);
         if (existingConnection.isPresent()) {
             return; // Connection already exists
@@ -230,19 +216,9 @@ public class BankIntegrationService {
     }
     
     /**
-     * Create a demo transaction
+     * Demo institution id for a bank name; an account and its connection share it
      */
-    private void createDemoTransaction(BankAccount account, BigDecimal amount) {
-        Transaction transaction = new Transaction();
-        transaction.setUser(account.getUser());
-        transaction.setTitle(amount.compareTo(BigDecimal.ZERO) > 0 ? "Bank Deposit" : "Bank Withdrawal");
-        transaction.setDescription("Automatic sync from " + account.getBankName());
-        transaction.setAmount(amount.abs());
-        transaction.setType(amount.compareTo(BigDecimal.ZERO) > 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE);
-        transaction.setCategory(amount.compareTo(BigDecimal.ZERO) > 0 ? "Income" : "Banking");
-        transaction.setTransactionDate(LocalDateTime.now());
-        transaction.setCurrencyCode(account.getCurrencyCode());
-        
-        transactionRepository.save(transaction);
+    private static String demoInstitutionId(String bankName) {
+        return "demo_" + bankName.toLowerCase().replaceAll("\\s+", "_");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,396 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.BankAccount;
+import com.budgettracker.repository.BankAccountRepository;
+import com.budgettracker.service.InstitutionProvider.TransactionFeed;
+import com.budgettracker.util.Futures;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Syncs bank accounts against their institutions, institutions in parallel.
+ *
+ * Accounts are grouped by institution and each institution is synced on its
+ * own thread, so a slow bank only delays its own accounts. Within an
+ * institution at most max-concurrent-per-institution requests are in flight
+ * (a bulkhead: a bank that hangs holds its own permits and no one else's),
+ * each request is abandoned after request-timeout-ms, and no new request
+ * starts once the institution has used institution-timeout-ms; the accounts
+ * left over stay due and are picked up by the next run.
+ *
+ * Fetched balances are written batch-size accounts at a time, each batch in
+ * one transaction in which the accounts are loaded in one query. Then the
+ * transactions posted since each connection's cursor are fetched, on the same
+ * per-institution permits and deadline, and handed to TransactionIngestor,
+ * which inserts the ones not seen before.
+ */
+@Component
+public class BankSyncOrchestrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BankSyncOrchestrator.class);
+
+    public enum Outcome { OK, TIMEOUT, FAILED }
+
+    private static final String UNKNOWN_INSTITUTION = "unknown";
+
+    private final BankAccountRepository bankAccountRepository;
+    private final TransactionIngestor transactionIngestor;
+    private final InstitutionProvider provider;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate writeTransaction;
+    private final int maxConcurrentPerInstitution;
+    private final long requestTimeoutMillis;
+    private final long institutionTimeoutMillis;
+    private final int batchSize;
+    private final SimpleAsyncTaskExecutor institutionExecutor;
+    private final SimpleAsyncTaskExecutor fetchExecutor;
+    private final Map<String, Institution> institutions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BankSyncOrchestrator(BankAccountRepository bankAccountRepository,
+                                TransactionIngestor transactionIngestor,
+                                InstitutionProvider provider,
+                                MeterRegistry meterRegistry,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.bank-sync.max-concurrent-institutions:8}") int maxConcurrentInstitutions,
+                                @Value("${app.bank-sync.max-concurrent-per-institution:4}") int maxConcurrentPerInstitution,
+                                @Value("${app.bank-sync.request-timeout-ms:10000}") long requestTimeoutMillis,
+                                @Value("${app.bank-sync.institution-timeout-ms:60000}") long institutionTimeoutMillis,
+                                @Value("${app.bank-sync.batch-size:100}") int batchSize,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.transactionIngestor = transactionIngestor;
+        this.provider = provider;
+        this.meterRegistry = meterRegistry;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxConcurrentPerInstitution = maxConcurrentPerInstitution;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.institutionTimeoutMillis = institutionTimeoutMillis;
+        this.batchSize = batchSize;
+
+        this.institutionExecutor = new SimpleAsyncTaskExecutor("bank-sync-");
+        this.institutionExecutor.setVirtualThreads(virtualThreads);
+        this.institutionExecutor.setConcurrencyLimit(maxConcurrentInstitutions);
+        // Unbounded here: calls are bounded by each institution's permits
+        this.fetchExecutor = new SimpleAsyncTaskExecutor("bank-sync-fetch-");
+        this.fetchExecutor.setVirtualThreads(virtualThreads);
+    }
+
+    /**
+     * Sync the accounts and wait until every institution has finished or run
+     * out of time
+     */
+    public SyncReport sync(List<BankAccount> accounts) {
+        Map<String, List<BankAccount>> byInstitution = new LinkedHashMap<>();
+        for (BankAccount account : accounts) {
+            String institutionId = account.getInstitutionId() != null ? account.getInstitutionId() : UNKNOWN_INSTITUTION;
+            byInstitution.computeIfAbsent(institutionId, id -> new ArrayList<>()).add(account);
+        }
+
+        List<CompletableFuture<SyncReport>> runs = new ArrayList<>();
+        byInstitution.forEach((institutionId, group) -> runs.add(CompletableFuture.supplyAsync(
+                () -> syncInstitution(institution(institutionId), group), institutionExecutor)));
+
+        SyncReport report = new SyncReport();
+        for (CompletableFuture<SyncReport> run : runs) {
+            report.add(run.join());
+        }
+        return report;
+    }
+
+    /**
+     * Get per-institution sync statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> byInstitution = new TreeMap<>();
+        institutions.forEach((id, institution) -> byInstitution.put(id, institution.statistics()));
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("provider", provider.getName());
+        stats.put("institutions", byInstitution);
+        return stats;
+    }
+
+    private SyncReport syncInstitution(Institution institution, List<BankAccount> group) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(institutionTimeoutMillis);
+        institution.backlog.addAndGet(group.size());
+
+        List<CompletableFuture<BigDecimal>> fetches = new ArrayList<>();
+        try {
+            for (BankAccount account : group) {
+                if (!institution.acquire(deadline)) {
+                    break;
+                }
+                fetches.add(call(institution, "balance", () -> provider.fetchBalance(account)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        SyncReport report = new SyncReport();
+        int deferred = group.size() - fetches.size();
+        if (deferred > 0) {
+            institution.backlog.addAndGet(-deferred);
+            institution.deferred.increment(deferred);
+            report.deferred += deferred;
+            logger.warn("Institution {} ran out of time, deferring {} accounts to the next sync",
+                    institution.id, deferred);
+        }
+
+        Map<Long, BigDecimal> balances = new LinkedHashMap<>();
+        for (int i = 0; i < fetches.size(); i++) {
+            Long accountId = group.get(i).getId();
+            try {
+                balances.put(accountId, fetches.get(i).join());
+            } catch (RuntimeException e) {
+                Throwable cause = Futures.unwrap(e);
+                if (cause instanceof TimeoutException) {
+                    report.timedOut++;
+                    logger.warn("Balance fetch for account {} at {} exceeded {} ms",
+                            accountId, institution.id, requestTimeoutMillis);
+                } else {
+                    report.failedAccountIds.add(accountId);
+                    logger.error("Failed to fetch balance for account {} at {}: {}",
+                            accountId, institution.id, cause.getMessage());
+                }
+            }
+        }
+
+        List<Long> accountIds = new ArrayList<>(balances.keySet());
+        for (int from = 0; from < accountIds.size(); from += batchSize) {
+            List<Long> batch = accountIds.subList(from, Math.min(from + batchSize, accountIds.size()));
+            try {
+                // Counted only once the batch has committed
+                report.synced += writeTransaction.execute(status -> write(batch, balances));
+            } catch (RuntimeException e) {
+                report.failedAccountIds.addAll(batch);
+                logger.error("Failed to save {} synced accounts at {}: {}", batch.size(), institution.id, e.getMessage());
+            }
+        }
+        institution.synced.addAndGet(report.synced);
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (int i = 0; i < fetches.size(); i++) {
+            if (balances.containsKey(group.get(i).getId())) {
+                userIds.add(group.get(i).getUser().getId());
+            }
+        }
+        if (!userIds.isEmpty() && !UNKNOWN_INSTITUTION.equals(institution.id)) {
+            ingestTransactions(institution, userIds, deadline, report);
+        }
+        return report;
+    }
+
+    private void ingestTransactions(Institution institution, Set<Long> userIds, long deadline, SyncReport report) {
+        List<TransactionIngestor.Connection> connections;
+        try {
+            connections = transactionIngestor.connectionsFor(institution.id, userIds);
+        } catch (RuntimeException e) {
+            logger.error("Failed to load connections to {}: {}", institution.id, e.getMessage());
+            return;
+        }
+        institution.backlog.addAndGet(connections.size());
+
+        List<CompletableFuture<TransactionFeed>> feeds = new ArrayList<>();
+        try {
+            for (TransactionIngestor.Connection connection : connections) {
+                if (!institution.acquire(deadline)) {
+                    break;
+                }
+                feeds.add(call(institution, "transactions",
+                        () -> provider.fetchTransactions(connection.getAccounts(), connection.getCursor())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int skipped = connections.size() - feeds.size();
+        if (skipped > 0) {
+            institution.backlog.addAndGet(-skipped);
+            logger.warn("Institution {} ran out of time, deferring transactions of {} connections",
+                    institution.id, skipped);
+        }
+
+        for (int i = 0; i < feeds.size(); i++) {
+            TransactionIngestor.Connection connection = connections.get(i);
+            try {
+                report.transactionsCreated += transactionIngestor.ingest(connection, feeds.get(i).join());
+            } catch (RuntimeException e) {
+                logger.error("Failed to import transactions for user {} from {}: {}",
+                        connection.getUserId(), institution.id, Futures.unwrap(e).getMessage());
+            }
+        }
+    }
+
+    // Run a provider call holding one of the institution's permits
+    private <T> CompletableFuture<T> call(Institution institution, String request, Supplier<T> body) {
+        long started = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            call = CompletableFuture.supplyAsync(body, fetchExecutor);
+        } catch (RuntimeException e) {
+            institution.permits.release();
+            institution.backlog.decrementAndGet();
+            throw e;
+        }
+        // The permit is held until the provider returns, even after the caller stops waiting
+        call.whenComplete((result, error) -> {
+            institution.permits.release();
+            institution.backlog.decrementAndGet();
+        });
+        return call.copy()
+                .orTimeout(requestTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    Outcome outcome = error == null ? Outcome.OK
+                            : Futures.unwrap(error) instanceof TimeoutException ? Outcome.TIMEOUT : Outcome.FAILED;
+                    institution.latency(request, outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                });
+    }
+
+    // Returns the number of accounts updated
+    private int write(List<Long> accountIds, Map<Long, BigDecimal> balances) {
+        LocalDateTime now = LocalDateTime.now();
+        int written = 0;
+        for (BankAccount account : bankAccountRepository.findAllById(accountIds)) {
+            if (account.getConnectionStatus() == BankAccount.ConnectionStatus.DISCONNECTED) {
+                // Disconnected while its balance was being fetched
+                continue;
+            }
+            BigDecimal balance = balances.get(account.getId());
+            account.setCurrentBalance(balance);
+            account.setAvailableBalance(balance);
+            account.setLastSyncAt(now);
+            written++;
+        }
+        return written;
+    }
+
+    private Institution institution(String id) {
+        return institutions.computeIfAbsent(id, Institution::new);
+    }
+
+    /**
+     * One institution's bulkhead and meters
+     */
+    private final class Institution {
+        private final String id;
+        private final Semaphore permits = new Semaphore(maxConcurrentPerInstitution);
+        // Requests queued for or waiting on the institution
+        private final AtomicInteger backlog = new AtomicInteger();
+        private final AtomicLong synced = new AtomicLong();
+        private final Counter deferred;
+        private final Map<String, Timer> latency = new ConcurrentHashMap<>();
+
+        Institution(String id) {
+            this.id = id;
+            Gauge.builder("bank.sync.backlog", backlog, AtomicInteger::get)
+                    .description("Requests queued for or waiting on the institution")
+                    .tag("institution", id)
+                    .register(meterRegistry);
+            this.deferred = Counter.builder("bank.sync.deferred")
+                    .description("Accounts left for the next sync because the institution ran out of time")
+                    .tag("institution", id)
+                    .register(meterRegistry);
+        }
+
+        boolean acquire(long deadline) throws InterruptedException {
+            return permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+        Timer latency(String request, Outcome outcome) {
+            return latency.computeIfAbsent(request + ":" + outcome, key -> Timer.builder("bank.sync.request")
+                    .description("Institution request latency by request and outcome")
+                    .tag("institution", id)
+                    .tag("request", request)
+                    .tag("outcome", outcome.name())
+                    .register(meterRegistry));
+        }
+
+        Map<String, Object> statistics() {
+            Timer balances = latency("balance", Outcome.OK);
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("backlog", backlog.get());
+            stats.put("inFlight", maxConcurrentPerInstitution - permits.availablePermits());
+            stats.put("synced", synced.get());
+            stats.put("deferred", (long) deferred.count());
+            stats.put("timeouts", latency("balance", Outcome.TIMEOUT).count()
+                    + latency("transactions", Outcome.TIMEOUT).count());
+            stats.put("failures", latency("balance", Outcome.FAILED).count()
+                    + latency("transactions", Outcome.FAILED).count());
+            stats.put("meanBalanceLatencyMs", balances.mean(TimeUnit.MILLISECONDS));
+            stats.put("maxBalanceLatencyMs", balances.max(TimeUnit.MILLISECONDS));
+            stats.put("meanTransactionsLatencyMs", latency("transactions", Outcome.OK).mean(TimeUnit.MILLISECONDS));
+            return stats;
+        }
+    }
+
+    /**
+     * What a sync did: accounts updated, transactions generated, fetches that
+     * timed out or failed, and accounts deferred to the next sync
+     */
+    public static final class SyncReport {
+        private int synced;
+        private int transactionsCreated;
+        private int timedOut;
+        private int deferred;
+        private final List<Long> failedAccountIds = new ArrayList<>();
+
+        private void add(SyncReport other) {
+            synced += other.synced;
+            transactionsCreated += other.transactionsCreated;
+            timedOut += other.timedOut;
+            deferred += other.deferred;
+            failedAccountIds.addAll(other.failedAccountIds);
+        }
+
+        public int getSynced() {
+            return synced;
+        }
+
+        public int getTransactionsCreated() {
+            return transactionsCreated;
+        }
+
+        public int getTimedOut() {
+            return timedOut;
+        }
+
+        public int getDeferred() {
+            return deferred;
+        }
+
+        public List<Long> getFailedAccountIds() {
+            return failedAccountIds;
+        }
+    }
+}
@@ -1,76 +1,343 @@
 package com.budgettracker.service;
 
 import com.budgettracker.model.Bill;
+import com.budgettracker.model.BillReminderEvent;
+import com.budgettracker.model.BillReminderEvent.EventStatus;
+import com.budgettracker.model.BillReminderEvent.EventType;
+import com.budgettracker.repository.BillReminderEventRepository;
 import com.budgettracker.repository.BillRepository;
+import com.budgettracker.util.BillRecurrence;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Fires bill reminder, due-date and overdue notifications.
+ *
+ * Each bill's upcoming notifications are persisted as bill_reminder_events
+ * rows whenever the bill is created, updated or paid (see schedule), so they
+ * survive restarts. Pending rows firing within the load-ahead window are held
+ * in an in-memory timer wheel and every tick pops only the events that are
+ * due, so the work is proportional to due events rather than to all bills;
+ * rows further out join the wheel as the window moves forward. On startup
+ * every pending row already past its fire time is loaded and fires on the
+ * first tick, catching up on windows missed while the application was down.
+ *
+ * An event fires exactly once: it is claimed by moving its row from PENDING
+ * to SENT in the transaction that creates the notification, so an event that
+ * was cancelled, already fired or claimed by another instance is skipped, and
+ * a failed one stays pending and is retried. A row that reaches the wheel
+ * twice is therefore harmless.
+ */
 @Service
 public class BillReminderScheduler {
     
+    private static final Logger logger = LoggerFactory.getLogger(BillReminderScheduler.class);
+    
+    private static final int WHEEL_SLOTS = 64;
+    private static final int WHEEL_LEVELS = 3;
+    private static final long RETRY_DELAY_MILLIS = 5 * 60 * 1000L;
+    private static final int OVERDUE_REPEAT_DAYS = 7;
+    
     @Autowired
     private BillRepository billRepository;
     
+    @Autowired
+    private BillReminderEventRepository eventRepository;
+    
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private JobMetrics jobMetrics;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.bill-reminders.tick-ms:60000}")
+    private long tickMillis;
+    
+    @Value("${app.bill-reminders.load-ahead-hours:48}")
+    private long loadAheadHours;
+    
+    @Value("${app.bill-reminders.fire-time:08:00}")
+    private String fireTimeOfDay;
+    
+    private LocalTime fireTime;
+    private TransactionTemplate eventTransaction;
+    
+    // Guarded by this; loadedUntil is null until the startup load
+    private TimerWheel<Long> wheel;
+    private LocalDateTime loadedUntil;
+    
+    @PostConstruct
+    void init() {
+        fireTime = LocalTime.parse(fireTimeOfDay);
+        wheel = new TimerWheel<>(tickMillis, WHEEL_SLOTS, WHEEL_LEVELS, System.currentTimeMillis());
+        eventTransaction = new TransactionTemplate(transactionManager);
+        eventTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
     /**
-     * Check for bills that need reminders and create notifications
-     * Runs every hour
+     * Schedule bills that have no pending events yet (created before events
+     * were persisted) and load every pending event due within the window,
+     * including the ones missed while the application was down
      */
-    @Scheduled(fixedRate = 3600000) // 1 hour = 3600000 milliseconds
-    public void checkBillReminders() {
-        LocalDate today = LocalDate.now();
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        Integer backfilled = eventTransaction.execute(status -> {
+            List<Bill> bills = billRepository.findScheduledBillsWithoutPendingReminders();
+            bills.forEach(this::schedule);
+            return bills.size();
+        });
         
-        // Get all active bills
-        List<Bill> allBills = billRepository.findAll().stream()
-            .filter(bill -> bill.getStatus() == Bill.BillStatus.ACTIVE)
-            .collect(Collectors.toList());
+        LocalDateTime until = LocalDateTime.now().plusHours(loadAheadHours);
+        synchronized (this) {
+            loadedUntil = until;
+        }
+        List<BillReminderEvent> pending = eventRepository.findPendingFiringBy(until);
+        enqueue(pending);
+        logger.info("Bill reminders: scheduled {} bills, loaded {} pending events", backfilled, pending.size());
+        tick();
+    }
+    
+    /**
+     * Fire the events that are due
+     * Runs every minute
+     */
+    @Scheduled(fixedDelayString = "${app.bill-reminders.tick-ms:60000}",
+               initialDelayString = "${app.bill-reminders.tick-ms:60000}")
+    public void tick() {
+        LocalDateTime after;
+        LocalDateTime until = LocalDateTime.now().plusHours(loadAheadHours);
+        synchronized (this) {
+            if (loadedUntil == null) {
+                return;
+            }
+            after = loadedUntil.isBefore(until) ? loadedUntil : null;
+            if (after != null) {
+                loadedUntil = until;
+            }
+        }
+        // Rows committed after the window moved are enqueued by schedule itself
+        if (after != null) {
+            enqueue(eventRepository.findPendingFiringBetween(after, until));
+        }
+        
+        List<Long> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(System.currentTimeMillis(), due::add);
+        }
+        int fired = 0;
+        for (Long eventId : due) {
+            if (fire(eventId)) {
+                fired++;
+            }
+        }
         
-        for (Bill bill : allBills) {
-            if (bill.getStatus() != Bill.BillStatus.ACTIVE || bill.getNextDueDate() == null) {
+        jobMetrics.recordItems("billReminders.fire", fired);
+    }
+    
+    /**
+     * Bring a bill's pending events in line with its current schedule: a
+     * reminder and a due-date event for its upcoming occurrence and an overdue
+     * event for its next (unpaid) due date. Events that no longer apply are
+     * cancelled and ones that already fired are not repeated. Call in the
+     * transaction that saves the bill; new events join the wheel once it
+     * commits.
+     */
+    public void schedule(Bill bill) {
+        LocalDate due = bill.getNextDueDate();
+        List<BillReminderEvent> planned = plan(bill, LocalDate.now(), fireTime);
+        if (planned.isEmpty()) {
+            cancel(bill.getId());
+            return;
+        }
+        
+        eventRepository.cancelPendingBefore(bill.getId(), due);
+        List<BillReminderEvent> existing = eventRepository.findByBillIdAndOccurrenceDateGreaterThanEqual(bill.getId(), due);
+        // Once the bill is overdue its overdue events repeat on their own until it is paid
+        boolean overdueStarted = existing.stream().anyMatch(row -> isOverdueOf(row, due)
+                && row.getStatus() != EventStatus.CANCELLED);
+        
+        for (BillReminderEvent row : existing) {
+            boolean stillPlanned = planned.stream().anyMatch(row::sameEventAs) || isOverdueOf(row, due);
+            if (row.getStatus() == EventStatus.PENDING && !stillPlanned) {
+                row.setStatus(EventStatus.CANCELLED);
+            }
+        }
+        
+        List<BillReminderEvent> added = new ArrayList<>();
+        for (BillReminderEvent event : planned) {
+            if (overdueStarted && event.getType() == EventType.OVERDUE) {
                 continue;
             }
-            
-            int daysUntilDue = (int) ChronoUnit.DAYS.between(today, bill.getNextDueDate());
-            
-            // Check if bill needs a reminder
-            if (bill.getReminderDaysBefore() != null && daysUntilDue == bill.getReminderDaysBefore() && daysUntilDue > 0) {
-                // Create reminder notification
-                notificationService.createBillReminder(bill.getUserId(), bill, daysUntilDue);
+            BillReminderEvent match = existing.stream().filter(event::sameEventAs).findFirst().orElse(null);
+            if (match == null) {
+                added.add(eventRepository.save(event));
+            } else if (match.getStatus() == EventStatus.CANCELLED) {
+                match.setStatus(EventStatus.PENDING);
+                added.add(match);
+            }
+        }
+        enqueueAfterCommit(added);
+    }
+    
+    /**
+     * Cancel all of a bill's pending events, e.g. when it is deleted
+     */
+    public void cancel(Long billId) {
+        eventRepository.cancelPending(billId);
+    }
+    
+    /**
+     * The events a bill should have as of today, nothing for a bill that is
+     * not active or overdue. A reminder whose day has already passed is kept
+     * and fires late, as long as its due date is still ahead.
+     */
+    static List<BillReminderEvent> plan(Bill bill, LocalDate today, LocalTime fireTime) {
+        List<BillReminderEvent> events = new ArrayList<>();
+        LocalDate due = bill.getNextDueDate();
+        boolean scheduled = bill.getStatus() == Bill.BillStatus.ACTIVE || bill.getStatus() == Bill.BillStatus.OVERDUE;
+        if (bill.getId() == null || due == null || !scheduled) {
+            return events;
+        }
+        
+        // While the next due date is overdue, remind about the occurrence after it
+        LocalDate upcoming = due.isBefore(today) ? BillRecurrence.nextOnOrAfter(bill, today) : due;
+        if (upcoming != null) {
+            Integer daysBefore = bill.getReminderDaysBefore();
+            if (daysBefore != null && daysBefore > 0 && upcoming.isAfter(today)) {
+                events.add(new BillReminderEvent(bill.getId(), bill.getUserId(), EventType.REMINDER, upcoming,
+                        upcoming.minusDays(daysBefore).atTime(fireTime)));
+            }
+            events.add(new BillReminderEvent(bill.getId(), bill.getUserId(), EventType.DUE, upcoming,
+                    upcoming.atTime(fireTime)));
+        }
+        events.add(new BillReminderEvent(bill.getId(), bill.getUserId(), EventType.OVERDUE, due,
+                due.plusDays(1).atTime(fireTime)));
+        return events;
+    }
+    
+    // Claim and process one event in its own transaction; retried later if it fails
+    private boolean fire(Long eventId) {
+        try {
+            return Boolean.TRUE.equals(eventTransaction.execute(status -> process(eventId)));
+        } catch (RuntimeException e) {
+            logger.warn("Bill reminder event {} failed, retrying in {} ms: {}", eventId, RETRY_DELAY_MILLIS, e.getMessage());
+            synchronized (this) {
+                wheel.schedule(System.currentTimeMillis() + RETRY_DELAY_MILLIS, eventId);
+            }
+            return false;
+        }
+    }
+    
+    private boolean process(Long eventId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (eventRepository.claim(eventId, now) == 0) {
+            return false;
+        }
+        BillReminderEvent event = eventRepository.findById(eventId).orElse(null);
+        Bill bill = event != null ? billRepository.findById(event.getBillId()).orElse(null) : null;
+        if (bill == null) {
+            return false;
+        }
+        if (plan(bill, now.toLocalDate(), fireTime).isEmpty()) {
+            cancel(bill.getId());
+            return false;
+        }
+        
+        LocalDate today = now.toLocalDate();
+        LocalDate occurrence = event.getOccurrenceDate();
+        boolean notified = false;
+        switch (event.getType()) {
+            case REMINDER -> {
+                int daysUntilDue = (int) ChronoUnit.DAYS.between(today, occurrence);
+                if (daysUntilDue > 0) {
+                    notificationService.createBillReminder(bill.getUserId(), bill, daysUntilDue);
+                    notified = true;
+                }
             }
-            
-            // Check if bill is due today
-            if (daysUntilDue == 0) {
-                // Create due today notification
-                notificationService.createBillReminder(bill.getUserId(), bill, 0);
+            case DUE -> {
+                if (!today.isAfter(occurrence)) {
+                    notificationService.createBillReminder(bill.getUserId(), bill, 0);
+                    notified = true;
+                }
             }
-            
-            // Check if bill is overdue
-            if (daysUntilDue < 0) {
-                int daysOverdue = Math.abs(daysUntilDue);
-                
-                // Update bill status to overdue
-                if (bill.getStatus() != Bill.BillStatus.OVERDUE) {
+            case OVERDUE -> {
+                if (!occurrence.equals(bill.getNextDueDate())) {
+                    break;
+                }
+                if (bill.getStatus() == Bill.BillStatus.ACTIVE) {
                     bill.setStatus(Bill.BillStatus.OVERDUE);
                     billRepository.save(bill);
                 }
+                int daysOverdue = (int) ChronoUnit.DAYS.between(occurrence, today);
+                notificationService.createOverdueBillNotification(bill.getUserId(), bill, daysOverdue);
+                notified = true;
                 
-                // Create overdue notification (only on first day overdue to avoid spam)
-                if (daysOverdue == 1) {
-                    notificationService.createOverdueBillNotification(bill.getUserId(), bill, daysOverdue);
-                }
-                
-                // Send weekly reminders for overdue bills
-                if (daysOverdue % 7 == 0) {
-                    notificationService.createOverdueBillNotification(bill.getUserId(), bill, daysOverdue);
-                }
+                // Remind again weekly until the bill is paid
+                enqueueAfterCommit(List.of(eventRepository.save(new BillReminderEvent(bill.getId(), bill.getUserId(),
+                        EventType.OVERDUE, occurrence, today.plusDays(OVERDUE_REPEAT_DAYS).atTime(fireTime)))));
+            }
+        }
+        
+        // Moves the reminder on to the next occurrence once this one is due
+        schedule(bill);
+        return notified;
+    }
+    
+    private static boolean isOverdueOf(BillReminderEvent row, LocalDate due) {
+        return row.getType() == EventType.OVERDUE && row.getOccurrenceDate().equals(due);
+    }
+    
+    private void enqueueAfterCommit(List<BillReminderEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(events);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(events);
+            }
+        });
+    }
+    
+    // Put pending events firing within the loaded window on the wheel
+    private synchronized void enqueue(List<BillReminderEvent> events) {
+        if (loadedUntil == null) {
+            return;
+        }
+        for (BillReminderEvent event : events) {
+            if (event.getFireAt().isAfter(loadedUntil)) {
+                continue;
+            }
+            long deadline = event.getFireAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (!wheel.schedule(deadline, event.getId())) {
+                logger.warn("Bill reminder event {} at {} is beyond the timer wheel", event.getId(), event.getFireAt());
             }
         }
     }
@@ -81,9 +348,10 @@ public class BillReminderScheduler {
      */
     @Scheduled(cron = "0 0 8 * * ?")
     public void sendDailyDigests() {
-        // This would be implemented to send daily digest emails
-        // For now, we'll just log that it would run
-        System.out.println("Daily digest scheduler would run at: " + LocalDate.now());
+        LocalDateTime until = LocalDate.now().atTime(LocalTime.of(8, 0));
+        int digests = notificationService.sendDailyDigests(until.minusDays(1), until);
+        
+        jobMetrics.recordItems("notifications.digest", digests);
     }
     
     /**
@@ -105,5 +373,7 @@ public class BillReminderScheduler {
         if (!completedBills.isEmpty()) {
             System.out.println("Would archive " + completedBills.size() + " completed one-time bills");
         }
+        
+        jobMetrics.recordItems("billReminders.cleanup", completedBills.size());
     }
-}
\ No newline at end of file
+}
@@ -3,16 +3,21 @@ package com.budgettracker.service;
 import com.budgettracker.dto.*;
 import com.budgettracker.model.Bill;
 import com.budgettracker.model.BillPayment;
+import com.budgettracker.model.Debt;
 import com.budgettracker.model.Transaction;
 import com.budgettracker.repository.BillRepository;
 import com.budgettracker.repository.BillPaymentRepository;
+import com.budgettracker.repository.DebtRepository;
 import com.budgettracker.repository.TransactionRepository;
+import com.budgettracker.util.BillRecurrence;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -21,6 +26,8 @@ import java.util.stream.Collectors;
 @Transactional
 public class BillReminderService {
     
+    private static final int CASH_FLOW_HISTORY_MONTHS = 6;
+    
     @Autowired
     private BillRepository billRepository;
     
@@ -30,6 +37,18 @@ public class BillReminderService {
     @Autowired
     private TransactionRepository transactionRepository;
     
+    @Autowired
+    private DebtRepository debtRepository;
+    
+    @Autowired
+    private BankIntegrationService bankIntegrationService;
+    
+    @Autowired
+    private BillReminderScheduler billReminderScheduler;
+    
+    @Value("${app.cash-flow.low-balance-threshold:100.00}")
+    private BigDecimal lowBalanceThreshold;
+    
     /**
      * Create a new bill
      */
@@ -46,6 +65,7 @@ public class BillReminderService {
         bill.setNotes(request.getNotes());
         
         Bill savedBill = billRepository.save(bill);
+        billReminderScheduler.schedule(savedBill);
         return new BillResponse(savedBill);
     }
     
@@ -74,6 +94,7 @@ public class BillReminderService {
         bill.setNotes(request.getNotes());
         
         Bill savedBill = billRepository.save(bill);
+        billReminderScheduler.schedule(savedBill);
         return new BillResponse(savedBill);
     }
     
@@ -98,13 +119,11 @@ public class BillReminderService {
     }
     
     /**
-     * Get bills due within a date range
+     * Get bills with an occurrence within a date range, ordered by their first one
      */
     public List<BillResponse> getBillsDueInRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        List<Bill> bills = billRepository.findBillsDueInDateRange(userId, startDate, endDate);
-        return bills.stream()
-                   .map(BillResponse::new)
-                   .collect(Collectors.toList());
+        List<Bill> bills = billRepository.findScheduledBillsStartingBy(userId, endDate);
+        return billsDueBetween(bills, startDate, endDate);
     }
     
     /**
@@ -128,15 +147,13 @@ public class BillReminderService {
     }
     
     /**
-     * Get bills due within the next N days
+     * Get bills with an occurrence within the next N days
      */
     public List<BillResponse> getBillsDueWithinDays(Long userId, int days) {
         LocalDate today = LocalDate.now();
         LocalDate futureDate = today.plusDays(days);
-        List<Bill> bills = billRepository.findBillsDueWithinDays(userId, today, futureDate);
-        return bills.stream()
-                   .map(BillResponse::new)
-                   .collect(Collectors.toList());
+        List<Bill> bills = billRepository.findScheduledBillsStartingBy(userId, futureDate);
+        return billsDueBetween(bills, today, futureDate);
     }
     
     /**
@@ -145,16 +162,17 @@ public class BillReminderService {
     public List<BillResponse> getBillsNeedingReminders(Long userId) {
         LocalDate today = LocalDate.now();
         LocalDate maxReminderDate = today.plusDays(30); // Look ahead 30 days max
-        List<Bill> bills = billRepository.findBillsNeedingReminders(userId, today, maxReminderDate);
+        List<Bill> bills = billRepository.findScheduledBillsStartingBy(userId, maxReminderDate);
         
-        // Filter bills that actually need reminders based on their individual reminder settings
+        // Filter bills whose upcoming occurrence is within their individual reminder window
         return bills.stream()
                    .filter(bill -> {
-                       if (bill.getReminderDaysBefore() == null || bill.getNextDueDate() == null) {
+                       if (bill.getReminderDaysBefore() == null) {
                            return false;
                        }
-                       long daysUntilDue = ChronoUnit.DAYS.between(today, bill.getNextDueDate());
-                       return daysUntilDue <= bill.getReminderDaysBefore() && daysUntilDue >= 0;
+                       LocalDate upcoming = BillRecurrence.nextOnOrAfter(bill, today);
+                       return upcoming != null
+                           && ChronoUnit.DAYS.between(today, upcoming) <= bill.getReminderDaysBefore();
                    })
                    .map(BillResponse::new)
                    .collect(Collectors.toList());
@@ -172,6 +190,7 @@ public class BillReminderService {
         }
         
         billRepository.delete(bill);
+        billReminderScheduler.cancel(billId);
     }
     
     /**
@@ -202,6 +221,7 @@ public class BillReminderService {
         if (request.getStatus() == BillPayment.PaymentStatus.PAID) {
             updateBillNextDueDate(bill);
             billRepository.save(bill);
+            billReminderScheduler.schedule(bill);
         }
         
         return new BillPaymentResponse(savedPayment, bill.getName());
@@ -237,68 +257,69 @@ public class BillReminderService {
     }
     
     /**
-     * Calculate cash flow projection including bills
+     * Project the user's cash flow day by day from their current account
+     * balance: recurring income and expenses detected in the last six months
+     * of transactions, every bill occurrence, debt minimum payments and the
+     * remaining (non-recurring) spending spread evenly over the days.
+     * The balance is only known as of today, so the simulation always starts
+     * today and a start date in the past is clipped to today. A bill whose
+     * next due date has passed has not been paid, so its overdue occurrences
+     * are still owed and are posted today.
      */
     public CashFlowProjectionResponse calculateCashFlowProjection(Long userId, LocalDate startDate, LocalDate endDate) {
-        // Get starting balance (simplified - could be from account balance)
-        BigDecimal startingBalance = BigDecimal.valueOf(1000.00); // Placeholder
-        
-        CashFlowProjectionResponse projection = new CashFlowProjectionResponse(startDate, endDate, startingBalance);
-        
-        // Get upcoming bills in the date range
-        List<Bill> upcomingBills = billRepository.findBillsDueInDateRange(userId, startDate, endDate);
-        
-        // Get historical transactions for income/expense patterns
-        List<Transaction> recentTransactions = transactionRepository.findByUserIdAndDateBetween(userId, 
-                                                                                               startDate.minusMonths(3), 
-                                                                                               startDate);
-        
-        // Calculate projected income and expenses based on historical data
-        BigDecimal avgMonthlyIncome = calculateAverageMonthlyIncome(recentTransactions);
-        BigDecimal avgMonthlyExpenses = calculateAverageMonthlyExpenses(recentTransactions);
-        
-        // Calculate bill projections
-        BigDecimal totalBillPayments = upcomingBills.stream()
-            .map(Bill::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Calculate projections
-        long monthsInRange = ChronoUnit.MONTHS.between(startDate, endDate);
-        if (monthsInRange == 0) monthsInRange = 1;
-        
-        BigDecimal totalIncome = avgMonthlyIncome.multiply(BigDecimal.valueOf(monthsInRange));
-        BigDecimal totalExpenses = avgMonthlyExpenses.multiply(BigDecimal.valueOf(monthsInRange));
-        BigDecimal netCashFlow = totalIncome.subtract(totalExpenses).subtract(totalBillPayments);
-        BigDecimal projectedEndingBalance = startingBalance.add(netCashFlow);
+        LocalDate today = LocalDate.now();
+        if (endDate.isBefore(today)) {
+            throw new IllegalArgumentException("Cash flow projection must end today or later");
+        }
+        if (startDate.isBefore(today)) {
+            startDate = today;
+        }
+        BigDecimal accountBalance = bankIntegrationService.getTotalAccountBalance(userId);
+        CashFlowSimulator simulator = new CashFlowSimulator(today, startDate, endDate,
+            CashFlowSimulator.toCents(accountBalance != null ? accountBalance : BigDecimal.ZERO));
+        
+        CashFlowProjectionResponse projection = new CashFlowProjectionResponse(startDate, endDate, null);
+        
+        // Every occurrence of every bill from its next due date, in date order; overdue ones are paid today
+        List<Bill> scheduledBills = billRepository.findScheduledBillsStartingBy(userId, endDate);
+        List<CashFlowProjectionResponse.BillProjection> billProjections = new ArrayList<>();
+        Iterator<BillRecurrence.Occurrence> occurrences = BillRecurrence.expand(scheduledBills, LocalDate.MIN, endDate);
+        while (occurrences.hasNext()) {
+            BillRecurrence.Occurrence occurrence = occurrences.next();
+            Bill bill = occurrence.getBill();
+            LocalDate paidOn = occurrence.getDueDate().isBefore(today) ? today : occurrence.getDueDate();
+            simulator.add(paidOn, -CashFlowSimulator.toCents(bill.getAmount()),
+                bill.getName(), CashFlowSimulator.BILL);
+            if (!paidOn.isBefore(startDate)) {
+                billProjections.add(new CashFlowProjectionResponse.BillProjection(
+                    bill.getId(), bill.getName(), occurrence.getDueDate(),
+                    bill.getAmount(), bill.getCategory()));
+            }
+        }
         
-        projection.setTotalIncome(totalIncome);
-        projection.setTotalExpenses(totalExpenses);
-        projection.setTotalBillPayments(totalBillPayments);
-        projection.setNetCashFlow(netCashFlow);
-        projection.setProjectedEndingBalance(projectedEndingBalance);
+        // Recurring income and expenses from history, except those already tracked as bills
+        LocalDate historyStart = today.minusMonths(CASH_FLOW_HISTORY_MONTHS);
+        List<Transaction> history = transactionRepository.findByUserIdAndDateBetween(userId, historyStart, today);
+        RecurringTransactionDetector.Detection detection = RecurringTransactionDetector.detect(history, today);
+        for (RecurringTransactionDetector.RecurringPattern pattern : detection.getPatterns()) {
+            if (scheduledBills.stream().anyMatch(pattern::isCoveredBy)) {
+                continue;
+            }
+            boolean income = pattern.getType() == Transaction.TransactionType.INCOME;
+            for (LocalDate date : pattern.projectedDates(today, endDate)) {
+                simulator.add(date, income ? pattern.getAmountCents() : -pattern.getAmountCents(), pattern.getName(),
+                    income ? CashFlowSimulator.INCOME : CashFlowSimulator.EXPENSE);
+            }
+        }
+        simulator.setDailyDiscretionaryCents(
+            detection.getOtherExpenseCents() / ChronoUnit.DAYS.between(historyStart, today));
         
-        // Create bill projections
-        List<CashFlowProjectionResponse.BillProjection> billProjections = upcomingBills.stream()
-            .map(bill -> new CashFlowProjectionResponse.BillProjection(
-                bill.getId(), bill.getName(), bill.getNextDueDate(), 
-                bill.getAmount(), bill.getCategory()))
-            .collect(Collectors.toList());
+        addDebtPayments(simulator, debtRepository.findByUserIdAndStatus(userId, Debt.DebtStatus.ACTIVE), today, endDate);
         
+        simulator.projectInto(projection,
+            lowBalanceThreshold != null ? CashFlowSimulator.toCents(lowBalanceThreshold) : 0L);
         projection.setUpcomingBills(billProjections);
         
-        // Create cash flow items (simplified)
-        List<CashFlowProjectionResponse.CashFlowItem> cashFlowItems = new ArrayList<>();
-        BigDecimal runningBalance = startingBalance;
-        
-        for (CashFlowProjectionResponse.BillProjection billProj : billProjections) {
-            runningBalance = runningBalance.subtract(billProj.getAmount());
-            cashFlowItems.add(new CashFlowProjectionResponse.CashFlowItem(
-                billProj.getDueDate(), billProj.getBillName(), "BILL", 
-                billProj.getAmount().negate(), runningBalance));
-        }
-        
-        projection.setCashFlowItems(cashFlowItems);
-        
         return projection;
     }
     
@@ -314,37 +335,31 @@ public class BillReminderService {
      * Update bill's next due date based on frequency
      */
     private void updateBillNextDueDate(Bill bill) {
-        LocalDate currentNextDue = bill.getNextDueDate();
-        if (currentNextDue == null) return;
+        if (bill.getNextDueDate() == null) return;
         
-        LocalDate newNextDue;
-        switch (bill.getFrequency()) {
-            case WEEKLY:
-                newNextDue = currentNextDue.plusWeeks(1);
-                break;
-            case BI_WEEKLY:
-                newNextDue = currentNextDue.plusWeeks(2);
-                break;
-            case MONTHLY:
-                newNextDue = currentNextDue.plusMonths(1);
-                break;
-            case QUARTERLY:
-                newNextDue = currentNextDue.plusMonths(3);
-                break;
-            case SEMI_ANNUALLY:
-                newNextDue = currentNextDue.plusMonths(6);
-                break;
-            case ANNUALLY:
-                newNextDue = currentNextDue.plusYears(1);
-                break;
-            case ONE_TIME:
-                bill.setStatus(Bill.BillStatus.PAID_OFF);
-                return;
-            default:
-                return;
+        if (bill.getFrequency() == Bill.BillFrequency.ONE_TIME) {
+            bill.setStatus(Bill.BillStatus.PAID_OFF);
+            return;
         }
         
-        bill.setNextDueDate(newNextDue);
+        bill.setNextDueDate(BillRecurrence.following(bill));
+    }
+    
+    /**
+     * Bills with an occurrence between the dates, ordered by their first one
+     */
+    private List<BillResponse> billsDueBetween(List<Bill> bills, LocalDate startDate, LocalDate endDate) {
+        Map<Bill, LocalDate> firstDue = new HashMap<>();
+        for (Bill bill : bills) {
+            LocalDate due = BillRecurrence.nextOnOrAfter(bill, startDate);
+            if (due != null && !due.isAfter(endDate)) {
+                firstDue.put(bill, due);
+            }
+        }
+        return firstDue.entrySet().stream()
+                   .sorted(Map.Entry.comparingByValue())
+                   .map(entry -> new BillResponse(entry.getKey()))
+                   .collect(Collectors.toList());
     }
     
     /**
@@ -357,26 +372,29 @@ public class BillReminderService {
     }
     
     /**
-     * Calculate average monthly income from transactions
-     */
-    private BigDecimal calculateAverageMonthlyIncome(List<Transaction> transactions) {
-        BigDecimal totalIncome = transactions.stream()
-            .filter(t -> t.getAmount().compareTo(BigDecimal.ZERO) > 0)
-            .map(Transaction::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        return totalIncome.divide(BigDecimal.valueOf(3), 2, BigDecimal.ROUND_HALF_UP);
-    }
-    
-    /**
-     * Calculate average monthly expenses from transactions
+     * Add monthly minimum payments on each debt's due day. Interest is not
+     * modelled, so payments stop once they would have cleared the current balance.
      */
-    private BigDecimal calculateAverageMonthlyExpenses(List<Transaction> transactions) {
-        BigDecimal totalExpenses = transactions.stream()
-            .filter(t -> t.getAmount().compareTo(BigDecimal.ZERO) < 0)
-            .map(transaction -> transaction.getAmount().abs())
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        return totalExpenses.divide(BigDecimal.valueOf(3), 2, BigDecimal.ROUND_HALF_UP);
+    private void addDebtPayments(CashFlowSimulator simulator, List<Debt> debts, LocalDate from, LocalDate to) {
+        for (Debt debt : debts) {
+            if (debt.getMinimumPayment() == null || debt.getMinimumPayment().signum() <= 0) {
+                continue;
+            }
+            long payment = CashFlowSimulator.toCents(debt.getMinimumPayment());
+            long remaining = debt.getCurrentBalance() != null ? CashFlowSimulator.toCents(debt.getCurrentBalance()) : Long.MAX_VALUE;
+            int dayOfMonth = debt.getDueDate() != null ? debt.getDueDate() : 1;
+            LocalDate first = debt.getPaymentStartDate() != null && debt.getPaymentStartDate().isAfter(from)
+                ? debt.getPaymentStartDate() : from;
+            
+            for (YearMonth month = YearMonth.from(first); remaining > 0 && !month.atDay(1).isAfter(to); month = month.plusMonths(1)) {
+                LocalDate date = month.atDay(Math.min(dayOfMonth, month.lengthOfMonth()));
+                if (date.isBefore(first) || date.isAfter(to)) {
+                    continue;
+                }
+                long amount = Math.min(payment, remaining);
+                simulator.add(date, -amount, debt.getName() + " minimum payment", CashFlowSimulator.DEBT_PAYMENT);
+                remaining -= amount;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,179 @@
+package com.budgettracker.service;
+
+import com.budgettracker.dto.CashFlowProjectionResponse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Day-by-day cash-flow simulation in whole cents.
+ *
+ * Dated events (income, expenses, bill and debt payments) are bucketed by day
+ * offset from the origin and a constant daily discretionary spend is applied
+ * to every day, so the closing balance of each day is a single running sum
+ * into a long array; a 24-month projection is a few hundred thousand
+ * primitive operations at most. The simulation starts at the origin with the seed
+ * balance; events before the reporting start only carry into the starting
+ * balance. Not thread-safe; use one instance per projection.
+ */
+public final class CashFlowSimulator {
+
+    public static final String INCOME = "INCOME";
+    public static final String EXPENSE = "EXPENSE";
+    public static final String BILL = "BILL";
+    public static final String DEBT_PAYMENT = "DEBT_PAYMENT";
+
+    private final LocalDate origin;
+    private final LocalDate reportStart;
+    private final int days;
+    private final long seedCents;
+
+    private final List<Event> events = new ArrayList<>();
+    private long dailyDiscretionaryCents;
+
+    public CashFlowSimulator(LocalDate origin, LocalDate reportStart, LocalDate end, long seedCents) {
+        if (end.isBefore(reportStart) || reportStart.isBefore(origin)) {
+            throw new IllegalArgumentException("Projection must run from origin to reporting start to end");
+        }
+        this.origin = origin;
+        this.reportStart = reportStart;
+        this.days = (int) ChronoUnit.DAYS.between(origin, end) + 1;
+        this.seedCents = seedCents;
+    }
+
+    /**
+     * Add a dated flow: positive cents in, negative cents out. Events outside
+     * the simulated range are ignored.
+     */
+    public void add(LocalDate date, long cents, String description, String type) {
+        long day = ChronoUnit.DAYS.between(origin, date);
+        if (day >= 0 && day < days) {
+            events.add(new Event((int) day, cents, description, type));
+        }
+    }
+
+    /**
+     * Spending applied on every day of the simulation
+     */
+    public void setDailyDiscretionaryCents(long dailyDiscretionaryCents) {
+        this.dailyDiscretionaryCents = dailyDiscretionaryCents;
+    }
+
+    /**
+     * Run the simulation and fill the projection's totals, cash-flow items and
+     * low-balance figures. Days whose closing balance is below the threshold
+     * are low-balance days; the first day of each such stretch is reported.
+     */
+    public void projectInto(CashFlowProjectionResponse projection, long lowBalanceThresholdCents) {
+        // Counting sort by day; same-day events keep the order they were added in
+        int[] firstOfDay = new int[days + 1];
+        for (Event event : events) {
+            firstOfDay[event.day + 1]++;
+        }
+        for (int day = 0; day < days; day++) {
+            firstOfDay[day + 1] += firstOfDay[day];
+        }
+        Event[] byDay = new Event[events.size()];
+        int[] fill = Arrays.copyOf(firstOfDay, days);
+        for (Event event : events) {
+            byDay[fill[event.day]++] = event;
+        }
+
+        int reportDay = (int) ChronoUnit.DAYS.between(origin, reportStart);
+        long[] closing = new long[days];
+        List<CashFlowProjectionResponse.CashFlowItem> items = new ArrayList<>();
+        List<LocalDate> lowBalanceDates = new ArrayList<>();
+        long income = 0;
+        long expenses = 0;
+        long bills = 0;
+        long startingBalance = seedCents;
+        long lowest = Long.MAX_VALUE;
+        int lowestDay = reportDay;
+        int lowDays = 0;
+
+        long balance = seedCents;
+        for (int day = 0; day < days; day++) {
+            boolean reported = day >= reportDay;
+            if (day == reportDay) {
+                startingBalance = balance;
+            }
+            balance -= dailyDiscretionaryCents;
+            if (reported) {
+                expenses += dailyDiscretionaryCents;
+            }
+
+            for (int i = firstOfDay[day]; i < firstOfDay[day + 1]; i++) {
+                Event event = byDay[i];
+                balance += event.cents;
+                if (!reported) {
+                    continue;
+                }
+                switch (event.type) {
+                    case INCOME -> income += event.cents;
+                    case BILL -> bills -= event.cents;
+                    default -> expenses -= event.cents;
+                }
+                items.add(new CashFlowProjectionResponse.CashFlowItem(origin.plusDays(day), event.description,
+                        event.type, toAmount(event.cents), toAmount(balance)));
+            }
+
+            closing[day] = balance;
+            if (!reported) {
+                continue;
+            }
+            if (balance < lowest) {
+                lowest = balance;
+                lowestDay = day;
+            }
+            if (balance < lowBalanceThresholdCents) {
+                if (day == reportDay || closing[day - 1] >= lowBalanceThresholdCents) {
+                    lowBalanceDates.add(origin.plusDays(day));
+                }
+                lowDays++;
+            }
+        }
+
+        projection.setStartingBalance(toAmount(startingBalance));
+        projection.setTotalIncome(toAmount(income));
+        projection.setTotalExpenses(toAmount(expenses));
+        projection.setTotalBillPayments(toAmount(bills));
+        projection.setNetCashFlow(toAmount(income - expenses - bills));
+        projection.setProjectedEndingBalance(toAmount(balance));
+        projection.setCashFlowItems(items);
+        projection.setLowestBalance(toAmount(lowest));
+        projection.setLowestBalanceDate(origin.plusDays(lowestDay));
+        projection.setLowBalanceThreshold(toAmount(lowBalanceThresholdCents));
+        projection.setLowBalanceDates(lowBalanceDates);
+        projection.setLowBalanceDays(lowDays);
+    }
+
+    /**
+     * Whole cents of an amount, rounded half up
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static final class Event {
+        private final int day;
+        private final long cents;
+        private final String description;
+        private final String type;
+
+        Event(int day, long cents, String description, String type) {
+            this.day = day;
+            this.cents = cents;
+            this.description = description;
+            this.type = type;
+        }
+    }
+}
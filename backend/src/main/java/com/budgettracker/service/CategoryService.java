@@ -16,34 +16,37 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
     
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
     // Get all active categories
     public List<Category> getAllActiveCategories() {
-        return categoryRepository.findByIsActiveTrue();
+        return referenceDataCache.getActiveCategories();
     }
     
     // Get categories by type
     public List<Category> getCategoriesByType(Category.CategoryType type) {
-        return categoryRepository.findByTypeAndIsActiveTrueOrderByName(type);
+        return referenceDataCache.getActiveCategories(type);
     }
     
     // Get income categories
     public List<Category> getIncomeCategories() {
-        return categoryRepository.getIncomeCategories();
+        return referenceDataCache.getActiveCategoriesIncludingBoth(Category.CategoryType.INCOME);
     }
     
     // Get expense categories
     public List<Category> getExpenseCategories() {
-        return categoryRepository.getExpenseCategories();
+        return referenceDataCache.getActiveCategoriesIncludingBoth(Category.CategoryType.EXPENSE);
     }
     
     // Get category by ID
     public Optional<Category> getCategoryById(Long id) {
-        return categoryRepository.findById(id);
+        return referenceDataCache.findCategory(id);
     }
     
     // Get category by name
     public Optional<Category> getCategoryByName(String name) {
-        return categoryRepository.findByNameIgnoreCase(name);
+        return referenceDataCache.findCategoryByName(name);
     }
     
     // Create new category
@@ -53,6 +56,7 @@ public class CategoryService {
             throw new RuntimeException("Category with name '" + category.getName() + "' already exists");
         }
         
+        referenceDataCache.invalidateCategories();
         return categoryRepository.save(category);
     }
     
@@ -73,6 +77,7 @@ public class CategoryService {
         existingCategory.setColorCode(categoryUpdate.getColorCode());
         existingCategory.setIsActive(categoryUpdate.getIsActive());
         
+        referenceDataCache.invalidateCategories();
         return categoryRepository.save(existingCategory);
     }
     
@@ -83,6 +88,7 @@ public class CategoryService {
         
         category.setIsActive(false);
         categoryRepository.save(category);
+        referenceDataCache.invalidateCategories();
     }
     
     // Activate category
@@ -92,6 +98,7 @@ public class CategoryService {
         
         category.setIsActive(true);
         categoryRepository.save(category);
+        referenceDataCache.invalidateCategories();
     }
     
     // Hard delete category (permanent deletion)
@@ -100,6 +107,7 @@ public class CategoryService {
                 .orElseThrow(() -> new RuntimeException("Category not found"));
         
         categoryRepository.delete(category);
+        referenceDataCache.invalidateCategories();
     }
     
     // Search categories by name
@@ -123,6 +131,7 @@ public class CategoryService {
         if (categoryRepository.count() == 0) {
             createDefaultIncomeCategories();
             createDefaultExpenseCategories();
+            referenceDataCache.invalidateCategories();
         }
     }
     
@@ -0,0 +1,194 @@
+package com.budgettracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Searches 401k / traditional IRA / HSA allocations for a single income.
+ *
+ * Each account is sampled on a fixed grid plus the contribution amounts that
+ * land taxable income exactly on a bracket lower bound, so every marginal-rate
+ * breakpoint is evaluated. Candidates are evaluated in parallel, one 401k level
+ * per task, with the IRA x HSA plane taxed through the vectorized bracket
+ * schedule. The result is the Pareto frontier of total tax saved versus
+ * take-home pay. All amounts are in cents.
+ */
+final class ContributionOptimizer {
+
+    static final long GRID_STEP_CENTS = 50_000L;
+
+    // Flat state rate, matching the simplified state tax in TaxPlanningService
+    private static final long STATE_TAX_BASIS_POINTS = 500L;
+    // Payroll HSA contributions also avoid Social Security and Medicare tax
+    private static final long FICA_BASIS_POINTS = 765L;
+    private static final long BASIS_POINTS = 10_000L;
+
+    private final TaxBracketTables.Schedule schedule;
+    private final long grossIncomeCents;
+    private final long deductionCents;
+
+    ContributionOptimizer(TaxBracketTables.Schedule schedule, long grossIncomeCents, long deductionCents) {
+        this.schedule = schedule;
+        this.grossIncomeCents = grossIncomeCents;
+        this.deductionCents = deductionCents;
+    }
+
+    Result optimize(long max401kCents, long maxIraCents, long maxHsaCents) {
+        long baseTaxableCents = Math.max(0L, grossIncomeCents - deductionCents);
+        long[] levels401k = candidateLevels(max401kCents, baseTaxableCents);
+        long[] levelsIra = candidateLevels(maxIraCents, baseTaxableCents);
+        long[] levelsHsa = candidateLevels(maxHsaCents, baseTaxableCents);
+
+        long baselineTaxCents = totalTaxCents(0L, 0L, 0L);
+        int planeSize = levelsIra.length * levelsHsa.length;
+
+        List<Allocation> candidates = IntStream.range(0, levels401k.length)
+                .parallel()
+                .mapToObj(i -> evaluatePlane(levels401k[i], levelsIra, levelsHsa, planeSize, baselineTaxCents))
+                .flatMap(List::stream)
+                .toList();
+
+        return new Result(paretoFrontier(candidates), levels401k.length * planeSize,
+                baselineTaxCents, grossIncomeCents - baselineTaxCents);
+    }
+
+    /**
+     * Federal, state and FICA tax owed for one allocation
+     */
+    long totalTaxCents(long contribution401kCents, long iraCents, long hsaCents) {
+        long taxable = Math.max(0L, grossIncomeCents - deductionCents - contribution401kCents - iraCents - hsaCents);
+        return schedule.taxCents(taxable) + stateTax(taxable) + ficaTax(grossIncomeCents - hsaCents);
+    }
+
+    private List<Allocation> evaluatePlane(long contribution401k, long[] levelsIra, long[] levelsHsa,
+                                           int planeSize, long baselineTaxCents) {
+        long[] taxable = new long[planeSize];
+        long[] federalTax = new long[planeSize];
+
+        int k = 0;
+        for (long ira : levelsIra) {
+            for (long hsa : levelsHsa) {
+                taxable[k++] = Math.max(0L, grossIncomeCents - deductionCents - contribution401k - ira - hsa);
+            }
+        }
+        schedule.taxCents(taxable, federalTax);
+
+        List<Allocation> plane = new ArrayList<>(planeSize);
+        k = 0;
+        for (long ira : levelsIra) {
+            for (long hsa : levelsHsa) {
+                long contributions = contribution401k + ira + hsa;
+                if (contributions <= grossIncomeCents) {
+                    long tax = federalTax[k] + stateTax(taxable[k]) + ficaTax(grossIncomeCents - hsa);
+                    plane.add(new Allocation(contribution401k, ira, hsa,
+                            baselineTaxCents - tax, grossIncomeCents - contributions - tax));
+                }
+                k++;
+            }
+        }
+        return plane;
+    }
+
+    /**
+     * Grid levels up to the limit, plus every amount that brings taxable
+     * income down to a bracket lower bound
+     */
+    private long[] candidateLevels(long limitCents, long baseTaxableCents) {
+        TreeSet<Long> levels = new TreeSet<>();
+        levels.add(0L);
+        levels.add(limitCents);
+        for (long level = GRID_STEP_CENTS; level < limitCents; level += GRID_STEP_CENTS) {
+            levels.add(level);
+        }
+        for (int b = 1; b < schedule.size(); b++) {
+            long toBreakpoint = baseTaxableCents - schedule.lowerBoundCents(b);
+            if (toBreakpoint > 0 && toBreakpoint < limitCents) {
+                levels.add(toBreakpoint);
+            }
+        }
+        return levels.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Keep allocations not dominated on (tax saved, take-home pay),
+     * ordered from the highest take-home pay to the largest tax saving
+     */
+    private static List<Allocation> paretoFrontier(List<Allocation> candidates) {
+        Allocation[] sorted = candidates.toArray(new Allocation[0]);
+        Arrays.sort(sorted, Comparator.comparingLong(Allocation::getTaxSavedCents).reversed()
+                .thenComparing(Comparator.comparingLong(Allocation::getTakeHomeCents).reversed()));
+
+        List<Allocation> frontier = new ArrayList<>();
+        long bestTakeHome = Long.MIN_VALUE;
+        for (Allocation allocation : sorted) {
+            if (allocation.getTakeHomeCents() > bestTakeHome) {
+                frontier.add(allocation);
+                bestTakeHome = allocation.getTakeHomeCents();
+            }
+        }
+        Collections.reverse(frontier);
+        return frontier;
+    }
+
+    private static long stateTax(long taxableCents) {
+        return (taxableCents * STATE_TAX_BASIS_POINTS + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    private static long ficaTax(long wagesCents) {
+        return (Math.max(0L, wagesCents) * FICA_BASIS_POINTS + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    static final class Allocation {
+        private final long contribution401kCents;
+        private final long iraCents;
+        private final long hsaCents;
+        private final long taxSavedCents;
+        private final long takeHomeCents;
+
+        Allocation(long contribution401kCents, long iraCents, long hsaCents, long taxSavedCents, long takeHomeCents) {
+            this.contribution401kCents = contribution401kCents;
+            this.iraCents = iraCents;
+            this.hsaCents = hsaCents;
+            this.taxSavedCents = taxSavedCents;
+            this.takeHomeCents = takeHomeCents;
+        }
+
+        long getContribution401kCents() { return contribution401kCents; }
+        long getIraCents() { return iraCents; }
+        long getHsaCents() { return hsaCents; }
+        long getTaxSavedCents() { return taxSavedCents; }
+        long getTakeHomeCents() { return takeHomeCents; }
+        long getTotalContributionCents() { return contribution401kCents + iraCents + hsaCents; }
+    }
+
+    static final class Result {
+        private final List<Allocation> frontier;
+        private final int evaluatedAllocations;
+        private final long baselineTaxCents;
+        private final long baselineTakeHomeCents;
+
+        Result(List<Allocation> frontier, int evaluatedAllocations, long baselineTaxCents, long baselineTakeHomeCents) {
+            this.frontier = frontier;
+            this.evaluatedAllocations = evaluatedAllocations;
+            this.baselineTaxCents = baselineTaxCents;
+            this.baselineTakeHomeCents = baselineTakeHomeCents;
+        }
+
+        List<Allocation> getFrontier() { return frontier; }
+        int getEvaluatedAllocations() { return evaluatedAllocations; }
+        long getBaselineTaxCents() { return baselineTaxCents; }
+        long getBaselineTakeHomeCents() { return baselineTakeHomeCents; }
+
+        /**
+         * The frontier point with the largest tax saving
+         */
+        Allocation getMaxTaxSaving() {
+            return frontier.get(frontier.size() - 1);
+        }
+    }
+}
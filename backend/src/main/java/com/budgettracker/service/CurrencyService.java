@@ -8,7 +8,6 @@ import com.budgettracker.repository.ExchangeRateRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +15,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 public class CurrencyService {
     
     private static final Logger logger = LoggerFactory.getLogger(CurrencyService.class);
+    private static final Set<String> COMMON_CURRENCY_CODES = Set.of("USD", "EUR", "GBP", "JPY", "CAD", "AUD", "CHF", "CNY");
     
     @Autowired
     private CurrencyRepository currencyRepository;
@@ -34,13 +35,15 @@ public class CurrencyService {
     @Autowired
     private ExchangeRateService exchangeRateService;
     
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    
     /**
      * Get all active currencies
      */
-    @Cacheable("currencies")
     public List<CurrencyResponse> getAllActiveCurrencies() {
         logger.debug("Fetching all active currencies");
-        return currencyRepository.findAllActiveCurrenciesOrderByCode()
+        return referenceDataCache.getActiveCurrencies()
                 .stream()
                 .map(CurrencyResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -49,11 +52,11 @@ public class CurrencyService {
     /**
      * Get most commonly used currencies
      */
-    @Cacheable("commonCurrencies")
     public List<CurrencyResponse> getMostCommonCurrencies() {
         logger.debug("Fetching most common currencies");
-        return currencyRepository.findMostCommonCurrencies()
+        return referenceDataCache.getActiveCurrencies()
                 .stream()
+                .filter(currency -> COMMON_CURRENCY_CODES.contains(currency.getCode()))
                 .map(CurrencyResponse::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -63,7 +66,7 @@ public class CurrencyService {
      */
     public CurrencyResponse getCurrencyByCode(String code) {
         logger.debug("Fetching currency by code: {}", code);
-        Currency currency = currencyRepository.findByCodeIgnoreCase(code)
+        Currency currency = referenceDataCache.findCurrency(code)
                 .orElseThrow(() -> new RuntimeException("Currency not found: " + code));
         return CurrencyResponse.fromEntity(currency);
     }
@@ -85,6 +88,7 @@ public class CurrencyService {
         currency.setIsActive(request.getIsActive());
         
         Currency savedCurrency = currencyRepository.save(currency);
+        referenceDataCache.invalidateCurrencies();
         logger.info("Currency created successfully: {}", savedCurrency.getCode());
         
         return CurrencyResponse.fromEntity(savedCurrency);
@@ -111,6 +115,7 @@ public class CurrencyService {
         currency.setIsActive(request.getIsActive());
         
         Currency updatedCurrency = currencyRepository.save(currency);
+        referenceDataCache.invalidateCurrencies();
         logger.info("Currency updated successfully: {}", updatedCurrency.getCode());
         
         return CurrencyResponse.fromEntity(updatedCurrency);
@@ -124,7 +129,7 @@ public class CurrencyService {
         
         // If same currency, return original amount
         if (request.getFromCurrencyCode().equalsIgnoreCase(request.getToCurrencyCode())) {
-            Currency currency = currencyRepository.findByCodeIgnoreCase(request.getFromCurrencyCode())
+            Currency currency = referenceDataCache.findCurrency(request.getFromCurrencyCode())
                     .orElseThrow(() -> new RuntimeException("Currency not found: " + request.getFromCurrencyCode()));
             
             return new CurrencyConversionResponse(
@@ -140,10 +145,10 @@ public class CurrencyService {
         }
         
         // Get currencies
-        Currency fromCurrency = currencyRepository.findByCodeIgnoreCase(request.getFromCurrencyCode())
+        Currency fromCurrency = referenceDataCache.findCurrency(request.getFromCurrencyCode())
                 .orElseThrow(() -> new RuntimeException("From currency not found: " + request.getFromCurrencyCode()));
         
-        Currency toCurrency = currencyRepository.findByCodeIgnoreCase(request.getToCurrencyCode())
+        Currency toCurrency = referenceDataCache.findCurrency(request.getToCurrencyCode())
                 .orElseThrow(() -> new RuntimeException("To currency not found: " + request.getToCurrencyCode()));
         
         // Get exchange rate
@@ -172,19 +177,33 @@ public class CurrencyService {
     }
     
     /**
-     * Get exchange rate between two currencies
+     * Get exchange rate between two currencies. Conversions as of today use the
+     * cached latest rates; older dates and the retry after a refresh go to the
+     * database.
      */
     private BigDecimal getExchangeRate(Currency fromCurrency, Currency toCurrency, LocalDate date) {
-        // Try to find direct exchange rate
-        Optional<ExchangeRate> directRate = exchangeRateRepository.findRateOnOrBefore(fromCurrency, toCurrency, date);
-        if (directRate.isPresent()) {
-            return directRate.get().getRate();
-        }
-        
-        // Try to find inverse rate
-        Optional<ExchangeRate> inverseRate = exchangeRateRepository.findRateOnOrBefore(toCurrency, fromCurrency, date);
-        if (inverseRate.isPresent()) {
-            return BigDecimal.ONE.divide(inverseRate.get().getRate(), 6, RoundingMode.HALF_UP);
+        if (!date.isBefore(LocalDate.now())) {
+            Optional<ExchangeRateResponse> latestRate = referenceDataCache.getLatestRate(fromCurrency, toCurrency);
+            if (latestRate.isPresent()) {
+                return latestRate.get().getRate();
+            }
+            
+            Optional<ExchangeRateResponse> latestInverseRate = referenceDataCache.getLatestRate(toCurrency, fromCurrency);
+            if (latestInverseRate.isPresent()) {
+                return BigDecimal.ONE.divide(latestInverseRate.get().getRate(), 6, RoundingMode.HALF_UP);
+            }
+        } else {
+            // Try to find direct exchange rate
+            Optional<ExchangeRate> directRate = exchangeRateRepository.findRateOnOrBefore(fromCurrency, toCurrency, date);
+            if (directRate.isPresent()) {
+                return directRate.get().getRate();
+            }
+            
+            // Try to find inverse rate
+            Optional<ExchangeRate> inverseRate = exchangeRateRepository.findRateOnOrBefore(toCurrency, fromCurrency, date);
+            if (inverseRate.isPresent()) {
+                return BigDecimal.ONE.divide(inverseRate.get().getRate(), 6, RoundingMode.HALF_UP);
+            }
         }
         
         // If no rate found, try to fetch from external API
@@ -259,6 +278,7 @@ public class CurrencyService {
         for (Currency currency : defaultCurrencies) {
             currencyRepository.save(currency);
         }
+        referenceDataCache.invalidateCurrencies();
         
         logger.info("Default currencies initialized successfully");
     }
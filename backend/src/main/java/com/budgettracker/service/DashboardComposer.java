@@ -0,0 +1,192 @@
+package com.budgettracker.service;
+
+import com.budgettracker.util.Futures;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sections of a composite response (the analytics
+ * dashboard and summary) concurrently, so the response costs about as much
+ * as its slowest section rather than the sum of all of them.
+ *
+ * Sections run on their own threads (virtual when enabled) with the caller's
+ * security context, each in its own read-only transaction. At most
+ * max-concurrent-sections run at once across all requests, which keeps the
+ * fan-out within the connection pool. The deadline starts when the
+ * composition does and covers waiting for a slot, so a request never waits
+ * longer than section-timeout-ms however busy the slots are; a section keeps
+ * its slot until it returns, even after its caller stopped waiting. A section
+ * that fails or misses its deadline is reported in the result instead of
+ * failing the whole response.
+ *
+ * When the caller already holds a transaction the sections run on the calling
+ * thread instead, since other threads could not see its uncommitted writes.
+ */
+@Component
+public class DashboardComposer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardComposer.class);
+
+    public enum Status { OK, TIMEOUT, FAILED }
+
+    private final SimpleAsyncTaskExecutor sectionExecutor;
+    private final Executor executor;
+    private final Semaphore permits;
+    private final long sectionTimeoutMillis;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public DashboardComposer(MeterRegistry meterRegistry,
+                             @Value("${app.analytics.dashboard.section-timeout-ms:3000}") long sectionTimeoutMillis,
+                             @Value("${app.analytics.dashboard.max-concurrent-sections:8}") int maxConcurrentSections,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        // Unbounded here: sections are bounded by the permits, acquired before submitting
+        this.sectionExecutor = new SimpleAsyncTaskExecutor("dashboard-section-");
+        this.sectionExecutor.setVirtualThreads(virtualThreads);
+        this.executor = new DelegatingSecurityContextAsyncTaskExecutor(sectionExecutor);
+        this.permits = new Semaphore(maxConcurrentSections);
+        this.sectionTimeoutMillis = sectionTimeoutMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Decorate every section task, e.g. to carry thread-bound state of the
+     * caller onto the section thread
+     */
+    @Autowired(required = false)
+    public void setTaskDecorator(TaskDecorator taskDecorator) {
+        sectionExecutor.setTaskDecorator(taskDecorator);
+    }
+
+    /**
+     * Run every section and wait until each has completed, failed or reached
+     * its deadline. Sections are reported in the order given.
+     */
+    public Composition compose(Map<String, Supplier<?>> sections) {
+        long submitted = System.nanoTime();
+        long deadline = submitted + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+        boolean inline = TransactionSynchronizationManager.isActualTransactionActive();
+        Map<String, Long> durations = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+
+        sections.forEach((name, loader) -> {
+            Supplier<Object> section = () -> {
+                long started = System.nanoTime();
+                try {
+                    return loader.get();
+                } finally {
+                    durations.put(name, System.nanoTime() - started);
+                }
+            };
+            futures.put(name, inline ? CompletableFuture.supplyAsync(section, Runnable::run) : submit(section, deadline));
+        });
+
+        Composition composition = new Composition();
+        futures.forEach((name, future) -> {
+            Object value = null;
+            Status status = Status.OK;
+            String error = null;
+            try {
+                value = future.join();
+            } catch (RuntimeException e) {
+                Throwable cause = Futures.unwrap(e);
+                if (cause instanceof TimeoutException) {
+                    status = Status.TIMEOUT;
+                    error = "Exceeded " + sectionTimeoutMillis + " ms";
+                } else {
+                    status = Status.FAILED;
+                    error = cause.getMessage();
+                }
+                logger.warn("Dashboard section {} {}: {}", name, status, error);
+            }
+
+            long nanos = durations.getOrDefault(name, System.nanoTime() - submitted);
+            Timer.builder("analytics.dashboard.section")
+                    .tag("section", name)
+                    .tag("status", status.name())
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            composition.add(name, value, status, TimeUnit.NANOSECONDS.toMillis(nanos), error);
+        });
+        return composition;
+    }
+
+    // Run a section holding one of the permits, giving up on it at the deadline
+    private CompletableFuture<Object> submit(Supplier<Object> section, long deadline) {
+        try {
+            if (!permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return CompletableFuture.failedFuture(new TimeoutException());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Object> call;
+        try {
+            call = CompletableFuture.supplyAsync(section, executor);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        // The permit is held until the section returns, even after the caller stops waiting
+        call.whenComplete((result, error) -> permits.release());
+        return call.copy().orTimeout(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Section results with per-section status and timing
+     */
+    public static final class Composition {
+        private final Map<String, Object> values = new HashMap<>();
+        private final Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+        private boolean complete = true;
+
+        void add(String name, Object value, Status status, long durationMs, String error) {
+            values.put(name, value);
+            Map<String, Object> section = new LinkedHashMap<>();
+            section.put("status", status);
+            section.put("durationMs", durationMs);
+            if (error != null) {
+                section.put("error", error);
+            }
+            report.put(name, section);
+            complete &= status == Status.OK;
+        }
+
+        /**
+         * The section's result, or null when it failed or timed out
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T get(String name) {
+            return (T) values.get(name);
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public Map<String, Map<String, Object>> getReport() {
+            return report;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.BankAccount;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Demo provider used until a real aggregator is connected: each fetch moves
+ * the balance by a random amount between -50 and +50, and transactions come
+ * from SyntheticTransactionFeed.
+ */
+@Service
+@ConditionalOnProperty(name = "app.bank-sync.provider", havingValue = "demo", matchIfMissing = true)
+public class DemoInstitutionProvider implements InstitutionProvider {
+
+    @Override
+    public String getName() {
+        return "demo";
+    }
+
+    @Override
+    public BigDecimal fetchBalance(BankAccount account) {
+        BigDecimal current = account.getCurrentBalance() != null ? account.getCurrentBalance() : BigDecimal.ZERO;
+        BigDecimal change = BigDecimal.valueOf((ThreadLocalRandom.current().nextDouble() - 0.5) * 100);
+        return current.add(change).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public TransactionFeed fetchTransactions(List<BankAccount> accounts, String cursor) {
+        return SyntheticTransactionFeed.feed(accounts, cursor, LocalDate.now());
+    }
+}
@@ -1,9 +1,8 @@
 package com.budgettracker.service;
 
+import com.budgettracker.model.Notification;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
@@ -11,12 +10,19 @@ import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
+/**
+ * Renders application emails and hands them to the mail outbox, which sends
+ * them in batches; the send methods return once the message is queued.
+ */
 @Service
 public class EmailService {
     
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
+    private static final int DIGEST_MAX_ITEMS = 20;
+    
+    @Autowired
+    private MailOutbox mailOutbox;
     
     @Value("${app.email.from:noreply@budgetwise.com}")
     private String fromEmail;
@@ -31,13 +37,13 @@ public class EmailService {
      * Send a simple notification email
      */
     public void sendNotificationEmail(String toEmail, String subject, String message, String actionUrl) {
-        if (!emailEnabled || mailSender == null) {
+        if (!emailEnabled || !mailOutbox.isAvailable()) {
             System.out.println("Email disabled or not configured - would send: " + subject + " to " + toEmail);
             return;
         }
         
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessage mimeMessage = mailOutbox.createMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
             
             helper.setFrom(fromEmail);
@@ -47,7 +53,7 @@ public class EmailService {
             String htmlContent = buildNotificationEmailTemplate(subject, message, actionUrl);
             helper.setText(htmlContent, true);
             
-            mailSender.send(mimeMessage);
+            mailOutbox.enqueue(mimeMessage);
             
         } catch (MessagingException e) {
             throw new RuntimeException("Failed to send email notification", e);
@@ -97,24 +103,25 @@ public class EmailService {
     }
     
     /**
-     * Send daily digest email
+     * Send daily digest email: one message listing the day's notifications,
+     * most important first
      */
-    public void sendDailyDigestEmail(String toEmail, String userName, int upcomingBills, 
-                                   int overdueBills, String totalAmount) {
+    public void sendDailyDigestEmail(String toEmail, String userName, List<Notification> notifications) {
         String subject = "BudgetWise Daily Digest";
-        String message = String.format(
-            "Good morning %s! Here's your daily financial summary:\n\n" +
-            "• %d bill%s coming up\n" +
-            "• %d overdue bill%s\n" +
-            "• Total upcoming payments: %s\n\n" +
-            "Stay on top of your finances with BudgetWise!",
-            userName,
-            upcomingBills, upcomingBills == 1 ? "" : "s",
-            overdueBills, overdueBills == 1 ? "" : "s",
-            totalAmount
-        );
+        StringBuilder message = new StringBuilder();
+        message.append(String.format("Good morning %s! You have %d new notification%s:\n\n",
+            userName, notifications.size(), notifications.size() == 1 ? "" : "s"));
         
-        sendNotificationEmail(toEmail, subject, message, baseUrl + "/bills");
+        for (Notification notification : notifications.subList(0, Math.min(DIGEST_MAX_ITEMS, notifications.size()))) {
+            message.append("• ").append(notification.getTitle()).append(": ")
+                   .append(notification.getMessage()).append("\n");
+        }
+        if (notifications.size() > DIGEST_MAX_ITEMS) {
+            message.append(String.format("• and %d more\n", notifications.size() - DIGEST_MAX_ITEMS));
+        }
+        message.append("\nStay on top of your finances with BudgetWise!");
+        
+        sendNotificationEmail(toEmail, subject, message.toString(), baseUrl + "/notifications");
     }
     
     /**
@@ -188,19 +195,20 @@ public class EmailService {
      * Send simple text email (fallback)
      */
     public void sendSimpleEmail(String toEmail, String subject, String message) {
-        if (!emailEnabled || mailSender == null) {
+        if (!emailEnabled || !mailOutbox.isAvailable()) {
             System.out.println("Email disabled or not configured - would send: " + subject + " to " + toEmail);
             return;
         }
         
         try {
-            SimpleMailMessage mailMessage = new SimpleMailMessage();
-            mailMessage.setFrom(fromEmail);
-            mailMessage.setTo(toEmail);
-            mailMessage.setSubject(subject);
-            mailMessage.setText(message);
+            MimeMessage mimeMessage = mailOutbox.createMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+            helper.setFrom(fromEmail);
+            helper.setTo(toEmail);
+            helper.setSubject(subject);
+            helper.setText(message);
             
-            mailSender.send(mailMessage);
+            mailOutbox.enqueue(mimeMessage);
             
         } catch (Exception e) {
             throw new RuntimeException("Failed to send simple email", e);
@@ -3,7 +3,6 @@ package com.budgettracker.service;
 import com.budgettracker.dto.ExchangeRateResponse;
 import com.budgettracker.model.Currency;
 import com.budgettracker.model.ExchangeRate;
-import com.budgettracker.repository.CurrencyRepository;
 import com.budgettracker.repository.ExchangeRateRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -12,7 +11,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -39,7 +37,10 @@ public class ExchangeRateService {
     private ExchangeRateRepository exchangeRateRepository;
     
     @Autowired
-    private CurrencyRepository currencyRepository;
+    private JobMetrics jobMetrics;
+    
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
     
     @Value("${app.exchange-rate.api-key:}")
     private String apiKey;
@@ -53,17 +54,13 @@ public class ExchangeRateService {
     /**
      * Get latest exchange rates for a base currency
      */
-    @Cacheable("exchangeRates")
     public List<ExchangeRateResponse> getLatestRates(String baseCurrencyCode) {
         logger.debug("Fetching latest exchange rates for base currency: {}", baseCurrencyCode);
         
-        Currency currency = currencyRepository.findByCodeIgnoreCase(baseCurrencyCode)
+        Currency currency = referenceDataCache.findCurrency(baseCurrencyCode)
                 .orElseThrow(() -> new RuntimeException("Currency not found: " + baseCurrencyCode));
         
-        return exchangeRateRepository.findLatestRatesFromBaseCurrency(currency)
-                .stream()
-                .map(ExchangeRateResponse::fromEntity)
-                .collect(Collectors.toList());
+        return referenceDataCache.getLatestRatesFrom(currency);
     }
     
     /**
@@ -72,16 +69,22 @@ public class ExchangeRateService {
     public ExchangeRateResponse getExchangeRate(String fromCurrencyCode, String toCurrencyCode, LocalDate date) {
         logger.debug("Fetching exchange rate from {} to {} for date {}", fromCurrencyCode, toCurrencyCode, date);
         
-        Currency fromCurrency = currencyRepository.findByCodeIgnoreCase(fromCurrencyCode)
+        Currency fromCurrency = referenceDataCache.findCurrency(fromCurrencyCode)
                 .orElseThrow(() -> new RuntimeException("From currency not found: " + fromCurrencyCode));
         
-        Currency toCurrency = currencyRepository.findByCodeIgnoreCase(toCurrencyCode)
+        Currency toCurrency = referenceDataCache.findCurrency(toCurrencyCode)
                 .orElseThrow(() -> new RuntimeException("To currency not found: " + toCurrencyCode));
         
-        Optional<ExchangeRate> exchangeRate = exchangeRateRepository.findRateOnOrBefore(fromCurrency, toCurrency, date);
-        
-        if (exchangeRate.isPresent()) {
-            return ExchangeRateResponse.fromEntity(exchangeRate.get());
+        if (!date.isBefore(LocalDate.now())) {
+            Optional<ExchangeRateResponse> latestRate = referenceDataCache.getLatestRate(fromCurrency, toCurrency);
+            if (latestRate.isPresent()) {
+                return latestRate.get();
+            }
+        } else {
+            Optional<ExchangeRate> exchangeRate = exchangeRateRepository.findRateOnOrBefore(fromCurrency, toCurrency, date);
+            if (exchangeRate.isPresent()) {
+                return ExchangeRateResponse.fromEntity(exchangeRate.get());
+            }
         }
         
         throw new RuntimeException("Exchange rate not found for " + fromCurrencyCode + " to " + toCurrencyCode + " on " + date);
@@ -97,25 +100,26 @@ public class ExchangeRateService {
         
         try {
             // Use free exchange rate API (no API key required)
-            updateFromExchangeRateApi();
+            jobMetrics.recordItems("exchangeRates.update", updateFromExchangeRateApi());
         } catch (Exception e) {
             logger.error("Failed to update exchange rates from primary API: {}", e.getMessage());
             
             // Fallback to alternative API if available
             if (apiKey != null && !apiKey.isEmpty()) {
                 try {
-                    updateFromFixerApi();
+                    jobMetrics.recordItems("exchangeRates.update", updateFromFixerApi());
                 } catch (Exception fallbackException) {
                     logger.error("Failed to update exchange rates from fallback API: {}", fallbackException.getMessage());
                 }
             }
         }
+        referenceDataCache.invalidateExchangeRates();
     }
     
     /**
      * Update exchange rates from exchangerate-api.com (free tier)
      */
-    private void updateFromExchangeRateApi() {
+    private int updateFromExchangeRateApi() {
         logger.debug("Updating exchange rates from exchangerate-api.com");
         
         String url = EXCHANGE_RATE_API_URL + baseCurrency;
@@ -125,7 +129,7 @@ public class ExchangeRateService {
             JsonNode jsonNode = objectMapper.readTree(response.getBody());
             
             if (jsonNode.has("rates")) {
-                Currency basecurr = currencyRepository.findByCodeIgnoreCase(baseCurrency)
+                Currency basecurr = referenceDataCache.findCurrency(baseCurrency)
                         .orElseThrow(() -> new RuntimeException("Base currency not found: " + baseCurrency));
                 
                 JsonNode rates = jsonNode.get("rates");
@@ -139,7 +143,7 @@ public class ExchangeRateService {
                     String currencyCode = entry.getKey();
                     BigDecimal rate = entry.getValue().decimalValue();
                     
-                    Optional<Currency> targetCurrency = currencyRepository.findByCodeIgnoreCase(currencyCode);
+                    Optional<Currency> targetCurrency = referenceDataCache.findCurrency(currencyCode);
                     if (targetCurrency.isPresent()) {
                         // Check if rate already exists for today
                         if (!exchangeRateRepository.existsByFromCurrencyAndToCurrencyAndRateDate(
@@ -160,7 +164,9 @@ public class ExchangeRateService {
                 }
                 
                 logger.info("Updated {} exchange rates from exchangerate-api.com", updatedCount);
+                return updatedCount;
             }
+            return 0;
         } catch (JsonProcessingException e) {
             logger.error("Error parsing JSON response from exchangerate-api.com: {}", e.getMessage());
             throw new RuntimeException("Failed to parse exchange rate data", e);
@@ -173,7 +179,7 @@ public class ExchangeRateService {
     /**
      * Update exchange rates from fixer.io (requires API key)
      */
-    private void updateFromFixerApi() {
+    private int updateFromFixerApi() {
         logger.debug("Updating exchange rates from fixer.io");
         
         String url = FIXER_API_URL + "?access_key=" + apiKey + "&base=" + baseCurrency;
@@ -183,7 +189,7 @@ public class ExchangeRateService {
             JsonNode jsonNode = objectMapper.readTree(response.getBody());
             
             if (jsonNode.has("success") && jsonNode.get("success").asBoolean() && jsonNode.has("rates")) {
-                Currency basecurr = currencyRepository.findByCodeIgnoreCase(baseCurrency)
+                Currency basecurr = referenceDataCache.findCurrency(baseCurrency)
                         .orElseThrow(() -> new RuntimeException("Base currency not found: " + baseCurrency));
                 
                 JsonNode rates = jsonNode.get("rates");
@@ -197,7 +203,7 @@ public class ExchangeRateService {
                     String currencyCode = entry.getKey();
                     BigDecimal rate = entry.getValue().decimalValue();
                     
-                    Optional<Currency> targetCurrency = currencyRepository.findByCodeIgnoreCase(currencyCode);
+                    Optional<Currency> targetCurrency = referenceDataCache.findCurrency(currencyCode);
                     if (targetCurrency.isPresent()) {
                         // Check if rate already exists for today
                         if (!exchangeRateRepository.existsByFromCurrencyAndToCurrencyAndRateDate(
@@ -218,9 +224,11 @@ public class ExchangeRateService {
                 }
                 
                 logger.info("Updated {} exchange rates from fixer.io", updatedCount);
+                return updatedCount;
             } else {
                 logger.error("Fixer.io API returned error: {}", jsonNode.get("error"));
             }
+            return 0;
         } catch (JsonProcessingException e) {
             logger.error("Error parsing JSON response from fixer.io: {}", e.getMessage());
             throw new RuntimeException("Failed to parse exchange rate data", e);
@@ -238,10 +246,10 @@ public class ExchangeRateService {
         logger.debug("Fetching historical exchange rates from {} to {} between {} and {}", 
                 fromCurrencyCode, toCurrencyCode, startDate, endDate);
         
-        Currency fromCurrency = currencyRepository.findByCodeIgnoreCase(fromCurrencyCode)
+        Currency fromCurrency = referenceDataCache.findCurrency(fromCurrencyCode)
                 .orElseThrow(() -> new RuntimeException("From currency not found: " + fromCurrencyCode));
         
-        Currency toCurrency = currencyRepository.findByCodeIgnoreCase(toCurrencyCode)
+        Currency toCurrency = referenceDataCache.findCurrency(toCurrencyCode)
                 .orElseThrow(() -> new RuntimeException("To currency not found: " + toCurrencyCode));
         
         return exchangeRateRepository.findRatesBetweenDates(fromCurrency, toCurrency, startDate, endDate)
@@ -262,6 +270,7 @@ public class ExchangeRateService {
         
         try {
             exchangeRateRepository.deleteRatesOlderThan(cutoffDate);
+            referenceDataCache.invalidateExchangeRates();
             logger.info("Cleaned up exchange rates older than {}", cutoffDate);
         } catch (Exception e) {
             logger.error("Error cleaning up old exchange rates: {}", e.getMessage());
@@ -0,0 +1,267 @@
+package com.budgettracker.service;
+
+import com.budgettracker.service.PortfolioValuationEngine.HoldingValuation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Portfolio risk from daily close history.
+ *
+ * Holdings are grouped by symbol and weighted by current value. Each symbol's
+ * closes are aligned on the union of trading days in the lookback window
+ * (carrying the last close forward over gaps) and turned into daily returns.
+ * Means and the full covariance matrix are then accumulated in one streaming
+ * pass over the days, so a 200-symbol, one-year window costs about five
+ * million multiply-adds and no intermediate matrices beyond the covariance.
+ *
+ * Symbols without history are left out and the covered symbols' weights are
+ * scaled up to the whole portfolio, since zero returns at full weight would
+ * understate risk; below min-coverage of the value having history there is
+ * no result and callers fall back.
+ */
+@Component
+public class HistoricalRiskCalculator {
+
+    static final int TRADING_DAYS_PER_YEAR = 252;
+    private static final double RISK_FREE_RATE = 0.02;
+
+    private final int lookbackDays;
+    private final int minObservations;
+    private final double minCoverage;
+
+    public HistoricalRiskCalculator(@Value("${app.portfolio.risk.lookback-days:365}") int lookbackDays,
+                                    @Value("${app.portfolio.risk.min-observations:20}") int minObservations,
+                                    @Value("${app.portfolio.risk.min-coverage:0.8}") double minCoverage) {
+        this.lookbackDays = lookbackDays;
+        this.minObservations = minObservations;
+        this.minCoverage = minCoverage;
+    }
+
+    public int getLookbackDays() {
+        return lookbackDays;
+    }
+
+    /**
+     * Compute risk metrics, or return null when there is not enough history
+     * or too little of the portfolio has any
+     */
+    public Result calculate(List<HoldingValuation> holdings, Map<String, PriceSeries> history, LocalDate asOf) {
+        Map<String, Double> valueBySymbol = new LinkedHashMap<>();
+        double totalValue = 0.0;
+        for (HoldingValuation holding : holdings) {
+            double value = holding.getCurrentValue().doubleValue();
+            valueBySymbol.merge(PriceHistoryStore.normalize(holding.getInvestment().getSymbol()), value, Double::sum);
+            totalValue += value;
+        }
+        if (valueBySymbol.isEmpty() || totalValue <= 0.0) {
+            return null;
+        }
+
+        LocalDate from = asOf.minusDays(lookbackDays);
+        int n = valueBySymbol.size();
+        double[] weights = new double[n];
+        PriceSeries.Window[] windows = new PriceSeries.Window[n];
+        double coveredWeight = 0.0;
+
+        int i = 0;
+        for (Map.Entry<String, Double> entry : valueBySymbol.entrySet()) {
+            weights[i] = entry.getValue() / totalValue;
+            PriceSeries series = history.get(entry.getKey());
+            windows[i] = series != null ? series.read(from, asOf) : null;
+            if (windows[i] != null && windows[i].size() > 1) {
+                coveredWeight += weights[i];
+            } else {
+                windows[i] = null;
+            }
+            i++;
+        }
+        if (coveredWeight < minCoverage) {
+            return null;
+        }
+        for (int s = 0; s < n; s++) {
+            weights[s] = windows[s] != null ? weights[s] / coveredWeight : 0.0;
+        }
+
+        int[] calendar = tradingCalendar(windows, (int) from.toEpochDay());
+        if (calendar.length - 1 < minObservations || calendar.length < 3) {
+            return null;
+        }
+
+        double[][] returns = alignedReturns(windows, calendar);
+        return accumulate(returns, weights, coveredWeight,
+                LocalDate.ofEpochDay(calendar[0]), LocalDate.ofEpochDay(calendar[calendar.length - 1]));
+    }
+
+    /**
+     * Sorted distinct days in range across all series
+     */
+    private static int[] tradingCalendar(PriceSeries.Window[] windows, int fromDay) {
+        int total = 0;
+        for (PriceSeries.Window window : windows) {
+            if (window != null) {
+                total += window.size();
+            }
+        }
+
+        int[] days = new int[total];
+        int k = 0;
+        for (PriceSeries.Window window : windows) {
+            if (window != null) {
+                for (int day : window.getEpochDays()) {
+                    if (day >= fromDay) {
+                        days[k++] = day;
+                    }
+                }
+            }
+        }
+        return Arrays.stream(days, 0, k).sorted().distinct().toArray();
+    }
+
+    /**
+     * Daily returns, one row per calendar step and one column per symbol.
+     * A symbol contributes a zero return until it has two closes to compare.
+     */
+    private static double[][] alignedReturns(PriceSeries.Window[] windows, int[] calendar) {
+        int steps = calendar.length - 1;
+        double[][] returns = new double[steps][windows.length];
+
+        for (int s = 0; s < windows.length; s++) {
+            PriceSeries.Window window = windows[s];
+            if (window == null || window.size() == 0) {
+                continue;
+            }
+            int[] days = window.getEpochDays();
+            double[] closes = window.getCloses();
+
+            int p = 0;
+            double close = Double.NaN;
+            for (int t = 0; t < calendar.length; t++) {
+                double previous = close;
+                while (p < days.length && days[p] <= calendar[t]) {
+                    close = closes[p++];
+                }
+                if (t > 0 && previous > 0.0 && !Double.isNaN(close)) {
+                    returns[t - 1][s] = close / previous - 1.0;
+                }
+            }
+        }
+        return returns;
+    }
+
+    private static Result accumulate(double[][] returns, double[] weights, double coveredWeight,
+                                     LocalDate start, LocalDate end) {
+        int n = weights.length;
+        double[] mean = new double[n];
+        double[] delta = new double[n];
+        // Upper triangle of the co-moment matrix, row-major
+        double[] comoment = new double[n * (n + 1) / 2];
+
+        double equity = 1.0;
+        double peak = 1.0;
+        double maxDrawdown = 0.0;
+
+        int k = 0;
+        for (double[] day : returns) {
+            k++;
+            double portfolioReturn = 0.0;
+            for (int a = 0; a < n; a++) {
+                delta[a] = day[a] - mean[a];
+                mean[a] += delta[a] / k;
+                portfolioReturn += weights[a] * day[a];
+            }
+            // Welford update: C[a][b] += (x_a - oldMean_a) * (x_b - newMean_b)
+            int cell = 0;
+            for (int a = 0; a < n; a++) {
+                double da = delta[a];
+                for (int b = a; b < n; b++) {
+                    comoment[cell++] += da * (day[b] - mean[b]);
+                }
+            }
+
+            equity *= 1.0 + portfolioReturn;
+            peak = Math.max(peak, equity);
+            maxDrawdown = Math.max(maxDrawdown, (peak - equity) / peak);
+        }
+
+        double portfolioVariance = 0.0;
+        double meanReturn = 0.0;
+        int cell = 0;
+        for (int a = 0; a < n; a++) {
+            meanReturn += weights[a] * mean[a];
+            for (int b = a; b < n; b++) {
+                double covariance = comoment[cell++] / (k - 1);
+                portfolioVariance += (a == b ? 1.0 : 2.0) * weights[a] * weights[b] * covariance;
+            }
+        }
+
+        double annualizedReturn = meanReturn * TRADING_DAYS_PER_YEAR;
+        double annualizedVolatility = Math.sqrt(Math.max(0.0, portfolioVariance) * TRADING_DAYS_PER_YEAR);
+        Double sharpeRatio = annualizedVolatility > 0.0
+                ? (annualizedReturn - RISK_FREE_RATE) / annualizedVolatility
+                : null;
+
+        return new Result(k, start, end, annualizedReturn, annualizedVolatility, sharpeRatio,
+                maxDrawdown, coveredWeight);
+    }
+
+    public static final class Result {
+        private final int observations;
+        private final LocalDate start;
+        private final LocalDate end;
+        private final double annualizedReturn;
+        private final double annualizedVolatility;
+        private final Double sharpeRatio;
+        private final double maxDrawdown;
+        private final double coveredWeight;
+
+        Result(int observations, LocalDate start, LocalDate end, double annualizedReturn,
+               double annualizedVolatility, Double sharpeRatio, double maxDrawdown, double coveredWeight) {
+            this.observations = observations;
+            this.start = start;
+            this.end = end;
+            this.annualizedReturn = annualizedReturn;
+            this.annualizedVolatility = annualizedVolatility;
+            this.sharpeRatio = sharpeRatio;
+            this.maxDrawdown = maxDrawdown;
+            this.coveredWeight = coveredWeight;
+        }
+
+        public int getObservations() { return observations; }
+        public LocalDate getStart() { return start; }
+        public LocalDate getEnd() { return end; }
+        public double getAnnualizedReturn() { return annualizedReturn; }
+        public double getAnnualizedVolatility() { return annualizedVolatility; }
+        public Double getSharpeRatio() { return sharpeRatio; }
+        public double getMaxDrawdown() { return maxDrawdown; }
+        public double getCoveredWeight() { return coveredWeight; }
+
+        /**
+         * Metrics in the same units as the holding-return fallback
+         * (percentages for returns, volatility and drawdown)
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("averageReturn", percent(annualizedReturn));
+            metrics.put("volatility", percent(annualizedVolatility));
+            if (sharpeRatio != null) {
+                metrics.put("sharpeRatio", BigDecimal.valueOf(sharpeRatio).setScale(4, RoundingMode.HALF_UP));
+            }
+            metrics.put("maxDrawdown", percent(maxDrawdown));
+            metrics.put("observations", observations);
+            metrics.put("historyStart", start);
+            metrics.put("historyEnd", end);
+            metrics.put("historyCoverage", percent(coveredWeight));
+            metrics.put("riskBasis", "PRICE_HISTORY");
+            return metrics;
+        }
+
+        private static BigDecimal percent(double fraction) {
+            return BigDecimal.valueOf(fraction * 100.0).setScale(4, RoundingMode.HALF_UP);
+        }
+    }
+}
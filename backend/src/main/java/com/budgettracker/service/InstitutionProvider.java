@@ -0,0 +1,99 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.BankAccount;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A source of account balances and transactions at the bank that holds the
+ * account. Calls may block; BankSyncOrchestrator runs them on its own
+ * threads, a bounded number per institution, and stops waiting for a call
+ * after its timeout.
+ */
+public interface InstitutionProvider {
+
+    String getName();
+
+    /**
+     * The account's current balance at its institution
+     */
+    BigDecimal fetchBalance(BankAccount account);
+
+    /**
+     * Transactions posted to one connection's accounts since the cursor (the
+     * provider's full history window when the cursor is null), with the
+     * cursor to resume from next time. Successive windows may overlap, so a
+     * transaction can be delivered more than once; it is recognized by its
+     * transactionId. Providers that have no transaction ids must deliver
+     * whole posting days, so that identical rows of one day always arrive
+     * together and can be told apart by their position.
+     */
+    TransactionFeed fetchTransactions(List<BankAccount> accounts, String cursor);
+
+    /**
+     * A transaction as the institution reports it; the amount is positive
+     * for money coming into the account. The transaction id is the
+     * institution's stable id for it within the account, or null if it has
+     * none.
+     */
+    final class PostedTransaction {
+        private final String externalAccountId;
+        private final String transactionId;
+        private final LocalDate date;
+        private final BigDecimal amount;
+        private final String description;
+
+        public PostedTransaction(String externalAccountId, String transactionId, LocalDate date, BigDecimal amount,
+                                 String description) {
+            this.externalAccountId = externalAccountId;
+            this.transactionId = transactionId;
+            this.date = date;
+            this.amount = amount;
+            this.description = description;
+        }
+
+        public PostedTransaction(String externalAccountId, LocalDate date, BigDecimal amount, String description) {
+            this(externalAccountId, null, date, amount, description);
+        }
+
+        public String getExternalAccountId() {
+            return externalAccountId;
+        }
+
+        public String getTransactionId() {
+            return transactionId;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    final class TransactionFeed {
+        private final List<PostedTransaction> transactions;
+        private final String nextCursor;
+
+        public TransactionFeed(List<PostedTransaction> transactions, String nextCursor) {
+            this.transactions = transactions;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<PostedTransaction> getTransactions() {
+            return transactions;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
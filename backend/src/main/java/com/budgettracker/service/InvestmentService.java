@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -30,6 +31,9 @@ public class InvestmentService {
     @Autowired
     private MarketDataService marketDataService;
     
+    @Autowired
+    private PortfolioValuationEngine valuationEngine;
+    
     public List<InvestmentResponse> getAllInvestments(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
@@ -145,6 +149,34 @@ public class InvestmentService {
                 ));
     }
     
+    /**
+     * Totals, cost basis and allocation from a single holdings query, valued
+     * against the shared symbol price table
+     */
+    public Map<String, Object> getPortfolioSummary(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        
+        PortfolioValuationEngine.PortfolioValuation valuation =
+                valuationEngine.value(investmentRepository.findByUserIdOrderByPurchaseDateDesc(user.getId()));
+        BigDecimal totalCost = valuation.getTotalCostBasis();
+        
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalValue", valuation.getTotalCurrentValue());
+        summary.put("totalCostBasis", totalCost);
+        summary.put("allocation", valuation.getAllocationByType());
+        
+        if (totalCost.compareTo(BigDecimal.ZERO) > 0) {
+            summary.put("totalGainLoss", valuation.getTotalGainLoss());
+            summary.put("totalGainLossPercentage", valuation.getTotalGainLossPercentage());
+        } else {
+            summary.put("totalGainLoss", BigDecimal.ZERO);
+            summary.put("totalGainLossPercentage", BigDecimal.ZERO);
+        }
+        
+        return summary;
+    }
+    
     public List<InvestmentResponse> getInvestmentsByDateRange(String username, LocalDate startDate, LocalDate endDate) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
@@ -0,0 +1,35 @@
+package com.budgettracker.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Item counts for scheduled jobs, exported as scheduled.job.items{job=...}.
+ * Job durations come from the tasks.scheduled.execution timer that Spring
+ * records for every @Scheduled method.
+ */
+@Component
+public class JobMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, DistributionSummary> itemsByJob = new ConcurrentHashMap<>();
+
+    public JobMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Record how many items one run of a job processed
+     */
+    public void recordItems(String job, long items) {
+        itemsByJob.computeIfAbsent(job, name -> DistributionSummary.builder("scheduled.job.items")
+                        .description("Items processed per scheduled job run")
+                        .tag("job", name)
+                        .register(registry))
+                .record(items);
+    }
+}
@@ -0,0 +1,175 @@
+package com.budgettracker.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over whole-word phrases: finds every phrase that
+ * occurs in a text in one pass over its characters, however many phrases
+ * there are.
+ *
+ * Phrases and texts are expected already normalized (lower case, words
+ * separated by single spaces); a phrase only matches at word boundaries, so
+ * "gas" matches "gas station" but not "vegas". Each phrase carries an int
+ * value; when a phrase is added twice the first value is kept. Immutable and
+ * safe to share once built.
+ */
+public final class KeywordMatcher {
+
+    // Per node: sorted edge characters and their targets
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // The node's own phrase value and length, or -1
+    private final int[] values;
+    private final int[] lengths;
+    // Nearest node down the failure chain that ends a phrase, or -1
+    private final int[] outputLink;
+
+    private KeywordMatcher(char[][] edgeChars, int[][] edgeTargets, int[] failure, int[] values, int[] lengths,
+                           int[] outputLink) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.values = values;
+        this.lengths = lengths;
+        this.outputLink = outputLink;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Value of the longest phrase in the text, the earliest on a tie, or -1
+     */
+    public int longestMatch(String text) {
+        int best = -1;
+        int bestLength = 0;
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = step(node, c)) < 0 && node != 0) {
+                node = failure[node];
+            }
+            node = Math.max(next, 0);
+
+            boolean endsWord = i + 1 == text.length() || text.charAt(i + 1) == ' ';
+            if (!endsWord) {
+                continue;
+            }
+            for (int out = values[node] >= 0 ? node : outputLink[node]; out >= 0; out = outputLink[out]) {
+                int start = i + 1 - lengths[out];
+                boolean startsWord = start == 0 || text.charAt(start - 1) == ' ';
+                if (startsWord && lengths[out] > bestLength) {
+                    best = values[out];
+                    bestLength = lengths[out];
+                }
+            }
+        }
+        return best;
+    }
+
+    public int size() {
+        int phrases = 0;
+        for (int value : values) {
+            if (value >= 0) {
+                phrases++;
+            }
+        }
+        return phrases;
+    }
+
+    private int step(int node, char c) {
+        int index = Arrays.binarySearch(edgeChars[node], c);
+        return index >= 0 ? edgeTargets[node][index] : -1;
+    }
+
+    public static final class Builder {
+        private final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        private final List<int[]> phrases = new ArrayList<>();
+
+        private Builder() {
+            children.add(new TreeMap<>());
+            phrases.add(new int[] {-1, 0});
+        }
+
+        public Builder add(String phrase, int value) {
+            if (phrase == null || phrase.isEmpty()) {
+                return this;
+            }
+            int node = 0;
+            for (int i = 0; i < phrase.length(); i++) {
+                Integer next = children.get(node).get(phrase.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(phrase.charAt(i), next);
+                    children.add(new TreeMap<>());
+                    phrases.add(new int[] {-1, 0});
+                }
+                node = next;
+            }
+            if (phrases.get(node)[0] < 0) {
+                phrases.set(node, new int[] {value, phrase.length()});
+            }
+            return this;
+        }
+
+        public KeywordMatcher build() {
+            int size = children.size();
+            char[][] edgeChars = new char[size][];
+            int[][] edgeTargets = new int[size][];
+            int[] values = new int[size];
+            int[] lengths = new int[size];
+            for (int node = 0; node < size; node++) {
+                TreeMap<Character, Integer> edges = children.get(node);
+                edgeChars[node] = new char[edges.size()];
+                edgeTargets[node] = new int[edges.size()];
+                int i = 0;
+                for (var edge : edges.entrySet()) {
+                    edgeChars[node][i] = edge.getKey();
+                    edgeTargets[node][i] = edge.getValue();
+                    i++;
+                }
+                values[node] = phrases.get(node)[0];
+                lengths[node] = phrases.get(node)[1];
+            }
+
+            // Breadth-first, so every node's failure target is finished before it
+            int[] failure = new int[size];
+            int[] outputLink = new int[size];
+            Arrays.fill(outputLink, -1);
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int child : edgeTargets[0]) {
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int i = 0; i < edgeChars[node].length; i++) {
+                    char c = edgeChars[node][i];
+                    int child = edgeTargets[node][i];
+                    int fallback = failure[node];
+                    int target;
+                    while ((target = find(edgeChars, edgeTargets, fallback, c)) < 0 && fallback != 0) {
+                        fallback = failure[fallback];
+                    }
+                    failure[child] = target >= 0 && target != child ? target : 0;
+                    int link = failure[child];
+                    outputLink[child] = values[link] >= 0 ? link : outputLink[link];
+                    queue.add(child);
+                }
+            }
+            return new KeywordMatcher(edgeChars, edgeTargets, failure, values, lengths, outputLink);
+        }
+
+        private static int find(char[][] edgeChars, int[][] edgeTargets, int node, char c) {
+            int index = Arrays.binarySearch(edgeChars[node], c);
+            return index >= 0 ? edgeTargets[node][index] : -1;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.budgettracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue of outgoing mail, sent in batches.
+ *
+ * Callers enqueue a message and return at once. Each flush drains the
+ * messages that are due and sends them in batches of batch-size, each batch
+ * over one SMTP connection (JavaMailSender opens one transport per send
+ * call), with at most max-connections batches in flight, so a burst such as
+ * the 8 AM digests costs a handful of handshakes instead of one per message.
+ *
+ * A message that fails is queued again after an exponential backoff and
+ * dropped after max-attempts. The queue is held in memory: messages still
+ * queued at shutdown get one last flush and are otherwise lost.
+ */
+@Component
+public class MailOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailOutbox.class);
+
+    private final JavaMailSender mailSender;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final int capacity;
+    private final SimpleAsyncTaskExecutor executor;
+    private final DelayQueue<Pending> queue = new DelayQueue<>();
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dropped;
+
+    @Autowired
+    public MailOutbox(@Nullable JavaMailSender mailSender,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.email.outbox.batch-size:50}") int batchSize,
+                      @Value("${app.email.outbox.max-connections:4}") int maxConnections,
+                      @Value("${app.email.outbox.max-attempts:5}") int maxAttempts,
+                      @Value("${app.email.outbox.backoff-ms:30000}") long backoffMillis,
+                      @Value("${app.email.outbox.capacity:10000}") int capacity,
+                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.mailSender = mailSender;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.capacity = capacity;
+        this.executor = new SimpleAsyncTaskExecutor("mail-outbox-");
+        this.executor.setVirtualThreads(virtualThreads);
+        this.executor.setConcurrencyLimit(maxConnections);
+
+        Gauge.builder("email.outbox.queued", queue, DelayQueue::size)
+                .description("Messages waiting in the mail outbox")
+                .register(meterRegistry);
+        this.sent = outcome(meterRegistry, "sent");
+        this.retried = outcome(meterRegistry, "retried");
+        this.dropped = outcome(meterRegistry, "dropped");
+    }
+
+    /**
+     * Whether there is a mail sender to send through
+     */
+    public boolean isAvailable() {
+        return mailSender != null;
+    }
+
+    /**
+     * New empty message to fill in and enqueue
+     */
+    public MimeMessage createMessage() {
+        if (mailSender == null) {
+            throw new RuntimeException("Mail sender is not configured");
+        }
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Queue a message for the next flush
+     */
+    public void enqueue(MimeMessage message) {
+        if (queue.size() >= capacity) {
+            throw new RuntimeException("Mail outbox is full");
+        }
+        queue.add(new Pending(message, 0, System.nanoTime()));
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Send every message that is due; returns how many were sent
+     * Runs every second
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.flush-ms:1000}")
+    public int flush() {
+        if (mailSender == null) {
+            return 0;
+        }
+        int delivered = 0;
+        // Messages queued again during this flush wait for the next one
+        int remaining = queue.size();
+        int chunk = batchSize * Math.max(1, executor.getConcurrencyLimit());
+        List<Pending> due = new ArrayList<>();
+        while (remaining > 0 && queue.drainTo(due, Math.min(remaining, chunk)) > 0) {
+            remaining -= due.size();
+            List<CompletableFuture<Integer>> batches = new ArrayList<>();
+            for (int from = 0; from < due.size(); from += batchSize) {
+                List<Pending> batch = List.copyOf(due.subList(from, Math.min(from + batchSize, due.size())));
+                batches.add(CompletableFuture.supplyAsync(() -> send(batch), executor));
+            }
+            for (CompletableFuture<Integer> batch : batches) {
+                delivered += batch.join();
+            }
+            due.clear();
+        }
+        return delivered;
+    }
+
+    @PreDestroy
+    void drainOnShutdown() {
+        if (!queue.isEmpty()) {
+            logger.info("Flushing {} queued messages before shutdown", queue.size());
+            flush();
+        }
+    }
+
+    // One SMTP connection for the whole batch; returns how many were accepted
+    private int send(List<Pending> batch) {
+        MimeMessage[] messages = batch.stream().map(pending -> pending.message).toArray(MimeMessage[]::new);
+        try {
+            mailSender.send(messages);
+            sent.increment(batch.size());
+            return batch.size();
+        } catch (MailSendException e) {
+            // Lists every message when the connection failed, none when only closing it did
+            Map<Object, Exception> failed = e.getFailedMessages();
+            int accepted = 0;
+            for (Pending pending : batch) {
+                if (failed.containsKey(pending.message)) {
+                    retry(pending, failed.get(pending.message));
+                } else {
+                    accepted++;
+                }
+            }
+            sent.increment(accepted);
+            return accepted;
+        } catch (MailException e) {
+            batch.forEach(pending -> retry(pending, e));
+            return 0;
+        }
+    }
+
+    private void retry(Pending pending, Exception cause) {
+        int attempts = pending.attempts + 1;
+        if (attempts >= maxAttempts) {
+            dropped.increment();
+            logger.error("Dropping mail after {} attempts: {}", attempts, cause.getMessage());
+            return;
+        }
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(backoffMillis << (attempts - 1));
+        queue.add(new Pending(pending.message, attempts, System.nanoTime() + delayNanos));
+        retried.increment();
+        logger.warn("Mail send failed (attempt {}), retrying: {}", attempts, cause.getMessage());
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("email.outbox.messages")
+                .description("Messages leaving the mail outbox by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A queued message and when it may next be sent
+     */
+    private static final class Pending implements Delayed {
+        private final MimeMessage message;
+        private final int attempts;
+        private final long notBeforeNanos;
+
+        Pending(MimeMessage message, int attempts, long notBeforeNanos) {
+            this.message = message;
+            this.attempts = attempts;
+            this.notBeforeNanos = notBeforeNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(notBeforeNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(notBeforeNanos, ((Pending) other).notBeforeNanos);
+        }
+    }
+}
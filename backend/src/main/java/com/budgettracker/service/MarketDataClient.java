@@ -0,0 +1,157 @@
+package com.budgettracker.service;
+
+import com.budgettracker.util.Futures;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous front for the configured MarketDataProvider.
+ *
+ * Concurrent requests for the same symbol share one upstream call, every
+ * call is bounded by a deadline, and repeated provider failures (timeouts and
+ * MarketDataProvider.UnavailableException) open a circuit breaker so a
+ * struggling provider is not hammered. Errors about the request itself, such
+ * as an unknown symbol, go to the caller without counting against the
+ * provider. No method blocks; callers that
+ * need a value synchronously must join the returned future themselves.
+ */
+@Service
+public class MarketDataClient {
+
+    private final MarketDataProvider provider;
+    private final long deadlineMillis;
+    private final CircuitBreaker circuitBreaker;
+
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    @Autowired
+    public MarketDataClient(MarketDataProvider provider,
+                            @Value("${app.market-data.deadline-ms:5000}") long deadlineMillis,
+                            @Value("${app.market-data.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                            @Value("${app.market-data.circuit-breaker.open-ms:30000}") long openMillis) {
+        this(provider, deadlineMillis, new CircuitBreaker(failureThreshold, openMillis));
+    }
+
+    MarketDataClient(MarketDataProvider provider, long deadlineMillis, CircuitBreaker circuitBreaker) {
+        this.provider = provider;
+        this.deadlineMillis = deadlineMillis;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public CompletableFuture<BigDecimal> getPrice(String symbol) {
+        String key = normalize(symbol);
+        return call("price:" + key, () -> provider.fetchPrice(key));
+    }
+
+    public CompletableFuture<Map<String, Object>> getQuote(String symbol) {
+        String key = normalize(symbol);
+        return call("quote:" + key, () -> provider.fetchQuote(key));
+    }
+
+    public CompletableFuture<Map<String, Object>> searchSymbol(String keywords) {
+        return call("search:" + keywords.trim().toLowerCase(Locale.ROOT), () -> provider.searchSymbol(keywords));
+    }
+
+    /**
+     * Join an in-flight call for the key or start one. Each caller gets its
+     * own dependent future, so cancelling one does not affect the others.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> call(String key, Supplier<CompletableFuture<T>> request) {
+        requests.incrementAndGet();
+
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return existing.copy();
+        }
+
+        if (!circuitBreaker.tryAcquire()) {
+            rejected.incrementAndGet();
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(new RuntimeException(
+                    "Market data provider " + provider.getName() + " unavailable: circuit open"));
+            return shared.copy();
+        }
+
+        CompletableFuture<T> upstream;
+        try {
+            upstream = request.get();
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+
+        upstream.orTimeout(deadlineMillis, TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            inFlight.remove(key, shared);
+            if (error == null) {
+                circuitBreaker.recordSuccess();
+                shared.complete(value);
+                return;
+            }
+
+            Throwable cause = Futures.unwrap(error);
+            failures.incrementAndGet();
+            if (cause instanceof TimeoutException) {
+                timeouts.incrementAndGet();
+                circuitBreaker.recordFailure();
+                cause = new RuntimeException("Market data request " + key + " exceeded " + deadlineMillis + " ms", cause);
+            } else if (cause instanceof MarketDataProvider.UnavailableException) {
+                circuitBreaker.recordFailure();
+            } else {
+                // The provider answered; only this request failed
+                circuitBreaker.recordSuccess();
+            }
+            shared.completeExceptionally(cause);
+        });
+        return shared.copy();
+    }
+
+    public String getProviderName() {
+        return provider.getName();
+    }
+
+    public boolean isCircuitOpen() {
+        return circuitBreaker.getState() == CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * Get client statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("provider", provider.getName());
+        stats.put("circuitState", circuitBreaker.getState().name());
+        stats.put("consecutiveFailures", circuitBreaker.getConsecutiveFailures());
+        stats.put("inFlight", inFlight.size());
+        stats.put("requests", requests.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("rejected", rejected.get());
+        stats.put("timeouts", timeouts.get());
+        stats.put("failures", failures.get());
+        stats.put("deadlineMs", deadlineMillis);
+        return stats;
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+}
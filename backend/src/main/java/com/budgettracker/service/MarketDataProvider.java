@@ -0,0 +1,43 @@
+package com.budgettracker.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A source of market prices. Implementations must not block the calling
+ * thread; every call returns a future completed by the provider's own I/O
+ * or timer threads.
+ *
+ * Futures fail with UnavailableException (or a TimeoutException) when the
+ * provider itself could not answer, and with any other exception when it
+ * answered but the request failed (unknown symbol, unreadable payload).
+ */
+public interface MarketDataProvider {
+
+    String getName();
+
+    CompletableFuture<BigDecimal> fetchPrice(String symbol);
+
+    /**
+     * Quote fields: symbol, open, high, low, price, volume, latestTradingDay,
+     * previousClose, change, changePercent
+     */
+    CompletableFuture<Map<String, Object>> fetchQuote(String symbol);
+
+    CompletableFuture<Map<String, Object>> searchSymbol(String keywords);
+
+    /**
+     * The provider could not be reached or could not serve any request:
+     * connection errors, 5xx responses, rate limiting
+     */
+    class UnavailableException extends RuntimeException {
+        public UnavailableException(String message) {
+            super(message);
+        }
+
+        public UnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -1,15 +1,38 @@
 package com.budgettracker.service;
 
+import com.budgettracker.repository.InvestmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
 @Service
 public class MarketDataScheduler {
     
+    private static final ZoneId MARKET_ZONE = ZoneId.of("America/New_York");
+    private static final LocalTime MARKET_CLOSE = LocalTime.of(16, 0);
+    
     @Autowired
     private MarketDataService marketDataService;
     
+    @Autowired
+    private InvestmentRepository investmentRepository;
+    
+    @Autowired
+    private SymbolPriceTable symbolPriceTable;
+    
+    @Autowired
+    private PriceHistoryStore priceHistoryStore;
+    
+    @Autowired
+    private JobMetrics jobMetrics;
+    
     // Update prices every 30 minutes during market hours (9 AM to 4 PM EST, Monday to Friday)
     @Scheduled(cron = "0 */30 9-16 * * MON-FRI", zone = "America/New_York")
     public void updatePricesDuringMarketHours() {
@@ -45,4 +68,44 @@ public class MarketDataScheduler {
             System.err.println("Error clearing market data cache: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    // Record the daily close for every held symbol shortly after market close
+    @Scheduled(cron = "0 15 16 * * MON-FRI", zone = "America/New_York")
+    public void recordDailyClosingPrices() {
+        try {
+            System.out.println("Recording daily closing prices...");
+            int recorded = recordClosingPrices(LocalDate.now(MARKET_ZONE));
+            jobMetrics.recordItems("marketData.dailyCloses", recorded);
+            System.out.println("Recorded closing prices for " + recorded + " symbols.");
+        } catch (Exception e) {
+            System.err.println("Error recording daily closing prices: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Store today's close for each held symbol, preferring a quote already
+     * fetched after the market closed over a new API call (an intraday quote
+     * is not the close)
+     */
+    int recordClosingPrices(LocalDate tradingDay) {
+        // Quotes are stamped in the server's local time
+        LocalDateTime marketClose = ZonedDateTime.of(tradingDay, MARKET_CLOSE, MARKET_ZONE)
+                .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        int recorded = 0;
+        for (String symbol : investmentRepository.findAllDistinctSymbols()) {
+            try {
+                SymbolPriceTable.PricePoint latest = symbolPriceTable.get(symbol);
+                BigDecimal close = latest != null && !latest.getAsOf().isBefore(marketClose)
+                        ? latest.getPrice()
+                        : marketDataService.getCurrentPrice(symbol);
+                if (close != null) {
+                    priceHistoryStore.record(symbol, tradingDay, close);
+                    recorded++;
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to record closing price for " + symbol + ": " + e.getMessage());
+            }
+        }
+        return recorded;
+    }
+}
@@ -2,7 +2,9 @@ package com.budgettracker.service;
 
 import com.budgettracker.model.Investment;
 import com.budgettracker.repository.InvestmentRepository;
+import com.budgettracker.util.Futures;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.scheduling.annotation.Async;
@@ -20,43 +22,74 @@ import java.util.concurrent.CompletableFuture;
 public class MarketDataService {
     
     @Autowired
-    private AlphaVantageService alphaVantageService;
+    private MarketDataClient marketDataClient;
     
     @Autowired
     private InvestmentRepository investmentRepository;
     
-    @Cacheable(value = "marketPrices", key = "#symbol")
+    @Autowired
+    private SymbolPriceTable symbolPriceTable;
+    
+    @Value("${app.market-data.price-max-age-seconds:60}")
+    private long priceMaxAgeSeconds;
+    
+    @Cacheable(value = "marketPrices", key = "#symbol", unless = "#result == null")
     public BigDecimal getCurrentPrice(String symbol) {
         try {
-            return alphaVantageService.getCurrentPrice(symbol);
+            return getCurrentPriceAsync(symbol).join();
         } catch (Exception e) {
             // Log error and return null if price fetch fails
-            System.err.println("Failed to fetch price for " + symbol + ": " + e.getMessage());
+            System.err.println("Failed to fetch price for " + symbol + ": " + Futures.unwrap(e).getMessage());
             return null;
         }
     }
     
-    @Cacheable(value = "marketQuotes", key = "#symbol")
+    /**
+     * Non-blocking price lookup. A quote fetched within the last
+     * priceMaxAgeSeconds is served from the shared price table.
+     */
+    public CompletableFuture<BigDecimal> getCurrentPriceAsync(String symbol) {
+        SymbolPriceTable.PricePoint latest = symbolPriceTable.get(symbol);
+        if (latest != null && latest.getAsOf().isAfter(LocalDateTime.now().minusSeconds(priceMaxAgeSeconds))) {
+            return CompletableFuture.completedFuture(latest.getPrice());
+        }
+        
+        return marketDataClient.getPrice(symbol).thenApply(price -> {
+            // Share the fresh quote with every holding of this symbol
+            symbolPriceTable.update(symbol, price, LocalDateTime.now());
+            return price;
+        });
+    }
+    
+    @Cacheable(value = "marketQuotes", key = "#symbol", unless = "#result == null")
     public Map<String, Object> getQuote(String symbol) {
         try {
-            return alphaVantageService.getQuote(symbol);
+            return getQuoteAsync(symbol).join();
         } catch (Exception e) {
             // Log error and return null if quote fetch fails
-            System.err.println("Failed to fetch quote for " + symbol + ": " + e.getMessage());
+            System.err.println("Failed to fetch quote for " + symbol + ": " + Futures.unwrap(e).getMessage());
             return null;
         }
     }
     
+    public CompletableFuture<Map<String, Object>> getQuoteAsync(String symbol) {
+        return marketDataClient.getQuote(symbol);
+    }
+    
     public Map<String, Object> searchSymbol(String keywords) {
         try {
-            return alphaVantageService.searchSymbol(keywords);
+            return searchSymbolAsync(keywords).join();
         } catch (Exception e) {
             // Log error and return null if search fails
-            System.err.println("Failed to search for " + keywords + ": " + e.getMessage());
+            System.err.println("Failed to search for " + keywords + ": " + Futures.unwrap(e).getMessage());
             return null;
         }
     }
     
+    public CompletableFuture<Map<String, Object>> searchSymbolAsync(String keywords) {
+        return marketDataClient.searchSymbol(keywords);
+    }
+    
     @Async
     public CompletableFuture<Void> updateInvestmentPrice(Long investmentId) {
         try {
@@ -139,7 +172,8 @@ public class MarketDataService {
     
     @CacheEvict(value = {"marketPrices", "marketQuotes"}, key = "#symbol")
     public void evictPriceCache(String symbol) {
-        // This method will evict the cached price for the given symbol
+        // Also drop the shared price so the next lookup goes to the provider
+        symbolPriceTable.evict(symbol);
     }
     
     @CacheEvict(value = {"marketPrices", "marketQuotes"}, allEntries = true)
@@ -0,0 +1,353 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.Notification;
+import com.budgettracker.model.NotificationPreference;
+import com.budgettracker.model.UserProfile;
+import com.budgettracker.repository.NotificationPreferenceRepository;
+import com.budgettracker.repository.UserProfileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of every user's notification settings, so that sending a
+ * notification or choosing the recipients of a broadcast alert issues no
+ * per-user queries.
+ *
+ * Each user's notification preferences are packed into one long, a bit per
+ * channel and notification type, plus their quiet hours; users without a
+ * preferences row get the defaults, so nothing is created on the send path.
+ * The profile alert switches (budget alerts, bill reminders, ...) are held as
+ * one bit set per switch indexed by user id, so the recipients of a broadcast
+ * are read straight off the set bits.
+ *
+ * Each half is loaded in one query on first use and kept current by the
+ * preference and profile write paths, which apply their change once the
+ * writing transaction commits. A load that races a write is not kept, and
+ * the next read loads again. Loads are not read-only, so they go to the
+ * primary: a lagging replica could hand back settings from before a change
+ * the index has already applied.
+ */
+@Service
+public class NotificationPreferenceIndex {
+
+    public enum Alert { BUDGET_ALERTS, BILL_REMINDERS, INVESTMENT_ALERTS, WEEKLY_SUMMARY, MONTHLY_REPORT }
+
+    private static final Settings DEFAULTS = Settings.of(new NotificationPreference());
+
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final UserProfileRepository profileRepository;
+    private final TransactionTemplate readTransaction;
+
+    private final AtomicLong preferenceVersion = new AtomicLong();
+    private final AtomicLong profileVersion = new AtomicLong();
+    private final AtomicLong preferenceLoads = new AtomicLong();
+    private final AtomicLong profileLoads = new AtomicLong();
+
+    private volatile Map<Long, Settings> settings;
+    private volatile AlertSets alerts;
+
+    @Autowired
+    public NotificationPreferenceIndex(NotificationPreferenceRepository preferenceRepository,
+                                       UserProfileRepository profileRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.preferenceRepository = preferenceRepository;
+        this.profileRepository = profileRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The user's notification settings, or the defaults when they have never
+     * saved any
+     */
+    public Settings settingsFor(Long userId) {
+        return settings().getOrDefault(userId, DEFAULTS);
+    }
+
+    /**
+     * Ids of the users whose profile has the alert switched on, in id order
+     */
+    public List<Long> usersWith(Alert alert) {
+        return alerts().usersWith(alert);
+    }
+
+    /**
+     * Record saved notification preferences once the transaction commits
+     */
+    public void preferencesSaved(NotificationPreference preferences) {
+        Long userId = preferences.getUserId();
+        Settings saved = Settings.of(preferences);
+        afterCommit(() -> {
+            preferenceVersion.incrementAndGet();
+            Map<Long, Settings> current = settings;
+            if (current != null) {
+                current.put(userId, saved);
+            }
+        });
+    }
+
+    /**
+     * Record a saved profile's alert switches once the transaction commits
+     */
+    public void profileSaved(UserProfile profile) {
+        Long userId = profile.getUserId();
+        EnumMap<Alert, Boolean> switches = switchesOf(profile.getBudgetAlerts(), profile.getBillReminders(),
+                profile.getInvestmentAlerts(), profile.getWeeklySummary(), profile.getMonthlyReport());
+        afterCommit(() -> {
+            profileVersion.incrementAndGet();
+            AlertSets current = alerts;
+            if (current != null) {
+                current.put(userId, switches);
+            }
+        });
+    }
+
+    /**
+     * Drop a deleted profile once the transaction commits
+     */
+    public void profileDeleted(Long userId) {
+        afterCommit(() -> {
+            profileVersion.incrementAndGet();
+            AlertSets current = alerts;
+            if (current != null) {
+                current.put(userId, new EnumMap<>(Alert.class));
+            }
+        });
+    }
+
+    /**
+     * Get index statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        Map<Long, Settings> currentSettings = settings;
+        AlertSets currentAlerts = alerts;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("preferencesIndexed", currentSettings != null ? currentSettings.size() : 0);
+        stats.put("profilesIndexed", currentAlerts != null ? currentAlerts.size() : 0);
+        stats.put("preferenceLoads", preferenceLoads.get());
+        stats.put("profileLoads", profileLoads.get());
+        return stats;
+    }
+
+    private Map<Long, Settings> settings() {
+        Map<Long, Settings> current = settings;
+        if (current != null) {
+            return current;
+        }
+        long version = preferenceVersion.get();
+        preferenceLoads.incrementAndGet();
+        Map<Long, Settings> loaded = new ConcurrentHashMap<>();
+        readTransaction.executeWithoutResult(status -> {
+            for (NotificationPreference preferences : preferenceRepository.findAll()) {
+                loaded.put(preferences.getUserId(), Settings.of(preferences));
+            }
+        });
+        if (preferenceVersion.get() == version) {
+            settings = loaded;
+        }
+        return loaded;
+    }
+
+    private AlertSets alerts() {
+        AlertSets current = alerts;
+        if (current != null) {
+            return current;
+        }
+        long version = profileVersion.get();
+        profileLoads.incrementAndGet();
+        AlertSets loaded = new AlertSets();
+        readTransaction.executeWithoutResult(status -> {
+            for (Object[] row : profileRepository.findAlertSwitches()) {
+                loaded.put((Long) row[0], switchesOf((Boolean) row[1], (Boolean) row[2], (Boolean) row[3],
+                        (Boolean) row[4], (Boolean) row[5]));
+            }
+        });
+        if (profileVersion.get() == version) {
+            alerts = loaded;
+        }
+        return loaded;
+    }
+
+    private static EnumMap<Alert, Boolean> switchesOf(Boolean budgetAlerts, Boolean billReminders,
+                                                      Boolean investmentAlerts, Boolean weeklySummary,
+                                                      Boolean monthlyReport) {
+        EnumMap<Alert, Boolean> switches = new EnumMap<>(Alert.class);
+        switches.put(Alert.BUDGET_ALERTS, Boolean.TRUE.equals(budgetAlerts));
+        switches.put(Alert.BILL_REMINDERS, Boolean.TRUE.equals(billReminders));
+        switches.put(Alert.INVESTMENT_ALERTS, Boolean.TRUE.equals(investmentAlerts));
+        switches.put(Alert.WEEKLY_SUMMARY, Boolean.TRUE.equals(weeklySummary));
+        switches.put(Alert.MONTHLY_REPORT, Boolean.TRUE.equals(monthlyReport));
+        return switches;
+    }
+
+    /**
+     * Run once the current transaction commits, or now when there is none
+     */
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * One user's notification preferences: a bit per channel and type, and
+     * quiet hours in the user's time zone
+     */
+    public static final class Settings {
+        private static final int EMAIL = 0;
+        private static final int PUSH = 1;
+        private static final int IN_APP = 2;
+        private static final int TYPES = Notification.NotificationType.values().length;
+
+        private final long channels;
+        private final boolean dailyDigest;
+        private final Integer quietHoursStart;
+        private final Integer quietHoursEnd;
+        private final ZoneId zone;
+
+        private Settings(long channels, boolean dailyDigest, Integer quietHoursStart, Integer quietHoursEnd,
+                         ZoneId zone) {
+            this.channels = channels;
+            this.dailyDigest = dailyDigest;
+            this.quietHoursStart = quietHoursStart;
+            this.quietHoursEnd = quietHoursEnd;
+            this.zone = zone;
+        }
+
+        public static Settings of(NotificationPreference preferences) {
+            long channels = 0;
+            for (Notification.NotificationType type : Notification.NotificationType.values()) {
+                if (preferences.shouldSendEmail(type)) {
+                    channels |= bit(EMAIL, type);
+                }
+                if (preferences.shouldSendPush(type)) {
+                    channels |= bit(PUSH, type);
+                }
+                if (preferences.shouldSendInApp(type)) {
+                    channels |= bit(IN_APP, type);
+                }
+            }
+            boolean dailyDigest = Boolean.TRUE.equals(preferences.getEmailEnabled())
+                    && preferences.getDigestFrequency() == NotificationPreference.DigestFrequency.DAILY;
+            return new Settings(channels, dailyDigest, preferences.getQuietHoursStart(),
+                    preferences.getQuietHoursEnd(), zoneOf(preferences.getTimezone()));
+        }
+
+        public boolean shouldSendEmail(Notification.NotificationType type) {
+            return (channels & bit(EMAIL, type)) != 0;
+        }
+
+        public boolean shouldSendPush(Notification.NotificationType type) {
+            return (channels & bit(PUSH, type)) != 0;
+        }
+
+        public boolean shouldSendInApp(Notification.NotificationType type) {
+            return (channels & bit(IN_APP, type)) != 0;
+        }
+
+        /**
+         * Whether the user gets a daily digest email
+         */
+        public boolean wantsDailyDigest() {
+            return dailyDigest;
+        }
+
+        /**
+         * Whether the instant falls in the user's quiet hours; a window whose
+         * start is after its end runs over midnight
+         */
+        public boolean isQuietAt(Instant instant) {
+            if (quietHoursStart == null || quietHoursEnd == null || quietHoursStart.equals(quietHoursEnd)) {
+                return false;
+            }
+            int hour = instant.atZone(zone).getHour();
+            if (quietHoursStart < quietHoursEnd) {
+                return hour >= quietHoursStart && hour < quietHoursEnd;
+            }
+            return hour >= quietHoursStart || hour < quietHoursEnd;
+        }
+
+        /**
+         * When the quiet hours that the instant falls in end
+         */
+        public Instant quietUntil(Instant instant) {
+            ZonedDateTime now = instant.atZone(zone);
+            ZonedDateTime end = now.toLocalDate().atTime(quietHoursEnd, 0).atZone(zone);
+            return (end.isAfter(now) ? end : end.plusDays(1)).toInstant();
+        }
+
+        private static long bit(int channel, Notification.NotificationType type) {
+            return 1L << (channel * TYPES + type.ordinal());
+        }
+
+        private static ZoneId zoneOf(String timezone) {
+            try {
+                return timezone != null ? ZoneId.of(timezone) : ZoneOffset.UTC;
+            } catch (DateTimeException e) {
+                return ZoneOffset.UTC;
+            }
+        }
+    }
+
+    /**
+     * Users with each profile alert switched on, as bit sets indexed by user id
+     */
+    private static final class AlertSets {
+        private final EnumMap<Alert, BitSet> users = new EnumMap<>(Alert.class);
+        private final BitSet indexed = new BitSet();
+
+        AlertSets() {
+            for (Alert alert : Alert.values()) {
+                users.put(alert, new BitSet());
+            }
+        }
+
+        synchronized void put(Long userId, EnumMap<Alert, Boolean> switches) {
+            int index = Math.toIntExact(userId);
+            indexed.set(index, !switches.isEmpty());
+            for (Alert alert : Alert.values()) {
+                users.get(alert).set(index, Boolean.TRUE.equals(switches.get(alert)));
+            }
+        }
+
+        synchronized List<Long> usersWith(Alert alert) {
+            BitSet set = users.get(alert);
+            List<Long> ids = new ArrayList<>(set.cardinality());
+            for (int id = set.nextSetBit(0); id >= 0; id = set.nextSetBit(id + 1)) {
+                ids.add((long) id);
+            }
+            return ids;
+        }
+
+        synchronized int size() {
+            return indexed.cardinality();
+        }
+    }
+}
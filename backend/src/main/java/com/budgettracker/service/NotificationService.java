@@ -7,21 +7,30 @@ import com.budgettracker.model.User;
 import com.budgettracker.repository.NotificationRepository;
 import com.budgettracker.repository.NotificationPreferenceRepository;
 import com.budgettracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @Transactional
 public class NotificationService {
     
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+    
     @Autowired
     private NotificationRepository notificationRepository;
     
@@ -34,6 +43,12 @@ public class NotificationService {
     @Autowired
     private EmailService emailService;
     
+    @Autowired
+    private JobMetrics jobMetrics;
+    
+    @Autowired
+    private NotificationPreferenceIndex notificationPreferenceIndex;
+    
     /**
      * Create a new notification
      */
@@ -118,7 +133,12 @@ public class NotificationService {
     }
     
     /**
-     * Send notification via all enabled channels
+     * Send notification via all enabled channels. Push notifications are held
+     * back during the user's quiet hours unless they are urgent: the
+     * notification stays pending, scheduled for the end of the quiet hours,
+     * and the scheduler sends the push then. Channels that already went out
+     * are not sent again. Email counts as sent (emailSent) once it is queued
+     * in the MailOutbox, which retries it and logs it if it is dropped.
      */
     @Async
     public void sendNotification(Long notificationId) {
@@ -128,31 +148,41 @@ public class NotificationService {
         }
         
         Notification notification = notificationOpt.get();
-        NotificationPreference preferences = getOrCreateNotificationPreferences(notification.getUserId());
+        NotificationPreferenceIndex.Settings preferences = notificationPreferenceIndex.settingsFor(notification.getUserId());
         
-        boolean sent = false;
+        boolean sent = Boolean.TRUE.equals(notification.getEmailSent());
         
         // Send email if enabled
-        if (preferences.shouldSendEmail(notification.getType())) {
+        if (preferences.shouldSendEmail(notification.getType()) && !sent) {
             try {
                 sendEmailNotification(notification);
                 notification.setEmailSent(true);
                 sent = true;
             } catch (Exception e) {
                 // Log error but continue with other channels
-                System.err.println("Failed to send email notification: " + e.getMessage());
+                logger.warn("Failed to send email notification {}: {}", notification.getId(), e.getMessage());
             }
         }
         
-        // Send push notification if enabled
-        if (preferences.shouldSendPush(notification.getType())) {
+        // Send push notification if enabled, or hold it until the quiet hours end
+        Instant now = Instant.now();
+        boolean pushDue = preferences.shouldSendPush(notification.getType())
+                && !Boolean.TRUE.equals(notification.getPushSent());
+        if (pushDue && notification.getPriority() != Notification.NotificationPriority.URGENT
+                && preferences.isQuietAt(now)) {
+            notification.setStatus(Notification.NotificationStatus.PENDING);
+            notification.setScheduledAt(LocalDateTime.ofInstant(preferences.quietUntil(now), ZoneId.systemDefault()));
+            notificationRepository.save(notification);
+            return;
+        }
+        if (pushDue) {
             try {
                 sendPushNotification(notification);
                 notification.setPushSent(true);
                 sent = true;
             } catch (Exception e) {
                 // Log error but continue
-                System.err.println("Failed to send push notification: " + e.getMessage());
+                logger.warn("Failed to send push notification {}: {}", notification.getId(), e.getMessage());
             }
         }
         
@@ -287,7 +317,9 @@ public class NotificationService {
         existing.setDigestFrequency(preferences.getDigestFrequency());
         existing.setReminderAdvanceDays(preferences.getReminderAdvanceDays());
         
-        return notificationPreferenceRepository.save(existing);
+        NotificationPreference saved = notificationPreferenceRepository.save(existing);
+        notificationPreferenceIndex.preferencesSaved(saved);
+        return saved;
     }
     
     /**
@@ -307,6 +339,37 @@ public class NotificationService {
         for (Notification notification : pendingNotifications) {
             sendNotification(notification.getId());
         }
+        
+        jobMetrics.recordItems("notifications.send", pendingNotifications.size());
+    }
+    
+    /**
+     * Email every user who wants a daily digest one message listing their
+     * unread notifications created in the period. Notifications are read in
+     * one query and recipients in another; the emails go out through the
+     * mail outbox in batches. Returns the number of digests queued.
+     */
+    public int sendDailyDigests(LocalDateTime since, LocalDateTime until) {
+        Map<Long, List<Notification>> byUser = new LinkedHashMap<>();
+        for (Notification notification : notificationRepository.findUnreadNotificationsCreatedBetween(since, until)) {
+            if (notificationPreferenceIndex.settingsFor(notification.getUserId()).wantsDailyDigest()) {
+                byUser.computeIfAbsent(notification.getUserId(), id -> new ArrayList<>()).add(notification);
+            }
+        }
+        if (byUser.isEmpty()) {
+            return 0;
+        }
+        
+        int queued = 0;
+        for (User user : userRepository.findAllById(byUser.keySet())) {
+            try {
+                emailService.sendDailyDigestEmail(user.getEmail(), user.getUsername(), byUser.get(user.getId()));
+                queued++;
+            } catch (Exception e) {
+                logger.warn("Failed to queue daily digest for user {}: {}", user.getId(), e.getMessage());
+            }
+        }
+        return queued;
     }
     
     /**
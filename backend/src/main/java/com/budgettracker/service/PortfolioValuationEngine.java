@@ -0,0 +1,264 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.Investment;
+import com.budgettracker.model.Investment.InvestmentType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Values a user's holdings in a single pass.
+ *
+ * Holdings are joined with the shared SymbolPriceTable so every figure uses
+ * the freshest known price, and performance, allocation, risk, benchmark and
+ * top/worst performers are all derived from the same pass instead of each
+ * re-querying the holdings.
+ */
+@Component
+public class PortfolioValuationEngine {
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+    private static final BigDecimal RISK_FREE_RATE = new BigDecimal("2.0");
+    private static final BigDecimal SP500_BENCHMARK_RETURN = new BigDecimal("10.0");
+
+    private final SymbolPriceTable symbolPriceTable;
+
+    @Autowired
+    public PortfolioValuationEngine(SymbolPriceTable symbolPriceTable) {
+        this.symbolPriceTable = symbolPriceTable;
+    }
+
+    public PortfolioValuation value(List<Investment> holdings) {
+        LocalDate today = LocalDate.now();
+
+        BigDecimal totalCostBasis = BigDecimal.ZERO;
+        BigDecimal totalCurrentValue = BigDecimal.ZERO;
+        Map<InvestmentType, BigDecimal> allocationByType = new HashMap<>();
+        Set<InvestmentType> uniqueTypes = new HashSet<>();
+        Set<String> uniqueSymbols = new HashSet<>();
+        List<HoldingValuation> valuations = new ArrayList<>(holdings.size());
+        long totalHoldingDays = 0L;
+
+        for (Investment investment : holdings) {
+            BigDecimal price = symbolPriceTable.resolvePrice(investment);
+            HoldingValuation valuation = new HoldingValuation(investment, price);
+
+            totalCostBasis = totalCostBasis.add(valuation.getTotalCost());
+            totalCurrentValue = totalCurrentValue.add(valuation.getCurrentValue());
+            allocationByType.merge(investment.getType(), valuation.getCurrentValue(), BigDecimal::add);
+            uniqueTypes.add(investment.getType());
+            uniqueSymbols.add(investment.getSymbol());
+            totalHoldingDays += ChronoUnit.DAYS.between(investment.getPurchaseDate(), today);
+            valuations.add(valuation);
+        }
+
+        double avgHoldingDays = holdings.isEmpty() ? 0.0 : (double) totalHoldingDays / holdings.size();
+
+        return new PortfolioValuation(valuations, totalCostBasis, totalCurrentValue, allocationByType,
+                uniqueTypes.size(), uniqueSymbols.size(), avgHoldingDays / 365.0);
+    }
+
+    /**
+     * A holding valued at its resolved price
+     */
+    public static final class HoldingValuation {
+        private final Investment investment;
+        private final BigDecimal price;
+        private final BigDecimal totalCost;
+        private final BigDecimal currentValue;
+
+        HoldingValuation(Investment investment, BigDecimal price) {
+            this.investment = investment;
+            this.price = price;
+            this.totalCost = investment.getQuantity().multiply(investment.getPurchasePrice());
+            this.currentValue = price != null ? investment.getQuantity().multiply(price) : totalCost;
+        }
+
+        public Investment getInvestment() { return investment; }
+        public BigDecimal getPrice() { return price; }
+        public BigDecimal getTotalCost() { return totalCost; }
+        public BigDecimal getCurrentValue() { return currentValue; }
+
+        public BigDecimal getGainLoss() {
+            return currentValue.subtract(totalCost);
+        }
+
+        public BigDecimal getGainLossPercentage() {
+            if (totalCost.compareTo(BigDecimal.ZERO) == 0) {
+                return BigDecimal.ZERO;
+            }
+            return getGainLoss().divide(totalCost, 4, RoundingMode.HALF_UP).multiply(ONE_HUNDRED);
+        }
+
+        public boolean isPriced() {
+            return price != null;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> performance = new HashMap<>();
+            performance.put("id", investment.getId());
+            performance.put("symbol", investment.getSymbol());
+            performance.put("name", investment.getName());
+            performance.put("type", investment.getType());
+            performance.put("currentPrice", price);
+            performance.put("totalCost", totalCost);
+            performance.put("currentValue", currentValue);
+            performance.put("gainLoss", getGainLoss());
+            performance.put("gainLossPercentage", getGainLossPercentage());
+            performance.put("purchaseDate", investment.getPurchaseDate());
+            return performance;
+        }
+    }
+
+    /**
+     * The result of one valuation pass over a user's holdings
+     */
+    public static final class PortfolioValuation {
+        private final List<HoldingValuation> holdings;
+        private final BigDecimal totalCostBasis;
+        private final BigDecimal totalCurrentValue;
+        private final Map<InvestmentType, BigDecimal> allocationByType;
+        private final int uniqueAssetTypes;
+        private final int uniqueSymbols;
+        private final double avgHoldingYears;
+
+        PortfolioValuation(List<HoldingValuation> holdings, BigDecimal totalCostBasis, BigDecimal totalCurrentValue,
+                           Map<InvestmentType, BigDecimal> allocationByType, int uniqueAssetTypes,
+                           int uniqueSymbols, double avgHoldingYears) {
+            this.holdings = holdings;
+            this.totalCostBasis = totalCostBasis;
+            this.totalCurrentValue = totalCurrentValue;
+            this.allocationByType = allocationByType;
+            this.uniqueAssetTypes = uniqueAssetTypes;
+            this.uniqueSymbols = uniqueSymbols;
+            this.avgHoldingYears = avgHoldingYears;
+        }
+
+        public List<HoldingValuation> getHoldings() { return holdings; }
+        public BigDecimal getTotalCostBasis() { return totalCostBasis; }
+        public BigDecimal getTotalCurrentValue() { return totalCurrentValue; }
+        public Map<InvestmentType, BigDecimal> getAllocationByType() { return allocationByType; }
+
+        public BigDecimal getTotalGainLoss() {
+            return totalCurrentValue.subtract(totalCostBasis);
+        }
+
+        public BigDecimal getTotalGainLossPercentage() {
+            if (totalCostBasis.compareTo(BigDecimal.ZERO) > 0) {
+                return getTotalGainLoss().divide(totalCostBasis, 4, RoundingMode.HALF_UP).multiply(ONE_HUNDRED);
+            }
+            return BigDecimal.ZERO;
+        }
+
+        public Map<String, Object> getPerformance() {
+            Map<String, Object> performance = new HashMap<>();
+            performance.put("totalCostBasis", totalCostBasis);
+            performance.put("totalCurrentValue", totalCurrentValue);
+            performance.put("totalGainLoss", getTotalGainLoss());
+            performance.put("totalGainLossPercentage", getTotalGainLossPercentage());
+            performance.put("numberOfInvestments", holdings.size());
+            return performance;
+        }
+
+        public Map<String, Object> getAllocation() {
+            Map<InvestmentType, BigDecimal> allocationPercentages = new HashMap<>();
+            if (totalCurrentValue.compareTo(BigDecimal.ZERO) > 0) {
+                for (Map.Entry<InvestmentType, BigDecimal> entry : allocationByType.entrySet()) {
+                    allocationPercentages.put(entry.getKey(), entry.getValue()
+                            .divide(totalCurrentValue, 4, RoundingMode.HALF_UP).multiply(ONE_HUNDRED));
+                }
+            }
+
+            Map<String, Object> allocation = new HashMap<>();
+            allocation.put("totalValue", totalCurrentValue);
+            allocation.put("allocationByType", allocationByType);
+            allocation.put("allocationPercentages", allocationPercentages);
+            return allocation;
+        }
+
+        public Map<String, Object> getRiskMetrics() {
+            Map<String, Object> riskMetrics = new HashMap<>();
+
+            // Dispersion of per-holding gain percentages (no price history is kept)
+            List<BigDecimal> returns = holdings.stream()
+                    .filter(HoldingValuation::isPriced)
+                    .map(HoldingValuation::getGainLossPercentage)
+                    .collect(Collectors.toList());
+
+            if (!returns.isEmpty()) {
+                BigDecimal avgReturn = returns.stream()
+                        .reduce(BigDecimal.ZERO, BigDecimal::add)
+                        .divide(new BigDecimal(returns.size()), 4, RoundingMode.HALF_UP);
+
+                BigDecimal variance = returns.stream()
+                        .map(ret -> ret.subtract(avgReturn).pow(2))
+                        .reduce(BigDecimal.ZERO, BigDecimal::add)
+                        .divide(new BigDecimal(returns.size()), 4, RoundingMode.HALF_UP);
+
+                double volatility = Math.sqrt(variance.doubleValue());
+
+                riskMetrics.put("averageReturn", avgReturn);
+                riskMetrics.put("volatility", BigDecimal.valueOf(volatility));
+
+                if (volatility > 0) {
+                    riskMetrics.put("sharpeRatio", avgReturn.subtract(RISK_FREE_RATE)
+                            .divide(BigDecimal.valueOf(volatility), 4, RoundingMode.HALF_UP));
+                }
+            }
+
+            // Simple diversification score (0-100)
+            int diversificationScore = Math.min(100,
+                    (uniqueAssetTypes * 10) + Math.min(50, uniqueSymbols * 5));
+
+            riskMetrics.put("diversificationScore", diversificationScore);
+            riskMetrics.put("uniqueAssetTypes", uniqueAssetTypes);
+            riskMetrics.put("uniqueSymbols", uniqueSymbols);
+            return riskMetrics;
+        }
+
+        public Map<String, Object> getBenchmark() {
+            Map<String, Object> benchmark = new HashMap<>();
+            BigDecimal portfolioReturn = getTotalGainLossPercentage();
+
+            if (!holdings.isEmpty() && avgHoldingYears > 0) {
+                BigDecimal annualizedReturn = portfolioReturn.divide(
+                        BigDecimal.valueOf(avgHoldingYears), 4, RoundingMode.HALF_UP);
+
+                benchmark.put("portfolioAnnualizedReturn", annualizedReturn);
+                benchmark.put("sp500BenchmarkReturn", SP500_BENCHMARK_RETURN);
+                benchmark.put("outperformance", annualizedReturn.subtract(SP500_BENCHMARK_RETURN));
+                benchmark.put("avgHoldingPeriodYears", BigDecimal.valueOf(avgHoldingYears));
+            }
+
+            benchmark.put("portfolioTotalReturn", portfolioReturn);
+            return benchmark;
+        }
+
+        public List<Map<String, Object>> getTopPerformers(int limit) {
+            return rankedByReturn(Comparator.reverseOrder(), limit);
+        }
+
+        public List<Map<String, Object>> getWorstPerformers(int limit) {
+            return rankedByReturn(Comparator.naturalOrder(), limit);
+        }
+
+        public List<Map<String, Object>> getHoldingDetails() {
+            return holdings.stream().map(HoldingValuation::toMap).collect(Collectors.toList());
+        }
+
+        private List<Map<String, Object>> rankedByReturn(Comparator<BigDecimal> order, int limit) {
+            return holdings.stream()
+                    .filter(HoldingValuation::isPriced)
+                    .sorted(Comparator.comparing(HoldingValuation::getGainLossPercentage, order))
+                    .limit(limit)
+                    .map(HoldingValuation::toMap)
+                    .collect(Collectors.toList());
+        }
+    }
+}
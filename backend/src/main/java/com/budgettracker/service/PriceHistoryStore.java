@@ -0,0 +1,151 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.PriceHistory;
+import com.budgettracker.repository.PriceHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily closing prices per symbol.
+ *
+ * The price_history table is the durable store; each symbol's series is
+ * decoded into a compact in-memory PriceSeries the first time it is read and
+ * then kept current by appends, so risk calculations never go back to the
+ * database for symbols they have already seen.
+ *
+ * Closes are appended once the recording transaction commits, so a rollback
+ * leaves no phantom close. Series are loaded from the primary, and a load is
+ * only kept when no close for that symbol committed while it ran.
+ */
+@Service
+public class PriceHistoryStore {
+
+    @Autowired
+    private PriceHistoryRepository priceHistoryRepository;
+
+    private final Map<String, PriceSeries> seriesBySymbol = new ConcurrentHashMap<>();
+    // Closes committed per symbol, to drop loads that may have missed one; guarded by seriesBySymbol
+    private final Map<String, Long> versions = new HashMap<>();
+
+    /**
+     * Record the close for a symbol on a day, replacing any close already
+     * stored for that day
+     */
+    @Transactional
+    public void record(String symbol, LocalDate date, BigDecimal closePrice) {
+        if (symbol == null || date == null || closePrice == null) {
+            return;
+        }
+        String key = normalize(symbol);
+
+        PriceHistory row = priceHistoryRepository.findBySymbolAndPriceDate(key, date)
+                .orElseGet(() -> new PriceHistory(key, date, closePrice));
+        row.setClosePrice(closePrice);
+        priceHistoryRepository.save(row);
+
+        Runnable apply = () -> {
+            synchronized (seriesBySymbol) {
+                versions.merge(key, 1L, Long::sum);
+                PriceSeries series = seriesBySymbol.get(key);
+                if (series != null && !series.append(date, closePrice)) {
+                    // Backfilled an earlier day; decode again from the table on next read
+                    seriesBySymbol.remove(key);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Get the series for each symbol, loading any not yet in memory with a
+     * single query. Symbols without history map to an empty series.
+     * Not read-only, so the series that get cached come from the primary
+     * rather than a lagging replica.
+     */
+    @Transactional
+    public Map<String, PriceSeries> getSeries(Collection<String> symbols) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if (symbol != null) {
+                keys.add(normalize(symbol));
+            }
+        }
+
+        List<String> missing = keys.stream()
+                .filter(key -> !seriesBySymbol.containsKey(key))
+                .toList();
+        Map<String, PriceSeries> loaded = new HashMap<>();
+        if (!missing.isEmpty()) {
+            Map<String, Long> loadedAt = new HashMap<>();
+            synchronized (seriesBySymbol) {
+                missing.forEach(key -> loadedAt.put(key, versions.getOrDefault(key, 0L)));
+            }
+            missing.forEach(key -> loaded.put(key, new PriceSeries()));
+            for (PriceHistory row : priceHistoryRepository.findSeriesForSymbols(missing)) {
+                loaded.get(row.getSymbol()).append(row.getPriceDate(), row.getClosePrice());
+            }
+            synchronized (seriesBySymbol) {
+                loaded.forEach((key, series) -> {
+                    // A close committed during the load may be missing from it
+                    if (versions.getOrDefault(key, 0L).equals(loadedAt.get(key))) {
+                        seriesBySymbol.putIfAbsent(key, series);
+                    }
+                });
+            }
+        }
+
+        Map<String, PriceSeries> result = new HashMap<>();
+        for (String key : keys) {
+            PriceSeries series = seriesBySymbol.get(key);
+            result.put(key, series != null ? series : loaded.getOrDefault(key, new PriceSeries()));
+        }
+        return result;
+    }
+
+    /**
+     * Drop the in-memory series; they are decoded again on next read
+     */
+    public void clear() {
+        seriesBySymbol.clear();
+    }
+
+    /**
+     * Get store statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        long points = 0L;
+        long bytes = 0L;
+        for (PriceSeries series : seriesBySymbol.values()) {
+            points += series.size();
+            bytes += series.sizeInBytes();
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("symbolsLoaded", seriesBySymbol.size());
+        stats.put("pointsLoaded", points);
+        stats.put("encodedBytes", bytes);
+        stats.put("bytesPerPoint", points > 0 ? (double) bytes / points : 0.0);
+        return stats;
+    }
+
+    static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+}
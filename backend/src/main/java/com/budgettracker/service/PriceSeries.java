@@ -0,0 +1,171 @@
+package com.budgettracker.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Append-only daily close series for one symbol, held in a single byte array.
+ *
+ * Each point is stored as the gap in days from the previous point followed by
+ * the change in price (in 1/10000 units), both as variable-length integers,
+ * so a typical trading day costs three to four bytes. Reads decode the array
+ * sequentially, which is the only access pattern risk metrics need.
+ */
+public final class PriceSeries {
+
+    static final int TICKS_PER_UNIT = 10_000;
+
+    private byte[] data = new byte[32];
+    private int length;
+    private int count;
+
+    private long lastDay;
+    private long lastTicks;
+    private int lastOffset;
+    private long previousDay;
+    private long previousTicks;
+
+    /**
+     * Append a close. A second close for the last day replaces it.
+     * Returns false when the day is before the last stored day, in which case
+     * the series is unchanged and should be reloaded from the table.
+     */
+    public synchronized boolean append(LocalDate date, BigDecimal price) {
+        long day = date.toEpochDay();
+        long ticks = toTicks(price);
+
+        if (count > 0 && day < lastDay) {
+            return false;
+        }
+        if (count > 0 && day == lastDay) {
+            length = lastOffset;
+            count--;
+            lastDay = previousDay;
+            lastTicks = previousTicks;
+        }
+
+        ensureCapacity(length + 20);
+        previousDay = lastDay;
+        previousTicks = lastTicks;
+        lastOffset = length;
+        writeVarLong(day - lastDay);
+        writeVarLong(zigZag(ticks - lastTicks));
+        lastDay = day;
+        lastTicks = ticks;
+        count++;
+        return true;
+    }
+
+    /**
+     * Decode the closes between two days (inclusive), plus the last close
+     * before the start so callers can compute a return for the first day
+     */
+    public synchronized Window read(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+
+        int[] days = new int[count];
+        double[] closes = new double[count];
+        int n = 0;
+        boolean seeded = false;
+
+        long day = 0L;
+        long ticks = 0L;
+        int[] cursor = {0};
+        for (int i = 0; i < count; i++) {
+            day += readVarLong(cursor);
+            ticks += unZigZag(readVarLong(cursor));
+            if (day > toDay) {
+                break;
+            }
+            double close = (double) ticks / TICKS_PER_UNIT;
+            if (day < fromDay) {
+                days[0] = (int) day;
+                closes[0] = close;
+                seeded = true;
+                n = 1;
+            } else {
+                days[n] = (int) day;
+                closes[n] = close;
+                n++;
+            }
+        }
+        return new Window(Arrays.copyOf(days, n), Arrays.copyOf(closes, n), seeded);
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized int sizeInBytes() {
+        return length;
+    }
+
+    public synchronized LocalDate getLastDate() {
+        return count == 0 ? null : LocalDate.ofEpochDay(lastDay);
+    }
+
+    static long toTicks(BigDecimal price) {
+        return price.movePointRight(4).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > data.length) {
+            data = Arrays.copyOf(data, Math.max(required, data.length * 2));
+        }
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    private long readVarLong(int[] cursor) {
+        long value = 0L;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[cursor[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Decoded closes in ascending day order. When seeded, the first point is
+     * the last close before the requested range.
+     */
+    public static final class Window {
+        private final int[] epochDays;
+        private final double[] closes;
+        private final boolean seeded;
+
+        Window(int[] epochDays, double[] closes, boolean seeded) {
+            this.epochDays = epochDays;
+            this.closes = closes;
+            this.seeded = seeded;
+        }
+
+        public int[] getEpochDays() { return epochDays; }
+        public double[] getCloses() { return closes; }
+        public boolean isSeeded() { return seeded; }
+
+        public int size() {
+            return epochDays.length;
+        }
+    }
+}
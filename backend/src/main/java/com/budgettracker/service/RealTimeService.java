@@ -2,14 +2,23 @@ package com.budgettracker.service;
 
 import com.budgettracker.dto.RealTimeUpdateDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for handling real-time data updates via WebSocket
@@ -26,6 +35,41 @@ public class RealTimeService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final Map<String, Counter> messagesByType = new ConcurrentHashMap<>();
+    private Counter sessionsOpened;
+    private Counter sendFailures;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("websocket.sessions.active", activeSessions, AtomicInteger::get)
+                .description("Connected STOMP sessions")
+                .register(meterRegistry);
+        sessionsOpened = Counter.builder("websocket.sessions.opened").register(meterRegistry);
+        sendFailures = Counter.builder("websocket.messages.failed").register(meterRegistry);
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        activeSessions.incrementAndGet();
+        sessionsOpened.increment();
+    }
+
+    @EventListener
+    public void onSessionDisconnected(SessionDisconnectEvent event) {
+        activeSessions.decrementAndGet();
+    }
+
+    private void countMessage(String type) {
+        messagesByType.computeIfAbsent(type, t -> Counter.builder("websocket.messages.sent")
+                        .tag("type", t)
+                        .register(meterRegistry))
+                .increment();
+    }
+
     /**
      * Send real-time update to specific user
      */
@@ -44,8 +88,10 @@ public class RealTimeService {
                 update
             );
 
+            countMessage(type);
             logger.info("Sent real-time update to user {}: {}", userId, type);
         } catch (Exception e) {
+            sendFailures.increment();
             logger.error("Error sending real-time update to user {}: {}", userId, e.getMessage());
         }
     }
@@ -132,8 +178,10 @@ public class RealTimeService {
             // Broadcast to all connected clients
             messagingTemplate.convertAndSend("/topic/system", update);
 
+            countMessage(type);
             logger.info("Broadcasted system update: {}", type);
         } catch (Exception e) {
+            sendFailures.increment();
             logger.error("Error broadcasting system update: {}", e.getMessage());
         }
     }
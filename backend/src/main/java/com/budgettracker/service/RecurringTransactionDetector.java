@@ -0,0 +1,259 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.Bill;
+import com.budgettracker.model.Bill.BillFrequency;
+import com.budgettracker.model.Transaction;
+import com.budgettracker.util.BillRecurrence;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds recurring income and expenses (salary, rent, subscriptions) in a
+ * user's transaction history.
+ *
+ * Transactions are grouped by type and normalized title (digits and
+ * punctuation removed, so "Salary 03/2025" and "Salary 04/2025" group
+ * together). A group is recurring when it has at least three transactions
+ * whose gaps mostly match a weekly, bi-weekly, monthly or quarterly cadence
+ * and its last transaction is recent enough that the series has not stopped.
+ * Expenses that belong to no recurring group are reported as a total, which
+ * the cash-flow projection spreads evenly over the days as discretionary
+ * spending.
+ */
+public final class RecurringTransactionDetector {
+
+    static final int MIN_OCCURRENCES = 3;
+    private static final double MIN_MATCHING_GAPS = 0.75;
+
+    private RecurringTransactionDetector() {
+    }
+
+    /**
+     * Result of one detection run
+     */
+    public static final class Detection {
+        private final List<RecurringPattern> patterns;
+        private final long otherExpenseCents;
+
+        Detection(List<RecurringPattern> patterns, long otherExpenseCents) {
+            this.patterns = patterns;
+            this.otherExpenseCents = otherExpenseCents;
+        }
+
+        public List<RecurringPattern> getPatterns() {
+            return patterns;
+        }
+
+        /**
+         * Total of the expenses that are not part of a recurring pattern
+         */
+        public long getOtherExpenseCents() {
+            return otherExpenseCents;
+        }
+    }
+
+    /**
+     * A recurring series projected forward on the cadence of its first
+     * transaction, at the median amount of the series
+     */
+    public static final class RecurringPattern {
+        private final Transaction.TransactionType type;
+        private final String name;
+        private final String key;
+        private final String category;
+        private final BillFrequency cadence;
+        private final LocalDate anchor;
+        private final LocalDate lastDate;
+        private final long amountCents;
+
+        RecurringPattern(Transaction.TransactionType type, String name, String key, String category,
+                         BillFrequency cadence, LocalDate anchor, LocalDate lastDate, long amountCents) {
+            this.type = type;
+            this.name = name;
+            this.key = key;
+            this.category = category;
+            this.cadence = cadence;
+            this.anchor = anchor;
+            this.lastDate = lastDate;
+            this.amountCents = amountCents;
+        }
+
+        /**
+         * Projected dates after the last observed transaction, between from
+         * and to (inclusive)
+         */
+        public List<LocalDate> projectedDates(LocalDate from, LocalDate to) {
+            LocalDate lower = lastDate.plusDays(1).isAfter(from) ? lastDate.plusDays(1) : from;
+            List<LocalDate> dates = new ArrayList<>();
+            long n = BillRecurrence.firstIndexOnOrAfter(anchor, cadence, lower);
+            for (LocalDate date = BillRecurrence.occurrence(anchor, cadence, n); !date.isAfter(to);
+                 date = BillRecurrence.occurrence(anchor, cadence, ++n)) {
+                dates.add(date);
+            }
+            return dates;
+        }
+
+        /**
+         * Whether a bill already covers this series, so it is not counted twice
+         */
+        public boolean isCoveredBy(Bill bill) {
+            if (type != Transaction.TransactionType.EXPENSE || bill.getAmount() == null) {
+                return false;
+            }
+            if (key.equals(normalize(bill.getName()))) {
+                return true;
+            }
+            long billCents = CashFlowSimulator.toCents(bill.getAmount());
+            return category != null && category.equalsIgnoreCase(bill.getCategory())
+                    && Math.abs(billCents - amountCents) * 10 <= Math.max(billCents, amountCents);
+        }
+
+        public Transaction.TransactionType getType() {
+            return type;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public BillFrequency getCadence() {
+            return cadence;
+        }
+
+        public long getAmountCents() {
+            return amountCents;
+        }
+    }
+
+    /**
+     * Detect recurring series in the history, which ends at historyEnd
+     */
+    public static Detection detect(List<Transaction> history, LocalDate historyEnd) {
+        Map<String, List<Transaction>> groups = new HashMap<>();
+        long expenseCents = 0;
+        for (Transaction transaction : history) {
+            if (transaction.getType() == null || transaction.getAmount() == null
+                    || transaction.getTransactionDate() == null) {
+                continue;
+            }
+            if (transaction.getType() == Transaction.TransactionType.EXPENSE) {
+                expenseCents += CashFlowSimulator.toCents(transaction.getAmount().abs());
+            }
+            String name = transaction.getTitle() != null ? transaction.getTitle() : transaction.getCategory();
+            groups.computeIfAbsent(transaction.getType() + "|" + normalize(name), key -> new ArrayList<>())
+                    .add(transaction);
+        }
+
+        List<RecurringPattern> patterns = new ArrayList<>();
+        for (Map.Entry<String, List<Transaction>> group : groups.entrySet()) {
+            RecurringPattern pattern = toPattern(group.getKey().substring(group.getKey().indexOf('|') + 1),
+                    group.getValue(), historyEnd);
+            if (pattern != null) {
+                patterns.add(pattern);
+                if (pattern.type == Transaction.TransactionType.EXPENSE) {
+                    for (Transaction transaction : group.getValue()) {
+                        expenseCents -= CashFlowSimulator.toCents(transaction.getAmount().abs());
+                    }
+                }
+            }
+        }
+        return new Detection(patterns, expenseCents);
+    }
+
+    private static RecurringPattern toPattern(String key, List<Transaction> transactions, LocalDate historyEnd) {
+        if (transactions.size() < MIN_OCCURRENCES) {
+            return null;
+        }
+
+        int size = transactions.size();
+        long[] days = new long[size];
+        long[] cents = new long[size];
+        for (int i = 0; i < size; i++) {
+            days[i] = transactions.get(i).getTransactionDate().toLocalDate().toEpochDay();
+            cents[i] = CashFlowSimulator.toCents(transactions.get(i).getAmount().abs());
+        }
+        Arrays.sort(days);
+
+        long[] gaps = new long[size - 1];
+        for (int i = 1; i < size; i++) {
+            gaps[i - 1] = days[i] - days[i - 1];
+        }
+        long[] sortedGaps = gaps.clone();
+        Arrays.sort(sortedGaps);
+        long medianGap = sortedGaps[sortedGaps.length / 2];
+
+        BillFrequency cadence = cadenceOf(medianGap);
+        if (cadence == null) {
+            return null;
+        }
+        long period = periodDays(cadence);
+        long tolerance = Math.max(1, period / 10);
+        int matching = 0;
+        for (long gap : gaps) {
+            if (Math.abs(gap - period) <= tolerance) {
+                matching++;
+            }
+        }
+        if (matching < MIN_MATCHING_GAPS * gaps.length) {
+            return null;
+        }
+
+        // A series that has missed two payments has stopped
+        LocalDate last = LocalDate.ofEpochDay(days[size - 1]);
+        if (ChronoUnit.DAYS.between(last, historyEnd) > 2 * period + tolerance) {
+            return null;
+        }
+
+        Arrays.sort(cents);
+        Transaction sample = transactions.get(size - 1);
+        String name = sample.getTitle() != null ? sample.getTitle() : sample.getCategory();
+        return new RecurringPattern(sample.getType(), name, key, sample.getCategory(), cadence,
+                LocalDate.ofEpochDay(days[0]), last, cents[size / 2]);
+    }
+
+    private static BillFrequency cadenceOf(long medianGap) {
+        if (medianGap >= 6 && medianGap <= 8) {
+            return BillFrequency.WEEKLY;
+        }
+        if (medianGap >= 13 && medianGap <= 15) {
+            return BillFrequency.BI_WEEKLY;
+        }
+        if (medianGap >= 27 && medianGap <= 33) {
+            return BillFrequency.MONTHLY;
+        }
+        if (medianGap >= 85 && medianGap <= 97) {
+            return BillFrequency.QUARTERLY;
+        }
+        return null;
+    }
+
+    private static long periodDays(BillFrequency cadence) {
+        return switch (cadence) {
+            case WEEKLY -> 7;
+            case BI_WEEKLY -> 14;
+            case QUARTERLY -> 91;
+            default -> 30;
+        };
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        return name.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L} ]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+}
@@ -0,0 +1,312 @@
+package com.budgettracker.service;
+
+import com.budgettracker.dto.ExchangeRateResponse;
+import com.budgettracker.model.Category;
+import com.budgettracker.model.Currency;
+import com.budgettracker.repository.CategoryRepository;
+import com.budgettracker.repository.CurrencyRepository;
+import com.budgettracker.repository.ExchangeRateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Read-mostly reference data: categories, currencies and the latest exchange
+ * rates.
+ *
+ * Categories and currencies are each held as an immutable snapshot, loaded in
+ * one query on first use and published atomically, with case-insensitive name
+ * and code lookups answered from memory. Latest rates are cached per currency
+ * pair as they are asked for. Write paths call the invalidate methods; the
+ * snapshot is dropped immediately and again when the writing transaction
+ * completes, so a reload racing the write cannot keep stale rows.
+ *
+ * Snapshots are loaded in their own transaction, so the entities they hold
+ * are detached and never change under readers. That transaction is not
+ * read-only: a snapshot is kept until the next invalidation, so it must come
+ * from the primary, not from a replica that may not have applied the write
+ * that just invalidated it.
+ */
+@Service
+public class ReferenceDataCache {
+
+    private final CategoryRepository categoryRepository;
+    private final CurrencyRepository currencyRepository;
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final TransactionTemplate readTransaction;
+
+    private final AtomicLong categoryVersion = new AtomicLong();
+    private final AtomicLong currencyVersion = new AtomicLong();
+    private final AtomicLong rateVersion = new AtomicLong();
+
+    private volatile CategorySnapshot categories;
+    private volatile CurrencySnapshot currencies;
+    private final Map<String, Optional<ExchangeRateResponse>> latestRates = new ConcurrentHashMap<>();
+    private final Map<String, List<ExchangeRateResponse>> latestRatesByBase = new ConcurrentHashMap<>();
+
+    private final AtomicLong categoryLoads = new AtomicLong();
+    private final AtomicLong currencyLoads = new AtomicLong();
+    private final AtomicLong rateHits = new AtomicLong();
+    private final AtomicLong rateMisses = new AtomicLong();
+
+    @Autowired
+    public ReferenceDataCache(CategoryRepository categoryRepository,
+                              CurrencyRepository currencyRepository,
+                              ExchangeRateRepository exchangeRateRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.currencyRepository = currencyRepository;
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Categories
+
+    public List<Category> getActiveCategories() {
+        return categories().active;
+    }
+
+    public List<Category> getActiveCategories(Category.CategoryType type) {
+        return categories().activeByType.getOrDefault(type, List.of());
+    }
+
+    /**
+     * Active categories of the type or BOTH, ordered by name
+     */
+    public List<Category> getActiveCategoriesIncludingBoth(Category.CategoryType type) {
+        return categories().activeIncludingBoth.getOrDefault(type, List.of());
+    }
+
+    public Optional<Category> findCategory(Long id) {
+        return Optional.ofNullable(categories().byId.get(id));
+    }
+
+    public Optional<Category> findCategoryByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(categories().byName.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    // Currencies
+
+    /**
+     * Active currencies ordered by code
+     */
+    public List<Currency> getActiveCurrencies() {
+        return currencies().active;
+    }
+
+    public Optional<Currency> findCurrency(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(currencies().byCode.get(code.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    // Exchange rates
+
+    /**
+     * Most recent rate from one currency to another, or empty when the pair
+     * has never been quoted. Misses are remembered until the next refresh.
+     */
+    public Optional<ExchangeRateResponse> getLatestRate(Currency from, Currency to) {
+        String key = from.getCode() + "/" + to.getCode();
+        Optional<ExchangeRateResponse> cached = latestRates.get(key);
+        if (cached != null) {
+            rateHits.incrementAndGet();
+            return cached;
+        }
+        rateMisses.incrementAndGet();
+
+        long version = rateVersion.get();
+        Optional<ExchangeRateResponse> loaded = readTransaction.execute(status ->
+                exchangeRateRepository.findLatestRate(from, to).map(ExchangeRateResponse::fromEntity));
+        if (rateVersion.get() == version) {
+            latestRates.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Most recent rate from the base currency to every quoted currency
+     */
+    public List<ExchangeRateResponse> getLatestRatesFrom(Currency base) {
+        List<ExchangeRateResponse> cached = latestRatesByBase.get(base.getCode());
+        if (cached != null) {
+            rateHits.incrementAndGet();
+            return cached;
+        }
+        rateMisses.incrementAndGet();
+
+        long version = rateVersion.get();
+        List<ExchangeRateResponse> loaded = readTransaction.execute(status ->
+                exchangeRateRepository.findLatestRatesFromBaseCurrency(base).stream()
+                        .map(ExchangeRateResponse::fromEntity)
+                        .toList());
+        if (rateVersion.get() == version) {
+            latestRatesByBase.put(base.getCode(), loaded);
+        }
+        return loaded;
+    }
+
+    // Invalidation
+
+    public void invalidateCategories() {
+        onWriteCompletion(() -> {
+            categoryVersion.incrementAndGet();
+            categories = null;
+        });
+    }
+
+    public void invalidateCurrencies() {
+        onWriteCompletion(() -> {
+            currencyVersion.incrementAndGet();
+            currencies = null;
+        });
+        // Rates are keyed by code, which an update may change
+        invalidateExchangeRates();
+    }
+
+    public void invalidateExchangeRates() {
+        onWriteCompletion(() -> {
+            rateVersion.incrementAndGet();
+            latestRates.clear();
+            latestRatesByBase.clear();
+        });
+    }
+
+    /**
+     * Get cache statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        CategorySnapshot categorySnapshot = categories;
+        CurrencySnapshot currencySnapshot = currencies;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("categoriesLoaded", categorySnapshot != null ? categorySnapshot.byId.size() : 0);
+        stats.put("currenciesLoaded", currencySnapshot != null ? currencySnapshot.byCode.size() : 0);
+        stats.put("ratePairsCached", latestRates.size());
+        stats.put("rateBasesCached", latestRatesByBase.size());
+        stats.put("categoryLoads", categoryLoads.get());
+        stats.put("currencyLoads", currencyLoads.get());
+        stats.put("rateHits", rateHits.get());
+        stats.put("rateMisses", rateMisses.get());
+        return stats;
+    }
+
+    private CategorySnapshot categories() {
+        CategorySnapshot snapshot = categories;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long version = categoryVersion.get();
+        categoryLoads.incrementAndGet();
+        snapshot = new CategorySnapshot(readTransaction.execute(status -> categoryRepository.findAll()));
+        if (categoryVersion.get() == version) {
+            categories = snapshot;
+        }
+        return snapshot;
+    }
+
+    private CurrencySnapshot currencies() {
+        CurrencySnapshot snapshot = currencies;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long version = currencyVersion.get();
+        currencyLoads.incrementAndGet();
+        snapshot = new CurrencySnapshot(readTransaction.execute(status -> currencyRepository.findAll()));
+        if (currencyVersion.get() == version) {
+            currencies = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Run now and, inside a transaction, again once it commits or rolls back
+     */
+    private static void onWriteCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private static final class CategorySnapshot {
+        private final List<Category> active;
+        private final Map<Long, Category> byId;
+        private final Map<String, Category> byName;
+        private final Map<Category.CategoryType, List<Category>> activeByType;
+        private final Map<Category.CategoryType, List<Category>> activeIncludingBoth;
+
+        CategorySnapshot(List<Category> all) {
+            List<Category> sorted = new ArrayList<>(all);
+            sorted.sort(Comparator.comparing(Category::getId));
+
+            Map<Long, Category> ids = new HashMap<>();
+            Map<String, Category> names = new HashMap<>();
+            for (Category category : sorted) {
+                ids.put(category.getId(), category);
+                names.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category);
+            }
+
+            Comparator<Category> byNameOrder = Comparator.comparing(Category::getName, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(Category::getName);
+            List<Category> activeCategories = sorted.stream()
+                    .filter(category -> Boolean.TRUE.equals(category.getIsActive()))
+                    .toList();
+
+            Map<Category.CategoryType, List<Category>> types = new EnumMap<>(Category.CategoryType.class);
+            Map<Category.CategoryType, List<Category>> includingBoth = new EnumMap<>(Category.CategoryType.class);
+            for (Category.CategoryType type : Category.CategoryType.values()) {
+                types.put(type, activeCategories.stream()
+                        .filter(category -> category.getType() == type)
+                        .sorted(byNameOrder)
+                        .toList());
+                includingBoth.put(type, activeCategories.stream()
+                        .filter(category -> category.getType() == type
+                                || category.getType() == Category.CategoryType.BOTH)
+                        .sorted(byNameOrder)
+                        .toList());
+            }
+
+            this.active = activeCategories;
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byName = Collections.unmodifiableMap(names);
+            this.activeByType = types;
+            this.activeIncludingBoth = includingBoth;
+        }
+    }
+
+    private static final class CurrencySnapshot {
+        private final List<Currency> active;
+        private final Map<String, Currency> byCode;
+
+        CurrencySnapshot(List<Currency> all) {
+            this.byCode = Collections.unmodifiableMap(all.stream().collect(Collectors.toMap(
+                    currency -> currency.getCode().toUpperCase(Locale.ROOT),
+                    currency -> currency,
+                    (first, second) -> first)));
+            this.active = all.stream()
+                    .filter(currency -> Boolean.TRUE.equals(currency.getIsActive()))
+                    .sorted(Comparator.comparing(Currency::getCode))
+                    .toList();
+        }
+    }
+}
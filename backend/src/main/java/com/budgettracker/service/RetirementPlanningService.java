@@ -31,6 +31,9 @@ public class RetirementPlanningService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RetirementProjectionCache projectionCache;
+
     /**
      * Create or update a retirement plan
      */
@@ -55,6 +58,7 @@ public class RetirementPlanningService {
         plan.setSocialSecurityBenefit(request.getSocialSecurityBenefit());
         plan.setLifeExpectancy(request.getLifeExpectancy());
 
+        // Projections are cached on plan inputs, so edited values simply miss the cache
         return retirementPlanRepository.save(plan);
     }
 
@@ -69,11 +73,53 @@ public class RetirementPlanningService {
     }
 
     /**
-     * Calculate retirement projections for a given plan
+     * Calculate retirement projections for a given plan.
+     * Results are memoized on the plan's inputs, so repeated calls for an
+     * unchanged plan are served from memory.
      */
     public RetirementCalculationResponse calculateRetirementProjection(RetirementPlan plan) {
+        RetirementCalculationResponse projection = projectionCache.get(plan, () -> computeRetirementProjection(plan));
+        return withPlanId(projection, plan.getId());
+    }
+
+    /**
+     * Copy a shared cached projection, stamping it with the requesting plan's
+     * id. The breakdown is copied and the yearly projections are an
+     * unmodifiable copy, so callers cannot change the cached entry.
+     */
+    private RetirementCalculationResponse withPlanId(RetirementCalculationResponse source, Long planId) {
+        RetirementCalculationResponse response = new RetirementCalculationResponse();
+        response.setPlanId(planId);
+        response.setProjectedRetirementBalance(source.getProjectedRetirementBalance());
+        response.setMonthlyRetirementIncome(source.getMonthlyRetirementIncome());
+        response.setRequiredMonthlyIncome(source.getRequiredMonthlyIncome());
+        response.setIncomeShortfall(source.getIncomeShortfall());
+        response.setReplacementRatio(source.getReplacementRatio());
+        response.setRetirementReadiness(source.getRetirementReadiness());
+        response.setRecommendedMonthlySavings(source.getRecommendedMonthlySavings());
+        response.setBreakdown(copyOf(source.getBreakdown()));
+        response.setYearlyProjections(source.getYearlyProjections() != null
+                ? List.copyOf(source.getYearlyProjections()) : null);
+        return response;
+    }
+
+    private static RetirementCalculationResponse.RetirementBreakdown copyOf(
+            RetirementCalculationResponse.RetirementBreakdown source) {
+        if (source == null) {
+            return null;
+        }
+        RetirementCalculationResponse.RetirementBreakdown breakdown = new RetirementCalculationResponse.RetirementBreakdown();
+        breakdown.setTotal401kBalance(source.getTotal401kBalance());
+        breakdown.setTotalIraBalance(source.getTotalIraBalance());
+        breakdown.setTotalOtherSavings(source.getTotalOtherSavings());
+        breakdown.setTotalEmployerMatch(source.getTotalEmployerMatch());
+        breakdown.setSocialSecurityValue(source.getSocialSecurityValue());
+        breakdown.setInflationAdjustedIncome(source.getInflationAdjustedIncome());
+        return breakdown;
+    }
+
+    private RetirementCalculationResponse computeRetirementProjection(RetirementPlan plan) {
         RetirementCalculationResponse response = new RetirementCalculationResponse();
-        response.setPlanId(plan.getId());
 
         // Calculate years to retirement
         int yearsToRetirement = plan.getRetirementAge() - plan.getCurrentAge();
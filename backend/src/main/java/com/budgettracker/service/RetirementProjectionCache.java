@@ -0,0 +1,153 @@
+package com.budgettracker.service;
+
+import com.budgettracker.dto.RetirementCalculationResponse;
+import com.budgettracker.model.RetirementPlan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache for retirement projection results.
+ *
+ * Entries are keyed by a fingerprint of the plan's numeric inputs rather than
+ * the plan id, so identical plans (including unsaved what-if plans) share a
+ * result and any edited input naturally produces a new key. One base
+ * projection is held per fingerprint; retirement planning and scenario
+ * analysis both read it. Results cached here must be treated as read-only by
+ * callers.
+ */
+@Component
+public class RetirementProjectionCache {
+
+    private final int maxEntries;
+    private final Map<String, RetirementCalculationResponse> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RetirementProjectionCache(@Value("${app.retirement.projection-cache.max-entries:1024}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RetirementCalculationResponse> eldest) {
+                if (size() > RetirementProjectionCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the cached projection for the plan inputs, computing and storing
+     * it on a miss. The loader runs outside the lock, so concurrent misses for
+     * the same key may both compute; the last one wins.
+     */
+    public RetirementCalculationResponse get(RetirementPlan plan, Supplier<RetirementCalculationResponse> loader) {
+        String key = fingerprint(plan);
+
+        RetirementCalculationResponse cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        RetirementCalculationResponse value = loader.get();
+        if (value != null) {
+            synchronized (entries) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Build a stable fingerprint of every input that affects a projection.
+     * BigDecimals are normalized so that 0.07 and 0.0700 map to the same key.
+     */
+    public static String fingerprint(RetirementPlan plan) {
+        StringBuilder sb = new StringBuilder(160);
+        sb.append(plan.getCurrentAge()).append(',')
+          .append(plan.getRetirementAge()).append(',')
+          .append(plan.getLifeExpectancy());
+        append(sb, plan.getCurrentAnnualIncome());
+        append(sb, plan.getDesiredReplacementRatio());
+        append(sb, plan.getCurrent401kBalance());
+        append(sb, plan.getCurrentIraBalance());
+        append(sb, plan.getOtherRetirementSavings());
+        append(sb, plan.getMonthly401kContribution());
+        append(sb, plan.getMonthlyIraContribution());
+        append(sb, plan.getEmployerMatchRate());
+        append(sb, plan.getEmployerMatchLimit());
+        append(sb, plan.getExpectedAnnualReturn());
+        append(sb, plan.getExpectedInflationRate());
+        append(sb, plan.getSocialSecurityBenefit());
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, BigDecimal value) {
+        sb.append(',');
+        if (value != null) {
+            sb.append(value.stripTrailingZeros().toPlainString());
+        }
+    }
+
+    /**
+     * Drop all cached projections
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get cache statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+        return stats;
+    }
+}
@@ -1,5 +1,6 @@
 package com.budgettracker.service;
 
+import com.budgettracker.dto.RetirementCalculationResponse;
 import com.budgettracker.model.RetirementPlan;
 import com.budgettracker.model.User;
 import com.budgettracker.repository.RetirementPlanRepository;
@@ -21,6 +22,9 @@ public class ScenarioAnalysisService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private RetirementPlanningService retirementPlanningService;
+    
     private static final int SCALE = 2;
     private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
     private static final Random random = new Random();
@@ -221,55 +225,21 @@ public class ScenarioAnalysisService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
     
+    /**
+     * Scenario figures of a plan, read off its base projection (cached on the
+     * plan's inputs and shared with retirement planning). Callers add
+     * comparison keys to the result, so each gets its own map.
+     */
     private Map<String, Object> calculateRetirementScenario(RetirementPlan plan) {
-        Map<String, Object> result = new HashMap<>();
-        
-        int yearsToRetirement = plan.getRetirementAge() - plan.getCurrentAge();
-        BigDecimal monthlyReturn = plan.getExpectedAnnualReturn().divide(new BigDecimal("12"), 6, ROUNDING_MODE);
-        
-        // Calculate future value of current balances
-        BigDecimal current401kFV = calculateFutureValue(
-                plan.getCurrent401kBalance(), monthlyReturn, yearsToRetirement * 12);
-        BigDecimal currentIraFV = calculateFutureValue(
-                plan.getCurrentIraBalance(), monthlyReturn, yearsToRetirement * 12);
-        BigDecimal otherSavingsFV = calculateFutureValue(
-                plan.getOtherRetirementSavings(), monthlyReturn, yearsToRetirement * 12);
-        
-        // Calculate future value of contributions
-        BigDecimal monthly401kContribution = plan.getMonthly401kContribution();
-        BigDecimal monthlyIraContribution = plan.getMonthlyIraContribution();
-        
-        // Add employer match
-        BigDecimal employerMatch = monthly401kContribution
-                .multiply(plan.getEmployerMatchRate())
-                .min(plan.getCurrentAnnualIncome().divide(new BigDecimal("12"), SCALE, ROUNDING_MODE)
-                        .multiply(plan.getEmployerMatchLimit()));
-        
-        BigDecimal total401kContribution = monthly401kContribution.add(employerMatch);
-        
-        BigDecimal contributions401kFV = calculateFutureValueOfAnnuity(
-                total401kContribution, monthlyReturn, yearsToRetirement * 12);
-        BigDecimal contributionsIraFV = calculateFutureValueOfAnnuity(
-                monthlyIraContribution, monthlyReturn, yearsToRetirement * 12);
-        
-        BigDecimal totalBalance = current401kFV.add(currentIraFV).add(otherSavingsFV)
-                .add(contributions401kFV).add(contributionsIraFV);
-        
-        // Calculate monthly retirement income (4% rule)
-        BigDecimal monthlyIncome = totalBalance.multiply(new BigDecimal("0.04"))
-                .divide(new BigDecimal("12"), SCALE, ROUNDING_MODE);
-        
-        // Add Social Security
-        if (plan.getSocialSecurityBenefit() != null) {
-            monthlyIncome = monthlyIncome.add(plan.getSocialSecurityBenefit());
-        }
-        
-        result.put("finalBalance", totalBalance);
-        result.put("monthlyIncome", monthlyIncome);
-        result.put("total401kBalance", current401kFV.add(contributions401kFV));
-        result.put("totalIraBalance", currentIraFV.add(contributionsIraFV));
-        result.put("totalOtherSavings", otherSavingsFV);
+        RetirementCalculationResponse projection = retirementPlanningService.calculateRetirementProjection(plan);
+        RetirementCalculationResponse.RetirementBreakdown breakdown = projection.getBreakdown();
         
+        Map<String, Object> result = new HashMap<>();
+        result.put("finalBalance", projection.getProjectedRetirementBalance().setScale(SCALE, ROUNDING_MODE));
+        result.put("monthlyIncome", projection.getMonthlyRetirementIncome().setScale(SCALE, ROUNDING_MODE));
+        result.put("total401kBalance", breakdown.getTotal401kBalance().setScale(SCALE, ROUNDING_MODE));
+        result.put("totalIraBalance", breakdown.getTotalIraBalance().setScale(SCALE, ROUNDING_MODE));
+        result.put("totalOtherSavings", breakdown.getTotalOtherSavings().setScale(SCALE, ROUNDING_MODE));
         return result;
     }
     
@@ -422,24 +392,6 @@ public class ScenarioAnalysisService {
         return mean + stdDev * z;
     }
     
-    private BigDecimal calculateFutureValue(BigDecimal presentValue, BigDecimal monthlyRate, int months) {
-        if (monthlyRate.compareTo(BigDecimal.ZERO) == 0) {
-            return presentValue;
-        }
-        
-        BigDecimal factor = BigDecimal.ONE.add(monthlyRate).pow(months);
-        return presentValue.multiply(factor).setScale(SCALE, ROUNDING_MODE);
-    }
-    
-    private BigDecimal calculateFutureValueOfAnnuity(BigDecimal payment, BigDecimal monthlyRate, int months) {
-        if (monthlyRate.compareTo(BigDecimal.ZERO) == 0) {
-            return payment.multiply(new BigDecimal(months));
-        }
-        
-        BigDecimal factor = BigDecimal.ONE.add(monthlyRate).pow(months).subtract(BigDecimal.ONE);
-        return payment.multiply(factor).divide(monthlyRate, SCALE, ROUNDING_MODE);
-    }
-    
     private double calculateSuccessRate(List<Boolean> successes) {
         long successCount = successes.stream().mapToLong(success -> success ? 1 : 0).sum();
         return (double) successCount / successes.size() * 100;
@@ -0,0 +1,85 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.BankAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Local fake institutions, for exercising the account sync without a bank
+ * connection.
+ *
+ * Each fetch moves the balance by a stable amount between -50 and +50 derived
+ * from the account and its current balance, and transactions come from
+ * SyntheticTransactionFeed, so runs are repeatable. Every call waits
+ * latency-ms; institutions listed in slow-institutions wait slow-latency-ms
+ * instead, and those in failing-institutions always fail, to see how one bad
+ * institution affects the others.
+ */
+@Service
+@ConditionalOnProperty(name = "app.bank-sync.provider", havingValue = "stub")
+public class StubInstitutionProvider implements InstitutionProvider {
+
+    private final long latencyMs;
+    private final Set<String> slowInstitutions;
+    private final long slowLatencyMs;
+    private final Set<String> failingInstitutions;
+
+    public StubInstitutionProvider(@Value("${app.bank-sync.stub.latency-ms:0}") long latencyMs,
+                                   @Value("${app.bank-sync.stub.slow-institutions:}") Set<String> slowInstitutions,
+                                   @Value("${app.bank-sync.stub.slow-latency-ms:0}") long slowLatencyMs,
+                                   @Value("${app.bank-sync.stub.failing-institutions:}") Set<String> failingInstitutions) {
+        this.latencyMs = latencyMs;
+        this.slowInstitutions = Set.copyOf(slowInstitutions);
+        this.slowLatencyMs = slowLatencyMs;
+        this.failingInstitutions = Set.copyOf(failingInstitutions);
+    }
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public BigDecimal fetchBalance(BankAccount account) {
+        String institutionId = account.getInstitutionId();
+        pause(slowInstitutions.contains(institutionId) ? slowLatencyMs : latencyMs);
+        if (failingInstitutions.contains(institutionId)) {
+            throw new RuntimeException("Institution " + institutionId + " is unavailable");
+        }
+        BigDecimal current = account.getCurrentBalance() != null ? account.getCurrentBalance() : BigDecimal.ZERO;
+        long cents = Math.floorMod(Objects.hash(account.getExternalAccountId(), current), 10_001) - 5_000L;
+        return current.add(BigDecimal.valueOf(cents, 2));
+    }
+
+    @Override
+    public TransactionFeed fetchTransactions(List<BankAccount> accounts, String cursor) {
+        if (accounts.isEmpty()) {
+            return new TransactionFeed(List.of(), cursor);
+        }
+        String institutionId = accounts.get(0).getInstitutionId();
+        pause(slowInstitutions.contains(institutionId) ? slowLatencyMs : latencyMs);
+        if (failingInstitutions.contains(institutionId)) {
+            throw new RuntimeException("Institution " + institutionId + " is unavailable");
+        }
+        return SyntheticTransactionFeed.feed(accounts, cursor, LocalDate.now());
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching balance", e);
+        }
+    }
+}
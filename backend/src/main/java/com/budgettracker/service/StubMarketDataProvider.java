@@ -0,0 +1,158 @@
+package com.budgettracker.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Offline market data provider backed by a CSV file, for local development
+ * and load testing the price pipeline without network access.
+ *
+ * Symbols missing from the file get a stable synthetic price derived from the
+ * symbol, so any portfolio can be priced. An optional latency is applied on a
+ * timer thread to mimic a remote call without blocking the caller.
+ */
+@Service
+@ConditionalOnProperty(name = "app.market-data.provider", havingValue = "stub")
+public class StubMarketDataProvider implements MarketDataProvider {
+
+    public static final String DEFAULT_LOCATION = "classpath:market-data/stub-quotes.csv";
+
+    private final Map<String, StubQuote> quotes;
+    private final Executor responseExecutor;
+
+    public StubMarketDataProvider(@Value("${app.market-data.stub.location:" + DEFAULT_LOCATION + "}") Resource location,
+                                  @Value("${app.market-data.stub.latency-ms:0}") long latencyMs) {
+        this.quotes = load(location);
+        this.responseExecutor = latencyMs > 0
+                ? CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS)
+                : Runnable::run;
+    }
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> fetchPrice(String symbol) {
+        return respond(() -> lookup(symbol).price);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> fetchQuote(String symbol) {
+        return respond(() -> lookup(symbol).toQuote());
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> searchSymbol(String keywords) {
+        return respond(() -> {
+            String needle = keywords == null ? "" : keywords.trim().toUpperCase(Locale.ROOT);
+            List<Map<String, Object>> matches = new ArrayList<>();
+            for (StubQuote quote : quotes.values()) {
+                if (quote.symbol.contains(needle) || quote.name.toUpperCase(Locale.ROOT).contains(needle)) {
+                    Map<String, Object> match = new LinkedHashMap<>();
+                    match.put("1. symbol", quote.symbol);
+                    match.put("2. name", quote.name);
+                    matches.add(match);
+                }
+            }
+            Map<String, Object> result = new HashMap<>();
+            result.put("bestMatches", matches);
+            return result;
+        });
+    }
+
+    private <T> CompletableFuture<T> respond(Supplier<T> body) {
+        return CompletableFuture.supplyAsync(body, responseExecutor);
+    }
+
+    private StubQuote lookup(String symbol) {
+        String key = symbol.trim().toUpperCase(Locale.ROOT);
+        StubQuote quote = quotes.get(key);
+        if (quote != null) {
+            return quote;
+        }
+        // Stable pseudo-price between 10.00 and 500.00
+        long cents = 1_000L + Math.floorMod(key.hashCode(), 49_000);
+        BigDecimal price = BigDecimal.valueOf(cents, 2);
+        return new StubQuote(key, key, price, price, 0L);
+    }
+
+    private static Map<String, StubQuote> load(Resource location) {
+        Map<String, StubQuote> loaded = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fields = line.split(",");
+                if (fields.length != 5) {
+                    throw new IllegalStateException("Invalid stub quote row at line " + lineNumber + ": " + line);
+                }
+
+                String symbol = fields[0].trim().toUpperCase(Locale.ROOT);
+                loaded.put(symbol, new StubQuote(symbol, fields[1].trim(), new BigDecimal(fields[2].trim()),
+                        new BigDecimal(fields[3].trim()), Long.parseLong(fields[4].trim())));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load stub quotes from " + location, e);
+        }
+        return loaded;
+    }
+
+    private static final class StubQuote {
+        private final String symbol;
+        private final String name;
+        private final BigDecimal price;
+        private final BigDecimal previousClose;
+        private final long volume;
+
+        StubQuote(String symbol, String name, BigDecimal price, BigDecimal previousClose, long volume) {
+            this.symbol = symbol;
+            this.name = name;
+            this.price = price;
+            this.previousClose = previousClose;
+            this.volume = volume;
+        }
+
+        Map<String, Object> toQuote() {
+            BigDecimal change = price.subtract(previousClose);
+            BigDecimal changePercent = previousClose.signum() == 0 ? BigDecimal.ZERO
+                    : change.divide(previousClose, 6, RoundingMode.HALF_UP).movePointRight(2).setScale(4, RoundingMode.HALF_UP);
+
+            Map<String, Object> quote = new HashMap<>();
+            quote.put("symbol", symbol);
+            quote.put("open", previousClose);
+            quote.put("high", price.max(previousClose));
+            quote.put("low", price.min(previousClose));
+            quote.put("price", price);
+            quote.put("volume", volume);
+            quote.put("latestTradingDay", LocalDate.now().toString());
+            quote.put("previousClose", previousClose);
+            quote.put("change", change);
+            quote.put("changePercent", changePercent.toPlainString() + "%");
+            return quote;
+        }
+    }
+}
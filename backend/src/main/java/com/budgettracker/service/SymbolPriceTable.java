@@ -0,0 +1,85 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.Investment;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory symbol -> latest price table shared across all users.
+ *
+ * Fed by MarketDataService whenever a quote is fetched, and by portfolio
+ * valuation whenever a holding carries a fresher price than the table, so a
+ * price refreshed for one user's holding is immediately used for every other
+ * holding of the same symbol.
+ */
+@Component
+public class SymbolPriceTable {
+
+    private final Map<String, PricePoint> prices = new ConcurrentHashMap<>();
+
+    /**
+     * Record a price, keeping whichever of the stored and new price is newer
+     */
+    public void update(String symbol, BigDecimal price, LocalDateTime asOf) {
+        if (symbol == null || price == null || asOf == null) {
+            return;
+        }
+        PricePoint candidate = new PricePoint(price, asOf);
+        prices.merge(normalize(symbol), candidate,
+                (existing, incoming) -> incoming.getAsOf().isAfter(existing.getAsOf()) ? incoming : existing);
+    }
+
+    public PricePoint get(String symbol) {
+        return symbol == null ? null : prices.get(normalize(symbol));
+    }
+
+    /**
+     * Resolve the freshest known price for a holding: the table price when it
+     * is newer than the holding's own price, otherwise the holding's price.
+     * Returns null when neither is known.
+     */
+    public BigDecimal resolvePrice(Investment investment) {
+        if (investment.getCurrentPrice() != null && investment.getLastPriceUpdate() != null) {
+            update(investment.getSymbol(), investment.getCurrentPrice(), investment.getLastPriceUpdate());
+        }
+
+        PricePoint latest = get(investment.getSymbol());
+        return latest != null ? latest.getPrice() : investment.getCurrentPrice();
+    }
+
+    public void evict(String symbol) {
+        if (symbol != null) {
+            prices.remove(normalize(symbol));
+        }
+    }
+
+    public void clear() {
+        prices.clear();
+    }
+
+    public int size() {
+        return prices.size();
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public static final class PricePoint {
+        private final BigDecimal price;
+        private final LocalDateTime asOf;
+
+        public PricePoint(BigDecimal price, LocalDateTime asOf) {
+            this.price = price;
+            this.asOf = asOf;
+        }
+
+        public BigDecimal getPrice() { return price; }
+        public LocalDateTime getAsOf() { return asOf; }
+    }
+}
@@ -0,0 +1,67 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.BankAccount;
+import com.budgettracker.service.InstitutionProvider.PostedTransaction;
+import com.budgettracker.service.InstitutionProvider.TransactionFeed;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Made-up but repeatable transaction history for the demo and stub
+ * providers: on about one day in three an account has a transaction of up
+ * to 50 either way, derived from the account and the day, with an id made
+ * of the day and its number within the day.
+ *
+ * The cursor is the last day delivered, and the next feed starts again from
+ * that day, so consecutive feeds overlap by a day the way real aggregators'
+ * windows do.
+ */
+public final class SyntheticTransactionFeed {
+
+    public static final int HISTORY_DAYS = 90;
+
+    private static final String[] WITHDRAWALS = {"Card purchase", "Grocery store", "Coffee shop", "Fuel station"};
+
+    private SyntheticTransactionFeed() {
+    }
+
+    public static TransactionFeed feed(List<BankAccount> accounts, String cursor, LocalDate today) {
+        LocalDate from = startOf(cursor, today);
+        List<PostedTransaction> transactions = new ArrayList<>();
+        for (BankAccount account : accounts) {
+            for (LocalDate day = from; !day.isAfter(today); day = day.plusDays(1)) {
+                int hash = Objects.hash(account.getExternalAccountId(), day);
+                if (Math.floorMod(hash, 3) != 0) {
+                    continue;
+                }
+                long cents = Math.floorMod(hash >>> 2, 10_001) - 5_000L;
+                if (cents == 0) {
+                    continue;
+                }
+                String description = cents > 0 ? "Deposit"
+                        : WITHDRAWALS[Math.floorMod(hash >>> 16, WITHDRAWALS.length)];
+                transactions.add(new PostedTransaction(account.getExternalAccountId(), day + "-0", day,
+                        BigDecimal.valueOf(cents, 2), description));
+            }
+        }
+        return new TransactionFeed(transactions, today.toString());
+    }
+
+    private static LocalDate startOf(String cursor, LocalDate today) {
+        LocalDate earliest = today.minusDays(HISTORY_DAYS);
+        if (cursor == null) {
+            return earliest;
+        }
+        try {
+            LocalDate last = LocalDate.parse(cursor);
+            return last.isBefore(earliest) ? earliest : last;
+        } catch (DateTimeParseException e) {
+            return earliest;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.TaxPlan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Federal tax bracket tables compiled once at startup.
+ *
+ * Brackets are loaded from a CSV resource (one row per bracket lower bound)
+ * and compiled into primitive arrays of lower bounds and rates plus the
+ * cumulative tax owed at each lower bound. Computing tax is then a binary
+ * search for the bracket followed by a single multiply, all in whole cents.
+ */
+@Component
+public class TaxBracketTables {
+
+    public static final String DEFAULT_LOCATION = "classpath:tax/federal-brackets.csv";
+
+    private final NavigableMap<Integer, Map<TaxPlan.FilingStatus, Schedule>> schedulesByYear;
+
+    public TaxBracketTables(@Value("${app.tax.brackets-location:" + DEFAULT_LOCATION + "}") Resource location) {
+        this.schedulesByYear = load(location);
+    }
+
+    /**
+     * Get the compiled schedule for a tax year and filing status.
+     * Falls back to the closest earlier year that is loaded (or the earliest
+     * year if none is earlier), and to SINGLE for statuses without rows.
+     */
+    public Schedule getSchedule(Integer taxYear, TaxPlan.FilingStatus filingStatus) {
+        Map<TaxPlan.FilingStatus, Schedule> yearSchedules = resolveYear(taxYear);
+        Schedule schedule = yearSchedules.get(filingStatus);
+        if (schedule == null) {
+            schedule = yearSchedules.get(TaxPlan.FilingStatus.SINGLE);
+        }
+        return schedule;
+    }
+
+    public Set<Integer> getAvailableYears() {
+        return Collections.unmodifiableSet(schedulesByYear.keySet());
+    }
+
+    private Map<TaxPlan.FilingStatus, Schedule> resolveYear(Integer taxYear) {
+        if (taxYear != null) {
+            Map.Entry<Integer, Map<TaxPlan.FilingStatus, Schedule>> entry = schedulesByYear.floorEntry(taxYear);
+            if (entry != null) {
+                return entry.getValue();
+            }
+        }
+        return schedulesByYear.firstEntry().getValue();
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static NavigableMap<Integer, Map<TaxPlan.FilingStatus, Schedule>> load(Resource location) {
+        Map<Integer, Map<TaxPlan.FilingStatus, List<BigDecimal[]>>> rows = new TreeMap<>();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fields = line.split(",");
+                if (fields.length != 4) {
+                    throw new IllegalStateException("Invalid tax bracket row at line " + lineNumber + ": " + line);
+                }
+
+                int year = Integer.parseInt(fields[0].trim());
+                TaxPlan.FilingStatus status = TaxPlan.FilingStatus.valueOf(fields[1].trim());
+                BigDecimal lowerBound = new BigDecimal(fields[2].trim());
+                BigDecimal rate = new BigDecimal(fields[3].trim());
+
+                rows.computeIfAbsent(year, y -> new EnumMap<>(TaxPlan.FilingStatus.class))
+                    .computeIfAbsent(status, s -> new ArrayList<>())
+                    .add(new BigDecimal[]{lowerBound, rate});
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load tax brackets from " + location, e);
+        }
+
+        NavigableMap<Integer, Map<TaxPlan.FilingStatus, Schedule>> compiled = new TreeMap<>();
+        rows.forEach((year, byStatus) -> {
+            Map<TaxPlan.FilingStatus, Schedule> schedules = new EnumMap<>(TaxPlan.FilingStatus.class);
+            byStatus.forEach((status, brackets) -> schedules.put(status, new Schedule(brackets)));
+            if (!schedules.containsKey(TaxPlan.FilingStatus.SINGLE)) {
+                throw new IllegalStateException("Tax year " + year + " has no SINGLE brackets");
+            }
+            compiled.put(year, schedules);
+        });
+
+        if (compiled.isEmpty()) {
+            throw new IllegalStateException("No tax brackets found in " + location);
+        }
+        return compiled;
+    }
+
+    /**
+     * A compiled bracket schedule for one year and filing status
+     */
+    public static final class Schedule {
+        private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+        private static final long BASIS_POINTS = 10_000L;
+
+        private final long[] lowerBoundCents;
+        private final int[] rateBasisPoints;
+        private final long[] cumulativeTaxCents;
+
+        private final BigDecimal[] lowerBounds;
+        private final BigDecimal[] ratePercents;
+
+        Schedule(List<BigDecimal[]> brackets) {
+            List<BigDecimal[]> sorted = new ArrayList<>(brackets);
+            sorted.sort(Comparator.comparing(b -> b[0]));
+
+            int size = sorted.size();
+            lowerBoundCents = new long[size];
+            rateBasisPoints = new int[size];
+            cumulativeTaxCents = new long[size];
+            lowerBounds = new BigDecimal[size];
+            ratePercents = new BigDecimal[size];
+
+            for (int i = 0; i < size; i++) {
+                BigDecimal lowerBound = sorted.get(i)[0];
+                BigDecimal rate = sorted.get(i)[1];
+                if (i > 0 && lowerBound.compareTo(lowerBounds[i - 1]) == 0) {
+                    throw new IllegalStateException("Duplicate tax bracket lower bound " + lowerBound);
+                }
+
+                lowerBounds[i] = lowerBound;
+                ratePercents[i] = rate.multiply(ONE_HUNDRED);
+                lowerBoundCents[i] = toCents(lowerBound);
+                rateBasisPoints[i] = rate.movePointRight(4).intValueExact();
+
+                if (i > 0) {
+                    long width = lowerBoundCents[i] - lowerBoundCents[i - 1];
+                    cumulativeTaxCents[i] = cumulativeTaxCents[i - 1] + applyRate(width, rateBasisPoints[i - 1]);
+                }
+            }
+
+            if (lowerBoundCents[0] != 0) {
+                throw new IllegalStateException("The lowest tax bracket must start at 0");
+            }
+        }
+
+        /**
+         * Index of the highest bracket that taxes at least one cent of the
+         * income, or -1 when the income is not positive.
+         */
+        public int bracketIndex(long incomeCents) {
+            int low = 0;
+            int high = lowerBoundCents.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (lowerBoundCents[mid] < incomeCents) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        public long taxCents(long incomeCents) {
+            int i = bracketIndex(incomeCents);
+            if (i < 0) {
+                return 0L;
+            }
+            return cumulativeTaxCents[i] + applyRate(incomeCents - lowerBoundCents[i], rateBasisPoints[i]);
+        }
+
+        /**
+         * Evaluate tax for a whole vector of candidate incomes in one call
+         */
+        public long[] taxCents(long[] incomeCents) {
+            long[] result = new long[incomeCents.length];
+            taxCents(incomeCents, result);
+            return result;
+        }
+
+        public void taxCents(long[] incomeCents, long[] taxCentsOut) {
+            for (int k = 0; k < incomeCents.length; k++) {
+                taxCentsOut[k] = taxCents(incomeCents[k]);
+            }
+        }
+
+        /**
+         * Tax owed inside a single bracket for the given income
+         */
+        public long bracketTaxCents(int bracket, long incomeCents) {
+            int top = bracketIndex(incomeCents);
+            if (bracket > top) {
+                return 0L;
+            }
+            if (bracket < top) {
+                return cumulativeTaxCents[bracket + 1] - cumulativeTaxCents[bracket];
+            }
+            return applyRate(incomeCents - lowerBoundCents[bracket], rateBasisPoints[bracket]);
+        }
+
+        public int marginalRateBasisPoints(long incomeCents) {
+            int i = bracketIndex(incomeCents);
+            return i < 0 ? 0 : rateBasisPoints[i];
+        }
+
+        public int size() {
+            return lowerBoundCents.length;
+        }
+
+        public long lowerBoundCents(int bracket) {
+            return lowerBoundCents[bracket];
+        }
+
+        public int rateBasisPoints(int bracket) {
+            return rateBasisPoints[bracket];
+        }
+
+        public BigDecimal lowerBound(int bracket) {
+            return lowerBounds[bracket];
+        }
+
+        /**
+         * Upper bound of a bracket, or null for the top bracket
+         */
+        public BigDecimal upperBound(int bracket) {
+            return bracket + 1 < lowerBounds.length ? lowerBounds[bracket + 1] : null;
+        }
+
+        public BigDecimal ratePercent(int bracket) {
+            return ratePercents[bracket];
+        }
+
+        private static long applyRate(long amountCents, int basisPoints) {
+            // Round half up to the cent, matching per-bracket BigDecimal rounding
+            return (amountCents * basisPoints + BASIS_POINTS / 2) / BASIS_POINTS;
+        }
+    }
+}
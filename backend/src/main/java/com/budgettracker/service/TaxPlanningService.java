@@ -24,46 +24,14 @@ public class TaxPlanningService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TaxBracketTables taxBracketTables;
+    
     private static final int SCALE = 2;
     private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
     
-    // 2024 Tax brackets for single filers (simplified)
-    private static final Map<TaxPlan.FilingStatus, List<TaxBracket>> TAX_BRACKETS_2024 = new HashMap<>();
-    
-    static {
-        // Single filers
-        TAX_BRACKETS_2024.put(TaxPlan.FilingStatus.SINGLE, Arrays.asList(
-            new TaxBracket(BigDecimal.ZERO, new BigDecimal("11000"), new BigDecimal("0.10")),
-            new TaxBracket(new BigDecimal("11000"), new BigDecimal("44725"), new BigDecimal("0.12")),
-            new TaxBracket(new BigDecimal("44725"), new BigDecimal("95375"), new BigDecimal("0.22")),
-            new TaxBracket(new BigDecimal("95375"), new BigDecimal("182050"), new BigDecimal("0.24")),
-            new TaxBracket(new BigDecimal("182050"), new BigDecimal("231250"), new BigDecimal("0.32")),
-            new TaxBracket(new BigDecimal("231250"), new BigDecimal("578125"), new BigDecimal("0.35")),
-            new TaxBracket(new BigDecimal("578125"), null, new BigDecimal("0.37"))
-        ));
-        
-        // Married filing jointly
-        TAX_BRACKETS_2024.put(TaxPlan.FilingStatus.MARRIED_FILING_JOINTLY, Arrays.asList(
-            new TaxBracket(BigDecimal.ZERO, new BigDecimal("22000"), new BigDecimal("0.10")),
-            new TaxBracket(new BigDecimal("22000"), new BigDecimal("89450"), new BigDecimal("0.12")),
-            new TaxBracket(new BigDecimal("89450"), new BigDecimal("190750"), new BigDecimal("0.22")),
-            new TaxBracket(new BigDecimal("190750"), new BigDecimal("364200"), new BigDecimal("0.24")),
-            new TaxBracket(new BigDecimal("364200"), new BigDecimal("462500"), new BigDecimal("0.32")),
-            new TaxBracket(new BigDecimal("462500"), new BigDecimal("693750"), new BigDecimal("0.35")),
-            new TaxBracket(new BigDecimal("693750"), null, new BigDecimal("0.37"))
-        ));
-        
-        // Head of household
-        TAX_BRACKETS_2024.put(TaxPlan.FilingStatus.HEAD_OF_HOUSEHOLD, Arrays.asList(
-            new TaxBracket(BigDecimal.ZERO, new BigDecimal("15700"), new BigDecimal("0.10")),
-            new TaxBracket(new BigDecimal("15700"), new BigDecimal("59850"), new BigDecimal("0.12")),
-            new TaxBracket(new BigDecimal("59850"), new BigDecimal("95350"), new BigDecimal("0.22")),
-            new TaxBracket(new BigDecimal("95350"), new BigDecimal("182050"), new BigDecimal("0.24")),
-            new TaxBracket(new BigDecimal("182050"), new BigDecimal("231250"), new BigDecimal("0.32")),
-            new TaxBracket(new BigDecimal("231250"), new BigDecimal("578100"), new BigDecimal("0.35")),
-            new TaxBracket(new BigDecimal("578100"), null, new BigDecimal("0.37"))
-        ));
-    }
+    // Tax year used when a calculation does not specify one
+    private static final int DEFAULT_TAX_YEAR = 2024;
     
     // 2024 Standard deductions
     private static final Map<TaxPlan.FilingStatus, BigDecimal> STANDARD_DEDUCTIONS_2024 = new HashMap<>();
@@ -147,7 +115,7 @@ public class TaxPlanningService {
         response.setTaxableIncome(taxableIncome);
         
         // Calculate federal tax
-        TaxCalculationResult federalTax = calculateFederalTax(taxableIncome, taxPlan.getFilingStatus());
+        TaxCalculationResult federalTax = calculateFederalTax(taxableIncome, taxPlan.getFilingStatus(), taxPlan.getTaxYear());
         response.setFederalTaxOwed(federalTax.getTaxOwed());
         response.setFederalTaxBrackets(federalTax.getTaxBrackets());
         response.setEffectiveTaxRate(federalTax.getEffectiveRate());
@@ -185,9 +153,17 @@ public class TaxPlanningService {
      * Calculate tax bracket information
      */
     public TaxCalculationResponse calculateTaxBrackets(BigDecimal income, TaxPlan.FilingStatus filingStatus) {
+        return calculateTaxBrackets(income, filingStatus, DEFAULT_TAX_YEAR);
+    }
+    
+    /**
+     * Calculate tax bracket information for a specific tax year
+     */
+    public TaxCalculationResponse calculateTaxBrackets(BigDecimal income, TaxPlan.FilingStatus filingStatus, Integer taxYear) {
         TaxCalculationResponse response = new TaxCalculationResponse();
+        response.setTaxYear(taxYear);
         
-        TaxCalculationResult result = calculateFederalTax(income, filingStatus);
+        TaxCalculationResult result = calculateFederalTax(income, filingStatus, taxYear);
         response.setFederalTaxBrackets(result.getTaxBrackets());
         response.setEffectiveTaxRate(result.getEffectiveRate());
         response.setMarginalTaxRate(result.getMarginalRate());
@@ -197,57 +173,100 @@ public class TaxPlanningService {
     }
     
     /**
-     * Optimize tax-advantaged account contributions
+     * Optimize tax-advantaged account contributions.
+     * Searches 401k / IRA / HSA allocations (including every marginal-rate
+     * breakpoint) and returns the Pareto frontier of tax saved versus
+     * take-home pay, with the maximum-saving allocation as the recommendation.
      */
     public Map<String, Object> optimizeContributions(BigDecimal income, TaxPlan.FilingStatus filingStatus, Integer age) {
+        long startTime = System.nanoTime();
         Map<String, Object> optimization = new HashMap<>();
         
-        // Calculate current tax bracket
-        TaxCalculationResult currentTax = calculateFederalTax(income, filingStatus);
-        BigDecimal marginalRate = currentTax.getMarginalRate();
-        
-        // Calculate optimal contributions
-        Map<String, BigDecimal> optimalContributions = new HashMap<>();
-        Map<String, BigDecimal> taxSavings = new HashMap<>();
+        TaxBracketTables.Schedule schedule = taxBracketTables.getSchedule(DEFAULT_TAX_YEAR, filingStatus);
+        BigDecimal standardDeduction = getStandardDeduction(filingStatus, DEFAULT_TAX_YEAR);
+        long grossCents = TaxBracketTables.toCents(income);
+        long baseTaxableCents = Math.max(0L, grossCents - TaxBracketTables.toCents(standardDeduction));
+        BigDecimal marginalRate = schedule.ratePercent(Math.max(0, schedule.bracketIndex(baseTaxableCents)));
         
-        // 401k optimization
+        // Contribution limits, including catch-up amounts
         BigDecimal max401k = CONTRIBUTION_LIMITS_2024.get("401k");
-        if (age >= 50) {
-            max401k = max401k.add(CONTRIBUTION_LIMITS_2024.get("401k_catchup"));
-        }
-        optimalContributions.put("401k", max401k);
-        taxSavings.put("401k", max401k.multiply(marginalRate).setScale(SCALE, ROUNDING_MODE));
-        
-        // IRA optimization
         BigDecimal maxIra = CONTRIBUTION_LIMITS_2024.get("ira");
+        BigDecimal maxHsa = CONTRIBUTION_LIMITS_2024.get("hsa_individual"); // assume individual coverage
         if (age >= 50) {
+            max401k = max401k.add(CONTRIBUTION_LIMITS_2024.get("401k_catchup"));
             maxIra = maxIra.add(CONTRIBUTION_LIMITS_2024.get("ira_catchup"));
         }
-        optimalContributions.put("traditionalIRA", maxIra);
-        taxSavings.put("traditionalIRA", maxIra.multiply(marginalRate).setScale(SCALE, ROUNDING_MODE));
-        
-        // HSA optimization (assume individual coverage)
-        BigDecimal maxHsa = CONTRIBUTION_LIMITS_2024.get("hsa_individual");
         if (age >= 55) {
             maxHsa = maxHsa.add(CONTRIBUTION_LIMITS_2024.get("hsa_catchup"));
         }
-        optimalContributions.put("hsa", maxHsa);
-        taxSavings.put("hsa", maxHsa.multiply(marginalRate).setScale(SCALE, ROUNDING_MODE));
         
-        BigDecimal totalOptimalContributions = optimalContributions.values().stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal totalTaxSavings = taxSavings.values().stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        ContributionOptimizer optimizer = new ContributionOptimizer(
+                schedule, grossCents, TaxBracketTables.toCents(standardDeduction));
+        ContributionOptimizer.Result result = optimizer.optimize(
+                TaxBracketTables.toCents(max401k), TaxBracketTables.toCents(maxIra), TaxBracketTables.toCents(maxHsa));
+        ContributionOptimizer.Allocation best = result.getMaxTaxSaving();
+        
+        Map<String, BigDecimal> optimalContributions = new HashMap<>();
+        optimalContributions.put("401k", toContributionAmount(best.getContribution401kCents()));
+        optimalContributions.put("traditionalIRA", toContributionAmount(best.getIraCents()));
+        optimalContributions.put("hsa", toContributionAmount(best.getHsaCents()));
+        
+        // Attribute savings in fill order (HSA, then 401k, then IRA) so the parts add up to the total
+        long baseline = result.getBaselineTaxCents();
+        long afterHsa = optimizer.totalTaxCents(0L, 0L, best.getHsaCents());
+        long after401k = optimizer.totalTaxCents(best.getContribution401kCents(), 0L, best.getHsaCents());
+        long afterIra = optimizer.totalTaxCents(best.getContribution401kCents(), best.getIraCents(), best.getHsaCents());
+        
+        Map<String, BigDecimal> taxSavings = new HashMap<>();
+        taxSavings.put("hsa", TaxBracketTables.fromCents(baseline - afterHsa));
+        taxSavings.put("401k", TaxBracketTables.fromCents(afterHsa - after401k));
+        taxSavings.put("traditionalIRA", TaxBracketTables.fromCents(after401k - afterIra));
+        
+        List<Map<String, Object>> frontier = new ArrayList<>(result.getFrontier().size());
+        for (ContributionOptimizer.Allocation allocation : result.getFrontier()) {
+            Map<String, Object> point = new HashMap<>();
+            point.put("401k", TaxBracketTables.fromCents(allocation.getContribution401kCents()));
+            point.put("traditionalIRA", TaxBracketTables.fromCents(allocation.getIraCents()));
+            point.put("hsa", TaxBracketTables.fromCents(allocation.getHsaCents()));
+            point.put("totalContributions", TaxBracketTables.fromCents(allocation.getTotalContributionCents()));
+            point.put("taxSaved", TaxBracketTables.fromCents(allocation.getTaxSavedCents()));
+            point.put("takeHomePay", TaxBracketTables.fromCents(allocation.getTakeHomeCents()));
+            frontier.add(point);
+        }
         
         optimization.put("optimalContributions", optimalContributions);
         optimization.put("taxSavings", taxSavings);
-        optimization.put("totalOptimalContributions", totalOptimalContributions);
-        optimization.put("totalTaxSavings", totalTaxSavings);
+        optimization.put("totalOptimalContributions", TaxBracketTables.fromCents(best.getTotalContributionCents()));
+        optimization.put("totalTaxSavings", TaxBracketTables.fromCents(best.getTaxSavedCents()));
         optimization.put("marginalTaxRate", marginalRate);
+        optimization.put("baselineTakeHomePay", TaxBracketTables.fromCents(result.getBaselineTakeHomeCents()));
+        optimization.put("paretoFrontier", frontier);
+        optimization.put("evaluatedAllocations", result.getEvaluatedAllocations());
+        optimization.put("computeTimeMs", (System.nanoTime() - startTime) / 1_000_000.0);
         
         return optimization;
     }
     
+    /**
+     * Calculate federal tax owed for many candidate taxable incomes in one call
+     */
+    public List<BigDecimal> calculateFederalTaxForIncomes(List<BigDecimal> taxableIncomes,
+                                                          TaxPlan.FilingStatus filingStatus, Integer taxYear) {
+        TaxBracketTables.Schedule schedule = taxBracketTables.getSchedule(taxYear, filingStatus);
+        
+        long[] incomeCents = new long[taxableIncomes.size()];
+        for (int i = 0; i < incomeCents.length; i++) {
+            incomeCents[i] = TaxBracketTables.toCents(taxableIncomes.get(i));
+        }
+        long[] taxCents = schedule.taxCents(incomeCents);
+        
+        List<BigDecimal> taxes = new ArrayList<>(taxCents.length);
+        for (long cents : taxCents) {
+            taxes.add(TaxBracketTables.fromCents(cents));
+        }
+        return taxes;
+    }
+    
     /**
      * Calculate tax-loss harvesting opportunities
      */
@@ -315,6 +334,11 @@ public class TaxPlanningService {
         taxPlan.setInterestIncome(request.getInterestIncome());
     }
     
+    private BigDecimal toContributionAmount(long cents) {
+        // Whole-dollar limits are reported without a fractional part, e.g. 22500 rather than 22500.00
+        return cents % 100 == 0 ? BigDecimal.valueOf(cents / 100) : TaxBracketTables.fromCents(cents);
+    }
+    
     private BigDecimal getStandardDeduction(TaxPlan.FilingStatus filingStatus, Integer taxYear) {
         // For now, use 2024 values regardless of year
         return STANDARD_DEDUCTIONS_2024.getOrDefault(filingStatus, new BigDecimal("13850"));
@@ -375,54 +399,28 @@ public class TaxPlanningService {
         return itemized;
     }
     
-    private TaxCalculationResult calculateFederalTax(BigDecimal taxableIncome, TaxPlan.FilingStatus filingStatus) {
-        List<TaxBracket> brackets = TAX_BRACKETS_2024.get(filingStatus);
-        if (brackets == null) {
-            brackets = TAX_BRACKETS_2024.get(TaxPlan.FilingStatus.SINGLE);
-        }
-        
-        BigDecimal totalTax = BigDecimal.ZERO;
-        BigDecimal remainingIncome = taxableIncome;
-        List<TaxCalculationResponse.TaxBracketInfo> bracketInfos = new ArrayList<>();
-        BigDecimal marginalRate = BigDecimal.ZERO;
-        
-        for (TaxBracket bracket : brackets) {
-            if (remainingIncome.compareTo(BigDecimal.ZERO) <= 0) {
-                break;
-            }
-            
-            BigDecimal bracketMin = bracket.getMinIncome();
-            BigDecimal bracketMax = bracket.getMaxIncome();
-            BigDecimal rate = bracket.getRate();
-            
-            if (taxableIncome.compareTo(bracketMin) > 0) {
-                BigDecimal taxableInThisBracket;
-                
-                if (bracketMax == null) {
-                    // Top bracket
-                    taxableInThisBracket = remainingIncome;
-                } else {
-                    taxableInThisBracket = taxableIncome.min(bracketMax).subtract(bracketMin);
-                }
-                
-                if (taxableInThisBracket.compareTo(BigDecimal.ZERO) > 0) {
-                    BigDecimal taxInBracket = taxableInThisBracket.multiply(rate).setScale(SCALE, ROUNDING_MODE);
-                    totalTax = totalTax.add(taxInBracket);
-                    
-                    bracketInfos.add(new TaxCalculationResponse.TaxBracketInfo(
-                            bracketMin, bracketMax, rate.multiply(new BigDecimal("100")), taxInBracket));
-                    
-                    marginalRate = rate;
-                    remainingIncome = remainingIncome.subtract(taxableInThisBracket);
-                }
-            }
+    private TaxCalculationResult calculateFederalTax(BigDecimal taxableIncome, TaxPlan.FilingStatus filingStatus,
+                                                     Integer taxYear) {
+        TaxBracketTables.Schedule schedule = taxBracketTables.getSchedule(
+                taxYear != null ? taxYear : DEFAULT_TAX_YEAR, filingStatus);
+        
+        long incomeCents = TaxBracketTables.toCents(taxableIncome);
+        int topBracket = schedule.bracketIndex(incomeCents);
+        BigDecimal totalTax = TaxBracketTables.fromCents(schedule.taxCents(incomeCents));
+        
+        List<TaxCalculationResponse.TaxBracketInfo> bracketInfos = new ArrayList<>(topBracket + 1);
+        for (int i = 0; i <= topBracket; i++) {
+            bracketInfos.add(new TaxCalculationResponse.TaxBracketInfo(
+                    schedule.lowerBound(i), schedule.upperBound(i), schedule.ratePercent(i),
+                    TaxBracketTables.fromCents(schedule.bracketTaxCents(i, incomeCents))));
         }
+        BigDecimal marginalRate = topBracket >= 0 ? schedule.ratePercent(topBracket) : BigDecimal.ZERO;
         
         BigDecimal effectiveRate = taxableIncome.compareTo(BigDecimal.ZERO) > 0 ?
                 totalTax.divide(taxableIncome, 4, ROUNDING_MODE) : BigDecimal.ZERO;
         
         return new TaxCalculationResult(totalTax, bracketInfos, effectiveRate.multiply(new BigDecimal("100")), 
-                marginalRate.multiply(new BigDecimal("100")));
+                marginalRate);
     }
     
     private List<TaxCalculationResponse.TaxOptimizationSuggestion> generateOptimizationSuggestions(TaxPlan taxPlan, TaxCalculationResponse response) {
@@ -536,22 +534,6 @@ public class TaxPlanningService {
     }
     
     // Helper classes
-    private static class TaxBracket {
-        private final BigDecimal minIncome;
-        private final BigDecimal maxIncome;
-        private final BigDecimal rate;
-        
-        public TaxBracket(BigDecimal minIncome, BigDecimal maxIncome, BigDecimal rate) {
-            this.minIncome = minIncome;
-            this.maxIncome = maxIncome;
-            this.rate = rate;
-        }
-        
-        public BigDecimal getMinIncome() { return minIncome; }
-        public BigDecimal getMaxIncome() { return maxIncome; }
-        public BigDecimal getRate() { return rate; }
-    }
-    
     private static class TaxCalculationResult {
         private final BigDecimal taxOwed;
         private final List<TaxCalculationResponse.TaxBracketInfo> taxBrackets;
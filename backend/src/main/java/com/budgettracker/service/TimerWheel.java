@@ -0,0 +1,156 @@
+package com.budgettracker.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timer wheel: items scheduled for a deadline, popped once the
+ * clock passes it.
+ *
+ * Time advances in ticks. Level 0 has one slot per tick; each higher level has
+ * slots as wide as the whole level below it, so a few levels of a few dozen
+ * slots cover months of one-minute ticks. An item is put in the lowest level
+ * whose span reaches its deadline and moves down a level each time the clock
+ * reaches its slot, so scheduling is O(1) and advancing costs one step per
+ * tick plus one move per item per level, independent of how many items are
+ * waiting for later ticks. Deadlines already past are popped on the next
+ * advance; deadlines beyond the wheel's horizon are refused.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public final class TimerWheel<T> {
+
+    private final long tickMillis;
+    private final int slots;
+    private final long[] ticksPerSlot;
+    private final List<List<Entry<T>>> buckets;
+    private final List<Entry<T>> expired = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimerWheel(long tickMillis, int slots, int levels, long startMillis) {
+        if (tickMillis <= 0 || slots < 2 || levels < 1) {
+            throw new IllegalArgumentException("Timer wheel needs a positive tick, two or more slots and a level");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = slots;
+        this.ticksPerSlot = new long[levels];
+        this.buckets = new ArrayList<>(levels * slots);
+        long span = 1;
+        for (int level = 0; level < levels; level++) {
+            ticksPerSlot[level] = span;
+            span = Math.multiplyExact(span, slots);
+            for (int slot = 0; slot < slots; slot++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedule an item; false when the deadline is beyond the horizon
+     */
+    public boolean schedule(long deadlineMillis, T item) {
+        // Round up, so an item never pops before its deadline
+        Entry<T> entry = new Entry<>(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), item);
+        if (!place(entry)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Move the clock forward to now and hand every item whose deadline has
+     * passed to the consumer, in deadline order by tick. Returns how many
+     * items were popped.
+     */
+    public int advanceTo(long nowMillis, Consumer<? super T> consumer) {
+        int popped = drainExpired(consumer);
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        if (size == 0 && currentTick < target) {
+            currentTick = target;
+        }
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = ticksPerSlot.length - 1; level > 0; level--) {
+                if (currentTick % ticksPerSlot[level] == 0) {
+                    cascade(bucket(level, currentTick));
+                }
+            }
+            cascade(bucket(0, currentTick));
+            popped += drainExpired(consumer);
+            if (size == 0) {
+                currentTick = target;
+            }
+        }
+        return popped;
+    }
+
+    /**
+     * Latest deadline that can be scheduled now
+     */
+    public long horizonMillis() {
+        long span = ticksPerSlot[ticksPerSlot.length - 1] * slots;
+        return (currentTick + span - 1) * tickMillis;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Lowest level whose span reaches the deadline, or the expired list when it has passed
+    private boolean place(Entry<T> entry) {
+        long delta = entry.tick - currentTick;
+        if (delta <= 0) {
+            expired.add(entry);
+            return true;
+        }
+        for (int level = 0; level < ticksPerSlot.length; level++) {
+            if (delta < ticksPerSlot[level] * slots) {
+                bucket(level, entry.tick).add(entry);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Entry<T>> bucket(int level, long tick) {
+        return buckets.get(level * slots + (int) Math.floorMod(tick / ticksPerSlot[level], (long) slots));
+    }
+
+    private void cascade(List<Entry<T>> bucket) {
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> entries = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Entry<T> entry : entries) {
+            place(entry);
+        }
+    }
+
+    private int drainExpired(Consumer<? super T> consumer) {
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<Entry<T>> due = new ArrayList<>(expired);
+        expired.clear();
+        size -= due.size();
+        for (Entry<T> entry : due) {
+            consumer.accept(entry.item);
+        }
+        return due.size();
+    }
+
+    private static final class Entry<T> {
+        private final long tick;
+        private final T item;
+
+        Entry(long tick, T item) {
+            this.tick = tick;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.Category;
+import com.budgettracker.model.Transaction;
+import com.budgettracker.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Picks a category for imported transactions from their title and
+ * description, in memory, so an import of thousands of rows is not held up
+ * by classification.
+ *
+ * In order, a row takes:
+ * - the category the user gave most often to the same merchant (title);
+ * - otherwise a vote of the user's per-word category frequencies, when it
+ *   is clear enough;
+ * - otherwise the category whose name or description phrases match the text
+ *   (the longest match), found by an Aho-Corasick automaton per transaction
+ *   type compiled from the active categories of that type and rebuilt when
+ *   they change;
+ * - otherwise the type's fallback.
+ * Everything is kept per transaction type, so income never takes an expense
+ * category.
+ *
+ * A user's model is built in one query from their most recent history-size
+ * transactions categorized by the user: manually entered ones and imported
+ * ones the user edited (the rest would only teach it its own guesses). It is
+ * kept current as transactions are created, edited and deleted, once the
+ * change commits. Models of the cached-users most recently seen users are
+ * kept, and change versions only for those and the users being loaded.
+ * Models are loaded from the primary (not in a read-only transaction), since
+ * a replica behind the last committed change would go unnoticed by the
+ * version check.
+ */
+@Component
+public class TransactionCategorizer {
+
+    public static final String INCOME_FALLBACK = "Income";
+    public static final String EXPENSE_FALLBACK = "Banking";
+
+    // Share of the word votes the winning category needs
+    private static final double MIN_VOTE_SHARE = 0.5;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TransactionRepository transactionRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final TransactionTemplate readTransaction;
+    private final int historySize;
+    private final Timer batchTimer;
+
+    private final Map<Long, UserModel> models;
+    // Changes committed per cached or loading user, to drop loads that may have missed one
+    private final Map<Long, Long> versions = new HashMap<>();
+    private final AtomicLong modelLoads = new AtomicLong();
+    private volatile Keywords keywords;
+
+    @Autowired
+    public TransactionCategorizer(TransactionRepository transactionRepository,
+                                  ReferenceDataCache referenceDataCache,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.categorizer.history-size:2000}") int historySize,
+                                  @Value("${app.categorizer.cached-users:5000}") int cachedUsers) {
+        this.transactionRepository = transactionRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.historySize = historySize;
+        this.models = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserModel> eldest) {
+                if (size() <= cachedUsers) {
+                    return false;
+                }
+                versions.remove(eldest.getKey());
+                return true;
+            }
+        };
+        this.batchTimer = Timer.builder("transactions.categorize")
+                .description("Time to categorize a batch of imported transactions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Set the category of each of the user's transactions from its title,
+     * description and type
+     */
+    public void categorize(Long userId, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        UserModel model = modelOf(userId);
+        Keywords current = keywords();
+        for (Transaction transaction : transactions) {
+            transaction.setCategory(categoryFor(model, current, transaction.getType(),
+                    transaction.getTitle(), transaction.getDescription()));
+        }
+        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The category the user's transaction would be given
+     */
+    public String suggest(Long userId, Transaction.TransactionType type, String title, String description) {
+        return categoryFor(modelOf(userId), keywords(), type, title, description);
+    }
+
+    /**
+     * Learn from a transaction the user categorized, once the transaction
+     * commits
+     */
+    public void learn(Long userId, Transaction.TransactionType type, String title, String description,
+                      String category) {
+        afterCommit(userId, model -> model.add(type, title, description, category, 1));
+    }
+
+    /**
+     * Forget a transaction the user deleted or recategorized, once the
+     * transaction commits
+     */
+    public void forget(Long userId, Transaction.TransactionType type, String title, String description,
+                       String category) {
+        afterCommit(userId, model -> model.add(type, title, description, category, -1));
+    }
+
+    /**
+     * Get categorizer statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        Keywords current = keywords;
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (models) {
+            stats.put("cachedUsers", models.size());
+            stats.put("trackedVersions", versions.size());
+        }
+        stats.put("modelLoads", modelLoads.get());
+        stats.put("keywordPhrases", current != null ? current.phrases() : 0);
+        stats.put("batches", batchTimer.count());
+        stats.put("meanBatchMs", batchTimer.mean(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+
+    private static String categoryFor(UserModel model, Keywords keywords, Transaction.TransactionType type,
+                                      String title, String description) {
+        String merchant = normalize(title);
+        String text = description != null && !description.isBlank() ? merchant + " " + normalize(description) : merchant;
+
+        String category = model.predict(type, merchant, text);
+        if (category == null) {
+            category = keywords.match(type, text);
+        }
+        if (category == null) {
+            category = type == Transaction.TransactionType.INCOME ? INCOME_FALLBACK : EXPENSE_FALLBACK;
+        }
+        return category;
+    }
+
+    private UserModel modelOf(Long userId) {
+        long version;
+        synchronized (models) {
+            UserModel cached = models.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            version = versions.computeIfAbsent(userId, id -> 0L);
+        }
+        // Loaded outside the lock so other users are not held up by the query
+        modelLoads.incrementAndGet();
+        UserModel loaded = new UserModel();
+        readTransaction.executeWithoutResult(status -> {
+            for (Object[] row : transactionRepository.findCategorySamplesByUserId(userId, historySize)) {
+                loaded.add((Transaction.TransactionType) row[0], (String) row[1], (String) row[2], (String) row[3], 1);
+            }
+        });
+        synchronized (models) {
+            // A change committed during the load may be missing from it
+            Long current = versions.get(userId);
+            if (current != null && current == version) {
+                models.put(userId, loaded);
+            } else {
+                versions.remove(userId);
+            }
+        }
+        return loaded;
+    }
+
+    private Keywords keywords() {
+        List<Category> categories = referenceDataCache.getActiveCategories();
+        Keywords current = keywords;
+        if (current == null || current.compiledFrom != categories) {
+            current = new Keywords(categories);
+            keywords = current;
+        }
+        return current;
+    }
+
+    private void afterCommit(Long userId, Consumer<UserModel> change) {
+        Runnable apply = () -> {
+            UserModel model;
+            synchronized (models) {
+                // Users neither cached nor loading have nothing to invalidate
+                versions.computeIfPresent(userId, (id, count) -> count + 1);
+                model = models.get(userId);
+            }
+            if (model != null) {
+                change.accept(model);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Lower case, letters and digits only, single spaces, simple plurals
+     * made singular
+     */
+    static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        String[] words = NON_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim().split(" ");
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (!normalized.isEmpty()) {
+                normalized.append(' ');
+            }
+            normalized.append(singular(word));
+        }
+        return normalized.toString();
+    }
+
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")
+                && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    /**
+     * Phrases of the active categories, one automaton per transaction type
+     * holding only the categories of that type and those for both, so a
+     * longer phrase of the other type cannot hide a match
+     */
+    private static final class Keywords {
+        private final List<Category> compiledFrom;
+        private final Map<Transaction.TransactionType, KeywordMatcher> matchers =
+                new EnumMap<>(Transaction.TransactionType.class);
+        private final List<String> names = new ArrayList<>();
+
+        Keywords(List<Category> categories) {
+            this.compiledFrom = categories;
+            Map<Transaction.TransactionType, KeywordMatcher.Builder> builders =
+                    new EnumMap<>(Transaction.TransactionType.class);
+            for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+                builders.put(type, KeywordMatcher.builder());
+            }
+            for (Category category : categories) {
+                int index = names.size();
+                names.add(category.getName());
+                for (Map.Entry<Transaction.TransactionType, KeywordMatcher.Builder> entry : builders.entrySet()) {
+                    if (fits(category.getType(), entry.getKey())) {
+                        addPhrases(entry.getValue(), category, index);
+                    }
+                }
+            }
+            builders.forEach((type, builder) -> matchers.put(type, builder.build()));
+        }
+
+        String match(Transaction.TransactionType type, String text) {
+            int index = matchers.get(type).longestMatch(text);
+            return index >= 0 ? names.get(index) : null;
+        }
+
+        // Phrases over all automatons; those of categories for both types count twice
+        int phrases() {
+            return matchers.values().stream().mapToInt(KeywordMatcher::size).sum();
+        }
+
+        private static boolean fits(Category.CategoryType categoryType, Transaction.TransactionType type) {
+            return categoryType == Category.CategoryType.BOTH || categoryType.name().equals(type.name());
+        }
+
+        private static void addPhrases(KeywordMatcher.Builder builder, Category category, int index) {
+            builder.add(normalize(category.getName()), index);
+            if (category.getDescription() != null) {
+                for (String phrase : category.getDescription().split("[,;/]| and ")) {
+                    builder.add(normalize(phrase), index);
+                }
+            }
+        }
+    }
+
+    /**
+     * One user's category frequencies, by merchant and by word, per type
+     */
+    private static final class UserModel {
+        private final Map<String, Counts> merchants = new HashMap<>();
+        private final Map<String, Counts> words = new HashMap<>();
+
+        synchronized void add(Transaction.TransactionType type, String title, String description, String category,
+                              int delta) {
+            if (type == null || category == null || category.isBlank()) {
+                return;
+            }
+            String merchant = normalize(title);
+            String text = description != null && !description.isBlank()
+                    ? merchant + " " + normalize(description) : merchant;
+            if (!merchant.isEmpty()) {
+                merchants.computeIfAbsent(type.ordinal() + merchant, key -> new Counts()).add(category, delta);
+            }
+            for (String word : text.split(" ")) {
+                if (isWord(word)) {
+                    words.computeIfAbsent(type.ordinal() + word, key -> new Counts()).add(category, delta);
+                }
+            }
+        }
+
+        synchronized String predict(Transaction.TransactionType type, String merchant, String text) {
+            Counts sameMerchant = merchants.get(type.ordinal() + merchant);
+            if (sameMerchant != null && sameMerchant.top() != null) {
+                return sameMerchant.top();
+            }
+
+            Map<String, Double> votes = new HashMap<>();
+            double total = 0;
+            for (String word : text.split(" ")) {
+                Counts counts = isWord(word) ? words.get(type.ordinal() + word) : null;
+                if (counts == null || counts.total <= 0) {
+                    continue;
+                }
+                for (int i = 0; i < counts.size; i++) {
+                    if (counts.counts[i] > 0) {
+                        votes.merge(counts.categories[i], (double) counts.counts[i] / counts.total, Double::sum);
+                    }
+                }
+                total++;
+            }
+            String best = null;
+            double bestVotes = 0;
+            for (Map.Entry<String, Double> vote : votes.entrySet()) {
+                if (vote.getValue() > bestVotes) {
+                    best = vote.getKey();
+                    bestVotes = vote.getValue();
+                }
+            }
+            return best != null && bestVotes >= MIN_VOTE_SHARE * total ? best : null;
+        }
+
+        private static boolean isWord(String word) {
+            return word.length() > 1 && !word.chars().allMatch(Character::isDigit);
+        }
+    }
+
+    /**
+     * How often each category was given, for one merchant or word
+     */
+    private static final class Counts {
+        private String[] categories = new String[2];
+        private int[] counts = new int[2];
+        private int size;
+        private int total;
+
+        void add(String category, int delta) {
+            for (int i = 0; i < size; i++) {
+                if (categories[i].equals(category)) {
+                    int updated = Math.max(0, counts[i] + delta);
+                    total += updated - counts[i];
+                    counts[i] = updated;
+                    return;
+                }
+            }
+            if (delta <= 0) {
+                return;
+            }
+            if (size == categories.length) {
+                categories = Arrays.copyOf(categories, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            categories[size] = category;
+            counts[size] = delta;
+            size++;
+            total += delta;
+        }
+
+        String top() {
+            String top = null;
+            int best = 0;
+            for (int i = 0; i < size; i++) {
+                if (counts[i] > best) {
+                    top = categories[i];
+                    best = counts[i];
+                }
+            }
+            return top;
+        }
+    }
+}
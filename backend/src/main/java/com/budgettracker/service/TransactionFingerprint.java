@@ -0,0 +1,74 @@
+package com.budgettracker.service;
+
+import com.budgettracker.service.InstitutionProvider.PostedTransaction;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 64-bit fingerprint of a transaction imported from a bank.
+ *
+ * Rows that carry the institution's transaction id are keyed on the account
+ * and that id, so a row is recognized in any later window, however the
+ * windows overlap, and two equal coffees on one day stay two transactions.
+ * Rows without one fall back to their content (account, date, amount and
+ * normalized description) plus their position among identical rows of the
+ * delivery; that is only sound because such providers deliver whole posting
+ * days (see InstitutionProvider.fetchTransactions).
+ */
+public final class TransactionFingerprint {
+
+    private TransactionFingerprint() {
+    }
+
+    /**
+     * Fingerprints of a delivery's rows, in order
+     */
+    public static long[] of(List<PostedTransaction> rows) {
+        long[] fingerprints = new long[rows.size()];
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            PostedTransaction row = rows.get(i);
+            if (row.getTransactionId() != null) {
+                fingerprints[i] = hash(row.getExternalAccountId() + "|id|" + row.getTransactionId());
+                continue;
+            }
+            String content = content(row.getExternalAccountId(), row.getDate(), row.getAmount(), row.getDescription());
+            int occurrence = occurrences.merge(content, 1, Integer::sum) - 1;
+            fingerprints[i] = hash(content + '|' + occurrence);
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Lower case, letters and digits only, single spaces
+     */
+    static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        return description.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static String content(String externalAccountId, LocalDate date, BigDecimal amount, String description) {
+        return externalAccountId + '|' + date + '|' + amount.stripTrailingZeros().toPlainString()
+                + '|' + normalize(description);
+    }
+
+    private static long hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.BankAccount;
+import com.budgettracker.model.BankConnection;
+import com.budgettracker.model.Transaction;
+import com.budgettracker.model.User;
+import com.budgettracker.repository.BankAccountRepository;
+import com.budgettracker.repository.BankConnectionRepository;
+import com.budgettracker.repository.TransactionRepository;
+import com.budgettracker.repository.UserRepository;
+import com.budgettracker.service.InstitutionProvider.PostedTransaction;
+import com.budgettracker.service.InstitutionProvider.TransactionFeed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports the transactions a bank sync delivers, inserting each one once.
+ *
+ * Every incoming row gets a content fingerprint (TransactionFingerprint),
+ * checked against an in-memory set of the user's imported fingerprints, so
+ * re-delivered rows are dropped without touching the database: re-syncing 90
+ * days in which nothing changed costs no queries at all. Only new rows are
+ * inserted, categorized by TransactionCategorizer, together with the
+ * connection's new cursor, in one transaction.
+ *
+ * A user's set is loaded in one query on first use and the sets of the
+ * cached-users most recently synced users are kept. The unique key on
+ * (user_id, fingerprint) backs the sets up: if a row was imported meanwhile
+ * elsewhere, the insert fails, nothing is written, and the user's set is
+ * loaded again by the next sync.
+ */
+@Component
+public class TransactionIngestor {
+
+    private static final int TITLE_LENGTH = 255;
+
+    private final TransactionRepository transactionRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final BankConnectionRepository bankConnectionRepository;
+    private final UserRepository userRepository;
+    private final TransactionCategorizer categorizer;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Map<Long, FingerprintSet> fingerprints;
+    private final AtomicLong loads = new AtomicLong();
+    private final Counter inserted;
+    private final Counter duplicates;
+
+    @Autowired
+    public TransactionIngestor(TransactionRepository transactionRepository,
+                               BankAccountRepository bankAccountRepository,
+                               BankConnectionRepository bankConnectionRepository,
+                               UserRepository userRepository,
+                               TransactionCategorizer categorizer,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.bank-sync.ingest.cached-users:5000}") int cachedUsers) {
+        this.transactionRepository = transactionRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.bankConnectionRepository = bankConnectionRepository;
+        this.userRepository = userRepository;
+        this.categorizer = categorizer;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Not read-only: cursors and fingerprint sets must reflect committed imports, so read the primary
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.fingerprints = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, FingerprintSet> eldest) {
+                return size() > cachedUsers;
+            }
+        };
+        this.inserted = rows(meterRegistry, "inserted");
+        this.duplicates = rows(meterRegistry, "duplicate");
+    }
+
+    /**
+     * The users' connections to the institution, each with its cursor and
+     * the user's active accounts there; users with accounts but no
+     * connection record get one without a cursor
+     */
+    public List<Connection> connectionsFor(String institutionId, Collection<Long> userIds) {
+        return readTransaction.execute(status -> {
+            Map<Long, List<BankAccount>> accountsByUser = new LinkedHashMap<>();
+            for (BankAccount account : bankAccountRepository.findActiveByInstitutionIdAndUserIds(institutionId, userIds)) {
+                accountsByUser.computeIfAbsent(account.getUser().getId(), id -> new ArrayList<>()).add(account);
+            }
+            Map<Long, BankConnection> connectionsByUser = new HashMap<>();
+            for (BankConnection connection : bankConnectionRepository.findByInstitutionIdAndUserIds(institutionId, userIds)) {
+                connectionsByUser.put(connection.getUser().getId(), connection);
+            }
+
+            List<Connection> connections = new ArrayList<>();
+            accountsByUser.forEach((userId, accounts) -> {
+                BankConnection connection = connectionsByUser.get(userId);
+                connections.add(new Connection(userId, connection != null ? connection.getId() : null,
+                        connection != null ? connection.getSyncCursor() : null, accounts));
+            });
+            return connections;
+        });
+    }
+
+    /**
+     * Insert the feed's transactions not imported before and move the
+     * connection's cursor; returns how many were inserted
+     */
+    public int ingest(Connection connection, TransactionFeed feed) {
+        FingerprintSet seen = fingerprintsOf(connection.getUserId());
+        Map<String, BankAccount> accounts = new HashMap<>();
+        for (BankAccount account : connection.getAccounts()) {
+            accounts.put(account.getExternalAccountId(), account);
+        }
+
+        List<PostedTransaction> rows = feed.getTransactions();
+        long[] rowFingerprints = TransactionFingerprint.of(rows);
+        List<Integer> fresh = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (!accounts.containsKey(rows.get(i).getExternalAccountId())) {
+                continue;
+            }
+            if (seen.contains(rowFingerprints[i])) {
+                duplicates.increment();
+            } else {
+                fresh.add(i);
+            }
+        }
+
+        boolean cursorMoved = connection.getConnectionId() != null
+                && !Objects.equals(feed.getNextCursor(), connection.getCursor());
+        if (fresh.isEmpty() && !cursorMoved) {
+            return 0;
+        }
+
+        List<Transaction> transactions = new ArrayList<>(fresh.size());
+        for (int i : fresh) {
+            PostedTransaction row = rows.get(i);
+            transactions.add(toTransaction(accounts.get(row.getExternalAccountId()), row, rowFingerprints[i]));
+        }
+        categorizer.categorize(connection.getUserId(), transactions);
+
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                if (!transactions.isEmpty()) {
+                    User user = userRepository.getReferenceById(connection.getUserId());
+                    transactions.forEach(transaction -> transaction.setUser(user));
+                    transactionRepository.saveAll(transactions);
+                }
+                if (cursorMoved) {
+                    bankConnectionRepository.updateSyncCursor(connection.getConnectionId(), feed.getNextCursor(),
+                            LocalDateTime.now());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            forget(connection.getUserId());
+            throw e;
+        }
+
+        for (int i : fresh) {
+            seen.add(rowFingerprints[i]);
+        }
+        inserted.increment(fresh.size());
+        return fresh.size();
+    }
+
+    /**
+     * Get ingestion statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        long cachedFingerprints = 0;
+        int cachedUsers;
+        synchronized (fingerprints) {
+            cachedUsers = fingerprints.size();
+            for (FingerprintSet set : fingerprints.values()) {
+                cachedFingerprints += set.size();
+            }
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("cachedUsers", cachedUsers);
+        stats.put("cachedFingerprints", cachedFingerprints);
+        stats.put("fingerprintLoads", loads.get());
+        stats.put("inserted", (long) inserted.count());
+        stats.put("duplicates", (long) duplicates.count());
+        return stats;
+    }
+
+    private FingerprintSet fingerprintsOf(Long userId) {
+        synchronized (fingerprints) {
+            FingerprintSet cached = fingerprints.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Loaded outside the lock so other users' syncs are not held up by the query
+        loads.incrementAndGet();
+        List<Long> stored = readTransaction.execute(status -> transactionRepository.findFingerprintsByUserId(userId));
+        FingerprintSet loaded = new FingerprintSet(stored.size());
+        stored.forEach(loaded::add);
+        synchronized (fingerprints) {
+            fingerprints.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private void forget(Long userId) {
+        synchronized (fingerprints) {
+            fingerprints.remove(userId);
+        }
+    }
+
+    private static Transaction toTransaction(BankAccount account, PostedTransaction row, long fingerprint) {
+        boolean deposit = row.getAmount().signum() > 0;
+        String title = row.getDescription() != null && !row.getDescription().isBlank()
+                ? row.getDescription().trim() : deposit ? "Bank Deposit" : "Bank Withdrawal";
+        Transaction transaction = new Transaction();
+        transaction.setTitle(title.length() > TITLE_LENGTH ? title.substring(0, TITLE_LENGTH) : title);
+        transaction.setDescription("Imported from " + account.getBankName());
+        transaction.setAmount(row.getAmount().abs());
+        transaction.setType(deposit ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE);
+        transaction.setTransactionDate(row.getDate().atStartOfDay());
+        transaction.setCurrencyCode(account.getCurrencyCode());
+        transaction.setFingerprint(fingerprint);
+        return transaction;
+    }
+
+    private static Counter rows(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("bank.sync.transactions")
+                .description("Transactions delivered by bank sync, by whether they were new")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A user's connection to one institution as of the start of a sync
+     */
+    public static final class Connection {
+        private final Long userId;
+        private final Long connectionId;
+        private final String cursor;
+        private final List<BankAccount> accounts;
+
+        public Connection(Long userId, Long connectionId, String cursor, List<BankAccount> accounts) {
+            this.userId = userId;
+            this.connectionId = connectionId;
+            this.cursor = cursor;
+            this.accounts = accounts;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public Long getConnectionId() {
+            return connectionId;
+        }
+
+        public String getCursor() {
+            return cursor;
+        }
+
+        public List<BankAccount> getAccounts() {
+            return accounts;
+        }
+    }
+
+    /**
+     * Open-addressing set of fingerprints, about 16 bytes per entry
+     */
+    private static final class FingerprintSet {
+        private long[] slots;
+        private boolean hasZero;
+        private int size;
+
+        FingerprintSet(int expected) {
+            slots = new long[capacityFor(expected)];
+        }
+
+        synchronized boolean contains(long fingerprint) {
+            if (fingerprint == 0) {
+                return hasZero;
+            }
+            int mask = slots.length - 1;
+            for (int i = mix(fingerprint) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                if (slots[i] == fingerprint) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void add(long fingerprint) {
+            if (fingerprint == 0) {
+                if (!hasZero) {
+                    hasZero = true;
+                    size++;
+                }
+                return;
+            }
+            if ((size + 1) * 2 > slots.length) {
+                resize();
+            }
+            if (insert(slots, fingerprint)) {
+                size++;
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void resize() {
+            long[] larger = new long[slots.length * 2];
+            for (long fingerprint : slots) {
+                if (fingerprint != 0) {
+                    insert(larger, fingerprint);
+                }
+            }
+            slots = larger;
+        }
+
+        private static boolean insert(long[] table, long fingerprint) {
+            int mask = table.length - 1;
+            int i = mix(fingerprint) & mask;
+            while (table[i] != 0) {
+                if (table[i] == fingerprint) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            table[i] = fingerprint;
+            return true;
+        }
+
+        private static int mix(long fingerprint) {
+            return (int) (fingerprint ^ (fingerprint >>> 32));
+        }
+
+        private static int capacityFor(int expected) {
+            return Integer.highestOneBit(Math.max(8, expected * 2 - 1)) << 1;
+        }
+    }
+}
@@ -30,6 +30,9 @@ public class TransactionService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TransactionCategorizer transactionCategorizer;
+    
     // Create new transaction
         public TransactionResponse createTransaction(TransactionRequest request, String username) {
         // Validate user exists
@@ -64,6 +67,8 @@ public class TransactionService {
             transaction.setTransactionDate(request.getTransactionDate());
             
             Transaction savedTransaction = transactionRepository.save(transaction);
+            transactionCategorizer.learn(user.getId(), savedTransaction.getType(), savedTransaction.getTitle(),
+                    savedTransaction.getDescription(), savedTransaction.getCategory());
             return new TransactionResponse(savedTransaction);
         } catch (Exception e) {
             throw new RuntimeException("Failed to create transaction: " + e.getMessage(), e);
@@ -71,17 +76,16 @@ public class TransactionService {
     }
     
     // Get all transactions for user
+        @Transactional(readOnly = true)
         public List<TransactionResponse> getUserTransactions(String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<Transaction> transactions = transactionRepository.findByUserOrderByTransactionDateDesc(user);
-        return transactions.stream()
-                .map(TransactionResponse::new)
-                .collect(Collectors.toList());
+        return transactionRepository.findResponsesByUser(user);
     }
     
     // Get transaction by ID
+        @Transactional(readOnly = true)
         public Optional<TransactionResponse> getTransactionById(Long id, String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -120,14 +124,25 @@ public class TransactionService {
         }
         
         try {
+            // An imported transaction's guessed category is not part of the categorizer's history,
+            // but the category the user gives it is
+            if (transaction.isCategorizedByUser()) {
+                transactionCategorizer.forget(user.getId(), transaction.getType(), transaction.getTitle(),
+                        transaction.getDescription(), transaction.getCategory());
+            }
             transaction.setTitle(request.getTitle().trim());
             transaction.setType(request.getType());
             transaction.setCategory(request.getCategory().trim());
             transaction.setAmount(request.getAmount());
             transaction.setDescription(request.getDescription() != null ? request.getDescription().trim() : null);
             transaction.setTransactionDate(request.getTransactionDate());
+            if (transaction.getFingerprint() != null) {
+                transaction.setCategoryConfirmed(true);
+            }
             
             Transaction updatedTransaction = transactionRepository.save(transaction);
+            transactionCategorizer.learn(user.getId(), updatedTransaction.getType(), updatedTransaction.getTitle(),
+                    updatedTransaction.getDescription(), updatedTransaction.getCategory());
             return new TransactionResponse(updatedTransaction);
         } catch (Exception e) {
             throw new RuntimeException("Failed to update transaction: " + e.getMessage(), e);
@@ -144,46 +159,42 @@ public class TransactionService {
                 .orElseThrow(() -> new RuntimeException("Transaction not found or access denied"));
         
         transactionRepository.delete(transaction);
+        if (transaction.isCategorizedByUser()) {
+            transactionCategorizer.forget(user.getId(), transaction.getType(), transaction.getTitle(),
+                    transaction.getDescription(), transaction.getCategory());
+        }
     }
     
     // Get transactions by type
+        @Transactional(readOnly = true)
         public List<TransactionResponse> getTransactionsByType(String type, String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         Transaction.TransactionType transactionType = Transaction.TransactionType.valueOf(type);
-        List<Transaction> transactions = transactionRepository.findByUserAndTypeOrderByTransactionDateDesc(user, transactionType);
-        
-        return transactions.stream()
-                .map(TransactionResponse::new)
-                .collect(Collectors.toList());
+        return transactionRepository.findResponsesByUserAndType(user, transactionType);
     }
     
     // Get transactions by category
+        @Transactional(readOnly = true)
         public List<TransactionResponse> getTransactionsByCategory(String category, String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<Transaction> transactions = transactionRepository.findByUserAndCategoryOrderByTransactionDateDesc(user, category);
-        return transactions.stream()
-                .map(TransactionResponse::new)
-                .collect(Collectors.toList());
+        return transactionRepository.findResponsesByUserAndCategory(user, category);
     }
     
     // Get transactions within date range
+        @Transactional(readOnly = true)
         public List<TransactionResponse> getTransactionsByDateRange(LocalDateTime startDate, LocalDateTime endDate, String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<Transaction> transactions = transactionRepository.findByUserAndTransactionDateBetweenOrderByTransactionDateDesc(
-                user, startDate, endDate);
-        
-        return transactions.stream()
-                .map(TransactionResponse::new)
-                .collect(Collectors.toList());
+        return transactionRepository.findResponsesByUserAndDateRange(user, startDate, endDate);
     }
     
     // Get financial summary
+        @Transactional(readOnly = true)
         public Map<String, Object> getFinancialSummary(String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -203,6 +214,7 @@ public class TransactionService {
     }
     
     // Get monthly financial summary
+        @Transactional(readOnly = true)
         public Map<String, Object> getMonthlyFinancialSummary(int year, int month, String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -226,6 +238,7 @@ public class TransactionService {
     }
     
     // Get expense breakdown by category
+        @Transactional(readOnly = true)
         public List<Map<String, Object>> getExpenseBreakdown(String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -243,6 +256,7 @@ public class TransactionService {
     }
     
     // Get income breakdown by category
+        @Transactional(readOnly = true)
         public List<Map<String, Object>> getIncomeBreakdown(String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -260,17 +274,16 @@ public class TransactionService {
     }
     
     // Get recent transactions (last N transactions)
+        @Transactional(readOnly = true)
         public List<TransactionResponse> getRecentTransactions(int limit, String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<Transaction> transactions = transactionRepository.findRecentTransactions(user, limit);
-        return transactions.stream()
-                .map(TransactionResponse::new)
-                .collect(Collectors.toList());
+        return transactionRepository.findRecentResponses(user, limit);
     }
     
     // Get transaction statistics
+        @Transactional(readOnly = true)
         public Map<String, Object> getTransactionStatistics(String username) {
                 User user = userRepository.findByUsername(username)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -299,6 +312,7 @@ public class TransactionService {
     // ===== NEW ANALYTICS METHODS FOR MILESTONE 4 =====
     
     // Get monthly trends analysis
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getMonthlyTrends(int months, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
@@ -325,6 +339,7 @@ public class TransactionService {
     }
     
     // Get category trends over time
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getCategoryTrends(int months, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
@@ -348,6 +363,7 @@ public class TransactionService {
     }
     
     // Get spending patterns analysis
+    @Transactional(readOnly = true)
     public Map<String, Object> getSpendingPatterns(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
@@ -385,6 +401,7 @@ public class TransactionService {
     }
     
     // Get comparative analysis (current vs previous period)
+    @Transactional(readOnly = true)
     public Map<String, Object> getComparativeAnalysis(String period, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
@@ -457,6 +474,7 @@ public class TransactionService {
     }
     
     // Get financial insights and recommendations
+    @Transactional(readOnly = true)
     public Map<String, Object> getFinancialInsights(String username) {
         try {
             User user = userRepository.findByUsername(username)
@@ -0,0 +1,45 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.*;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that bumps the owner's data version on every insert,
+ * update and delete of a user-owned entity. Instantiated by Hibernate through
+ * the Spring bean container. Bulk JPQL updates bypass entity listeners and
+ * must bump the version themselves.
+ */
+public class UserDataChangeListener {
+
+    @Autowired
+    private UserDataVersions userDataVersions;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        userDataVersions.bump(ownerOf(entity));
+    }
+
+    static Long ownerOf(Object entity) {
+        return switch (entity) {
+            case Transaction transaction -> idOf(transaction.getUser());
+            case Budget budget -> idOf(budget.getUser());
+            case SavingsGoal savingsGoal -> idOf(savingsGoal.getUser());
+            case Investment investment -> idOf(investment.getUser());
+            case Bill bill -> bill.getUserId();
+            case BillPayment billPayment -> billPayment.getUserId();
+            case User user -> user.getId();
+            case UserProfile userProfile -> userProfile.getUserId();
+            default -> null;
+        };
+    }
+
+    // Reading the id of a lazy proxy does not initialize it
+    private static Long idOf(User user) {
+        return user != null ? user.getId() : null;
+    }
+}
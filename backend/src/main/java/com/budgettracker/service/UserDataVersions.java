@@ -0,0 +1,183 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user data version, bumped whenever the user's account or profile or
+ * one of their transactions, budgets, savings goals, bills or investments is
+ * written.
+ *
+ * The version lives in the users row (data_version, with data_changed_at),
+ * so every instance behind the gateway sees the same value. It is bumped
+ * once the writing transaction commits, once per user, each user in its own
+ * short transaction: the writer never holds a lock on its users row, and a
+ * job writing for several users never holds two of them. A rolled-back write
+ * bumps nothing. Between the commit and the bump, readers may still compute
+ * and cache a result under the old version, which the bump then retires.
+ * Reads take the version from the signed-in user, loaded from the primary
+ * for each request, so checking it costs no query.
+ *
+ * The epoch changes on every restart so tags issued by a previous build
+ * never match; instances only differ in the tags they issue, not in what
+ * they consider current.
+ */
+@Component
+public class UserDataVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDataVersions.class);
+
+    private static final String BUMP_SQL = "UPDATE users SET data_version = COALESCE(data_version, 0) + 1, "
+            + "data_changed_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate bumpTransaction;
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong bumps = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+
+    // Lazy: the transaction manager needs the entity manager factory, whose listeners need this
+    @Autowired
+    public UserDataVersions(JdbcTemplate jdbcTemplate, @Lazy PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bumpTransaction = new TransactionTemplate(transactionManager);
+        this.bumpTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * The user's committed data version: the signed-in user's as loaded for
+     * this request, otherwise read from the database
+     */
+    public long current(Long userId) {
+        User user = currentUser();
+        if (user != null && userId.equals(user.getId())) {
+            return user.getDataVersion() != null ? user.getDataVersion() : 0L;
+        }
+        lookups.incrementAndGet();
+        List<Long> versions = jdbcTemplate.queryForList("SELECT data_version FROM users WHERE id = ?",
+                Long.class, userId);
+        return versions.isEmpty() || versions.get(0) == null ? 0L : versions.get(0);
+    }
+
+    /**
+     * Bump the user's version once the current transaction commits (once per
+     * transaction), or now when there is none
+     */
+    public void bump(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            bumpedIn().add(userId);
+            return;
+        }
+        bumpNow(userId);
+    }
+
+    private void bumpNow(Long userId) {
+        jdbcTemplate.update(BUMP_SQL, Timestamp.valueOf(LocalDateTime.now()), userId);
+        bumps.incrementAndGet();
+    }
+
+    private void bumpAfterCommit(Set<Long> userIds) {
+        // The committed transaction's resources are still bound, so each bump runs in a new one
+        for (Long userId : userIds) {
+            try {
+                bumpTransaction.executeWithoutResult(status -> bumpNow(userId));
+            } catch (RuntimeException e) {
+                // The write has committed; cached results stay valid for the old version until the next bump
+                logger.warn("Failed to bump data version of user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Id of the authenticated application user, or null when the principal is
+     * not one (anonymous or mock users)
+     */
+    public static Long currentUserId() {
+        User user = currentUser();
+        return user != null ? user.getId() : null;
+    }
+
+    /**
+     * Whether the signed-in user's data changed within the window before
+     * this request, so reads from a lagging replica could miss the change
+     */
+    public static boolean currentUserChangedWithin(Duration window) {
+        User user = currentUser();
+        return user != null && user.getDataChangedAt() != null
+                && user.getDataChangedAt().isAfter(LocalDateTime.now().minus(window));
+    }
+
+    private static User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        return null;
+    }
+
+    // Synchronizations belong to the current transaction only (they are suspended with it)
+    private Set<Long> bumpedIn() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Bumped bumped && bumped.owner() == this) {
+                return bumped.userIds;
+            }
+        }
+        Bumped bumped = new Bumped();
+        TransactionSynchronizationManager.registerSynchronization(bumped);
+        return bumped.userIds;
+    }
+
+    /**
+     * Get version statistics for monitoring
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("epoch", epoch);
+        stats.put("bumps", bumps.get());
+        stats.put("lookups", lookups.get());
+        return stats;
+    }
+
+    private final class Bumped implements TransactionSynchronization {
+        // In id order, so concurrent bumpers meet the rows in the same order
+        private final Set<Long> userIds = new TreeSet<>();
+
+        UserDataVersions owner() {
+            return UserDataVersions.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            bumpAfterCommit(userIds);
+        }
+    }
+}
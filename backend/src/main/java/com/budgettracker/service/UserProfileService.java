@@ -35,6 +35,9 @@ public class UserProfileService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private NotificationPreferenceIndex notificationPreferenceIndex;
+
     /**
      * Get user profile by user ID, create default if not exists
      */
@@ -101,6 +104,7 @@ public class UserProfileService {
         profile.setTheme("light");
         
         UserProfile savedProfile = userProfileRepository.save(profile);
+        notificationPreferenceIndex.profileSaved(savedProfile);
         logger.info("Created default profile for user: {} with INR currency", userId);
         
         return savedProfile;
@@ -190,6 +194,7 @@ public class UserProfileService {
         }
 
         UserProfile savedProfile = userProfileRepository.save(profile);
+        notificationPreferenceIndex.profileSaved(savedProfile);
         logger.info("Updated profile for user: {}", userId);
 
         // Send real-time update
@@ -305,6 +310,7 @@ public class UserProfileService {
     public void deleteUserProfile(Long userId) {
         logger.info("Deleting profile for user: {}", userId);
         userProfileRepository.deleteByUserId(userId);
+        notificationPreferenceIndex.profileDeleted(userId);
     }
 
     /**
@@ -325,30 +331,21 @@ public class UserProfileService {
      * Get users who want budget alerts
      */
     public List<Long> getUsersWithBudgetAlertsEnabled() {
-        return userProfileRepository.findUsersWithBudgetAlertsEnabled()
-                .stream()
-                .map(UserProfile::getUserId)
-                .collect(Collectors.toList());
+        return notificationPreferenceIndex.usersWith(NotificationPreferenceIndex.Alert.BUDGET_ALERTS);
     }
 
     /**
      * Get users who want bill reminders
      */
     public List<Long> getUsersWithBillRemindersEnabled() {
-        return userProfileRepository.findUsersWithBillRemindersEnabled()
-                .stream()
-                .map(UserProfile::getUserId)
-                .collect(Collectors.toList());
+        return notificationPreferenceIndex.usersWith(NotificationPreferenceIndex.Alert.BILL_REMINDERS);
     }
 
     /**
      * Get users who want investment alerts
      */
     public List<Long> getUsersWithInvestmentAlertsEnabled() {
-        return userProfileRepository.findUsersWithInvestmentAlertsEnabled()
-                .stream()
-                .map(UserProfile::getUserId)
-                .collect(Collectors.toList());
+        return notificationPreferenceIndex.usersWith(NotificationPreferenceIndex.Alert.INVESTMENT_ALERTS);
     }
 
     /**
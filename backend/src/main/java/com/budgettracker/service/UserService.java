@@ -1,5 +1,6 @@
 package com.budgettracker.service;
 
+import com.budgettracker.model.Role;
 import com.budgettracker.model.User;
 import com.budgettracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,13 +9,20 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class UserService implements UserDetailsService {
     
+    public static final int MAX_PAGE_SIZE = 100;
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -76,6 +84,64 @@ public class UserService implements UserDetailsService {
         return userRepository.findAll();
     }
     
+    /**
+     * Admin dashboard totals, aggregated by the database
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAdminStatistics() {
+        Object[] totals = userRepository.getAdminTotals().get(0);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalUsers", ((Number) totals[0]).longValue());
+        stats.put("activeUsers", ((Number) totals[1]).longValue());
+        stats.put("totalSavings", totals[2]);
+        stats.put("totalMonthlyIncome", totals[3]);
+        return stats;
+    }
+    
+    /**
+     * One page of users for the admin listing, sorted by "id" or "username"
+     * and optionally filtered by role and by a username/email substring.
+     * Pages are keyset paginated: pass the previous page's nextCursor to get
+     * the next one, so every page costs the same however far in it is.
+     */
+    @Transactional(readOnly = true)
+    public UserPage getUserPage(String search, Role role, String sort, boolean descending, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String pattern = search != null && !search.isBlank()
+                ? "%" + search.trim().toLowerCase(Locale.ROOT) + "%" : null;
+        String after = cursor != null && !cursor.isBlank() ? cursor : null;
+        
+        // One extra row tells whether there is a next page
+        List<User> users;
+        boolean byUsername;
+        if ("username".equals(sort)) {
+            byUsername = true;
+            users = descending
+                    ? userRepository.findAdminPageByUsernameDesc(role, pattern, after, size + 1)
+                    : userRepository.findAdminPageByUsername(role, pattern, after, size + 1);
+        } else if (sort == null || "id".equals(sort)) {
+            byUsername = false;
+            Long afterId;
+            try {
+                afterId = after != null ? Long.valueOf(after) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            users = descending
+                    ? userRepository.findAdminPageByIdDesc(role, pattern, afterId, size + 1)
+                    : userRepository.findAdminPageById(role, pattern, afterId, size + 1);
+        } else {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+        
+        if (users.size() <= size) {
+            return new UserPage(users, null);
+        }
+        List<User> page = users.subList(0, size);
+        User last = page.get(size - 1);
+        return new UserPage(page, byUsername ? last.getUsername() : String.valueOf(last.getId()));
+    }
+    
     public boolean verifyPassword(String username, String rawPassword) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
@@ -88,4 +154,26 @@ public class UserService implements UserDetailsService {
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
     }
+    
+    /**
+     * A page of the admin user listing and the cursor of the next one, or
+     * null on the last page
+     */
+    public static final class UserPage {
+        private final List<User> users;
+        private final String nextCursor;
+        
+        public UserPage(List<User> users, String nextCursor) {
+            this.users = users;
+            this.nextCursor = nextCursor;
+        }
+        
+        public List<User> getUsers() {
+            return users;
+        }
+        
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package com.budgettracker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, which
+ * happens when one blocks inside a synchronized block or native frame.
+ *
+ * Listens to the JFR jdk.VirtualThreadPinned event in-process, attributes
+ * each event to the first application frame on the stack (or the top frame
+ * when none is ours), and keeps a count and worst duration per site.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.budgettracker.";
+
+    private final boolean enabled;
+    private final long thresholdMillis;
+
+    private final Map<String, LongAdder> eventsBySite = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> maxNanosBySite = new ConcurrentHashMap<>();
+    private final LongAdder totalEvents = new LongAdder();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${app.execution.pinning-diagnostics.enabled:false}") boolean enabled,
+                                       @Value("${app.execution.pinning-diagnostics.threshold-ms:20}") long thresholdMillis) {
+        this.enabled = enabled;
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            logger.info("Virtual thread pinning diagnostics enabled (threshold {} ms)", thresholdMillis);
+        } catch (Exception e) {
+            logger.warn("Could not start virtual thread pinning diagnostics: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String site = pinningSite(event.getStackTrace());
+        long nanos = event.getDuration().toNanos();
+
+        totalEvents.increment();
+        eventsBySite.computeIfAbsent(site, key -> new LongAdder()).increment();
+        AtomicLong max = maxNanosBySite.computeIfAbsent(site, key -> new AtomicLong());
+        if (max.getAndAccumulate(nanos, Math::max) == 0L) {
+            logger.warn("Virtual thread pinned for {} ms at {}", Duration.ofNanos(nanos).toMillis(), site);
+        }
+    }
+
+    private static String pinningSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame site = frames.stream()
+                .filter(frame -> frame.isJavaFrame()
+                        && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(frames.get(0));
+        return site.getMethod().getType().getName() + "." + site.getMethod().getName()
+                + ":" + site.getLineNumber();
+    }
+
+    /**
+     * Get pinning statistics for monitoring, worst sites first
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> sites = eventsBySite.entrySet().stream()
+                .sorted((a, b) -> Long.compare(
+                        maxNanosBySite.get(b.getKey()).get(), maxNanosBySite.get(a.getKey()).get()))
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> {
+                    Map<String, Object> site = new HashMap<>();
+                    site.put("events", entry.getValue().sum());
+                    site.put("maxPinnedMs", Duration.ofNanos(maxNanosBySite.get(entry.getKey()).get()).toMillis());
+                    return site;
+                }, (a, b) -> a, LinkedHashMap::new));
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", stream != null);
+        stats.put("thresholdMs", thresholdMillis);
+        stats.put("totalEvents", totalEvents.sum());
+        stats.put("sites", sites);
+        return stats;
+    }
+}
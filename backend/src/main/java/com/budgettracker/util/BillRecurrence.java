@@ -0,0 +1,228 @@
+package com.budgettracker.util;
+
+import com.budgettracker.model.Bill;
+import com.budgettracker.model.Bill.BillFrequency;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Expands bill schedules into their due dates.
+ *
+ * The n-th occurrence of a schedule is computed directly from its anchor date
+ * (anchor plus n periods) rather than by stepping from the previous
+ * occurrence, so a bill due on the 31st falls on the last day of shorter
+ * months and returns to the 31st afterwards instead of drifting to the 28th,
+ * and an annual bill due on 29 February falls on the 28th in common years.
+ *
+ * A bill's occurrences start at its next due date. The schedule is anchored at
+ * the original due date when the next due date lies on it, and at the next
+ * due date otherwise (e.g. after it was moved by hand).
+ */
+public final class BillRecurrence {
+
+    private BillRecurrence() {
+    }
+
+    /**
+     * One due date of one bill
+     */
+    public static final class Occurrence {
+        private final Bill bill;
+        private final LocalDate dueDate;
+
+        Occurrence(Bill bill, LocalDate dueDate) {
+            this.bill = bill;
+            this.dueDate = dueDate;
+        }
+
+        public Bill getBill() {
+            return bill;
+        }
+
+        public LocalDate getDueDate() {
+            return dueDate;
+        }
+    }
+
+    /**
+     * The n-th occurrence (from 0) of a schedule starting at the anchor
+     */
+    public static LocalDate occurrence(LocalDate anchor, BillFrequency frequency, long n) {
+        return switch (frequency) {
+            case ONE_TIME -> anchor;
+            case WEEKLY -> anchor.plusWeeks(n);
+            case BI_WEEKLY -> anchor.plusWeeks(2 * n);
+            case MONTHLY -> anchor.plusMonths(n);
+            case QUARTERLY -> anchor.plusMonths(3 * n);
+            case SEMI_ANNUALLY -> anchor.plusMonths(6 * n);
+            case ANNUALLY -> anchor.plusYears(n);
+        };
+    }
+
+    /**
+     * First occurrence of the schedule on or after the date, or null for a
+     * one-time schedule that is already past
+     */
+    public static LocalDate firstOnOrAfter(LocalDate anchor, BillFrequency frequency, LocalDate date) {
+        long n = firstIndexOnOrAfter(anchor, frequency, date);
+        return n < 0 ? null : occurrence(anchor, frequency, n);
+    }
+
+    /**
+     * The bill's first due date on or after the date, or null when it has none
+     */
+    public static LocalDate nextOnOrAfter(Bill bill, LocalDate date) {
+        Cursor cursor = Cursor.start(bill, date, LocalDate.MAX);
+        return cursor != null ? cursor.date : null;
+    }
+
+    /**
+     * The bill's first due date after its current next due date, or null for
+     * a one-time bill
+     */
+    public static LocalDate following(Bill bill) {
+        if (bill.getNextDueDate() == null) {
+            return null;
+        }
+        return nextOnOrAfter(bill, bill.getNextDueDate().plusDays(1));
+    }
+
+    /**
+     * All due dates of the bills between from and to (inclusive), merged into
+     * date order (ties by bill id). Occurrences are produced lazily, one heap
+     * step each, so only one pending date per bill is held at a time.
+     */
+    public static Iterator<Occurrence> expand(Collection<Bill> bills, LocalDate from, LocalDate to) {
+        PriorityQueue<Cursor> pending = new PriorityQueue<>(Math.max(1, bills.size()));
+        for (Bill bill : bills) {
+            Cursor cursor = Cursor.start(bill, from, to);
+            if (cursor != null) {
+                pending.add(cursor);
+            }
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public Occurrence next() {
+                Cursor cursor = pending.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                Occurrence occurrence = new Occurrence(cursor.bill, cursor.date);
+                if (cursor.advance()) {
+                    pending.add(cursor);
+                }
+                return occurrence;
+            }
+        };
+    }
+
+    // Index of the first occurrence on or after the date, or -1 when there is none
+    public static long firstIndexOnOrAfter(LocalDate anchor, BillFrequency frequency, LocalDate date) {
+        if (!anchor.isBefore(date)) {
+            return 0;
+        }
+        if (frequency == BillFrequency.ONE_TIME) {
+            return -1;
+        }
+
+        long n = switch (frequency) {
+            case WEEKLY -> ceilDiv(ChronoUnit.DAYS.between(anchor, date), 7);
+            case BI_WEEKLY -> ceilDiv(ChronoUnit.DAYS.between(anchor, date), 14);
+            case MONTHLY -> ChronoUnit.MONTHS.between(anchor, date);
+            case QUARTERLY -> ChronoUnit.MONTHS.between(anchor, date) / 3;
+            case SEMI_ANNUALLY -> ChronoUnit.MONTHS.between(anchor, date) / 6;
+            case ANNUALLY -> ChronoUnit.YEARS.between(anchor, date);
+            case ONE_TIME -> -1;
+        };
+        // Month-based estimates can fall one period short at month ends
+        while (occurrence(anchor, frequency, n).isBefore(date)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static long ceilDiv(long days, long period) {
+        return Math.floorDiv(days + period - 1, period);
+    }
+
+    private static boolean onSchedule(LocalDate anchor, BillFrequency frequency, LocalDate date) {
+        long n = firstIndexOnOrAfter(anchor, frequency, date);
+        return n >= 0 && occurrence(anchor, frequency, n).equals(date);
+    }
+
+    /**
+     * Position in one bill's schedule: the current occurrence and its index
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Bill bill;
+        private final LocalDate anchor;
+        private final BillFrequency frequency;
+        private final LocalDate until;
+        private long index;
+        private LocalDate date;
+
+        private Cursor(Bill bill, LocalDate anchor, BillFrequency frequency, LocalDate until, long index) {
+            this.bill = bill;
+            this.anchor = anchor;
+            this.frequency = frequency;
+            this.until = until;
+            this.index = index;
+            this.date = occurrence(anchor, frequency, index);
+        }
+
+        // Null when the bill has no occurrence in the range
+        static Cursor start(Bill bill, LocalDate from, LocalDate until) {
+            LocalDate next = bill.getNextDueDate() != null ? bill.getNextDueDate() : bill.getDueDate();
+            BillFrequency frequency = bill.getFrequency() != null ? bill.getFrequency() : BillFrequency.ONE_TIME;
+            if (next == null) {
+                return null;
+            }
+
+            LocalDate due = bill.getDueDate();
+            LocalDate anchor = due != null && !due.isAfter(next) && onSchedule(due, frequency, next) ? due : next;
+            LocalDate lower = from.isAfter(next) ? from : next;
+            long index = firstIndexOnOrAfter(anchor, frequency, lower);
+            if (index < 0) {
+                return null;
+            }
+
+            Cursor cursor = new Cursor(bill, anchor, frequency, until, index);
+            return cursor.date.isAfter(until) ? null : cursor;
+        }
+
+        // Move to the next occurrence; false when it is past the range
+        boolean advance() {
+            if (frequency == BillFrequency.ONE_TIME) {
+                return false;
+            }
+            index++;
+            date = occurrence(anchor, frequency, index);
+            return !date.isAfter(until);
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            int byDate = date.compareTo(other.date);
+            if (byDate != 0) {
+                return byDate;
+            }
+            Long id = bill.getId();
+            Long otherId = other.bill.getId();
+            if (id == null || otherId == null) {
+                return id == null ? (otherId == null ? 0 : 1) : -1;
+            }
+            return id.compareTo(otherId);
+        }
+    }
+}
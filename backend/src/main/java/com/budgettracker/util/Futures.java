@@ -0,0 +1,26 @@
+package com.budgettracker.util;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Helpers for CompletableFuture results.
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Strip the CompletionException / ExecutionException wrappers added by
+     * future composition
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
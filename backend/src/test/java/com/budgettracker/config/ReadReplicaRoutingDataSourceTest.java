@@ -0,0 +1,115 @@
+package com.budgettracker.config;
+
+import com.budgettracker.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private ReplicaLagMonitor lagMonitor;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReadReplicaRoutingDataSource(primary, replica, lagMonitor, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getConnection_ReadWriteTransaction_ShouldUsePrimary() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        verifyNoInteractions(replica, lagMonitor);
+    }
+
+    @Test
+    void getConnection_ReadOnlyTransaction_ShouldUseReplica() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isAvailable()).thenReturn(true);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        assertSame(replicaConnection, routingDataSource.getConnection());
+        assertEquals(1L, routingDataSource.getStatistics().get("replicaConnections"));
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_ReadOnlyWhileReplicaLags_ShouldFallBackToPrimary() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isAvailable()).thenReturn(false);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1L, routingDataSource.getStatistics().get("readFallbacks"));
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_ReadOnlyRightAfterTheUsersWrite_ShouldUsePrimary() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isAvailable()).thenReturn(true);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        User user = new User();
+        user.setId(7L);
+        user.setDataChangedAt(LocalDateTime.now().minusSeconds(2));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1L, routingDataSource.getStatistics().get("recentWriteReads"));
+
+        user.setDataChangedAt(LocalDateTime.now().minusMinutes(1));
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_ReplicaUnreachable_ShouldMarkUnavailableAndUsePrimary() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isAvailable()).thenReturn(true);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        verify(lagMonitor).markUnavailable(any(SQLException.class));
+    }
+}
@@ -176,11 +176,11 @@ public class AnalyticsControllerTest {
         Map<String, Object> mockSavings = new HashMap<>();
         mockSavings.put("totalGoals", 3);
         
-        when(analyticsService.getMonthlyTrends(anyInt(), anyString())).thenReturn(mockTrends);
-        when(analyticsService.getCategoryBreakdown(anyString(), any(), any())).thenReturn(mockBreakdown);
-        when(analyticsService.calculateFinancialHealth(anyString())).thenReturn(mockHealth);
-        when(analyticsService.getBudgetAnalysis(anyString(), anyInt(), anyInt())).thenReturn(mockBudget);
-        when(analyticsService.getSavingsProgress(anyString())).thenReturn(mockSavings);
+        when(analyticsService.getMonthlyTrends(anyInt(), any(User.class))).thenReturn(mockTrends);
+        when(analyticsService.getCategoryBreakdown(any(User.class), any(), any())).thenReturn(mockBreakdown);
+        when(analyticsService.calculateFinancialHealth(any(User.class))).thenReturn(mockHealth);
+        when(analyticsService.getBudgetAnalysis(any(User.class), anyInt(), anyInt())).thenReturn(mockBudget);
+        when(analyticsService.getSavingsProgress(any(User.class))).thenReturn(mockSavings);
 
         mockMvc.perform(get("/api/analytics/dashboard")
                 .header("Authorization", "Bearer mock-token")
@@ -191,7 +191,8 @@ public class AnalyticsControllerTest {
                 .andExpect(jsonPath("$.categoryBreakdown").exists())
                 .andExpect(jsonPath("$.financialHealth").exists())
                 .andExpect(jsonPath("$.budgetAnalysis").exists())
-                .andExpect(jsonPath("$.savingsProgress").exists());
+                .andExpect(jsonPath("$.savingsProgress").exists())
+                .andExpect(jsonPath("$.sections.financialHealth.status").value("OK"));
     }
 
     @Test
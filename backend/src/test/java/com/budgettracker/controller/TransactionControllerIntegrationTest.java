@@ -183,6 +183,38 @@ class TransactionControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].amount").value(100.50));
     }
 
+    @Test
+    void getTransactionsByType_WithValidToken_ShouldReturnOnlyThatType() throws Exception {
+        // Arrange - One expense and one income
+        Transaction expense = new Transaction();
+        expense.setUser(testUser);
+        expense.setTitle("Groceries");
+        expense.setDescription("Weekly shop");
+        expense.setAmount(new BigDecimal("80.00"));
+        expense.setType(Transaction.TransactionType.EXPENSE);
+        expense.setCategory("Food");
+        expense.setTransactionDate(LocalDateTime.now().minusDays(1));
+        transactionRepository.save(expense);
+
+        Transaction income = new Transaction();
+        income.setUser(testUser);
+        income.setTitle("Salary");
+        income.setAmount(new BigDecimal("3000.00"));
+        income.setType(Transaction.TransactionType.INCOME);
+        income.setCategory("Salary");
+        income.setTransactionDate(LocalDateTime.now());
+        transactionRepository.save(income);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/type/EXPENSE")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Groceries"))
+                .andExpect(jsonPath("$[0].description").value("Weekly shop"))
+                .andExpect(jsonPath("$[0].type").value("EXPENSE"));
+    }
+
     @Test
     void getTransactionById_WithValidId_ShouldReturnTransaction() throws Exception {
         // Arrange - Create a test transaction
@@ -0,0 +1,124 @@
+package com.budgettracker.integration;
+
+import com.budgettracker.model.Budget;
+import com.budgettracker.model.Transaction;
+import com.budgettracker.model.User;
+import com.budgettracker.repository.BudgetRepository;
+import com.budgettracker.repository.TransactionRepository;
+import com.budgettracker.repository.UserRepository;
+import com.budgettracker.support.SqlBudget;
+import com.budgettracker.support.SqlBudgetTest;
+import com.budgettracker.support.SqlStatementCounter;
+import com.budgettracker.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL budget of the analytics dashboard on its concurrent path.
+ *
+ * Not transactional: sections run inline when the caller holds a transaction,
+ * so only a request without one fans out to section threads. Their SQL is
+ * attributed to the request through the counter's task decorator.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@SqlBudgetTest
+class DashboardSqlBudgetIntegrationTest {
+
+    private static final int BUDGETS = 8;
+    private static final int TRANSACTIONS = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+    private String authToken;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("dashboardbudgetuser");
+        user.setEmail("dashboardbudget@example.com");
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setMonthlyIncome(new BigDecimal("6000.00"));
+        user.setCurrentSavings(new BigDecimal("15000.00"));
+        user = userRepository.save(user);
+        authToken = "Bearer " + jwtUtil.generateToken(user);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < BUDGETS; i++) {
+            Budget budget = new Budget();
+            budget.setUser(user);
+            budget.setCategory("Category " + i);
+            budget.setBudgetAmount(new BigDecimal("500.00"));
+            budget.setMonth(now.getMonthValue());
+            budget.setYear(now.getYear());
+            budgetRepository.save(budget);
+        }
+
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setUser(user);
+            transaction.setTitle("Transaction " + i);
+            transaction.setCategory("Category " + (i % BUDGETS));
+            transaction.setAmount(new BigDecimal("25.00").add(BigDecimal.valueOf(i)));
+            transaction.setType(i % 10 == 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE);
+            transaction.setTransactionDate(now.minusDays(i % 28));
+            transactionRepository.save(transaction);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll(
+                transactionRepository.findByUserIdAndTransactionDateAfter(user.getId(), LocalDateTime.of(2000, 1, 1, 0, 0)));
+        budgetRepository.deleteAll(budgetRepository.findByUserOrderByYearDescMonthDescCategoryAsc(user));
+        userRepository.delete(user);
+    }
+
+    @Test
+    void analyticsDashboard_ConcurrentSections_ShouldStayWithinSqlBudget() throws Exception {
+        sqlStatementCounter.measure("GET /api/analytics/dashboard (concurrent)",
+                SqlBudget.statements(12).repeats(2), () ->
+                mockMvc.perform(get("/api/analytics/dashboard").header("Authorization", authToken))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.sections.*", hasSize(5)))
+                        .andExpect(jsonPath("$.sections.*.status", everyItem(is("OK")))));
+    }
+}
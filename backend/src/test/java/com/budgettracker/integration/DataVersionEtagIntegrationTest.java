@@ -0,0 +1,123 @@
+package com.budgettracker.integration;
+
+import com.budgettracker.model.User;
+import com.budgettracker.repository.TransactionRepository;
+import com.budgettracker.repository.UserRepository;
+import com.budgettracker.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Conditional GETs on data-versioned endpoints.
+ *
+ * Not transactional: the data version is bumped in the writing transaction
+ * and read with the user at the start of each request, so writes here must
+ * really commit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DataVersionEtagIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+    private String authToken;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("etaguser");
+        user.setEmail("etag@example.com");
+        user.setPassword(passwordEncoder.encode("password"));
+        user = userRepository.save(user);
+        authToken = "Bearer " + jwtUtil.generateToken(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll(
+                transactionRepository.findByUserIdAndTransactionDateAfter(user.getId(), LocalDateTime.of(2000, 1, 1, 0, 0)));
+        userRepository.delete(user);
+    }
+
+    @Test
+    void summary_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/transactions/summary").header("Authorization", authToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/transactions/summary")
+                        .header("Authorization", authToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        // Different resource, different tag
+        String breakdownEtag = mockMvc.perform(get("/api/transactions/breakdown/expenses").header("Authorization", authToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, breakdownEtag);
+    }
+
+    @Test
+    void summary_AfterTransactionIsCreated_ShouldReturnFreshBodyAndNewEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/transactions/summary").header("Authorization", authToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/api/transactions")
+                        .header("Authorization", authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                                "title": "Groceries",
+                                "amount": 42.50,
+                                "type": "EXPENSE",
+                                "category": "Food",
+                                "transactionDate": "2024-10-16T10:00:00"
+                            }
+                            """))
+                .andExpect(status().isCreated());
+
+        String refreshed = mockMvc.perform(get("/api/transactions/summary")
+                        .header("Authorization", authToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalExpenses").value(42.50))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, refreshed);
+    }
+}
@@ -0,0 +1,168 @@
+package com.budgettracker.integration;
+
+import com.budgettracker.model.User;
+import com.budgettracker.repository.UserRepository;
+import com.budgettracker.support.DatasetSpec;
+import com.budgettracker.support.LatencyRecorder;
+import com.budgettracker.support.SyntheticDatasetGenerator;
+import com.budgettracker.support.SyntheticDatasetGenerator.GeneratedDataset;
+import com.budgettracker.util.JwtUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * End-to-end latency of the heaviest read endpoints against a large
+ * synthetic tenant (see DatasetSpec for the default shape).
+ *
+ * Tagged "performance" and excluded from the default build; run with
+ * mvn test -Pperformance. Percentiles per endpoint are written to
+ * target/latency-report.json (override with -Dlatency.report). Pass
+ * -Dspring.datasource.url=... to load and measure against MySQL instead of H2.
+ *
+ * Repeated reads are served from the per-user response caches, so every
+ * endpoint is recorded twice: "(cold)" samples bump the user's data version
+ * before each request, which misses every cached entry as the first read
+ * after a write would, and "(warm)" samples repeat the request unchanged.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Tag("performance")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointLatencyIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EndpointLatencyIntegrationTest.class);
+
+    private static final int WARMUP = Integer.getInteger("latency.warmup", 5);
+    private static final int ITERATIONS = Integer.getInteger("latency.iterations", 50);
+
+    // Only the version: data_changed_at would route the reads to the primary
+    private static final String INVALIDATE_SQL = "UPDATE users SET data_version = COALESCE(data_version, 0) + 1 WHERE id = ?";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private SyntheticDatasetGenerator generator;
+    private GeneratedDataset dataset;
+    private Map<String, String> tokens;
+
+    @BeforeAll
+    void loadDataset() {
+        generator = new SyntheticDatasetGenerator(jdbcTemplate, passwordEncoder);
+        dataset = generator.generate(DatasetSpec.fromSystemProperties());
+        logger.info("Loaded synthetic dataset {} in {} ms", dataset.getRowCounts(), dataset.getElapsedMillis());
+
+        tokens = new LinkedHashMap<>();
+        for (String username : dataset.getUserIds().keySet()) {
+            User user = userRepository.findByUsername(username).orElseThrow();
+            tokens.put(username, "Bearer " + jwtUtil.generateToken(user));
+        }
+    }
+
+    @AfterAll
+    void writeReport() throws Exception {
+        Map<String, Object> datasetSummary = new LinkedHashMap<>(dataset.getSpec().toMap());
+        datasetSummary.put("rows", dataset.getRowCounts());
+        datasetSummary.put("warmup", WARMUP);
+        datasetSummary.put("iterations", ITERATIONS);
+        recorder.write(Path.of(System.getProperty("latency.report", "target/latency-report.json")), datasetSummary);
+        generator.purge(dataset);
+    }
+
+    @Test
+    void transactionEndpoints() throws Exception {
+        measureWithToken("GET /api/transactions", "/api/transactions");
+        measureWithToken("GET /api/transactions/summary", "/api/transactions/summary");
+        measureWithToken("GET /api/transactions/statistics", "/api/transactions/statistics");
+        measureWithToken("GET /api/transactions/analytics/monthly-trends", "/api/transactions/analytics/monthly-trends?months=12");
+    }
+
+    @Test
+    void analyticsEndpoints() throws Exception {
+        measureWithToken("GET /api/analytics/dashboard", "/api/analytics/dashboard");
+        measureWithToken("GET /api/analytics/category-breakdown", "/api/analytics/category-breakdown");
+        measureWithToken("GET /api/analytics/budget-analysis", "/api/analytics/budget-analysis");
+    }
+
+    @Test
+    void portfolioAnalyticsEndpoints() throws Exception {
+        measureWithToken("GET /api/portfolio/analytics/summary", "/api/portfolio/analytics/summary");
+        measureWithToken("GET /api/portfolio/analytics/risk-metrics", "/api/portfolio/analytics/risk-metrics");
+        measureWithToken("GET /api/portfolio/analytics/top-performers", "/api/portfolio/analytics/top-performers");
+    }
+
+    @Test
+    void billEndpoints() throws Exception {
+        // BillController identifies the caller by user id rather than username
+        measure("GET /api/bills", userId -> get("/api/bills").with(user(userId).roles("USER")), true);
+        measure("GET /api/bills/due-within/30",
+                userId -> get("/api/bills/due-within/30").with(user(userId).roles("USER")), true);
+    }
+
+    private void measureWithToken(String endpoint, String url) throws Exception {
+        measure(endpoint, username -> get(url).header("Authorization", tokens.get(username)), false);
+    }
+
+    private void measure(String endpoint, Function<String, RequestBuilder> request, boolean byUserId) throws Exception {
+        for (Map.Entry<String, Long> user : dataset.getUserIds().entrySet()) {
+            String principal = byUserId ? String.valueOf(user.getValue()) : user.getKey();
+            for (int i = 0; i < WARMUP; i++) {
+                mockMvc.perform(request.apply(principal));
+            }
+            for (int i = 0; i < ITERATIONS; i++) {
+                jdbcTemplate.update(INVALIDATE_SQL, user.getValue());
+                record(endpoint + " (cold)", request.apply(principal));
+            }
+            for (int i = 0; i < ITERATIONS; i++) {
+                record(endpoint + " (warm)", request.apply(principal));
+            }
+        }
+
+        for (String sample : new String[] {endpoint + " (cold)", endpoint + " (warm)"}) {
+            Map<String, Object> summary = recorder.summarize(sample);
+            logger.info("{} {}", sample, summary);
+            assertTrue(((Number) summary.get("samples")).intValue() > 0, "No samples recorded for " + sample);
+        }
+    }
+
+    private void record(String sample, RequestBuilder request) throws Exception {
+        long started = System.nanoTime();
+        int status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+        recorder.record(sample, System.nanoTime() - started, status);
+    }
+}
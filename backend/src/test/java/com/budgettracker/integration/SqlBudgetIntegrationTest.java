@@ -0,0 +1,204 @@
+package com.budgettracker.integration;
+
+import com.budgettracker.model.Budget;
+import com.budgettracker.model.Investment;
+import com.budgettracker.model.Role;
+import com.budgettracker.model.Transaction;
+import com.budgettracker.model.User;
+import com.budgettracker.repository.BudgetRepository;
+import com.budgettracker.repository.InvestmentRepository;
+import com.budgettracker.repository.TransactionRepository;
+import com.budgettracker.repository.UserRepository;
+import com.budgettracker.support.SqlBudget;
+import com.budgettracker.support.SqlBudgetTest;
+import com.budgettracker.support.SqlStatementCounter;
+import com.budgettracker.util.JwtUtil;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-endpoint SQL statement budgets.
+ *
+ * Budgets are set from measured counts with the seeded data below. A budget
+ * failure means a change added queries to the endpoint (typically a query per
+ * row); tighten the budget when a change removes them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@SqlBudgetTest
+class SqlBudgetIntegrationTest {
+
+    private static final int BUDGETS = 8;
+    private static final int TRANSACTIONS = 40;
+    private static final int INVESTMENTS = 6;
+    private static final int USERS = 30;
+    private static final int USER_PAGE = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String authToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("sqlbudgetuser");
+        user.setEmail("sqlbudget@example.com");
+        user.setPassword(passwordEncoder.encode("password"));
+        user.setMonthlyIncome(new BigDecimal("6000.00"));
+        user.setCurrentSavings(new BigDecimal("15000.00"));
+        user = userRepository.save(user);
+        authToken = "Bearer " + jwtUtil.generateToken(user);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < BUDGETS; i++) {
+            Budget budget = new Budget();
+            budget.setUser(user);
+            budget.setCategory("Category " + i);
+            budget.setBudgetAmount(new BigDecimal("500.00"));
+            budget.setMonth(now.getMonthValue());
+            budget.setYear(now.getYear());
+            budgetRepository.save(budget);
+        }
+
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setUser(user);
+            transaction.setTitle("Transaction " + i);
+            transaction.setDescription("Seeded transaction " + i);
+            transaction.setCategory("Category " + (i % BUDGETS));
+            transaction.setAmount(new BigDecimal("25.00").add(BigDecimal.valueOf(i)));
+            transaction.setType(i % 10 == 0 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE);
+            transaction.setTransactionDate(now.minusDays(i % 28));
+            transactionRepository.save(transaction);
+        }
+
+        for (int i = 0; i < INVESTMENTS; i++) {
+            Investment investment = new Investment();
+            investment.setUser(user);
+            investment.setSymbol("SYM" + i);
+            investment.setName("Holding " + i);
+            investment.setType(Investment.InvestmentType.STOCK);
+            investment.setQuantity(new BigDecimal("10"));
+            investment.setPurchasePrice(new BigDecimal("100.00"));
+            investment.setCurrentPrice(new BigDecimal("110.00"));
+            investment.setPurchaseDate(LocalDate.now().minusYears(1));
+            investmentRepository.save(investment);
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            User other = new User();
+            other.setUsername("sqlbudgetother" + i);
+            other.setEmail("sqlbudgetother" + i + "@example.com");
+            other.setPassword("password");
+            other.setMonthlyIncome(new BigDecimal("1000.00"));
+            userRepository.save(other);
+        }
+        User admin = new User();
+        admin.setUsername("sqlbudgetadmin");
+        admin.setEmail("sqlbudgetadmin@example.com");
+        admin.setPassword("password");
+        admin.setRole(Role.ADMIN);
+        adminToken = "Bearer " + jwtUtil.generateToken(userRepository.save(admin));
+
+        // Start every request with an empty persistence context, as a real request would
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void currentMonthBudgets_ShouldStayWithinSqlBudget() throws Exception {
+        // Spent amounts are still recalculated with one transaction scan per budget
+        expectWithin("GET /api/budgets/current-month",
+                SqlBudget.statements(BUDGETS + 3).repeats(BUDGETS), "/api/budgets/current-month");
+    }
+
+    @Test
+    void transactionList_ShouldStayWithinSqlBudget() throws Exception {
+        expectWithin("GET /api/transactions",
+                SqlBudget.statements(3).rows(TRANSACTIONS + 2).repeats(2), "/api/transactions");
+    }
+
+    @Test
+    void analyticsDashboard_ShouldStayWithinSqlBudget() throws Exception {
+        // The user is resolved once by the security filter and once shared by all sections
+        expectWithin("GET /api/analytics/dashboard",
+                SqlBudget.statements(12).repeats(2), "/api/analytics/dashboard");
+    }
+
+    @Test
+    void financialHealthScore_ShouldStayWithinSqlBudget() throws Exception {
+        expectWithin("GET /api/financial-health/score",
+                SqlBudget.statements(18).repeats(5), "/api/financial-health/score");
+    }
+
+    @Test
+    void portfolioSummary_ShouldStayWithinSqlBudget() throws Exception {
+        expectWithin("GET /api/investments/portfolio/summary",
+                SqlBudget.statements(3).rows(INVESTMENTS + 2).repeats(2), "/api/investments/portfolio/summary");
+    }
+
+    @Test
+    void adminDashboardStats_ShouldNotLoadEveryUser() throws Exception {
+        expectWithin("GET /api/admin/dashboard/stats", SqlBudget.statements(2).rows(2).repeats(1),
+                "/api/admin/dashboard/stats", adminToken);
+    }
+
+    @Test
+    void adminUserPage_ShouldReadOnlyOnePage() throws Exception {
+        expectWithin("GET /api/admin/users", SqlBudget.statements(2).rows(USER_PAGE + 2).repeats(1),
+                "/api/admin/users?sort=username&search=other&cursor=sqlbudgetother1&limit=" + USER_PAGE, adminToken);
+    }
+
+    private void expectWithin(String label, SqlBudget budget, String url) throws Exception {
+        expectWithin(label, budget, url, authToken);
+    }
+
+    private void expectWithin(String label, SqlBudget budget, String url, String token) throws Exception {
+        sqlStatementCounter.measure(label, budget, () ->
+                mockMvc.perform(get(url).header("Authorization", token))
+                        .andExpect(status().isOk()));
+    }
+}
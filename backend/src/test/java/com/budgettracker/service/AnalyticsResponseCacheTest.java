@@ -0,0 +1,112 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AnalyticsResponseCacheTest {
+
+    private final UserDataVersions userDataVersions = new UserDataVersions(mock(JdbcTemplate.class),
+            mock(PlatformTransactionManager.class));
+    private final AnalyticsResponseCache cache = new AnalyticsResponseCache(userDataVersions, new ObjectMapper(), 2);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        signIn(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void respond_RepeatedRequest_ShouldServeStoredJsonBytesWithoutReloading() {
+        ResponseEntity<?> first = cache.respond("summary", this::load);
+        ResponseEntity<?> second = cache.respond("summary", this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(MediaType.APPLICATION_JSON, second.getHeaders().getContentType());
+        assertSame(first.getBody(), second.getBody());
+        assertEquals("{\"loads\":1}", new String((byte[]) second.getBody(), StandardCharsets.UTF_8));
+        assertEquals(1L, cache.getHitCount());
+    }
+
+    @Test
+    void get_AfterUserDataVersionChanges_ShouldReload() {
+        cache.get("summary", this::load);
+        // The next request's user is loaded with the version the write committed
+        signIn(7L, 1L);
+        Map<String, Object> reloaded = cache.get("summary", this::load);
+
+        assertEquals(2, reloaded.get("loads"));
+        assertEquals(2L, cache.getMissCount());
+    }
+
+    @Test
+    void get_SameEndpointForAnotherUser_ShouldNotShareEntry() {
+        cache.get("summary", this::load);
+        signIn(8L);
+        cache.get("summary", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void respond_WithoutApplicationUser_ShouldBypassCache() {
+        SecurityContextHolder.clearContext();
+
+        ResponseEntity<?> response = cache.respond("summary", this::load);
+        cache.respond("summary", this::load);
+
+        assertEquals(2, loads.get());
+        assertInstanceOf(Map.class, response.getBody());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_BeyondMaxEntries_ShouldEvictLeastRecentlyUsed() {
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.get("a", this::load);
+        cache.get("c", this::load);
+        cache.get("a", this::load);
+
+        assertEquals(3, loads.get());
+        assertEquals(1L, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+    }
+
+    private Map<String, Object> load() {
+        return Map.of("loads", loads.incrementAndGet());
+    }
+
+    private static void signIn(Long userId) {
+        signIn(userId, 0L);
+    }
+
+    private static void signIn(Long userId, Long dataVersion) {
+        User user = new User();
+        user.setId(userId);
+        user.setDataVersion(dataVersion);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
@@ -0,0 +1,162 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.BankAccount;
+import com.budgettracker.model.User;
+import com.budgettracker.repository.BankAccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BankSyncOrchestratorTest {
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private TransactionIngestor transactionIngestor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<BankAccount> accounts = new ArrayList<>();
+
+    @Test
+    void sync_ShouldWriteEachInstitutionInOneBatch() {
+        BankSyncOrchestrator orchestrator = orchestrator(new StubInstitutionProvider(0, Set.of(), 0, Set.of()),
+                4, 1000, 1000);
+        stubAccountLoads();
+        List<BankAccount> due = List.of(account(1L, "bank_a"), account(2L, "bank_a"), account(3L, "bank_a"),
+                account(4L, "bank_b"), account(5L, "bank_b"));
+
+        BankSyncOrchestrator.SyncReport report = orchestrator.sync(due);
+
+        assertEquals(5, report.getSynced());
+        assertTrue(report.getFailedAccountIds().isEmpty());
+        for (BankAccount account : due) {
+            assertNotNull(account.getLastSyncAt());
+            assertEquals(account.getCurrentBalance(), account.getAvailableBalance());
+        }
+        verify(bankAccountRepository, times(2)).findAllById(any());
+        assertEquals(2, meterRegistry.get("bank.sync.request").tag("institution", "bank_b").tag("request", "balance")
+                .tag("outcome", "OK").timer().count());
+    }
+
+    @Test
+    void sync_SlowInstitution_ShouldNotHoldUpOthersAndDeferWhatDoesNotFit() {
+        BankSyncOrchestrator orchestrator = orchestrator(new StubInstitutionProvider(0, Set.of("slow"), 1000, Set.of()),
+                1, 100, 200);
+        stubAccountLoads();
+        List<BankAccount> due = List.of(account(1L, "slow"), account(2L, "slow"), account(3L, "slow"),
+                account(4L, "fast"), account(5L, "fast"));
+
+        long started = System.nanoTime();
+        BankSyncOrchestrator.SyncReport report = orchestrator.sync(due);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertTrue(elapsedMillis < 800, "took " + elapsedMillis + " ms");
+        assertEquals(2, report.getSynced());
+        assertEquals(1, report.getTimedOut());
+        assertEquals(2, report.getDeferred());
+        assertNull(due.get(0).getLastSyncAt());
+        assertNotNull(due.get(3).getLastSyncAt());
+        // The timed-out call still holds the slow institution's only permit
+        assertEquals(1, meterRegistry.get("bank.sync.backlog").tag("institution", "slow").gauge().value());
+        assertEquals(2, meterRegistry.get("bank.sync.deferred").tag("institution", "slow").counter().count());
+    }
+
+    @Test
+    void sync_FailingInstitution_ShouldReportItsAccountsAsFailed() {
+        BankSyncOrchestrator orchestrator = orchestrator(new StubInstitutionProvider(0, Set.of(), 0, Set.of("down")),
+                4, 1000, 1000);
+        stubAccountLoads();
+
+        BankSyncOrchestrator.SyncReport report = orchestrator.sync(List.of(
+                account(1L, "down"), account(2L, "down"), account(3L, "up")));
+
+        assertEquals(1, report.getSynced());
+        assertEquals(Set.of(1L, 2L), Set.copyOf(report.getFailedAccountIds()));
+        verify(bankAccountRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void sync_CommitFails_ShouldNotCountTheBatchAsSynced() {
+        BankSyncOrchestrator orchestrator = orchestrator(new StubInstitutionProvider(0, Set.of(), 0, Set.of()),
+                4, 1000, 1000);
+        stubAccountLoads();
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+
+        BankSyncOrchestrator.SyncReport report = orchestrator.sync(List.of(account(1L, "bank_a"), account(2L, "bank_a")));
+
+        assertEquals(0, report.getSynced());
+        assertEquals(Set.of(1L, 2L), Set.copyOf(report.getFailedAccountIds()));
+    }
+
+    @Test
+    void sync_ShouldImportEachConnectionsTransactionsFromItsCursor() {
+        BankSyncOrchestrator orchestrator = orchestrator(new StubInstitutionProvider(0, Set.of(), 0, Set.of()),
+                4, 1000, 1000);
+        stubAccountLoads();
+        BankAccount account = account(1L, "bank_a");
+        TransactionIngestor.Connection connection = new TransactionIngestor.Connection(100L, 7L,
+                LocalDate.now().minusDays(3).toString(), List.of(account));
+        when(transactionIngestor.connectionsFor("bank_a", Set.of(100L))).thenReturn(List.of(connection));
+        when(transactionIngestor.ingest(eq(connection), any())).thenReturn(2);
+
+        BankSyncOrchestrator.SyncReport report = orchestrator.sync(List.of(account));
+
+        assertEquals(1, report.getSynced());
+        assertEquals(2, report.getTransactionsCreated());
+        ArgumentCaptor<InstitutionProvider.TransactionFeed> feed =
+                ArgumentCaptor.forClass(InstitutionProvider.TransactionFeed.class);
+        verify(transactionIngestor).ingest(eq(connection), feed.capture());
+        assertEquals(LocalDate.now().toString(), feed.getValue().getNextCursor());
+        assertTrue(feed.getValue().getTransactions().stream()
+                .noneMatch(row -> row.getDate().isBefore(LocalDate.now().minusDays(3))));
+    }
+
+    private BankSyncOrchestrator orchestrator(InstitutionProvider provider, int perInstitution,
+                                              long requestTimeoutMillis, long institutionTimeoutMillis) {
+        return new BankSyncOrchestrator(bankAccountRepository, transactionIngestor, provider, meterRegistry,
+                transactionManager, 8, perInstitution, requestTimeoutMillis, institutionTimeoutMillis, 100, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubAccountLoads() {
+        when(bankAccountRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return accounts.stream().filter(account -> ids.contains(account.getId())).toList();
+        });
+    }
+
+    private BankAccount account(Long id, String institutionId) {
+        User user = new User();
+        user.setId(100L);
+        BankAccount account = new BankAccount(user, "Checking " + id, institutionId, "000" + id,
+                BankAccount.AccountType.CHECKING);
+        account.setId(id);
+        account.setInstitutionId(institutionId);
+        account.setExternalAccountId("ext_" + id);
+        account.setCurrentBalance(new BigDecimal("1000.00"));
+        accounts.add(account);
+        return account;
+    }
+}
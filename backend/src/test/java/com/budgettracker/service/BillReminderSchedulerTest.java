@@ -0,0 +1,60 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.Bill;
+import com.budgettracker.model.BillReminderEvent;
+import com.budgettracker.model.BillReminderEvent.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BillReminderSchedulerTest {
+
+    private static final LocalTime EIGHT = LocalTime.of(8, 0);
+
+    @Test
+    void plan_UpcomingBill_ShouldScheduleReminderDueAndOverdue() {
+        Bill bill = bill(LocalDate.of(2025, 3, 10));
+
+        List<BillReminderEvent> events = BillReminderScheduler.plan(bill, LocalDate.of(2025, 3, 1), EIGHT);
+
+        assertEquals(List.of(EventType.REMINDER, EventType.DUE, EventType.OVERDUE),
+                events.stream().map(BillReminderEvent::getType).toList());
+        assertEquals(LocalDate.of(2025, 3, 7).atTime(EIGHT), events.get(0).getFireAt());
+        assertEquals(LocalDate.of(2025, 3, 10).atTime(EIGHT), events.get(1).getFireAt());
+        assertEquals(LocalDate.of(2025, 3, 11).atTime(EIGHT), events.get(2).getFireAt());
+    }
+
+    @Test
+    void plan_OverdueBill_ShouldRemindAboutFollowingOccurrence() {
+        Bill bill = bill(LocalDate.of(2025, 1, 31));
+
+        List<BillReminderEvent> events = BillReminderScheduler.plan(bill, LocalDate.of(2025, 2, 20), EIGHT);
+
+        assertEquals(3, events.size());
+        assertEquals(LocalDate.of(2025, 2, 28), events.get(0).getOccurrenceDate());
+        assertEquals(LocalDate.of(2025, 2, 25).atTime(EIGHT), events.get(0).getFireAt());
+        assertEquals(EventType.OVERDUE, events.get(2).getType());
+        assertEquals(LocalDate.of(2025, 1, 31), events.get(2).getOccurrenceDate());
+    }
+
+    @Test
+    void plan_PaidOffBill_ShouldScheduleNothing() {
+        Bill bill = bill(LocalDate.of(2025, 3, 10));
+        bill.setStatus(Bill.BillStatus.PAID_OFF);
+
+        assertTrue(BillReminderScheduler.plan(bill, LocalDate.of(2025, 3, 1), EIGHT).isEmpty());
+    }
+
+    private static Bill bill(LocalDate dueDate) {
+        Bill bill = new Bill(1L, "Rent", new BigDecimal("1200.00"), "Housing", Bill.BillFrequency.MONTHLY, dueDate);
+        bill.setId(7L);
+        bill.setNextDueDate(dueDate);
+        bill.setReminderDaysBefore(3);
+        return bill;
+    }
+}
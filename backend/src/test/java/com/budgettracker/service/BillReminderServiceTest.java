@@ -3,9 +3,11 @@ package com.budgettracker.service;
 import com.budgettracker.dto.*;
 import com.budgettracker.model.Bill;
 import com.budgettracker.model.BillPayment;
+import com.budgettracker.model.Debt;
 import com.budgettracker.model.Transaction;
 import com.budgettracker.repository.BillRepository;
 import com.budgettracker.repository.BillPaymentRepository;
+import com.budgettracker.repository.DebtRepository;
 import com.budgettracker.repository.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,9 +15,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -36,6 +40,15 @@ class BillReminderServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private DebtRepository debtRepository;
+
+    @Mock
+    private BankIntegrationService bankIntegrationService;
+
+    @Mock
+    private BillReminderScheduler billReminderScheduler;
+
     @InjectMocks
     private BillReminderService billReminderService;
 
@@ -98,6 +111,7 @@ class BillReminderServiceTest {
         assertEquals("Utilities", result.getCategory());
         assertEquals(Bill.BillFrequency.MONTHLY, result.getFrequency());
         verify(billRepository).save(any(Bill.class));
+        verify(billReminderScheduler).schedule(testBill);
     }
 
     @Test
@@ -182,7 +196,7 @@ class BillReminderServiceTest {
         LocalDate startDate = LocalDate.now();
         LocalDate endDate = LocalDate.now().plusDays(30);
         List<Bill> bills = Arrays.asList(testBill);
-        when(billRepository.findBillsDueInDateRange(1L, startDate, endDate)).thenReturn(bills);
+        when(billRepository.findScheduledBillsStartingBy(1L, endDate)).thenReturn(bills);
 
         // Act
         List<BillResponse> result = billReminderService.getBillsDueInRange(1L, startDate, endDate);
@@ -190,7 +204,7 @@ class BillReminderServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(billRepository).findBillsDueInDateRange(1L, startDate, endDate);
+        verify(billRepository).findScheduledBillsStartingBy(1L, endDate);
     }
 
     @Test
@@ -232,8 +246,7 @@ class BillReminderServiceTest {
         // Arrange
         testBill.setNextDueDate(LocalDate.now().plusDays(5));
         List<Bill> bills = Arrays.asList(testBill);
-        when(billRepository.findBillsDueWithinDays(eq(1L), any(LocalDate.class), any(LocalDate.class)))
-            .thenReturn(bills);
+        when(billRepository.findScheduledBillsStartingBy(eq(1L), any(LocalDate.class))).thenReturn(bills);
 
         // Act
         List<BillResponse> result = billReminderService.getBillsDueWithinDays(1L, 7);
@@ -241,7 +254,7 @@ class BillReminderServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(billRepository).findBillsDueWithinDays(eq(1L), any(LocalDate.class), any(LocalDate.class));
+        verify(billRepository).findScheduledBillsStartingBy(eq(1L), any(LocalDate.class));
     }
 
     @Test
@@ -255,6 +268,7 @@ class BillReminderServiceTest {
         // Assert
         verify(billRepository).findById(1L);
         verify(billRepository).delete(testBill);
+        verify(billReminderScheduler).cancel(1L);
     }
 
     @Test
@@ -345,7 +359,7 @@ class BillReminderServiceTest {
         List<Bill> bills = Arrays.asList(testBill);
         List<Transaction> transactions = Arrays.asList();
 
-        when(billRepository.findBillsDueInDateRange(1L, startDate, endDate)).thenReturn(bills);
+        when(billRepository.findScheduledBillsStartingBy(1L, endDate)).thenReturn(bills);
         when(transactionRepository.findByUserIdAndDateBetween(eq(1L), any(LocalDate.class), any(LocalDate.class)))
             .thenReturn(transactions);
 
@@ -358,7 +372,142 @@ class BillReminderServiceTest {
         assertEquals(endDate, result.getEndDate());
         assertNotNull(result.getUpcomingBills());
         assertEquals(1, result.getUpcomingBills().size());
-        verify(billRepository).findBillsDueInDateRange(1L, startDate, endDate);
+        verify(billRepository).findScheduledBillsStartingBy(1L, endDate);
+    }
+
+    @Test
+    void calculateCashFlowProjection_PastStartDate_ShouldStartFromTodaysBalance() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        LocalDate endDate = today.plusDays(10);
+        testBill.setAmount(new BigDecimal("100.00"));
+        testBill.setDueDate(today.minusDays(5));
+        testBill.setNextDueDate(today.minusDays(5));
+
+        when(bankIntegrationService.getTotalAccountBalance(1L)).thenReturn(new BigDecimal("1000.00"));
+        when(billRepository.findScheduledBillsStartingBy(1L, endDate)).thenReturn(Arrays.asList(testBill));
+        when(transactionRepository.findByUserIdAndDateBetween(eq(1L), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(Arrays.asList());
+
+        // Act
+        CashFlowProjectionResponse result =
+            billReminderService.calculateCashFlowProjection(1L, today.minusDays(20), endDate);
+
+        // Assert: the bill due before today is unpaid, so it is paid out of today's balance
+        assertEquals(today, result.getStartDate());
+        assertEquals(1, result.getUpcomingBills().size());
+        assertEquals(today.minusDays(5), result.getUpcomingBills().get(0).getDueDate());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(result.getStartingBalance()));
+        assertEquals(0, new BigDecimal("900.00").compareTo(result.getProjectedEndingBalance()));
+    }
+
+    @Test
+    void calculateCashFlowProjection_OverdueBill_ShouldPostEveryMissedOccurrenceToday() {
+        // Arrange: a weekly bill last due 15, 8 and 1 days ago, none of them paid
+        LocalDate today = LocalDate.now();
+        LocalDate endDate = today.plusDays(10);
+        testBill.setAmount(new BigDecimal("20.00"));
+        testBill.setFrequency(Bill.BillFrequency.WEEKLY);
+        testBill.setDueDate(today.minusDays(15));
+        testBill.setNextDueDate(today.minusDays(15));
+        testBill.setStatus(Bill.BillStatus.OVERDUE);
+
+        when(bankIntegrationService.getTotalAccountBalance(1L)).thenReturn(new BigDecimal("1000.00"));
+        when(billRepository.findScheduledBillsStartingBy(1L, endDate)).thenReturn(Arrays.asList(testBill));
+        when(transactionRepository.findByUserIdAndDateBetween(eq(1L), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(Arrays.asList());
+
+        // Act
+        CashFlowProjectionResponse result = billReminderService.calculateCashFlowProjection(1L, today, endDate);
+
+        // Assert: three overdue occurrences on day 0, then the one due in 6 days
+        assertEquals(4, result.getUpcomingBills().size());
+        assertEquals(today.minusDays(15), result.getUpcomingBills().get(0).getDueDate());
+        assertEquals(4, result.getCashFlowItems().size());
+        assertEquals(3, result.getCashFlowItems().stream().filter(item -> today.equals(item.getDate())).count());
+        assertEquals(0, new BigDecimal("940.00").compareTo(result.getCashFlowItems().get(2).getRunningBalance()));
+        assertEquals(0, new BigDecimal("80.00").compareTo(result.getTotalBillPayments()));
+        assertEquals(0, new BigDecimal("920.00").compareTo(result.getProjectedEndingBalance()));
+    }
+
+    @Test
+    void calculateCashFlowProjection_EndDateInThePast_ShouldBeRejected() {
+        LocalDate today = LocalDate.now();
+
+        assertThrows(IllegalArgumentException.class, () ->
+            billReminderService.calculateCashFlowProjection(1L, today.minusDays(30), today.minusDays(1)));
+    }
+
+    @Test
+    void calculateCashFlowProjection_ShouldIncludeEveryRecurrenceInRange() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2030, 1, 1);
+        LocalDate endDate = LocalDate.of(2030, 12, 31);
+        testBill.setDueDate(LocalDate.of(2030, 1, 15));
+        testBill.setNextDueDate(LocalDate.of(2030, 1, 15));
+        Bill weeklyBill = new Bill();
+        weeklyBill.setId(2L);
+        weeklyBill.setName("Cleaning");
+        weeklyBill.setAmount(new BigDecimal("20.00"));
+        weeklyBill.setFrequency(Bill.BillFrequency.WEEKLY);
+        weeklyBill.setDueDate(LocalDate.of(2030, 1, 4));
+        weeklyBill.setNextDueDate(LocalDate.of(2030, 1, 4));
+
+        when(billRepository.findScheduledBillsStartingBy(1L, endDate)).thenReturn(Arrays.asList(testBill, weeklyBill));
+        when(transactionRepository.findByUserIdAndDateBetween(eq(1L), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(Arrays.asList());
+
+        // Act
+        CashFlowProjectionResponse result = billReminderService.calculateCashFlowProjection(1L, startDate, endDate);
+
+        // Assert: 12 monthly and 52 weekly occurrences, in date order
+        assertEquals(64, result.getUpcomingBills().size());
+        assertEquals(new BigDecimal("2840.00"), result.getTotalBillPayments());
+        assertEquals(LocalDate.of(2030, 1, 4), result.getUpcomingBills().get(0).getDueDate());
+        assertEquals(LocalDate.of(2030, 1, 15), result.getUpcomingBills().get(2).getDueDate());
+        assertEquals(64, result.getCashFlowItems().size());
+    }
+
+    @Test
+    void calculateCashFlowProjection_ShouldSimulateBalanceFromAccountsIncomeAndDebts() {
+        // Arrange: salary every 14 days in the last six months, one debt, no bills
+        LocalDate today = LocalDate.now();
+        LocalDate endDate = today.plusMonths(24);
+        List<Transaction> history = new ArrayList<>();
+        for (LocalDate payday = today.minusDays(2); payday.isAfter(today.minusMonths(6)); payday = payday.minusDays(14)) {
+            history.add(transaction("Payroll", "Salary", "2000.00", Transaction.TransactionType.INCOME, payday));
+        }
+        history.add(transaction("Concert tickets", "Entertainment", "183.00", Transaction.TransactionType.EXPENSE, today.minusDays(40)));
+        Debt card = new Debt();
+        card.setName("Credit card");
+        card.setCurrentBalance(new BigDecimal("250.00"));
+        card.setMinimumPayment(new BigDecimal("100.00"));
+        card.setDueDate(31);
+
+        when(bankIntegrationService.getTotalAccountBalance(1L)).thenReturn(new BigDecimal("50.00"));
+        when(billRepository.findScheduledBillsStartingBy(1L, endDate)).thenReturn(List.of());
+        when(transactionRepository.findByUserIdAndDateBetween(eq(1L), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(history);
+        when(debtRepository.findByUserIdAndStatus(1L, Debt.DebtStatus.ACTIVE)).thenReturn(List.of(card));
+        ReflectionTestUtils.setField(billReminderService, "lowBalanceThreshold", new BigDecimal("100.00"));
+
+        // Act
+        long started = System.nanoTime();
+        CashFlowProjectionResponse result = billReminderService.calculateCashFlowProjection(1L, today, endDate);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        // Assert
+        assertEquals(new BigDecimal("50.00"), result.getStartingBalance());
+        long paydays = result.getCashFlowItems().stream().filter(item -> "INCOME".equals(item.getType())).count();
+        assertTrue(paydays >= 52 && paydays <= 53, "Bi-weekly salary should recur for 24 months: " + paydays);
+        List<CashFlowProjectionResponse.CashFlowItem> debtPayments = result.getCashFlowItems().stream()
+            .filter(item -> "DEBT_PAYMENT".equals(item.getType())).toList();
+        assertEquals(3, debtPayments.size());
+        assertEquals(new BigDecimal("-50.00"), debtPayments.get(2).getAmount());
+        assertTrue(result.getLowBalanceDays() > 0, "Starting below the threshold should be reported");
+        assertEquals(today, result.getLowBalanceDates().get(0));
+        assertTrue(result.getProjectedEndingBalance().compareTo(new BigDecimal("100000")) > 0);
+        assertTrue(elapsedMs < 500, "24-month projection took " + elapsedMs + " ms");
     }
 
     @Test
@@ -434,4 +583,15 @@ class BillReminderServiceTest {
         assertTrue(response.getNeedsReminder());
         assertEquals(2, response.getDaysUntilDue().intValue());
     }
-}
\ No newline at end of file
+
+    private static Transaction transaction(String title, String category, String amount,
+                                           Transaction.TransactionType type, LocalDate date) {
+        Transaction transaction = new Transaction();
+        transaction.setTitle(title);
+        transaction.setCategory(category);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setType(type);
+        transaction.setTransactionDate(date.atTime(9, 0));
+        return transaction;
+    }
+}
@@ -0,0 +1,55 @@
+package com.budgettracker.service;
+
+import com.budgettracker.dto.CashFlowProjectionResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CashFlowSimulatorTest {
+
+    private static final LocalDate DAY_ONE = LocalDate.of(2031, 6, 1);
+
+    @Test
+    void projectInto_ShouldReportLowestBalanceAndEachLowBalanceStretch() {
+        CashFlowSimulator simulator = new CashFlowSimulator(DAY_ONE, DAY_ONE, DAY_ONE.plusDays(9), 50_000);
+        simulator.add(DAY_ONE.plusDays(2), -45_000, "Rent", CashFlowSimulator.BILL);
+        simulator.add(DAY_ONE.plusDays(4), 60_000, "Salary", CashFlowSimulator.INCOME);
+        simulator.add(DAY_ONE.plusDays(7), -62_000, "Car repair", CashFlowSimulator.EXPENSE);
+        simulator.setDailyDiscretionaryCents(1_000);
+
+        CashFlowProjectionResponse projection = new CashFlowProjectionResponse();
+        simulator.projectInto(projection, 10_000);
+
+        // Closing balances: 490, 480, 20, 10, 600, 590, 580, -50, -60, -70
+        assertEquals(new BigDecimal("-70.00"), projection.getProjectedEndingBalance());
+        assertEquals(new BigDecimal("-70.00"), projection.getLowestBalance());
+        assertEquals(DAY_ONE.plusDays(9), projection.getLowestBalanceDate());
+        assertEquals(List.of(DAY_ONE.plusDays(2), DAY_ONE.plusDays(7)), projection.getLowBalanceDates());
+        assertEquals(5, projection.getLowBalanceDays());
+        assertEquals(new BigDecimal("600.00"), projection.getTotalIncome());
+        assertEquals(new BigDecimal("720.00"), projection.getTotalExpenses());
+        assertEquals(new BigDecimal("450.00"), projection.getTotalBillPayments());
+        assertEquals(new BigDecimal("-570.00"), projection.getNetCashFlow());
+        assertEquals(new BigDecimal("20.00"), projection.getCashFlowItems().get(0).getRunningBalance());
+    }
+
+    @Test
+    void projectInto_ReportStartingLater_ShouldCarryEarlierFlowsIntoStartingBalance() {
+        CashFlowSimulator simulator = new CashFlowSimulator(DAY_ONE, DAY_ONE.plusDays(3), DAY_ONE.plusDays(5), 10_000);
+        simulator.add(DAY_ONE.plusDays(1), 5_000, "Refund", CashFlowSimulator.INCOME);
+        simulator.add(DAY_ONE.plusDays(4), -2_000, "Gym", CashFlowSimulator.EXPENSE);
+
+        CashFlowProjectionResponse projection = new CashFlowProjectionResponse();
+        simulator.projectInto(projection, 0);
+
+        assertEquals(new BigDecimal("150.00"), projection.getStartingBalance());
+        assertEquals(new BigDecimal("0.00"), projection.getTotalIncome());
+        assertEquals(1, projection.getCashFlowItems().size());
+        assertEquals(new BigDecimal("130.00"), projection.getProjectedEndingBalance());
+        assertTrue(projection.getLowBalanceDates().isEmpty());
+    }
+}
@@ -0,0 +1,143 @@
+package com.budgettracker.service;
+
+import com.budgettracker.service.DashboardComposer.Composition;
+import com.budgettracker.service.DashboardComposer.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardComposerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DashboardComposer composer = new DashboardComposer(meterRegistry, 200, 4, false);
+
+    @Test
+    void compose_AllSectionsSucceed_ShouldReturnValuesInOrder() {
+        Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+        sections.put("first", () -> Map.of("value", 1));
+        sections.put("second", () -> Map.of("value", 2));
+
+        Composition composition = composer.compose(sections);
+
+        assertTrue(composition.isComplete());
+        assertEquals(Map.of("value", 2), composition.get("second"));
+        assertEquals(List.of("first", "second"), List.copyOf(composition.getReport().keySet()));
+        assertEquals(Status.OK, composition.getReport().get("first").get("status"));
+    }
+
+    @Test
+    void compose_SectionsRunConcurrently_ShouldNotWaitForEachOther() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+        sections.put("first", () -> awaitOther(bothStarted));
+        sections.put("second", () -> awaitOther(bothStarted));
+
+        Composition composition = composer.compose(sections);
+
+        assertTrue(composition.isComplete());
+    }
+
+    @Test
+    void compose_SlowAndFailingSections_ShouldReturnPartialResult() {
+        Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+        sections.put("fast", () -> Map.of("value", 1));
+        sections.put("slow", () -> {
+            sleep(2000);
+            return Map.of("value", 2);
+        });
+        sections.put("broken", () -> {
+            throw new RuntimeException("Section unavailable");
+        });
+
+        long started = System.nanoTime();
+        Composition composition = composer.compose(sections);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertFalse(composition.isComplete());
+        assertTrue(elapsedMs < 2000, "Composition should not wait past the section deadline");
+        assertEquals(Map.of("value", 1), composition.get("fast"));
+        assertNull(composition.get("slow"));
+        assertEquals(Status.TIMEOUT, composition.getReport().get("slow").get("status"));
+        assertEquals(Status.FAILED, composition.getReport().get("broken").get("status"));
+        assertEquals("Section unavailable", composition.getReport().get("broken").get("error"));
+        assertEquals(1, meterRegistry.get("analytics.dashboard.section")
+                .tags("section", "slow", "status", "TIMEOUT").timer().count());
+    }
+
+    @Test
+    void compose_AllSlotsHeldBySlowSections_ShouldStillReturnByTheDeadline() {
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, Supplier<?>> slow = new LinkedHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            slow.put("slow" + i, () -> {
+                await(release);
+                return Map.of();
+            });
+        }
+        try {
+            assertFalse(composer.compose(slow).isComplete());
+
+            // The timed-out sections still hold every slot
+            Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+            sections.put("fast", () -> Map.of("value", 1));
+            long started = System.nanoTime();
+            Composition composition = composer.compose(sections);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            assertTrue(elapsedMs < 1000, "Waiting for a slot should end at the section deadline");
+            assertEquals(Status.TIMEOUT, composition.getReport().get("fast").get("status"));
+        } finally {
+            release.countDown();
+        }
+
+        Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+        sections.put("fast", () -> Map.of("value", 1));
+        assertTrue(waitForSlots(sections), "Slots should be released once the slow sections return");
+    }
+
+    private static Object awaitOther(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            if (!bothStarted.await(1, TimeUnit.SECONDS)) {
+                throw new RuntimeException("Sections ran one after another");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        return Map.of();
+    }
+
+    private boolean waitForSlots(Map<String, Supplier<?>> sections) {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            if (composer.compose(sections).isComplete()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
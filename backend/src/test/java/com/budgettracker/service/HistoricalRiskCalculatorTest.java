@@ -0,0 +1,149 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.Investment;
+import com.budgettracker.model.Investment.InvestmentType;
+import com.budgettracker.service.PortfolioValuationEngine.HoldingValuation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoricalRiskCalculatorTest {
+
+    private final HistoricalRiskCalculator calculator = new HistoricalRiskCalculator(365, 20, 0.8);
+    private final LocalDate asOf = LocalDate.of(2025, 6, 30);
+
+    @Test
+    void priceSeries_ShouldRoundTripAndReplaceSameDayClose() {
+        PriceSeries series = new PriceSeries();
+        LocalDate start = LocalDate.of(2025, 1, 2);
+
+        assertTrue(series.append(start, new BigDecimal("101.2500")));
+        assertTrue(series.append(start.plusDays(1), new BigDecimal("99.10")));
+        assertTrue(series.append(start.plusDays(4), new BigDecimal("0.0042")));
+        assertTrue(series.append(start.plusDays(4), new BigDecimal("105.00")));
+        assertFalse(series.append(start.plusDays(1), new BigDecimal("98.00")));
+
+        PriceSeries.Window window = series.read(start, start.plusDays(10));
+        assertEquals(3, series.size());
+        assertArrayEquals(new double[]{101.25, 99.10, 105.00}, window.getCloses(), 1e-9);
+        assertEquals((int) start.plusDays(4).toEpochDay(), window.getEpochDays()[2]);
+        assertTrue(series.sizeInBytes() < 3 * 8);
+
+        PriceSeries.Window seeded = series.read(start.plusDays(2), start.plusDays(10));
+        assertTrue(seeded.isSeeded());
+        assertArrayEquals(new double[]{99.10, 105.00}, seeded.getCloses(), 1e-9);
+    }
+
+    @Test
+    void calculate_SingleHolding_ShouldMatchSampleVolatility() {
+        double[] closes = {100, 102, 101, 105, 103, 104, 108, 107, 106, 110,
+                           111, 109, 112, 115, 113, 114, 118, 117, 116, 120, 119, 121};
+        PriceSeries series = new PriceSeries();
+        LocalDate day = asOf.minusDays(closes.length - 1);
+        for (double close : closes) {
+            series.append(day, BigDecimal.valueOf(close));
+            day = day.plusDays(1);
+        }
+
+        HistoricalRiskCalculator.Result result = calculator.calculate(
+                List.of(holding("SPY", "10", "121")), Map.of("SPY", series), asOf);
+
+        double[] returns = new double[closes.length - 1];
+        double mean = 0.0;
+        for (int i = 1; i < closes.length; i++) {
+            returns[i - 1] = closes[i] / closes[i - 1] - 1.0;
+            mean += returns[i - 1] / returns.length;
+        }
+        double variance = 0.0;
+        for (double r : returns) {
+            variance += (r - mean) * (r - mean) / (returns.length - 1);
+        }
+
+        assertNotNull(result);
+        assertEquals(returns.length, result.getObservations());
+        assertEquals(Math.sqrt(variance * 252), result.getAnnualizedVolatility(), 1e-12);
+        assertEquals(mean * 252, result.getAnnualizedReturn(), 1e-12);
+        // Deepest peak-to-trough move is 105 -> 103
+        assertEquals(1.0 - 103.0 / 105.0, result.getMaxDrawdown(), 1e-9);
+        assertEquals(1.0, result.getCoveredWeight(), 1e-12);
+    }
+
+    @Test
+    void calculate_HoldingWithoutHistory_ShouldNotDiluteRiskOrCountBelowMinCoverage() {
+        PriceSeries series = new PriceSeries();
+        LocalDate day = asOf.minusDays(29);
+        for (int i = 0; i < 30; i++) {
+            series.append(day.plusDays(i), BigDecimal.valueOf(100 + (i % 2 == 0 ? i : -i) * 0.5));
+        }
+        Map<String, PriceSeries> history = Map.of("SPY", series);
+
+        HistoricalRiskCalculator.Result alone = calculator.calculate(
+                List.of(holding("SPY", "9", "100")), history, asOf);
+        HistoricalRiskCalculator.Result mostlyCovered = calculator.calculate(
+                List.of(holding("SPY", "9", "100"), holding("NEW", "1", "100")), history, asOf);
+
+        assertNotNull(mostlyCovered);
+        assertEquals(alone.getAnnualizedVolatility(), mostlyCovered.getAnnualizedVolatility(), 1e-12);
+        assertEquals(0.9, mostlyCovered.getCoveredWeight(), 1e-12);
+        assertNull(calculator.calculate(
+                List.of(holding("SPY", "1", "100"), holding("NEW", "1", "100")), history, asOf));
+    }
+
+    @Test
+    void calculate_TooLittleHistory_ShouldReturnNull() {
+        PriceSeries series = new PriceSeries();
+        series.append(asOf.minusDays(1), new BigDecimal("10"));
+        series.append(asOf, new BigDecimal("11"));
+
+        assertNull(calculator.calculate(List.of(holding("XYZ", "1", "11")), Map.of("XYZ", series), asOf));
+    }
+
+    @Test
+    void calculate_TwoHundredHoldings_ShouldProduceFullCovarianceRisk() {
+        Random random = new Random(42);
+        List<HoldingValuation> holdings = new ArrayList<>();
+        Map<String, PriceSeries> history = new HashMap<>();
+
+        for (int s = 0; s < 200; s++) {
+            String symbol = "SYM" + s;
+            PriceSeries series = new PriceSeries();
+            double price = 50 + random.nextInt(100);
+            for (LocalDate day = asOf.minusDays(364); !day.isAfter(asOf); day = day.plusDays(1)) {
+                if (day.getDayOfWeek().getValue() >= 6) {
+                    continue;
+                }
+                price *= 1.0 + random.nextGaussian() * 0.01;
+                series.append(day, BigDecimal.valueOf(price).setScale(4, java.math.RoundingMode.HALF_UP));
+            }
+            history.put(symbol, series);
+            holdings.add(holding(symbol, "10", BigDecimal.valueOf(price).setScale(2, java.math.RoundingMode.HALF_UP).toPlainString()));
+        }
+
+        HistoricalRiskCalculator.Result result = calculator.calculate(holdings, history, asOf);
+
+        assertNotNull(result);
+        assertTrue(result.getObservations() > 250);
+        // Independent 1% daily moves diversify to well under a single name's ~16% annual volatility
+        assertTrue(result.getAnnualizedVolatility() > 0.0);
+        assertTrue(result.getAnnualizedVolatility() < 0.05);
+    }
+
+    private static HoldingValuation holding(String symbol, String quantity, String price) {
+        Investment investment = new Investment();
+        investment.setSymbol(symbol);
+        investment.setName(symbol);
+        investment.setType(InvestmentType.STOCK);
+        investment.setQuantity(new BigDecimal(quantity));
+        investment.setPurchasePrice(new BigDecimal(price));
+        investment.setPurchaseDate(LocalDate.of(2024, 1, 2));
+        return new HoldingValuation(investment, new BigDecimal(price));
+    }
+}
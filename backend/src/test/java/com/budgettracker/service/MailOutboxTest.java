@@ -0,0 +1,91 @@
+package com.budgettracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailOutboxTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SmtpStandIn smtp;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new SmtpStandIn();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getPort());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void flush_ShouldSendQueuedMessagesInBatchesOverOneConnectionEach() throws MessagingException {
+        MailOutbox outbox = new MailOutbox(mailSender, meterRegistry, 4, 2, 3, 1000, 100, false);
+        for (int i = 0; i < 10; i++) {
+            outbox.enqueue(message(outbox, "Message " + i));
+        }
+
+        assertEquals(10, outbox.flush());
+
+        assertEquals(10, smtp.getMessages().size());
+        assertEquals(3, smtp.getConnections());
+        assertEquals(0, outbox.size());
+        assertEquals(10, meterRegistry.get("email.outbox.messages").tag("outcome", "sent").counter().count());
+    }
+
+    @Test
+    void flush_ConnectionRefused_ShouldRetryAfterBackoff() throws Exception {
+        MailOutbox outbox = new MailOutbox(mailSender, meterRegistry, 10, 1, 3, 50, 100, false);
+        outbox.enqueue(message(outbox, "Retried"));
+        smtp.refuseConnections(1);
+
+        assertEquals(0, outbox.flush());
+        assertEquals(1, outbox.size());
+        // Not due again until the backoff has passed
+        assertEquals(0, outbox.flush());
+
+        Thread.sleep(100);
+        assertEquals(1, outbox.flush());
+        assertTrue(smtp.getMessages().get(0).contains("Subject: Retried"));
+        assertEquals(1, meterRegistry.get("email.outbox.messages").tag("outcome", "retried").counter().count());
+    }
+
+    @Test
+    void flush_AlwaysFailing_ShouldDropAfterMaxAttempts() throws Exception {
+        MailOutbox outbox = new MailOutbox(mailSender, meterRegistry, 10, 1, 2, 1, 100, false);
+        outbox.enqueue(message(outbox, "Dropped"));
+        smtp.refuseConnections(5);
+
+        outbox.flush();
+        Thread.sleep(10);
+        outbox.flush();
+
+        assertEquals(0, outbox.size());
+        assertTrue(smtp.getMessages().isEmpty());
+        assertEquals(1, meterRegistry.get("email.outbox.messages").tag("outcome", "dropped").counter().count());
+    }
+
+    private static MimeMessage message(MailOutbox outbox, String subject) throws MessagingException {
+        MimeMessage message = outbox.createMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom("noreply@budgetwise.com");
+        helper.setTo("user@example.com");
+        helper.setSubject(subject);
+        helper.setText("Hello");
+        return message;
+    }
+}
@@ -0,0 +1,134 @@
+package com.budgettracker.service;
+
+import com.budgettracker.util.Futures;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataClientTest {
+
+    @Test
+    void getPrice_ConcurrentRequestsForSameSymbol_ShouldShareOneUpstreamCall() {
+        ControllableProvider provider = new ControllableProvider();
+        MarketDataClient client = new MarketDataClient(provider, 5_000, new CircuitBreaker(5, 30_000));
+
+        CompletableFuture<BigDecimal> first = client.getPrice("aapl");
+        CompletableFuture<BigDecimal> second = client.getPrice("AAPL ");
+        assertFalse(first.isDone());
+        assertEquals(1, provider.calls.get());
+
+        provider.pending.complete(new BigDecimal("189.84"));
+
+        assertEquals(new BigDecimal("189.84"), first.join());
+        assertEquals(new BigDecimal("189.84"), second.join());
+        assertEquals(1L, client.getStatistics().get("coalesced"));
+
+        // Once completed, the next request goes upstream again
+        provider.pending = new CompletableFuture<>();
+        client.getPrice("AAPL");
+        assertEquals(2, provider.calls.get());
+    }
+
+    @Test
+    void getPrice_SlowProvider_ShouldFailAtDeadline() {
+        ControllableProvider provider = new ControllableProvider();
+        MarketDataClient client = new MarketDataClient(provider, 50, new CircuitBreaker(5, 30_000));
+
+        CompletableFuture<BigDecimal> price = client.getPrice("MSFT");
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> price.orTimeout(5, TimeUnit.SECONDS).join());
+        assertTrue(Futures.unwrap(error).getMessage().contains("exceeded 50 ms"));
+        assertEquals(1L, client.getStatistics().get("timeouts"));
+    }
+
+    @Test
+    void getPrice_RepeatedFailures_ShouldOpenCircuitAndRecoverAfterTrial() {
+        ControllableProvider provider = new ControllableProvider();
+        AtomicLong now = new AtomicLong();
+        MarketDataClient client = new MarketDataClient(provider, 5_000,
+                new CircuitBreaker(2, 1_000, now::get));
+
+        provider.pending = CompletableFuture.failedFuture(new MarketDataProvider.UnavailableException("upstream 503"));
+        assertThrows(CompletionException.class, () -> client.getPrice("TSLA").join());
+        assertThrows(CompletionException.class, () -> client.getPrice("TSLA").join());
+        assertEquals("OPEN", client.getStatistics().get("circuitState"));
+
+        CompletionException rejected = assertThrows(CompletionException.class, () -> client.getPrice("TSLA").join());
+        assertTrue(Futures.unwrap(rejected).getMessage().contains("circuit open"));
+        assertEquals(2, provider.calls.get());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        provider.pending = CompletableFuture.completedFuture(new BigDecimal("177.48"));
+        assertEquals(new BigDecimal("177.48"), client.getPrice("TSLA").join());
+        assertEquals("CLOSED", client.getStatistics().get("circuitState"));
+    }
+
+    @Test
+    void getPrice_InvalidSymbols_ShouldFailWithoutOpeningCircuit() {
+        ControllableProvider provider = new ControllableProvider();
+        MarketDataClient client = new MarketDataClient(provider, 5_000, new CircuitBreaker(2, 30_000));
+
+        provider.pending = CompletableFuture.failedFuture(new RuntimeException("API Error: Invalid API call"));
+        for (String symbol : new String[] {"NOPE1", "NOPE2", "NOPE3"}) {
+            CompletionException error = assertThrows(CompletionException.class, () -> client.getPrice(symbol).join());
+            assertEquals("API Error: Invalid API call", Futures.unwrap(error).getMessage());
+        }
+
+        assertEquals("CLOSED", client.getStatistics().get("circuitState"));
+        assertEquals(0, client.getStatistics().get("consecutiveFailures"));
+        assertEquals(3, provider.calls.get());
+    }
+
+    @Test
+    void stubProvider_ShouldServeFileQuotesAndStableSyntheticPrices() {
+        StubMarketDataProvider stub = new StubMarketDataProvider(
+                new ClassPathResource("market-data/stub-quotes.csv"), 0);
+
+        assertEquals(new BigDecimal("189.84"), stub.fetchPrice("aapl").join());
+
+        Map<String, Object> quote = stub.fetchQuote("BND").join();
+        assertEquals(new BigDecimal("72.14"), quote.get("price"));
+        assertEquals(new BigDecimal("-0.06"), quote.get("change"));
+
+        BigDecimal synthetic = stub.fetchPrice("ZZZZ").join();
+        assertEquals(synthetic, stub.fetchPrice("zzzz").join());
+        assertTrue(synthetic.compareTo(new BigDecimal("10.00")) >= 0);
+        assertTrue(synthetic.compareTo(new BigDecimal("500.00")) <= 0);
+    }
+
+    private static final class ControllableProvider implements MarketDataProvider {
+        private final AtomicInteger calls = new AtomicInteger();
+        private CompletableFuture<BigDecimal> pending = new CompletableFuture<>();
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public CompletableFuture<BigDecimal> fetchPrice(String symbol) {
+            calls.incrementAndGet();
+            return pending;
+        }
+
+        @Override
+        public CompletableFuture<Map<String, Object>> fetchQuote(String symbol) {
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public CompletableFuture<Map<String, Object>> searchSymbol(String keywords) {
+            return new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.budgettracker.service;
+
+import com.budgettracker.repository.InvestmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MarketDataSchedulerTest {
+
+    private static final LocalDate TRADING_DAY = LocalDate.of(2025, 6, 30);
+
+    @Mock
+    private MarketDataService marketDataService;
+
+    @Mock
+    private InvestmentRepository investmentRepository;
+
+    @Mock
+    private SymbolPriceTable symbolPriceTable;
+
+    @Mock
+    private PriceHistoryStore priceHistoryStore;
+
+    @Mock
+    private JobMetrics jobMetrics;
+
+    @InjectMocks
+    private MarketDataScheduler scheduler;
+
+    @Test
+    void recordClosingPrices_IntradayQuote_ShouldFetchTheClose() {
+        when(investmentRepository.findAllDistinctSymbols()).thenReturn(List.of("AAPL"));
+        when(symbolPriceTable.get("AAPL")).thenReturn(quoteAt(LocalTime.of(11, 30), "190.00"));
+        when(marketDataService.getCurrentPrice("AAPL")).thenReturn(new BigDecimal("192.50"));
+
+        assertEquals(1, scheduler.recordClosingPrices(TRADING_DAY));
+
+        verify(priceHistoryStore).record("AAPL", TRADING_DAY, new BigDecimal("192.50"));
+    }
+
+    @Test
+    void recordClosingPrices_QuoteAfterTheClose_ShouldBeReused() {
+        when(investmentRepository.findAllDistinctSymbols()).thenReturn(List.of("AAPL"));
+        when(symbolPriceTable.get("AAPL")).thenReturn(quoteAt(LocalTime.of(16, 5), "192.40"));
+
+        assertEquals(1, scheduler.recordClosingPrices(TRADING_DAY));
+
+        verify(priceHistoryStore).record("AAPL", TRADING_DAY, new BigDecimal("192.40"));
+        verifyNoInteractions(marketDataService);
+    }
+
+    // A quote taken at the given New York time, stamped in server time like MarketDataService does
+    private static SymbolPriceTable.PricePoint quoteAt(LocalTime newYorkTime, String price) {
+        return new SymbolPriceTable.PricePoint(new BigDecimal(price),
+                ZonedDateTime.of(TRADING_DAY, newYorkTime, ZoneId.of("America/New_York"))
+                        .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
+    }
+}
@@ -0,0 +1,107 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.Notification;
+import com.budgettracker.model.NotificationPreference;
+import com.budgettracker.model.UserProfile;
+import com.budgettracker.repository.NotificationPreferenceRepository;
+import com.budgettracker.repository.UserProfileRepository;
+import com.budgettracker.service.NotificationPreferenceIndex.Alert;
+import com.budgettracker.service.NotificationPreferenceIndex.Settings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPreferenceIndexTest {
+
+    @Mock
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @Mock
+    private UserProfileRepository profileRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationPreferenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NotificationPreferenceIndex(preferenceRepository, profileRepository, transactionManager);
+    }
+
+    @Test
+    void settingsFor_ShouldLoadOnceAndDefaultUsersWithoutPreferences() {
+        NotificationPreference preferences = new NotificationPreference(1L);
+        preferences.setEmailBillReminders(false);
+        preferences.setPushEnabled(false);
+        when(preferenceRepository.findAll()).thenReturn(List.of(preferences));
+
+        Settings saved = index.settingsFor(1L);
+        Settings defaults = index.settingsFor(2L);
+
+        assertFalse(saved.shouldSendEmail(Notification.NotificationType.BILL_REMINDER));
+        assertTrue(saved.shouldSendEmail(Notification.NotificationType.BUDGET_ALERT));
+        assertFalse(saved.shouldSendPush(Notification.NotificationType.SECURITY_ALERT));
+        assertTrue(defaults.shouldSendEmail(Notification.NotificationType.BILL_REMINDER));
+        assertFalse(defaults.shouldSendPush(Notification.NotificationType.PAYMENT_CONFIRMATION));
+        verify(preferenceRepository, times(1)).findAll();
+        verify(preferenceRepository, never()).save(any());
+    }
+
+    @Test
+    void preferencesSaved_ShouldUpdateLoadedIndexWithoutReloading() {
+        when(preferenceRepository.findAll()).thenReturn(List.of());
+        assertTrue(index.settingsFor(1L).shouldSendInApp(Notification.NotificationType.GOAL_MILESTONE));
+
+        NotificationPreference preferences = new NotificationPreference(1L);
+        preferences.setInAppEnabled(false);
+        index.preferencesSaved(preferences);
+
+        assertFalse(index.settingsFor(1L).shouldSendInApp(Notification.NotificationType.GOAL_MILESTONE));
+        verify(preferenceRepository, times(1)).findAll();
+    }
+
+    @Test
+    void usersWith_ShouldFollowProfileWrites() {
+        when(profileRepository.findAlertSwitches()).thenReturn(List.of(
+                new Object[] {1L, true, true, false, true, true},
+                new Object[] {2L, false, true, true, true, true},
+                new Object[] {5L, true, false, false, true, true}));
+
+        assertEquals(List.of(1L, 5L), index.usersWith(Alert.BUDGET_ALERTS));
+        assertEquals(List.of(1L, 2L), index.usersWith(Alert.BILL_REMINDERS));
+
+        UserProfile profile = new UserProfile(2L);
+        profile.setBudgetAlerts(true);
+        index.profileSaved(profile);
+        index.profileDeleted(5L);
+
+        assertEquals(List.of(1L, 2L), index.usersWith(Alert.BUDGET_ALERTS));
+        assertEquals(List.of(2L), index.usersWith(Alert.INVESTMENT_ALERTS));
+        verify(profileRepository, times(1)).findAlertSwitches();
+    }
+
+    @Test
+    void isQuietAt_ShouldHandleWindowsOverMidnightInUserTimeZone() {
+        NotificationPreference preferences = new NotificationPreference(1L);
+        preferences.setQuietHoursStart(22);
+        preferences.setQuietHoursEnd(7);
+        preferences.setTimezone("Asia/Kolkata");
+        Settings settings = Settings.of(preferences);
+
+        // 17:00 UTC is 22:30 in India, 02:00 UTC is 07:30
+        assertTrue(settings.isQuietAt(Instant.parse("2025-03-01T17:00:00Z")));
+        assertFalse(settings.isQuietAt(Instant.parse("2025-03-01T02:00:00Z")));
+        assertFalse(settings.isQuietAt(Instant.parse("2025-03-01T10:00:00Z")));
+    }
+}
@@ -7,19 +7,25 @@ import com.budgettracker.model.User;
 import com.budgettracker.repository.NotificationRepository;
 import com.budgettracker.repository.NotificationPreferenceRepository;
 import com.budgettracker.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,6 +46,12 @@ class NotificationServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private NotificationPreferenceIndex notificationPreferenceIndex;
+
+    @Spy
+    private JobMetrics jobMetrics = new JobMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -183,7 +195,7 @@ class NotificationServiceTest {
     void sendNotification_ShouldSendViaAllEnabledChannels() {
         // Arrange
         when(notificationRepository.findById(1L)).thenReturn(Optional.of(testNotification));
-        when(notificationPreferenceRepository.findByUserId(1L)).thenReturn(Optional.of(testPreferences));
+        when(notificationPreferenceIndex.settingsFor(1L)).thenReturn(NotificationPreferenceIndex.Settings.of(testPreferences));
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
 
@@ -204,7 +216,7 @@ class NotificationServiceTest {
         testPreferences.setInAppEnabled(false);
         
         when(notificationRepository.findById(1L)).thenReturn(Optional.of(testNotification));
-        when(notificationPreferenceRepository.findByUserId(1L)).thenReturn(Optional.of(testPreferences));
+        when(notificationPreferenceIndex.settingsFor(1L)).thenReturn(NotificationPreferenceIndex.Settings.of(testPreferences));
         when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
 
         // Act
@@ -221,7 +233,7 @@ class NotificationServiceTest {
         testPreferences.setEmailBillReminders(false);
         
         when(notificationRepository.findById(1L)).thenReturn(Optional.of(testNotification));
-        when(notificationPreferenceRepository.findByUserId(1L)).thenReturn(Optional.of(testPreferences));
+        when(notificationPreferenceIndex.settingsFor(1L)).thenReturn(NotificationPreferenceIndex.Settings.of(testPreferences));
         when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
 
         // Act
@@ -232,6 +244,34 @@ class NotificationServiceTest {
         verify(notificationRepository).save(any(Notification.class));
     }
 
+    @Test
+    void sendNotification_PushOnlyDuringQuietHours_ShouldStayPendingUntilTheyEnd() {
+        // Arrange: quiet from this hour (UTC) for two hours
+        int hour = LocalDateTime.now(ZoneOffset.UTC).getHour();
+        testPreferences.setEmailEnabled(false);
+        testPreferences.setInAppEnabled(false);
+        testPreferences.setQuietHoursStart(hour);
+        testPreferences.setQuietHoursEnd((hour + 2) % 24);
+
+        when(notificationRepository.findById(1L)).thenReturn(Optional.of(testNotification));
+        when(notificationPreferenceIndex.settingsFor(1L)).thenReturn(NotificationPreferenceIndex.Settings.of(testPreferences));
+        when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
+
+        // Act
+        notificationService.sendNotification(1L);
+
+        // Assert
+        assertEquals(Notification.NotificationStatus.PENDING, testNotification.getStatus());
+        assertFalse(testNotification.getPushSent());
+        LocalDateTime quietEnd = LocalDateTime.now(ZoneOffset.UTC).withHour((hour + 2) % 24).truncatedTo(ChronoUnit.HOURS);
+        if (!quietEnd.isAfter(LocalDateTime.now(ZoneOffset.UTC))) {
+            quietEnd = quietEnd.plusDays(1);
+        }
+        assertEquals(quietEnd.atOffset(ZoneOffset.UTC).toInstant(),
+                testNotification.getScheduledAt().atZone(ZoneId.systemDefault()).toInstant());
+        verify(notificationRepository).save(testNotification);
+    }
+
     @Test
     void getUserNotifications_ShouldReturnUserNotifications() {
         // Arrange
@@ -409,7 +449,7 @@ class NotificationServiceTest {
         when(notificationRepository.findPendingNotificationsToSend(any(LocalDateTime.class)))
             .thenReturn(pendingNotifications);
         when(notificationRepository.findById(1L)).thenReturn(Optional.of(testNotification));
-        when(notificationPreferenceRepository.findByUserId(1L)).thenReturn(Optional.of(testPreferences));
+        when(notificationPreferenceIndex.settingsFor(1L)).thenReturn(NotificationPreferenceIndex.Settings.of(testPreferences));
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
 
@@ -430,6 +470,30 @@ class NotificationServiceTest {
         verify(notificationRepository).deleteByCreatedAtBefore(any(LocalDateTime.class));
     }
 
+    @Test
+    void sendDailyDigests_ShouldSendOneEmailPerUserWhoWantsADigest() {
+        // Arrange
+        Notification second = new Notification(1L, Notification.NotificationType.BUDGET_ALERT, "Budget Alert", "Food budget at 90%");
+        Notification otherUser = new Notification(2L, Notification.NotificationType.BILL_REMINDER, "Bill Reminder", "Rent is due");
+        NotificationPreference noDigest = new NotificationPreference(2L);
+        noDigest.setDigestFrequency(NotificationPreference.DigestFrequency.NEVER);
+        LocalDateTime until = LocalDate.now().atTime(8, 0);
+
+        when(notificationRepository.findUnreadNotificationsCreatedBetween(until.minusDays(1), until))
+            .thenReturn(List.of(testNotification, second, otherUser));
+        when(notificationPreferenceIndex.settingsFor(1L)).thenReturn(NotificationPreferenceIndex.Settings.of(testPreferences));
+        when(notificationPreferenceIndex.settingsFor(2L)).thenReturn(NotificationPreferenceIndex.Settings.of(noDigest));
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of(testUser));
+
+        // Act
+        int digests = notificationService.sendDailyDigests(until.minusDays(1), until);
+
+        // Assert
+        assertEquals(1, digests);
+        verify(emailService).sendDailyDigestEmail("test@example.com", "testuser", List.of(testNotification, second));
+        verify(emailService, never()).sendNotificationEmail(anyString(), anyString(), anyString(), anyString());
+    }
+
     @Test
     void notificationPreference_ShouldSendEmailBasedOnType() {
         // Test bill reminder preference
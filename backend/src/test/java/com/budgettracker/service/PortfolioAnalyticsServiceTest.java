@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -32,6 +33,18 @@ class PortfolioAnalyticsServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PriceHistoryStore priceHistoryStore;
+
+    @Spy
+    private HistoricalRiskCalculator historicalRiskCalculator = new HistoricalRiskCalculator(365, 20, 0.8);
+
+    @Spy
+    private SymbolPriceTable symbolPriceTable = new SymbolPriceTable();
+
+    @Spy
+    private PortfolioValuationEngine valuationEngine = new PortfolioValuationEngine(symbolPriceTable);
+
     @InjectMocks
     private PortfolioAnalyticsService portfolioAnalyticsService;
 
@@ -147,6 +160,50 @@ class PortfolioAnalyticsServiceTest {
         assertTrue(diversificationScore <= 100);
     }
 
+    @Test
+    void getRiskMetrics_WithPriceHistory_ShouldUseReturnSeries() {
+        // Arrange - 60 trading days of closes for both holdings
+        PriceSeries aapl = new PriceSeries();
+        PriceSeries bnd = new PriceSeries();
+        LocalDate day = LocalDate.now().minusDays(90);
+        for (int i = 0; i < 60; i++) {
+            aapl.append(day, new BigDecimal(150 + (i % 5) * 2 - (i % 3)));
+            bnd.append(day, new BigDecimal(80 + (i % 2)));
+            day = day.plusDays(1);
+        }
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(investmentRepository.findByUserIdOrderByPurchaseDateDesc(1L))
+                .thenReturn(Arrays.asList(stockInvestment, bondInvestment));
+        when(priceHistoryStore.getSeries(anyCollection())).thenReturn(Map.of("AAPL", aapl, "BND", bnd));
+
+        // Act
+        Map<String, Object> result = portfolioAnalyticsService.getRiskMetrics("testuser");
+
+        // Assert
+        assertEquals("PRICE_HISTORY", result.get("riskBasis"));
+        assertEquals(59, result.get("observations"));
+        assertTrue(((BigDecimal) result.get("volatility")).signum() > 0);
+        assertTrue(((BigDecimal) result.get("maxDrawdown")).signum() > 0);
+        assertTrue(result.containsKey("sharpeRatio"));
+        assertEquals(2, result.get("uniqueSymbols"));
+    }
+
+    @Test
+    void getRiskMetrics_WithoutPriceHistory_ShouldFallBackToHoldingReturns() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(investmentRepository.findByUserIdOrderByPurchaseDateDesc(1L))
+                .thenReturn(Arrays.asList(stockInvestment, bondInvestment));
+
+        // Act
+        Map<String, Object> result = portfolioAnalyticsService.getRiskMetrics("testuser");
+
+        // Assert
+        assertEquals("HOLDING_RETURNS", result.get("riskBasis"));
+        assertTrue(result.containsKey("volatility"));
+        assertFalse(result.containsKey("maxDrawdown"));
+    }
+
     @Test
     void getPerformanceBenchmark_ShouldCalculateBenchmarkComparison() {
         // Arrange
@@ -170,8 +227,8 @@ class PortfolioAnalyticsServiceTest {
     void getTopPerformers_ShouldReturnTopPerformingInvestments() {
         // Arrange
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(investmentRepository.findTopPerformingInvestments(1L))
-                .thenReturn(Arrays.asList(stockInvestment, bondInvestment));
+        when(investmentRepository.findByUserIdOrderByPurchaseDateDesc(1L))
+                .thenReturn(Arrays.asList(bondInvestment, stockInvestment));
 
         // Act
         List<Map<String, Object>> result = portfolioAnalyticsService.getTopPerformers("testuser", 5);
@@ -190,8 +247,8 @@ class PortfolioAnalyticsServiceTest {
     void getWorstPerformers_ShouldReturnWorstPerformingInvestments() {
         // Arrange
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(investmentRepository.findWorstPerformingInvestments(1L))
-                .thenReturn(Arrays.asList(bondInvestment, stockInvestment));
+        when(investmentRepository.findByUserIdOrderByPurchaseDateDesc(1L))
+                .thenReturn(Arrays.asList(stockInvestment, bondInvestment));
 
         // Act
         List<Map<String, Object>> result = portfolioAnalyticsService.getWorstPerformers("testuser", 5);
@@ -205,16 +262,29 @@ class PortfolioAnalyticsServiceTest {
         assertEquals(InvestmentType.BOND, worstPerformer.get("type"));
     }
 
+    @Test
+    void getTopPerformers_ShouldRankByFresherSharedSymbolPrice() {
+        // Arrange - AAPL fell below its purchase price since its stored price was written
+        symbolPriceTable.update("AAPL", new BigDecimal("140.00"), LocalDateTime.now().plusMinutes(5));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(investmentRepository.findByUserIdOrderByPurchaseDateDesc(1L))
+                .thenReturn(Arrays.asList(stockInvestment, bondInvestment));
+
+        // Act
+        List<Map<String, Object>> result = portfolioAnalyticsService.getTopPerformers("testuser", 1);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("BND", result.get(0).get("symbol"));
+        verify(investmentRepository, never()).findTopPerformingInvestments(anyLong());
+    }
+
     @Test
     void getPortfolioSummary_ShouldReturnComprehensiveSummary() {
         // Arrange
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(investmentRepository.findByUserIdOrderByPurchaseDateDesc(1L))
                 .thenReturn(Arrays.asList(stockInvestment, bondInvestment));
-        when(investmentRepository.findTopPerformingInvestments(1L))
-                .thenReturn(Arrays.asList(stockInvestment, bondInvestment));
-        when(investmentRepository.findWorstPerformingInvestments(1L))
-                .thenReturn(Arrays.asList(bondInvestment, stockInvestment));
 
         // Act
         Map<String, Object> result = portfolioAnalyticsService.getPortfolioSummary("testuser");
@@ -235,6 +305,30 @@ class PortfolioAnalyticsServiceTest {
         @SuppressWarnings("unchecked")
         List<Map<String, Object>> worstPerformers = (List<Map<String, Object>>) result.get("worstPerformers");
         assertEquals(2, worstPerformers.size());
+        assertEquals("AAPL", topPerformers.get(0).get("symbol"));
+        assertEquals("BND", worstPerformers.get(0).get("symbol"));
+
+        // All sections come from one holdings query
+        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(investmentRepository, times(1)).findByUserIdOrderByPurchaseDateDesc(1L);
+        verify(investmentRepository, never()).findTopPerformingInvestments(anyLong());
+        verify(investmentRepository, never()).findWorstPerformingInvestments(anyLong());
+    }
+
+    @Test
+    void getPortfolioPerformance_ShouldUseFresherSharedSymbolPrice() {
+        // Arrange - another user's holding refreshed AAPL more recently
+        symbolPriceTable.update("AAPL", new BigDecimal("170.00"), LocalDateTime.now().plusMinutes(5));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(investmentRepository.findByUserIdOrderByPurchaseDateDesc(1L))
+                .thenReturn(Arrays.asList(stockInvestment, bondInvestment));
+
+        // Act
+        Map<String, Object> result = portfolioAnalyticsService.getPortfolioPerformance("testuser");
+
+        // Assert - 10 * 170 + 20 * 82, and the entity itself is left untouched
+        assertEquals(0, new BigDecimal("3340.00").compareTo((BigDecimal) result.get("totalCurrentValue")));
+        assertEquals(0, new BigDecimal("160.00").compareTo(stockInvestment.getCurrentPrice()));
     }
 
     @Test
@@ -0,0 +1,78 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.PriceHistory;
+import com.budgettracker.repository.PriceHistoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceHistoryStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 2);
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @InjectMocks
+    private PriceHistoryStore priceHistoryStore;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void record_ShouldAppendToTheLoadedSeriesOnlyOnceCommitted() {
+        when(priceHistoryRepository.findSeriesForSymbols(anyCollection())).thenReturn(List.of());
+        when(priceHistoryRepository.findBySymbolAndPriceDate(any(), any())).thenReturn(Optional.empty());
+        PriceSeries series = priceHistoryStore.getSeries(List.of("AAPL")).get("AAPL");
+
+        TransactionSynchronizationManager.initSynchronization();
+        priceHistoryStore.record("aapl", DAY, new BigDecimal("150.00"));
+        assertEquals(0, series.size());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, series.size());
+
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        priceHistoryStore.record("AAPL", DAY.plusDays(1), new BigDecimal("151.00"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(1, series.size());
+    }
+
+    @Test
+    void getSeries_CloseCommittedDuringTheLoad_ShouldNotCacheTheLoadedSeries() {
+        when(priceHistoryRepository.findBySymbolAndPriceDate(any(), any())).thenReturn(Optional.empty());
+        when(priceHistoryRepository.findSeriesForSymbols(anyCollection()))
+                .thenAnswer(invocation -> {
+                    // Commits between the query and the install
+                    priceHistoryStore.record("AAPL", DAY, new BigDecimal("150.00"));
+                    return List.of();
+                })
+                .thenReturn(List.of(new PriceHistory("AAPL", DAY, new BigDecimal("150.00"))));
+
+        assertEquals(0, priceHistoryStore.getSeries(List.of("AAPL")).get("AAPL").size());
+        assertEquals(1, priceHistoryStore.getSeries(List.of("AAPL")).get("AAPL").size());
+        assertEquals(1, priceHistoryStore.getSeries(List.of("AAPL")).get("AAPL").size());
+        verify(priceHistoryRepository, times(2)).findSeriesForSymbols(anyCollection());
+    }
+}
@@ -0,0 +1,131 @@
+package com.budgettracker.service;
+
+import com.budgettracker.dto.ExchangeRateResponse;
+import com.budgettracker.model.Category;
+import com.budgettracker.model.Currency;
+import com.budgettracker.model.ExchangeRate;
+import com.budgettracker.repository.CategoryRepository;
+import com.budgettracker.repository.CurrencyRepository;
+import com.budgettracker.repository.ExchangeRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataCacheTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+
+    @Mock
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReferenceDataCache(categoryRepository, currencyRepository, exchangeRateRepository,
+                transactionManager);
+    }
+
+    @Test
+    void categories_ShouldLoadOnceAndAnswerLookupsFromMemory() {
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                category(1L, "Salary", Category.CategoryType.INCOME, true),
+                category(2L, "Transfers", Category.CategoryType.BOTH, true),
+                category(3L, "Food & Dining", Category.CategoryType.EXPENSE, true),
+                category(4L, "Bonus", Category.CategoryType.INCOME, false)));
+
+        assertEquals(3, cache.getActiveCategories().size());
+        assertEquals(List.of("Salary"), names(cache.getActiveCategories(Category.CategoryType.INCOME)));
+        assertEquals(List.of("Salary", "Transfers"),
+                names(cache.getActiveCategoriesIncludingBoth(Category.CategoryType.INCOME)));
+        assertEquals(3L, cache.findCategoryByName("food & DINING").orElseThrow().getId());
+        // Name lookup matches the repository finder, which ignores the active flag
+        assertTrue(cache.findCategoryByName("bonus").isPresent());
+        assertTrue(cache.findCategory(2L).isPresent());
+
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    @Test
+    void invalidateCategories_ShouldReloadOnNextRead() {
+        when(categoryRepository.findAll())
+                .thenReturn(List.of(category(1L, "Salary", Category.CategoryType.INCOME, true)))
+                .thenReturn(List.of(category(1L, "Salary", Category.CategoryType.INCOME, true),
+                        category(2L, "Gift", Category.CategoryType.INCOME, true)));
+
+        assertEquals(1, cache.getActiveCategories().size());
+        cache.invalidateCategories();
+        assertEquals(2, cache.getActiveCategories().size());
+        assertEquals(2L, cache.getStatistics().get("categoryLoads"));
+    }
+
+    @Test
+    void currencies_ShouldResolveCodesIgnoringCaseAndListActiveByCode() {
+        when(currencyRepository.findAll()).thenReturn(List.of(
+                currency(2L, "USD", true), currency(1L, "EUR", true), currency(3L, "XAU", false)));
+
+        assertEquals("USD", cache.findCurrency(" usd").orElseThrow().getCode());
+        assertTrue(cache.findCurrency("xau").isPresent());
+        assertTrue(cache.findCurrency("GBP").isEmpty());
+        assertEquals(List.of("EUR", "USD"),
+                cache.getActiveCurrencies().stream().map(Currency::getCode).toList());
+
+        verify(currencyRepository, times(1)).findAll();
+    }
+
+    @Test
+    void getLatestRate_ShouldCacheHitsAndMissesUntilRatesAreInvalidated() {
+        Currency usd = currency(1L, "USD", true);
+        Currency eur = currency(2L, "EUR", true);
+        when(exchangeRateRepository.findLatestRate(usd, eur))
+                .thenReturn(Optional.of(new ExchangeRate(usd, eur, new BigDecimal("0.92"), LocalDate.now(), "test")));
+        when(exchangeRateRepository.findLatestRate(eur, usd)).thenReturn(Optional.empty());
+
+        assertEquals(new BigDecimal("0.92"), cache.getLatestRate(usd, eur).map(ExchangeRateResponse::getRate).orElseThrow());
+        assertEquals(new BigDecimal("0.92"), cache.getLatestRate(usd, eur).map(ExchangeRateResponse::getRate).orElseThrow());
+        assertTrue(cache.getLatestRate(eur, usd).isEmpty());
+        assertTrue(cache.getLatestRate(eur, usd).isEmpty());
+        verify(exchangeRateRepository, times(1)).findLatestRate(usd, eur);
+        verify(exchangeRateRepository, times(1)).findLatestRate(eur, usd);
+
+        cache.invalidateExchangeRates();
+        cache.getLatestRate(usd, eur);
+        verify(exchangeRateRepository, times(2)).findLatestRate(usd, eur);
+    }
+
+    private static Category category(Long id, String name, Category.CategoryType type, boolean active) {
+        Category category = new Category(name, name, type, null, null, active);
+        category.setId(id);
+        return category;
+    }
+
+    private static Currency currency(Long id, String code, boolean active) {
+        Currency currency = new Currency(code, code, code);
+        currency.setId(id);
+        currency.setIsActive(active);
+        return currency;
+    }
+
+    private static List<String> names(List<Category> categories) {
+        return categories.stream().map(Category::getName).toList();
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -29,6 +30,9 @@ class RetirementPlanningServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private RetirementProjectionCache projectionCache = new RetirementProjectionCache(16);
+
     @InjectMocks
     private RetirementPlanningService retirementPlanningService;
 
@@ -150,6 +154,55 @@ class RetirementPlanningServiceTest {
         assertTrue(breakdown.getTotalOtherSavings().compareTo(BigDecimal.ZERO) > 0);
     }
 
+    @Test
+    void testCalculateRetirementProjectionIsMemoizedOnPlanInputs() {
+        RetirementPlan samePlanInputs = new RetirementPlan(testUser, 30, 65);
+        samePlanInputs.setId(2L);
+        samePlanInputs.setCurrentAnnualIncome(new BigDecimal("75000.00"));
+        samePlanInputs.setDesiredReplacementRatio(new BigDecimal("0.80"));
+        samePlanInputs.setCurrent401kBalance(new BigDecimal("25000"));
+        samePlanInputs.setCurrentIraBalance(new BigDecimal("15000"));
+        samePlanInputs.setOtherRetirementSavings(new BigDecimal("10000"));
+        samePlanInputs.setMonthly401kContribution(new BigDecimal("500"));
+        samePlanInputs.setMonthlyIraContribution(new BigDecimal("300"));
+        samePlanInputs.setEmployerMatchRate(new BigDecimal("0.5"));
+        samePlanInputs.setEmployerMatchLimit(new BigDecimal("0.06"));
+        samePlanInputs.setExpectedAnnualReturn(new BigDecimal("0.0700"));
+        samePlanInputs.setExpectedInflationRate(new BigDecimal("0.03"));
+        samePlanInputs.setSocialSecurityBenefit(new BigDecimal("2000"));
+        samePlanInputs.setLifeExpectancy(85);
+
+        RetirementCalculationResponse first = retirementPlanningService.calculateRetirementProjection(testPlan);
+        RetirementCalculationResponse second = retirementPlanningService.calculateRetirementProjection(samePlanInputs);
+
+        assertEquals(1L, first.getPlanId());
+        assertEquals(2L, second.getPlanId());
+        assertEquals(first.getProjectedRetirementBalance(), second.getProjectedRetirementBalance());
+        assertEquals(1L, projectionCache.getStatistics().get("hits"));
+        assertEquals(1L, projectionCache.getStatistics().get("misses"));
+
+        // A changed input must not be served from the cache
+        samePlanInputs.setMonthly401kContribution(new BigDecimal("800"));
+        RetirementCalculationResponse third = retirementPlanningService.calculateRetirementProjection(samePlanInputs);
+
+        assertTrue(third.getProjectedRetirementBalance().compareTo(first.getProjectedRetirementBalance()) > 0);
+        assertEquals(2L, projectionCache.getStatistics().get("misses"));
+    }
+
+    @Test
+    void testCachedProjectionCannotBeChangedThroughAResponse() {
+        RetirementCalculationResponse first = retirementPlanningService.calculateRetirementProjection(testPlan);
+        BigDecimal total401k = first.getBreakdown().getTotal401kBalance();
+
+        assertThrows(UnsupportedOperationException.class, () -> first.getYearlyProjections().clear());
+        first.getBreakdown().setTotal401kBalance(BigDecimal.ZERO);
+
+        RetirementCalculationResponse second = retirementPlanningService.calculateRetirementProjection(testPlan);
+        assertEquals(1L, projectionCache.getStatistics().get("hits"));
+        assertEquals(36, second.getYearlyProjections().size());
+        assertEquals(total401k, second.getBreakdown().getTotal401kBalance());
+    }
+
     @Test
     void testCompoundGrowthCalculation() {
         // Test the compound growth calculation indirectly through retirement projection
@@ -9,9 +9,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,14 +29,23 @@ class ScenarioAnalysisServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private RetirementProjectionCache projectionCache = new RetirementProjectionCache(16);
+
     @InjectMocks
     private ScenarioAnalysisService scenarioAnalysisService;
 
+    private RetirementPlanningService retirementPlanningService;
+
     private User testUser;
     private RetirementPlan testRetirementPlan;
 
     @BeforeEach
     void setUp() {
+        retirementPlanningService = new RetirementPlanningService();
+        ReflectionTestUtils.setField(retirementPlanningService, "projectionCache", projectionCache);
+        ReflectionTestUtils.setField(scenarioAnalysisService, "retirementPlanningService", retirementPlanningService);
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setUsername("testuser");
@@ -197,6 +209,37 @@ class ScenarioAnalysisServiceTest {
         assertTrue(sensitivityAnalysis.containsKey(mostSensitive));
     }
 
+    @Test
+    void testRepeatedSensitivityAnalysisReusesCachedScenarios() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(retirementPlanRepository.findLatestByUserId(testUser.getId())).thenReturn(Optional.of(testRetirementPlan));
+
+        Map<String, Object> first = scenarioAnalysisService.performSensitivityAnalysis("testuser");
+        long missesAfterFirst = (Long) projectionCache.getStatistics().get("misses");
+        Map<String, Object> second = scenarioAnalysisService.performSensitivityAnalysis("testuser");
+
+        assertEquals(first.get("mostSensitiveVariable"), second.get("mostSensitiveVariable"));
+        assertEquals(missesAfterFirst, projectionCache.getStatistics().get("misses"));
+        assertTrue((Long) projectionCache.getStatistics().get("hits") > 0);
+    }
+
+    @Test
+    void testWhatIfBaseScenarioReusesCachedRetirementProjection() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(retirementPlanRepository.findLatestByUserId(testUser.getId())).thenReturn(Optional.of(testRetirementPlan));
+        BigDecimal projectedBalance = retirementPlanningService.calculateRetirementProjection(testRetirementPlan)
+                .getProjectedRetirementBalance();
+
+        Map<String, Object> results = scenarioAnalysisService.performWhatIfAnalysis("testuser", Map.of());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> baseScenario = (Map<String, Object>) results.get("baseScenario");
+        assertEquals(0, projectedBalance.setScale(2, RoundingMode.HALF_UP)
+                .compareTo((BigDecimal) baseScenario.get("finalBalance")));
+        assertEquals(1L, projectionCache.getStatistics().get("misses"));
+        assertEquals(1L, projectionCache.getStatistics().get("hits"));
+    }
+
     @Test
     void testCreateGoalPrioritizationMatrix() {
         // Arrange
@@ -11,9 +11,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -30,6 +33,9 @@ class TaxPlanningServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private TaxBracketTables taxBracketTables = new TaxBracketTables(new ClassPathResource("tax/federal-brackets.csv"));
+
     @InjectMocks
     private TaxPlanningService taxPlanningService;
 
@@ -175,6 +181,47 @@ class TaxPlanningServiceTest {
         assertNotNull(response.getFederalTaxOwed());
     }
 
+    @Test
+    void testCalculateTaxBracketsUsesCumulativeBracketTax() {
+        TaxCalculationResponse response = taxPlanningService.calculateTaxBrackets(
+                new BigDecimal("75000"), TaxPlan.FilingStatus.SINGLE);
+
+        // 1100.00 + 4047.00 + 6660.50 across the first three 2024 brackets
+        assertEquals(new BigDecimal("11807.50"), response.getFederalTaxOwed());
+        assertEquals(3, response.getFederalTaxBrackets().size());
+        assertEquals(new BigDecimal("6660.50"), response.getFederalTaxBrackets().get(2).getTaxOwed());
+        assertEquals(0, new BigDecimal("22").compareTo(response.getMarginalTaxRate()));
+    }
+
+    @Test
+    void testCalculateTaxBracketsForLaterYearUsesThatYearsTable() {
+        TaxCalculationResponse response2024 = taxPlanningService.calculateTaxBrackets(
+                new BigDecimal("75000"), TaxPlan.FilingStatus.SINGLE, 2024);
+        TaxCalculationResponse response2025 = taxPlanningService.calculateTaxBrackets(
+                new BigDecimal("75000"), TaxPlan.FilingStatus.SINGLE, 2025);
+        TaxCalculationResponse response2030 = taxPlanningService.calculateTaxBrackets(
+                new BigDecimal("75000"), TaxPlan.FilingStatus.SINGLE, 2030);
+
+        assertTrue(response2025.getFederalTaxOwed().compareTo(response2024.getFederalTaxOwed()) < 0);
+        assertEquals(response2025.getFederalTaxOwed(), response2030.getFederalTaxOwed());
+    }
+
+    @Test
+    void testCalculateFederalTaxForIncomesMatchesSingleCalculation() {
+        List<BigDecimal> incomes = List.of(BigDecimal.ZERO, new BigDecimal("11000"), new BigDecimal("52345.67"),
+                new BigDecimal("250000"), new BigDecimal("1000000"));
+
+        List<BigDecimal> taxes = taxPlanningService.calculateFederalTaxForIncomes(
+                incomes, TaxPlan.FilingStatus.MARRIED_FILING_JOINTLY, 2024);
+
+        assertEquals(incomes.size(), taxes.size());
+        assertEquals(new BigDecimal("0.00"), taxes.get(0));
+        for (int i = 0; i < incomes.size(); i++) {
+            assertEquals(taxPlanningService.calculateTaxBrackets(incomes.get(i),
+                    TaxPlan.FilingStatus.MARRIED_FILING_JOINTLY).getFederalTaxOwed(), taxes.get(i));
+        }
+    }
+
     @Test
     void testOptimizeContributions() {
         // Arrange
@@ -225,6 +272,36 @@ class TaxPlanningServiceTest {
         assertEquals(new BigDecimal("4650"), optimalContributions.get("hsa")); // 3650 + 1000 catch-up (55+)
     }
 
+    @Test
+    void testOptimizeContributionsReturnsParetoFrontier() {
+        Map<String, Object> optimization = taxPlanningService.optimizeContributions(
+                new BigDecimal("100000"), TaxPlan.FilingStatus.SINGLE, 35);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> frontier = (List<Map<String, Object>>) optimization.get("paretoFrontier");
+        assertTrue(frontier.size() > 1);
+        assertTrue((Integer) optimization.get("evaluatedAllocations") > frontier.size());
+
+        // Moving along the frontier trades take-home pay for tax savings
+        for (int i = 1; i < frontier.size(); i++) {
+            BigDecimal previousSaved = (BigDecimal) frontier.get(i - 1).get("taxSaved");
+            BigDecimal saved = (BigDecimal) frontier.get(i).get("taxSaved");
+            BigDecimal previousTakeHome = (BigDecimal) frontier.get(i - 1).get("takeHomePay");
+            BigDecimal takeHome = (BigDecimal) frontier.get(i).get("takeHomePay");
+            assertTrue(saved.compareTo(previousSaved) > 0);
+            assertTrue(takeHome.compareTo(previousTakeHome) < 0);
+        }
+
+        // Contributing nothing keeps the full take-home pay; the last point is the recommendation
+        assertEquals(0, BigDecimal.ZERO.compareTo((BigDecimal) frontier.get(0).get("taxSaved")));
+        assertEquals(optimization.get("totalTaxSavings"), frontier.get(frontier.size() - 1).get("taxSaved"));
+
+        // HSA dollars also avoid payroll tax, so the frontier fills the HSA before the 401k
+        Map<String, Object> partial = frontier.get(1);
+        assertTrue(((BigDecimal) partial.get("hsa")).signum() > 0);
+        assertEquals(0, BigDecimal.ZERO.compareTo((BigDecimal) partial.get("401k")));
+    }
+
     @Test
     void testCalculateTaxLossHarvesting() {
         // Arrange
@@ -0,0 +1,64 @@
+package com.budgettracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void advanceTo_ShouldPopItemsOnlyOnceTheirDeadlinePasses() {
+        TimerWheel<String> wheel = new TimerWheel<>(MINUTE, 8, 3, 0);
+        wheel.schedule(5 * MINUTE, "five");
+        wheel.schedule(30 * MINUTE, "thirty");
+        wheel.schedule(300 * MINUTE, "three hundred");
+        List<String> popped = new ArrayList<>();
+
+        wheel.advanceTo(4 * MINUTE, popped::add);
+        assertEquals(List.of(), popped);
+
+        wheel.advanceTo(5 * MINUTE, popped::add);
+        assertEquals(List.of("five"), popped);
+
+        wheel.advanceTo(299 * MINUTE, popped::add);
+        assertEquals(List.of("five", "thirty"), popped);
+
+        wheel.advanceTo(300 * MINUTE, popped::add);
+        assertEquals(List.of("five", "thirty", "three hundred"), popped);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_ShouldPopEveryDeadlineAcrossLevelsInOrder() {
+        TimerWheel<Long> wheel = new TimerWheel<>(MINUTE, 8, 3, 0);
+        for (long minute = 500; minute >= 1; minute--) {
+            assertTrue(wheel.schedule(minute * MINUTE - 1, minute));
+        }
+        List<Long> popped = new ArrayList<>();
+
+        assertEquals(500, wheel.advanceTo(511 * MINUTE, popped::add));
+
+        for (int i = 0; i < popped.size(); i++) {
+            assertEquals(i + 1, popped.get(i));
+        }
+    }
+
+    @Test
+    void schedule_PastAndOutOfRangeDeadlines() {
+        TimerWheel<String> wheel = new TimerWheel<>(MINUTE, 8, 2, 100 * MINUTE);
+        List<String> popped = new ArrayList<>();
+
+        assertTrue(wheel.schedule(10 * MINUTE, "missed"));
+        assertFalse(wheel.schedule(wheel.horizonMillis() + MINUTE, "too far"));
+        assertTrue(wheel.schedule(wheel.horizonMillis(), "last"));
+
+        assertEquals(1, wheel.advanceTo(100 * MINUTE, popped::add));
+        assertEquals(List.of("missed"), popped);
+        assertEquals(1, wheel.size());
+    }
+}
@@ -0,0 +1,161 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.Category;
+import com.budgettracker.model.Transaction;
+import com.budgettracker.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionCategorizerTest {
+
+    private static final Transaction.TransactionType EXPENSE = Transaction.TransactionType.EXPENSE;
+    private static final Transaction.TransactionType INCOME = Transaction.TransactionType.INCOME;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionCategorizer categorizer;
+
+    @BeforeEach
+    void setUp() {
+        categorizer = new TransactionCategorizer(transactionRepository, referenceDataCache, transactionManager,
+                new SimpleMeterRegistry(), 2000, 100);
+        when(referenceDataCache.getActiveCategories()).thenReturn(List.of(
+                category("Groceries", "Supermarkets, grocery stores", Category.CategoryType.EXPENSE),
+                category("Transportation", "Gas station, public transit, parking", Category.CategoryType.EXPENSE),
+                category("Salary", "Paycheck, payroll", Category.CategoryType.INCOME),
+                category("Food & Dining", "Restaurants, coffee shops", Category.CategoryType.EXPENSE)));
+    }
+
+    @Test
+    void categorize_ShouldPreferTheUsersHistoryOverKeywords() {
+        when(transactionRepository.findCategorySamplesByUserId(eq(1L), anyInt())).thenReturn(List.of(
+                sample(EXPENSE, "Corner Coffee Shop", null, "Treats"),
+                sample(EXPENSE, "Corner Coffee Shop", null, "Treats"),
+                sample(EXPENSE, "Corner Coffee Shop", null, "Food & Dining"),
+                sample(EXPENSE, "Shell Fuel", "weekly fill-up", "Car")));
+
+        List<Transaction> imported = List.of(
+                transaction(EXPENSE, "CORNER COFFEE SHOP"),
+                transaction(EXPENSE, "Shell fuel #123"),
+                transaction(EXPENSE, "Sunset Restaurants"),
+                transaction(EXPENSE, "City Parking Garage"),
+                transaction(EXPENSE, "Grocery Stores Inc"),
+                transaction(INCOME, "ACME Payroll"),
+                transaction(INCOME, "Parking refund"),
+                transaction(EXPENSE, "Vegas trip"));
+        categorizer.categorize(1L, imported);
+
+        assertEquals(List.of("Treats", "Car", "Food & Dining", "Transportation", "Groceries", "Salary",
+                        TransactionCategorizer.INCOME_FALLBACK, TransactionCategorizer.EXPENSE_FALLBACK),
+                imported.stream().map(Transaction::getCategory).toList());
+    }
+
+    @Test
+    void learnAndForget_ShouldUpdateTheLoadedModelWithoutReloading() {
+        when(transactionRepository.findCategorySamplesByUserId(eq(1L), anyInt())).thenReturn(List.of());
+        assertEquals("Food & Dining", categorizer.suggest(1L, EXPENSE, "Blue Bottle Coffee Shop", null));
+
+        categorizer.learn(1L, EXPENSE, "Blue Bottle Coffee Shop", null, "Coffee");
+        assertEquals("Coffee", categorizer.suggest(1L, EXPENSE, "Blue Bottle Coffee Shop", null));
+
+        categorizer.forget(1L, EXPENSE, "Blue Bottle Coffee Shop", null, "Coffee");
+        assertEquals("Food & Dining", categorizer.suggest(1L, EXPENSE, "Blue Bottle Coffee Shop", null));
+        verify(transactionRepository, times(1)).findCategorySamplesByUserId(eq(1L), anyInt());
+    }
+
+    @Test
+    void suggest_OverlappingIncomeAndExpensePhrases_ShouldMatchWithinTheTransactionsType() {
+        when(referenceDataCache.getActiveCategories()).thenReturn(List.of(
+                category("Interest", "Bank interest, transfer", Category.CategoryType.INCOME),
+                category("Bank Fees", "Bank interest charge, transfer", Category.CategoryType.EXPENSE),
+                category("Refunds", "Store credit", Category.CategoryType.BOTH)));
+        when(transactionRepository.findCategorySamplesByUserId(eq(1L), anyInt())).thenReturn(List.of());
+
+        // The longest phrase overall is an expense one; income still finds its own
+        assertEquals("Interest", categorizer.suggest(1L, INCOME, "Bank interest charge", null));
+        assertEquals("Bank Fees", categorizer.suggest(1L, EXPENSE, "Bank interest charge", null));
+        // The same phrase in both types
+        assertEquals("Interest", categorizer.suggest(1L, INCOME, "Transfer", null));
+        assertEquals("Bank Fees", categorizer.suggest(1L, EXPENSE, "Transfer", null));
+        assertEquals("Refunds", categorizer.suggest(1L, INCOME, "Store credit", null));
+        assertEquals("Refunds", categorizer.suggest(1L, EXPENSE, "Store credit", null));
+    }
+
+    @Test
+    void learn_ForManyUsers_ShouldOnlyTrackVersionsOfCachedUsers() {
+        categorizer = new TransactionCategorizer(transactionRepository, referenceDataCache, transactionManager,
+                new SimpleMeterRegistry(), 2000, 2);
+        when(transactionRepository.findCategorySamplesByUserId(anyLong(), anyInt())).thenReturn(List.of());
+        for (long userId = 1; userId <= 5; userId++) {
+            categorizer.suggest(userId, EXPENSE, "Corner Coffee Shop", null);
+            categorizer.learn(userId, EXPENSE, "Corner Coffee Shop", null, "Treats");
+        }
+        for (long userId = 100; userId < 200; userId++) {
+            categorizer.learn(userId, EXPENSE, "Corner Coffee Shop", null, "Treats");
+        }
+
+        assertEquals(2, categorizer.getStatistics().get("cachedUsers"));
+        assertEquals(2, categorizer.getStatistics().get("trackedVersions"));
+        assertEquals("Treats", categorizer.suggest(5L, EXPENSE, "Corner Coffee Shop", null));
+    }
+
+    @Test
+    void categorize_LargeImport_ShouldKeepUpWithTensOfThousandsOfRowsPerSecond() {
+        List<Object[]> history = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            history.add(sample(EXPENSE, "Merchant " + (i % 300) + " Store", "note " + i, "Category " + (i % 20)));
+        }
+        when(transactionRepository.findCategorySamplesByUserId(eq(1L), anyInt())).thenReturn(history);
+        List<Transaction> imported = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            imported.add(transaction(i % 5 == 0 ? INCOME : EXPENSE, "Purchase at merchant " + (i % 700) + " gas station"));
+        }
+        categorizer.categorize(1L, imported.subList(0, 1000));
+
+        long started = System.nanoTime();
+        categorizer.categorize(1L, imported);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertTrue(elapsedMillis < 5000, "took " + elapsedMillis + " ms");
+        assertTrue(imported.stream().allMatch(transaction -> transaction.getCategory() != null));
+    }
+
+    private static Category category(String name, String description, Category.CategoryType type) {
+        return new Category(name, description, type, null, null, true);
+    }
+
+    private static Object[] sample(Transaction.TransactionType type, String title, String description,
+                                   String category) {
+        return new Object[] {type, title, description, category};
+    }
+
+    private static Transaction transaction(Transaction.TransactionType type, String title) {
+        Transaction transaction = new Transaction();
+        transaction.setType(type);
+        transaction.setTitle(title);
+        transaction.setDescription("Imported from Chase");
+        return transaction;
+    }
+}
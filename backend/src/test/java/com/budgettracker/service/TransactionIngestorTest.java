@@ -0,0 +1,154 @@
+package com.budgettracker.service;
+
+import com.budgettracker.model.BankAccount;
+import com.budgettracker.model.Transaction;
+import com.budgettracker.model.User;
+import com.budgettracker.repository.BankAccountRepository;
+import com.budgettracker.repository.BankConnectionRepository;
+import com.budgettracker.repository.TransactionRepository;
+import com.budgettracker.repository.UserRepository;
+import com.budgettracker.service.InstitutionProvider.PostedTransaction;
+import com.budgettracker.service.InstitutionProvider.TransactionFeed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIngestorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 31);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private BankConnectionRepository bankConnectionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionCategorizer categorizer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<Transaction>> saved;
+
+    private TransactionIngestor ingestor;
+    private BankAccount account;
+
+    @BeforeEach
+    void setUp() {
+        ingestor = new TransactionIngestor(transactionRepository, bankAccountRepository, bankConnectionRepository,
+                userRepository, categorizer, transactionManager, new SimpleMeterRegistry(), 100);
+        account = new BankAccount();
+        account.setExternalAccountId("ext_1");
+        account.setBankName("Chase");
+    }
+
+    @Test
+    void ingest_ResyncOfUnchangedHistory_ShouldNotTouchTheDatabase() {
+        when(transactionRepository.findFingerprintsByUserId(1L)).thenReturn(List.of());
+        when(userRepository.getReferenceById(1L)).thenReturn(new User());
+        TransactionFeed history = SyntheticTransactionFeed.feed(List.of(account), null, TODAY);
+        assertTrue(history.getTransactions().size() > 10);
+
+        int inserted = ingestor.ingest(connection(null), history);
+        int again = ingestor.ingest(connection(history.getNextCursor()), history);
+
+        assertEquals(history.getTransactions().size(), inserted);
+        assertEquals(0, again);
+        verify(transactionRepository, times(1)).findFingerprintsByUserId(1L);
+        verify(transactionRepository, times(1)).saveAll(anyList());
+        verify(bankConnectionRepository, times(1)).updateSyncCursor(eq(7L), eq(TODAY.toString()), any());
+    }
+
+    @Test
+    void ingest_OverlappingWindow_ShouldInsertOnlyRowsNotSeenBefore() {
+        when(transactionRepository.findFingerprintsByUserId(1L)).thenReturn(List.of());
+        when(userRepository.getReferenceById(1L)).thenReturn(new User());
+        LocalDate day = TODAY.minusDays(1);
+
+        ingestor.ingest(connection(null), feed(row(day, "-4.50", "Coffee Shop")));
+        int inserted = ingestor.ingest(connection(null), feed(
+                row(day, "-4.5", "COFFEE  shop"),
+                row(day, "-4.50", "Coffee Shop"),
+                row(TODAY, "20.00", "Deposit")));
+
+        assertEquals(2, inserted);
+        verify(transactionRepository, times(2)).saveAll(saved.capture());
+        List<Transaction> second = saved.getAllValues().get(1);
+        assertEquals(List.of("Coffee Shop", "Deposit"), second.stream().map(Transaction::getTitle).toList());
+        assertEquals(Transaction.TransactionType.EXPENSE, second.get(0).getType());
+        assertEquals(new BigDecimal("4.50"), second.get(0).getAmount());
+        assertNotNull(second.get(1).getFingerprint());
+    }
+
+    @Test
+    void ingest_IdenticalPurchaseInALaterWindow_ShouldBeInsertedWhenTheIdsDiffer() {
+        when(transactionRepository.findFingerprintsByUserId(1L)).thenReturn(List.of());
+        when(userRepository.getReferenceById(1L)).thenReturn(new User());
+
+        ingestor.ingest(connection(null), feed(row("tx_1", TODAY, "-4.50", "Coffee Shop")));
+        int inserted = ingestor.ingest(connection(null), feed(row("tx_2", TODAY, "-4.50", "Coffee Shop")));
+        int again = ingestor.ingest(connection(null), feed(
+                row("tx_1", TODAY, "-4.50", "Coffee Shop"),
+                row("tx_2", TODAY, "-4.50", "Coffee Shop")));
+
+        assertEquals(1, inserted);
+        assertEquals(0, again);
+    }
+
+    @Test
+    void ingest_UniqueKeyViolation_ShouldReloadFingerprintsNextTime() {
+        when(transactionRepository.findFingerprintsByUserId(1L)).thenReturn(List.of());
+        when(userRepository.getReferenceById(1L)).thenReturn(new User());
+        when(transactionRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate fingerprint"))
+                .thenReturn(List.of());
+        TransactionFeed feed = feed(row(TODAY, "-12.00", "Fuel station"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> ingestor.ingest(connection(null), feed));
+        assertEquals(1, ingestor.ingest(connection(null), feed));
+
+        verify(transactionRepository, times(2)).findFingerprintsByUserId(1L);
+    }
+
+    private TransactionIngestor.Connection connection(String cursor) {
+        return new TransactionIngestor.Connection(1L, 7L, cursor, List.of(account));
+    }
+
+    private static TransactionFeed feed(PostedTransaction... rows) {
+        return new TransactionFeed(List.of(rows), TODAY.toString());
+    }
+
+    private static PostedTransaction row(LocalDate date, String amount, String description) {
+        return new PostedTransaction("ext_1", date, new BigDecimal(amount), description);
+    }
+
+    private static PostedTransaction row(String transactionId, LocalDate date, String amount, String description) {
+        return new PostedTransaction("ext_1", transactionId, date, new BigDecimal(amount), description);
+    }
+}
@@ -31,6 +31,9 @@ class TransactionServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TransactionCategorizer transactionCategorizer;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -271,6 +274,25 @@ class TransactionServiceTest {
         verify(transactionRepository).save(any(Transaction.class));
     }
 
+    @Test
+    void updateTransaction_ImportedTransaction_ShouldLearnTheUsersCategoryButNotForgetTheGuess() {
+        // Arrange
+        savedTransaction.setFingerprint(42L);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(savedTransaction));
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
+        validRequest.setCategory("Groceries");
+
+        // Act
+        transactionService.updateTransaction(1L, validRequest, "testuser");
+
+        // Assert
+        assertTrue(savedTransaction.getCategoryConfirmed());
+        verify(transactionCategorizer, never()).forget(any(), any(), any(), any(), any());
+        verify(transactionCategorizer).learn(1L, Transaction.TransactionType.EXPENSE, "Test Transaction",
+                "Test Description", "Groceries");
+    }
+
     @Test
     void updateTransaction_WithNonExistentTransaction_ShouldThrowException() {
         // Arrange
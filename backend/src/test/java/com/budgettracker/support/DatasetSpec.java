@@ -0,0 +1,80 @@
+package com.budgettracker.support;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shape of a synthetic dataset. Defaults describe one large tenant; every
+ * field can be overridden with a dataset.* system property, e.g.
+ * -Ddataset.transactionsPerMonth=500.
+ */
+public final class DatasetSpec {
+
+    private int users = 1;
+    private int years = 2;
+    private int transactionsPerMonth = 4200;
+    private int categories = 25;
+    private int billsPerUser = 40;
+    private int investmentsPerUser = 500;
+    private int symbols = 200;
+    private int debtsPerUser = 12;
+    private long seed = 42L;
+    private LocalDate asOf = LocalDate.now();
+
+    public static DatasetSpec fromSystemProperties() {
+        DatasetSpec spec = new DatasetSpec();
+        spec.users = Integer.getInteger("dataset.users", spec.users);
+        spec.years = Integer.getInteger("dataset.years", spec.years);
+        spec.transactionsPerMonth = Integer.getInteger("dataset.transactionsPerMonth", spec.transactionsPerMonth);
+        spec.categories = Integer.getInteger("dataset.categories", spec.categories);
+        spec.billsPerUser = Integer.getInteger("dataset.billsPerUser", spec.billsPerUser);
+        spec.investmentsPerUser = Integer.getInteger("dataset.investmentsPerUser", spec.investmentsPerUser);
+        spec.symbols = Integer.getInteger("dataset.symbols", spec.symbols);
+        spec.debtsPerUser = Integer.getInteger("dataset.debtsPerUser", spec.debtsPerUser);
+        spec.seed = Long.getLong("dataset.seed", spec.seed);
+        return spec;
+    }
+
+    public DatasetSpec users(int users) { this.users = users; return this; }
+    public DatasetSpec years(int years) { this.years = years; return this; }
+    public DatasetSpec transactionsPerMonth(int count) { this.transactionsPerMonth = count; return this; }
+    public DatasetSpec categories(int categories) { this.categories = categories; return this; }
+    public DatasetSpec billsPerUser(int count) { this.billsPerUser = count; return this; }
+    public DatasetSpec investmentsPerUser(int count) { this.investmentsPerUser = count; return this; }
+    public DatasetSpec symbols(int symbols) { this.symbols = symbols; return this; }
+    public DatasetSpec debtsPerUser(int count) { this.debtsPerUser = count; return this; }
+    public DatasetSpec seed(long seed) { this.seed = seed; return this; }
+    public DatasetSpec asOf(LocalDate asOf) { this.asOf = asOf; return this; }
+
+    public int getUsers() { return users; }
+    public int getYears() { return years; }
+    public int getMonths() { return years * 12; }
+    public int getTransactionsPerMonth() { return transactionsPerMonth; }
+    public int getCategories() { return categories; }
+    public int getBillsPerUser() { return billsPerUser; }
+    public int getInvestmentsPerUser() { return investmentsPerUser; }
+    public int getSymbols() { return symbols; }
+    public int getDebtsPerUser() { return debtsPerUser; }
+    public long getSeed() { return seed; }
+    public LocalDate getAsOf() { return asOf; }
+
+    /**
+     * Everything except the anchor date, so reports from different days
+     * compare equal when the shape is the same
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("users", users);
+        map.put("years", years);
+        map.put("transactionsPerMonth", transactionsPerMonth);
+        map.put("categories", categories);
+        map.put("budgetsPerUser", categories * getMonths());
+        map.put("billsPerUser", billsPerUser);
+        map.put("investmentsPerUser", investmentsPerUser);
+        map.put("symbols", symbols);
+        map.put("debtsPerUser", debtsPerUser);
+        map.put("seed", seed);
+        return map;
+    }
+}
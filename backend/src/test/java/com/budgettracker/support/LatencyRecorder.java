@@ -0,0 +1,92 @@
+package com.budgettracker.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency samples per endpoint, summarised as nearest-rank percentiles and
+ * written as JSON with sorted keys so reports from two commits diff cleanly
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samplesByEndpoint = new TreeMap<>();
+
+    public void record(String endpoint, long nanos, int status) {
+        samplesByEndpoint.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, status);
+    }
+
+    public Map<String, Object> summarize(String endpoint) {
+        Samples samples = samplesByEndpoint.get(endpoint);
+        return samples != null ? samples.summarize() : Map.of();
+    }
+
+    public void write(Path file, Map<String, Object> dataset) throws IOException {
+        Map<String, Object> endpoints = new TreeMap<>();
+        samplesByEndpoint.forEach((endpoint, samples) -> endpoints.put(endpoint, samples.summarize()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("dataset", dataset);
+        report.put("endpoints", endpoints);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .writeValue(file.toFile(), report);
+    }
+
+    static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[64];
+        private int count;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        void add(long value, int status) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            statuses.merge(status, 1, Integer::sum);
+        }
+
+        Map<String, Object> summarize() {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            double total = 0.0;
+            for (long value : sorted) {
+                total += value;
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("samples", count);
+            summary.put("p50Ms", millis(percentile(sorted, 50)));
+            summary.put("p95Ms", millis(percentile(sorted, 95)));
+            summary.put("p99Ms", millis(percentile(sorted, 99)));
+            summary.put("meanMs", millis(count > 0 ? total / count : 0.0));
+            summary.put("maxMs", millis(count > 0 ? sorted[count - 1] : 0.0));
+            summary.put("statuses", statuses);
+            return summary;
+        }
+
+        private static double millis(double nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+}
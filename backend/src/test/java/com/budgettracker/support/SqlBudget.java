@@ -0,0 +1,85 @@
+package com.budgettracker.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Upper bounds on the SQL a request or service call may issue.
+ *
+ * Budgets are declared next to the call they guard, e.g.
+ * {@code SqlBudget.statements(6).rows(200).repeats(1)}, and fail the test
+ * with the full statement breakdown when exceeded.
+ */
+public final class SqlBudget {
+
+    private static final int UNBOUNDED = -1;
+
+    private final int maxStatements;
+    private final long maxRows;
+    private final int maxRepeats;
+
+    private SqlBudget(int maxStatements, long maxRows, int maxRepeats) {
+        this.maxStatements = maxStatements;
+        this.maxRows = maxRows;
+        this.maxRepeats = maxRepeats;
+    }
+
+    public static SqlBudget statements(int maxStatements) {
+        return new SqlBudget(maxStatements, UNBOUNDED, UNBOUNDED);
+    }
+
+    /**
+     * Also bound the rows read from all result sets
+     */
+    public SqlBudget rows(long maxRows) {
+        return new SqlBudget(maxStatements, maxRows, maxRepeats);
+    }
+
+    /**
+     * Also bound how often any single statement may run
+     */
+    public SqlBudget repeats(int maxRepeats) {
+        return new SqlBudget(maxStatements, maxRows, maxRepeats);
+    }
+
+    public int getMaxStatements() { return maxStatements; }
+    public long getMaxRows() { return maxRows; }
+    public int getMaxRepeats() { return maxRepeats; }
+
+    /**
+     * Fraction of the statement budget used, for ranking offenders
+     */
+    double utilisation(SqlUsage usage) {
+        return maxStatements > 0 ? (double) usage.getStatements() / maxStatements : 0.0;
+    }
+
+    public void verify(SqlUsage usage) {
+        List<String> violations = new ArrayList<>();
+        if (usage.getStatements() > maxStatements) {
+            violations.add("statements " + usage.getStatements() + " > " + maxStatements);
+        }
+        if (maxRows != UNBOUNDED && usage.getRows() > maxRows) {
+            violations.add("rows " + usage.getRows() + " > " + maxRows);
+        }
+        if (maxRepeats != UNBOUNDED && usage.getMaxRepeats() > maxRepeats) {
+            violations.add("repeats " + usage.getMaxRepeats() + " > " + maxRepeats
+                    + " for [" + usage.getMostRepeatedSql() + "]");
+        }
+        if (!violations.isEmpty()) {
+            throw new AssertionError("SQL budget exceeded for " + usage.getLabel() + ": "
+                    + String.join(", ", violations) + System.lineSeparator() + usage.describe());
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("<=").append(maxStatements).append(" statements");
+        if (maxRows != UNBOUNDED) {
+            text.append(", <=").append(maxRows).append(" rows");
+        }
+        if (maxRepeats != UNBOUNDED) {
+            text.append(", <=").append(maxRepeats).append(" repeats");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.budgettracker.support;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Logs the worst SQL offenders of a test class when it finishes and appends
+ * them to target/sql-budget-report.txt (override with -Dsql.budget.report)
+ */
+public class SqlBudgetReportExtension implements AfterAllCallback {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetReportExtension.class);
+    private static final int WORST_OFFENDERS = 10;
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        SqlStatementCounter counter = SpringExtension.getApplicationContext(context)
+                .getBean(SqlStatementCounter.class);
+        if (counter.getRecorded().isEmpty()) {
+            return;
+        }
+
+        String report = counter.report(context.getRequiredTestClass().getSimpleName(), WORST_OFFENDERS);
+        counter.reset();
+        logger.info(report);
+
+        Path file = Path.of(System.getProperty("sql.budget.report", "target/sql-budget-report.txt"));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, report, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
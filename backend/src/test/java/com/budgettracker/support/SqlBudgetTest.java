@@ -0,0 +1,23 @@
+package com.budgettracker.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables SQL statement counting for a Spring test class: inject
+ * SqlStatementCounter and wrap calls in measure(label, budget, action).
+ * The worst offenders are reported when the class finishes.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Import(SqlStatementCountingConfiguration.class)
+@ExtendWith(SqlBudgetReportExtension.class)
+public @interface SqlBudgetTest {
+}
@@ -0,0 +1,190 @@
+package com.budgettracker.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.core.task.TaskDecorator;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Counts SQL issued through the proxied DataSource while a labelled block
+ * runs on the current thread.
+ *
+ * Only the measuring thread, and tasks it hands to executors decorated with
+ * this counter, are attributed, so scheduled jobs running in the background
+ * do not leak into a request's count. Every measurement is kept so a test
+ * class can report its worst offenders when it finishes.
+ */
+public class SqlStatementCounter implements QueryExecutionListener, MethodExecutionListener, TaskDecorator {
+
+    private final ThreadLocal<Recording> current = new ThreadLocal<>();
+    private final List<SqlUsage> recorded = new CopyOnWriteArrayList<>();
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * Run the action and return the SQL it issued
+     */
+    public SqlUsage measure(String label, Action action) throws Exception {
+        return finish(label, action, null);
+    }
+
+    /**
+     * Run the action and fail if it issued more SQL than the budget allows
+     */
+    public SqlUsage measure(String label, SqlBudget budget, Action action) throws Exception {
+        SqlUsage usage = finish(label, action, budget);
+        budget.verify(usage);
+        return usage;
+    }
+
+    private SqlUsage finish(String label, Action action, SqlBudget budget) throws Exception {
+        Recording outer = current.get();
+        Recording recording = new Recording();
+        current.set(recording);
+        try {
+            action.run();
+        } finally {
+            current.set(outer);
+            if (outer != null) {
+                outer.addAll(recording);
+            }
+        }
+        SqlUsage usage = recording.toUsage(label).withBudget(budget);
+        recorded.add(usage);
+        return usage;
+    }
+
+    public List<SqlUsage> getRecorded() {
+        return new ArrayList<>(recorded);
+    }
+
+    public void reset() {
+        recorded.clear();
+    }
+
+    /**
+     * Attribute the task's SQL to the measurement running on the submitting
+     * thread
+     */
+    @Override
+    public Runnable decorate(Runnable task) {
+        Recording recording = current.get();
+        if (recording == null) {
+            return task;
+        }
+        return () -> {
+            Recording previous = current.get();
+            current.set(recording);
+            try {
+                task.run();
+            } finally {
+                current.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Measurements ranked by share of their statement budget used, then by
+     * statement count, with the statements of each listed underneath
+     */
+    public String report(String title, int limit) {
+        Comparator<SqlUsage> byBudgetUse = Comparator.comparingDouble(
+                usage -> usage.getBudget() != null ? usage.getBudget().utilisation(usage) : 0.0);
+        List<SqlUsage> worst = recorded.stream()
+                .sorted(byBudgetUse.thenComparingInt(SqlUsage::getStatements).reversed())
+                .limit(limit)
+                .toList();
+
+        StringBuilder report = new StringBuilder("SQL budget report: ").append(title)
+                .append(" (").append(recorded.size()).append(" measurements)");
+        for (SqlUsage usage : worst) {
+            report.append(System.lineSeparator()).append(usage.describe());
+        }
+        return report.append(System.lineSeparator()).toString();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Recording recording = current.get();
+        if (recording != null) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                recording.statement(queryInfo.getQuery());
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        Recording recording = current.get();
+        if (recording != null
+                && executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            recording.row();
+        }
+    }
+
+    private static final class Recording {
+        private int statements;
+        private int selects;
+        private int inserts;
+        private int updates;
+        private int deletes;
+        private long rows;
+        private final Map<String, Integer> executionsBySql = new LinkedHashMap<>();
+
+        // Tasks decorated from one measurement record into it concurrently
+        synchronized void statement(String query) {
+            String sql = QueryUtils.removeCommentAndWhiteSpace(query);
+            statements++;
+            switch (QueryUtils.getQueryType(sql)) {
+                case SELECT -> selects++;
+                case INSERT -> inserts++;
+                case UPDATE -> updates++;
+                case DELETE -> deletes++;
+                default -> { }
+            }
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+
+        synchronized void row() {
+            rows++;
+        }
+
+        synchronized void addAll(Recording inner) {
+            statements += inner.statements;
+            selects += inner.selects;
+            inserts += inner.inserts;
+            updates += inner.updates;
+            deletes += inner.deletes;
+            rows += inner.rows;
+            inner.executionsBySql.forEach((sql, count) -> executionsBySql.merge(sql, count, Integer::sum));
+        }
+
+        synchronized SqlUsage toUsage(String label) {
+            return new SqlUsage(label, statements, selects, inserts, updates, deletes, rows, executionsBySql, null);
+        }
+    }
+}
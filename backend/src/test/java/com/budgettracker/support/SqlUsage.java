@@ -0,0 +1,84 @@
+package com.budgettracker.support;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL issued while one measured block ran: statement round trips by type,
+ * rows read from result sets, and how often each distinct statement ran.
+ */
+public final class SqlUsage {
+
+    private final String label;
+    private final int statements;
+    private final int selects;
+    private final int inserts;
+    private final int updates;
+    private final int deletes;
+    private final long rows;
+    private final Map<String, Integer> executionsBySql;
+    private final SqlBudget budget;
+
+    SqlUsage(String label, int statements, int selects, int inserts, int updates, int deletes,
+             long rows, Map<String, Integer> executionsBySql, SqlBudget budget) {
+        this.label = label;
+        this.statements = statements;
+        this.selects = selects;
+        this.inserts = inserts;
+        this.updates = updates;
+        this.deletes = deletes;
+        this.rows = rows;
+        this.executionsBySql = Collections.unmodifiableMap(new LinkedHashMap<>(executionsBySql));
+        this.budget = budget;
+    }
+
+    public String getLabel() { return label; }
+    public int getStatements() { return statements; }
+    public int getSelects() { return selects; }
+    public int getInserts() { return inserts; }
+    public int getUpdates() { return updates; }
+    public int getDeletes() { return deletes; }
+    public long getRows() { return rows; }
+    public Map<String, Integer> getExecutionsBySql() { return executionsBySql; }
+    public SqlBudget getBudget() { return budget; }
+
+    /**
+     * Executions of the most repeated statement; a value that grows with the
+     * data set is the signature of an N+1 query
+     */
+    public int getMaxRepeats() {
+        return executionsBySql.values().stream().max(Integer::compare).orElse(0);
+    }
+
+    public String getMostRepeatedSql() {
+        return executionsBySql.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+
+    SqlUsage withBudget(SqlBudget budget) {
+        return new SqlUsage(label, statements, selects, inserts, updates, deletes, rows, executionsBySql, budget);
+    }
+
+    /**
+     * Summary line followed by each distinct statement, most executed first
+     */
+    public String describe() {
+        StringBuilder text = new StringBuilder(toString());
+        executionsBySql.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> text.append(System.lineSeparator())
+                        .append(String.format("  %4dx %s", entry.getValue(), entry.getKey())));
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d statements (%d select, %d insert, %d update, %d delete), %d rows, max repeats %d%s",
+                label, statements, selects, inserts, updates, deletes, rows, getMaxRepeats(),
+                budget != null ? ", budget " + budget : "");
+    }
+}
@@ -0,0 +1,283 @@
+package com.budgettracker.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-loads a deterministic synthetic dataset with plain JDBC batches.
+ *
+ * The same spec and seed always produce the same rows (dates are relative to
+ * the spec's asOf day so current-month queries find data). Inserts bypass JPA
+ * and go out in batches of BATCH_SIZE; against MySQL add
+ * rewriteBatchedStatements=true to the JDBC URL for multi-row inserts.
+ */
+public class SyntheticDatasetGenerator {
+
+    static final int BATCH_SIZE = 1000;
+    static final String USERNAME_PREFIX = "synthetic-user-";
+    static final String PASSWORD = "password";
+
+    private static final String[] INVESTMENT_TYPES = {"STOCK", "ETF", "MUTUAL_FUND", "BOND"};
+    private static final String[] DEBT_TYPES = {"CREDIT_CARD", "PERSONAL_LOAN", "STUDENT_LOAN", "AUTO_LOAN"};
+    private static final String[] BILL_FREQUENCIES = {"WEEKLY", "BI_WEEKLY", "MONTHLY", "MONTHLY", "MONTHLY", "QUARTERLY", "ANNUALLY"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    public SyntheticDatasetGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public GeneratedDataset generate(DatasetSpec spec) {
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<String> categories = ensureCategories(spec.getCategories(), now);
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+
+        Map<String, Long> userIds = new LinkedHashMap<>();
+        Map<String, Integer> rowCounts = new LinkedHashMap<>();
+        for (int u = 0; u < spec.getUsers(); u++) {
+            String username = USERNAME_PREFIX + u;
+            long userId = insertUser(username, passwordHash, now);
+            userIds.put(username, userId);
+
+            SplittableRandom userRandom = random.split();
+            rowCounts.merge("transactions", insertTransactions(spec, userId, categories, userRandom, now), Integer::sum);
+            rowCounts.merge("budgets", insertBudgets(spec, userId, categories, userRandom, now), Integer::sum);
+            rowCounts.merge("bills", insertBills(spec, userId, categories, userRandom, now), Integer::sum);
+            rowCounts.merge("investments", insertInvestments(spec, userId, userRandom, now), Integer::sum);
+            rowCounts.merge("debts", insertDebts(spec, userId, userRandom, now), Integer::sum);
+        }
+        rowCounts.put("users", userIds.size());
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000L;
+        return new GeneratedDataset(spec, userIds, rowCounts, elapsedMillis);
+    }
+
+    /**
+     * Delete every row owned by the dataset's users. Categories are shared
+     * reference data and are left in place.
+     */
+    public void purge(GeneratedDataset dataset) {
+        for (Long userId : dataset.getUserIds().values()) {
+            jdbcTemplate.update("delete from transactions where user_id = ?", userId);
+            jdbcTemplate.update("delete from budgets where user_id = ?", userId);
+            jdbcTemplate.update("delete from bills where user_id = ?", userId);
+            jdbcTemplate.update("delete from investments where user_id = ?", userId);
+            jdbcTemplate.update("delete from debts where user_id = ?", userId);
+            jdbcTemplate.update("delete from users where id = ?", userId);
+        }
+    }
+
+    private List<String> ensureCategories(int count, LocalDateTime now) {
+        List<String> names = new ArrayList<>(count);
+        List<Object[]> missing = new ArrayList<>();
+        for (int c = 0; c < count; c++) {
+            String name = String.format("Synthetic Category %02d", c);
+            names.add(name);
+            Integer existing = jdbcTemplate.queryForObject(
+                    "select count(*) from categories where name = ?", Integer.class, name);
+            if (existing == null || existing == 0) {
+                missing.add(new Object[]{name, "EXPENSE", true, now});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into categories (name, type, is_active, created_at) values (?, ?, ?, ?)",
+                missing);
+        return names;
+    }
+
+    private long insertUser(String username, String passwordHash, LocalDateTime now) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "insert into users (username, email, password, role, monthly_income, current_savings, "
+                            + "target_expenses, base_currency_code, is_enabled, is_account_non_expired, "
+                            + "is_account_non_locked, is_credentials_non_expired, created_at, updated_at) "
+                            + "values (?, ?, ?, 'USER', ?, ?, ?, 'USD', true, true, true, true, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, username);
+            statement.setString(2, username + "@example.com");
+            statement.setString(3, passwordHash);
+            statement.setBigDecimal(4, new BigDecimal("8500.00"));
+            statement.setBigDecimal(5, new BigDecimal("42000.00"));
+            statement.setBigDecimal(6, new BigDecimal("5200.00"));
+            statement.setObject(7, now);
+            statement.setObject(8, now);
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKeyAs(Number.class).longValue();
+    }
+
+    private int insertTransactions(DatasetSpec spec, long userId, List<String> categories,
+                                   SplittableRandom random, LocalDateTime now) {
+        String sql = "insert into transactions (user_id, title, description, amount, type, category, "
+                + "transaction_date, created_at, currency_code) values (?, ?, ?, ?, ?, ?, ?, ?, 'USD')";
+        Batch batch = new Batch(sql);
+        YearMonth current = YearMonth.from(spec.getAsOf());
+
+        for (int m = 0; m < spec.getMonths(); m++) {
+            YearMonth month = current.minusMonths(m);
+            int lastDay = month.equals(current) ? spec.getAsOf().getDayOfMonth() : month.lengthOfMonth();
+            for (int t = 0; t < spec.getTransactionsPerMonth(); t++) {
+                boolean income = random.nextInt(20) == 0;
+                String category = income ? "Salary" : categories.get(skewed(random, categories.size()));
+                BigDecimal amount = income
+                        ? money(2000 + random.nextDouble() * 3000)
+                        : money(3 + random.nextDouble() * random.nextDouble() * 400);
+                LocalDateTime date = month.atDay(1 + random.nextInt(lastDay))
+                        .atTime(random.nextInt(24), random.nextInt(60));
+                batch.add(userId, (income ? "Income " : "Purchase ") + t, "Synthetic " + category,
+                        amount, income ? "INCOME" : "EXPENSE", category, date, now);
+            }
+        }
+        return batch.flush();
+    }
+
+    private int insertBudgets(DatasetSpec spec, long userId, List<String> categories,
+                              SplittableRandom random, LocalDateTime now) {
+        Batch batch = new Batch("insert into budgets (user_id, category, budget_amount, spent_amount, "
+                + "budget_month, budget_year, created_at, currency_code) values (?, ?, ?, 0, ?, ?, ?, 'USD')");
+        YearMonth current = YearMonth.from(spec.getAsOf());
+        for (int m = 0; m < spec.getMonths(); m++) {
+            YearMonth month = current.minusMonths(m);
+            for (String category : categories) {
+                batch.add(userId, category, money(100 + random.nextInt(900)),
+                        month.getMonthValue(), month.getYear(), now);
+            }
+        }
+        return batch.flush();
+    }
+
+    private int insertBills(DatasetSpec spec, long userId, List<String> categories,
+                            SplittableRandom random, LocalDateTime now) {
+        Batch batch = new Batch("insert into bills (user_id, name, amount, category, frequency, due_date, "
+                + "next_due_date, status, auto_pay, reminder_days_before, payee, created_at, updated_at) "
+                + "values (?, ?, ?, ?, ?, ?, ?, 'ACTIVE', ?, ?, ?, ?, ?)");
+        for (int b = 0; b < spec.getBillsPerUser(); b++) {
+            LocalDate dueDate = spec.getAsOf().plusDays(random.nextInt(-10, 60));
+            batch.add(userId, "Bill " + b, money(15 + random.nextDouble() * 1500),
+                    categories.get(random.nextInt(categories.size())),
+                    BILL_FREQUENCIES[random.nextInt(BILL_FREQUENCIES.length)], dueDate, dueDate,
+                    random.nextBoolean(), 1 + random.nextInt(7), "Payee " + b, now, now);
+        }
+        return batch.flush();
+    }
+
+    private int insertInvestments(DatasetSpec spec, long userId, SplittableRandom random, LocalDateTime now) {
+        Batch batch = new Batch("insert into investments (user_id, symbol, name, type, quantity, purchase_price, "
+                + "purchase_date, current_price, last_price_update, created_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < spec.getInvestmentsPerUser(); i++) {
+            String symbol = String.format("SYN%03d", random.nextInt(Math.max(1, spec.getSymbols())));
+            double purchasePrice = 5 + random.nextDouble() * 495;
+            batch.add(userId, symbol, "Synthetic " + symbol,
+                    INVESTMENT_TYPES[random.nextInt(INVESTMENT_TYPES.length)],
+                    BigDecimal.valueOf(1 + random.nextInt(200)),
+                    money(purchasePrice),
+                    spec.getAsOf().minusDays(1 + random.nextInt(spec.getYears() * 365)),
+                    money(purchasePrice * (0.6 + random.nextDouble() * 0.9)), now, now);
+        }
+        return batch.flush();
+    }
+
+    private int insertDebts(DatasetSpec spec, long userId, SplittableRandom random, LocalDateTime now) {
+        Batch batch = new Batch("insert into debts (user_id, name, type, current_balance, original_balance, "
+                + "interest_rate, minimum_payment, due_date, payment_start_date, status, created_at) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVE', ?)");
+        for (int d = 0; d < spec.getDebtsPerUser(); d++) {
+            double original = 1000 + random.nextDouble() * 40000;
+            double balance = original * (0.2 + random.nextDouble() * 0.8);
+            batch.add(userId, "Debt " + d, DEBT_TYPES[random.nextInt(DEBT_TYPES.length)],
+                    money(balance), money(original),
+                    BigDecimal.valueOf(0.02 + random.nextDouble() * 0.25).setScale(4, RoundingMode.HALF_UP),
+                    money(Math.max(25, balance * 0.02)), 1 + random.nextInt(28),
+                    spec.getAsOf().minusMonths(random.nextInt(1, 60)), now);
+        }
+        return batch.flush();
+    }
+
+    /**
+     * Category index biased towards the first categories, like real spending
+     */
+    private static int skewed(SplittableRandom random, int size) {
+        double u = random.nextDouble();
+        return Math.min(size - 1, (int) (u * u * size));
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Rows for one insert statement, sent every BATCH_SIZE rows
+     */
+    private final class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        private int total;
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == BATCH_SIZE) {
+                send();
+            }
+        }
+
+        int flush() {
+            send();
+            return total;
+        }
+
+        private void send() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                total += rows.size();
+                rows.clear();
+            }
+        }
+    }
+
+    /**
+     * Users created by a generate call and the rows loaded for them
+     */
+    public static final class GeneratedDataset {
+        private final DatasetSpec spec;
+        private final Map<String, Long> userIds;
+        private final Map<String, Integer> rowCounts;
+        private final long elapsedMillis;
+
+        GeneratedDataset(DatasetSpec spec, Map<String, Long> userIds, Map<String, Integer> rowCounts,
+                         long elapsedMillis) {
+            this.spec = spec;
+            this.userIds = userIds;
+            this.rowCounts = rowCounts;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public DatasetSpec getSpec() { return spec; }
+        public Map<String, Long> getUserIds() { return userIds; }
+        public Map<String, Integer> getRowCounts() { return rowCounts; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+}
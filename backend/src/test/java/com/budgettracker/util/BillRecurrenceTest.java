@@ -0,0 +1,91 @@
+package com.budgettracker.util;
+
+import com.budgettracker.model.Bill;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BillRecurrenceTest {
+
+    @Test
+    void expand_MonthlyOnThe31st_ShouldFallOnMonthEndWithoutDrifting() {
+        Bill rent = bill(1L, Bill.BillFrequency.MONTHLY, LocalDate.of(2031, 1, 31));
+
+        List<LocalDate> dates = dates(List.of(rent), LocalDate.of(2031, 1, 1), LocalDate.of(2031, 5, 31));
+
+        assertEquals(List.of(
+                LocalDate.of(2031, 1, 31),
+                LocalDate.of(2031, 2, 28),
+                LocalDate.of(2031, 3, 31),
+                LocalDate.of(2031, 4, 30),
+                LocalDate.of(2031, 5, 31)), dates);
+    }
+
+    @Test
+    void expand_SeveralBills_ShouldMergeInDateOrder() {
+        Bill weekly = bill(1L, Bill.BillFrequency.WEEKLY, LocalDate.of(2031, 3, 3));
+        Bill quarterly = bill(2L, Bill.BillFrequency.QUARTERLY, LocalDate.of(2031, 3, 10));
+        Bill once = bill(3L, Bill.BillFrequency.ONE_TIME, LocalDate.of(2031, 3, 12));
+
+        List<LocalDate> dates = dates(List.of(quarterly, once, weekly), LocalDate.of(2031, 3, 1), LocalDate.of(2031, 3, 17));
+
+        assertEquals(List.of(
+                LocalDate.of(2031, 3, 3),
+                LocalDate.of(2031, 3, 10),
+                LocalDate.of(2031, 3, 10),
+                LocalDate.of(2031, 3, 12),
+                LocalDate.of(2031, 3, 17)), dates);
+    }
+
+    @Test
+    void expand_RangeStartingLater_ShouldSkipToFirstOccurrenceInRange() {
+        Bill biWeekly = bill(1L, Bill.BillFrequency.BI_WEEKLY, LocalDate.of(2020, 1, 6));
+
+        List<LocalDate> dates = dates(List.of(biWeekly), LocalDate.of(2031, 1, 1), LocalDate.of(2031, 1, 31));
+
+        assertEquals(2, dates.size());
+        assertEquals(0, ChronoUnit.DAYS.between(LocalDate.of(2020, 1, 6), dates.get(0)) % 14);
+        assertTrue(dates.get(0).isBefore(LocalDate.of(2031, 1, 15)));
+    }
+
+    @Test
+    void following_AnnualOnLeapDay_ShouldReturnToLeapDayInLeapYears() {
+        Bill insurance = bill(1L, Bill.BillFrequency.ANNUALLY, LocalDate.of(2032, 2, 29));
+        insurance.setNextDueDate(LocalDate.of(2035, 2, 28));
+
+        assertEquals(LocalDate.of(2036, 2, 29), BillRecurrence.following(insurance));
+    }
+
+    @Test
+    void nextOnOrAfter_NextDueDateMovedOffSchedule_ShouldFollowNextDueDate() {
+        Bill moved = bill(1L, Bill.BillFrequency.MONTHLY, LocalDate.of(2031, 1, 10));
+        moved.setNextDueDate(LocalDate.of(2031, 2, 15));
+
+        assertEquals(LocalDate.of(2031, 2, 15), BillRecurrence.nextOnOrAfter(moved, LocalDate.of(2031, 1, 1)));
+        assertEquals(LocalDate.of(2031, 3, 15), BillRecurrence.following(moved));
+    }
+
+    private static List<LocalDate> dates(List<Bill> bills, LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        Iterator<BillRecurrence.Occurrence> occurrences = BillRecurrence.expand(bills, from, to);
+        occurrences.forEachRemaining(occurrence -> dates.add(occurrence.getDueDate()));
+        return dates;
+    }
+
+    private static Bill bill(Long id, Bill.BillFrequency frequency, LocalDate dueDate) {
+        Bill bill = new Bill();
+        bill.setId(id);
+        bill.setAmount(new BigDecimal("10.00"));
+        bill.setFrequency(frequency);
+        bill.setDueDate(dueDate);
+        bill.setNextDueDate(dueDate);
+        return bill;
+    }
+}
@@ -10,6 +10,7 @@ const AdminDashboard = () => {
   const { showAlert } = useAlert();
   const [adminStats, setAdminStats] = useState(null);
   const [users, setUsers] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
   const [selectedUser, setSelectedUser] = useState(null);
   const [showForgotPassword, setShowForgotPassword] = useState(false);
@@ -26,7 +27,8 @@ const AdminDashboard = () => {
       ]);
       
       setAdminStats(statsResponse);
-      setUsers(usersResponse);
+      setUsers(usersResponse.users);
+      setNextCursor(usersResponse.nextCursor);
     } catch (error) {
       showAlert(`Failed to load admin data: ₹{error.message}`, 'error');
       if (error.message.includes('Authentication')) {
@@ -37,6 +39,16 @@ const AdminDashboard = () => {
     }
   };
 
+  const loadMoreUsers = async () => {
+    try {
+      const usersResponse = await apiService.getAllUsers({ cursor: nextCursor });
+      setUsers(current => [...current, ...usersResponse.users]);
+      setNextCursor(usersResponse.nextCursor);
+    } catch (error) {
+      showAlert(`Failed to load users: ${error.message}`, 'error');
+    }
+  };
+
   const handleUserSelect = async (userId) => {
     try {
       const userDetails = await apiService.getUserByIdAdmin(userId);
@@ -122,7 +134,7 @@ const AdminDashboard = () => {
           
           <div className="users-content">
             <div className="users-list">
-              <h4>All Users ({users.length})</h4>
+              <h4>All Users ({adminStats?.totalUsers ?? users.length})</h4>
               <div className="users-grid">
                 {users.map(user => (
                   <div 
@@ -150,6 +162,11 @@ const AdminDashboard = () => {
                   </div>
                 ))}
               </div>
+              {nextCursor && (
+                <button className="refresh-btn" onClick={loadMoreUsers}>
+                  Load more
+                </button>
+              )}
             </div>
 
             {/* User Details Panel */}
@@ -121,8 +121,15 @@ class ApiService {
   }
 
   // Admin endpoints
-  async getAllUsers() {
-    return this.makeRequest('/api/admin/users', 'GET');
+  async getAllUsers({ search, role, sort, direction, cursor, limit } = {}) {
+    const params = new URLSearchParams();
+    if (search) params.append('search', search);
+    if (role) params.append('role', role);
+    if (sort) params.append('sort', sort);
+    if (direction) params.append('direction', direction);
+    if (cursor) params.append('cursor', cursor);
+    if (limit) params.append('limit', limit);
+    return this.makeRequest(`/api/admin/users${params.toString() ? '?' + params.toString() : ''}`, 'GET');
   }
 
   async getAdminDashboardStats() {